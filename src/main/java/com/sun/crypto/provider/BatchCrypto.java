@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.crypto.provider;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProviderException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Batch forms of the SunJCE password-based key derivation and HMAC
+ * operations, for callers that have many independent inputs at once,
+ * such as a burst of logins to verify or a set of records to re-key.
+ *
+ * <p>The work is divided into tasks that are run by the given
+ * {@code Executor}, or on the calling thread if it is null.  The methods
+ * return once every task has completed.  If a task fails, the first
+ * failure in input order is thrown after all tasks have completed.
+ *
+ * <p>Each HMAC task initializes one {@code Mac} and processes its share
+ * of the messages in turn.  The HMAC implementation starts each message
+ * from digest states that have already absorbed the key pads, so a batch
+ * of short messages costs about half the digest work of initializing a
+ * {@code Mac} per message.
+ *
+ * @since 1.8
+ */
+public final class BatchCrypto {
+
+    private static final String PBKDF2_PREFIX = "PBKDF2With";
+
+    private BatchCrypto() {}
+
+    /**
+     * Derives one key per specification with PBKDF2, as the
+     * {@code SecretKeyFactory} for the given algorithm would.
+     *
+     * @param algorithm the PBKDF2 algorithm, e.g.,
+     * <code>PBKDF2WithHmacSHA1</code>
+     * @param specs the password, salt, iteration count and key length for
+     * each key
+     * @param executor the executor that runs the derivations, or null to
+     * run them on the calling thread
+     *
+     * @return the derived keys, in the order of {@code specs}
+     *
+     * @exception NoSuchAlgorithmException if the algorithm is not a PBKDF2
+     * algorithm supported by this provider
+     * @exception InvalidKeySpecException if one of the specifications is
+     * invalid
+     * @exception InterruptedException if the calling thread is interrupted
+     * while waiting for the derivations to complete
+     */
+    public static SecretKey[] deriveKeys(String algorithm, PBEKeySpec[] specs,
+                                         Executor executor)
+            throws NoSuchAlgorithmException, InvalidKeySpecException,
+                   InterruptedException {
+        if (!algorithm.regionMatches(true, 0, PBKDF2_PREFIX, 0,
+                                     PBKDF2_PREFIX.length())) {
+            throw new NoSuchAlgorithmException(algorithm);
+        }
+        String prfAlgo = algorithm.substring(PBKDF2_PREFIX.length());
+        // validate the PRF once rather than in every task
+        Mac.getInstance(prfAlgo, SunJCE.getInstance());
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FutureTask<SecretKey>[] tasks = new FutureTask[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            final PBEKeySpec spec = specs[i];
+            tasks[i] = new FutureTask<>(() -> new PBKDF2KeyImpl(spec, prfAlgo));
+        }
+        runAll(tasks, executor);
+
+        SecretKey[] keys = new SecretKey[specs.length];
+        for (int i = 0; i < tasks.length; i++) {
+            try {
+                keys[i] = tasks[i].get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InvalidKeySpecException) {
+                    throw (InvalidKeySpecException) cause;
+                }
+                throw unexpected(cause);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the MAC of each message with the given algorithm and key.
+     *
+     * @param algorithm the HMAC algorithm, e.g., <code>HmacSHA256</code>
+     * @param key the key
+     * @param messages the messages
+     * @param executor the executor that runs the computations, or null to
+     * run them on the calling thread
+     *
+     * @return the MACs, in the order of {@code messages}
+     *
+     * @exception NoSuchAlgorithmException if the algorithm is not supported
+     * by this provider
+     * @exception InvalidKeyException if the key is inappropriate for the
+     * algorithm
+     * @exception InterruptedException if the calling thread is interrupted
+     * while waiting for the computations to complete
+     */
+    public static byte[][] macAll(String algorithm, Key key,
+                                  byte[][] messages, Executor executor)
+            throws NoSuchAlgorithmException, InvalidKeyException,
+                   InterruptedException {
+        // validate the algorithm and key before starting any task
+        Mac.getInstance(algorithm, SunJCE.getInstance()).init(key);
+
+        byte[][] macs = new byte[messages.length][];
+        int taskCount = (executor == null) ? 1 : Math.min(messages.length,
+            Runtime.getRuntime().availableProcessors() * 4);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FutureTask<Void>[] tasks = new FutureTask[taskCount];
+        for (int t = 0; t < taskCount; t++) {
+            final int from = (int) ((long) messages.length * t / taskCount);
+            final int to = (int) ((long) messages.length * (t + 1) / taskCount);
+            tasks[t] = new FutureTask<>(() -> {
+                Mac mac = Mac.getInstance(algorithm, SunJCE.getInstance());
+                mac.init(key);
+                for (int i = from; i < to; i++) {
+                    macs[i] = mac.doFinal(messages[i]);
+                }
+                return null;
+            });
+        }
+        runAll(tasks, executor);
+
+        for (FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                throw unexpected(e.getCause());
+            }
+        }
+        return macs;
+    }
+
+    /*
+     * Runs the tasks on the executor, or in turn on this thread, and waits
+     * for all of them.
+     */
+    private static void runAll(FutureTask<?>[] tasks, Executor executor)
+            throws InterruptedException {
+        if (executor == null) {
+            for (FutureTask<?> task : tasks) {
+                task.run();
+            }
+            return;
+        }
+        for (FutureTask<?> task : tasks) {
+            executor.execute(task);
+        }
+        for (FutureTask<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                // reported by the caller in input order
+            } catch (InterruptedException e) {
+                for (FutureTask<?> t : tasks) {
+                    t.cancel(false);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static RuntimeException unexpected(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ProviderException(cause);
+    }
+}
@@ -177,6 +177,18 @@ final class CounterMode extends FeedbackCipher {
         RangeUtil.nullAndBoundsCheck(out, outOff, len);
 
         int result = len;
+        if (used >= blockSize) {
+            // whole blocks from a fresh keystream block may be split up
+            int blocksLen = len - (len % blockSize);
+            if (ParallelCTR.useParallel(in, inOff, out, outOff, blocksLen)) {
+                ParallelCTR.crypt(embeddedCipher, blockSize, counter,
+                                  blockSize, in, inOff, blocksLen,
+                                  out, outOff);
+                inOff += blocksLen;
+                outOff += blocksLen;
+                len -= blocksLen;
+            }
+        }
         while (len-- > 0) {
             if (used >= blockSize) {
                 embeddedCipher.encryptBlock(counter, 0, encryptedCounter, 0);
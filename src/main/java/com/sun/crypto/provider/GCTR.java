@@ -89,6 +89,12 @@ final class GCTR {
             throw new RuntimeException("output buffer too small");
         }
 
+        if (ParallelCTR.useParallel(in, inOfs, out, outOfs, inLen)) {
+            ParallelCTR.crypt(aes, AES_BLOCK_SIZE, counter, 4,
+                              in, inOfs, inLen, out, outOfs);
+            return inLen;
+        }
+
         byte[] encryptedCntr = new byte[AES_BLOCK_SIZE];
 
         int numOfCompleteBlocks = inLen / AES_BLOCK_SIZE;
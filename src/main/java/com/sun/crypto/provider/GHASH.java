@@ -29,6 +29,8 @@
 
 package com.sun.crypto.provider;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.security.ProviderException;
 
 /**
@@ -39,6 +41,14 @@ import java.security.ProviderException;
  *
  * <p>This function is used in the implementation of GCM mode.
  *
+ * <p>Where the VM provides no GHASH intrinsic, blocks are multiplied
+ * using Shoup's 4-bit method: sixteen multiples of H are precomputed
+ * per subkey so that each block takes 32 table lookups instead of 128
+ * conditional shift-and-add steps.  The table is 256 bytes, which keeps
+ * the data-dependent lookups within a few cache lines.  The system
+ * property {@code jdk.crypto.gcm.ghashTables} ({@code true} or
+ * {@code false}) overrides the platform default.
+ *
  * @since 1.8
  */
 final class GHASH {
@@ -62,6 +72,39 @@ final class GHASH {
 
     private static final int AES_BLOCK_SIZE = 16;
 
+    // whether to multiply with per-subkey tables instead of processBlocks
+    private static final boolean USE_TABLES;
+
+    // reduction of the four low-order bits shifted out when multiplying
+    // by x^4, aligned to the high-order word
+    private static final long[] REDUCE4 = new long[16];
+
+    static {
+        String prop = AccessController.doPrivileged(
+                (PrivilegedAction<String>) () ->
+                    System.getProperty("jdk.crypto.gcm.ghashTables"));
+        if (prop != null) {
+            USE_TABLES = Boolean.parseBoolean(prop);
+        } else {
+            // platforms on which HotSpot intrinsifies processBlocks
+            String arch = AccessController.doPrivileged(
+                    (PrivilegedAction<String>) () ->
+                        System.getProperty("os.arch", ""));
+            USE_TABLES = !(arch.equals("amd64") || arch.equals("x86_64")
+                    || arch.equals("x86") || arch.equals("i386")
+                    || arch.equals("sparcv9") || arch.equals("aarch64"));
+        }
+        for (int r = 0; r < 16; r++) {
+            long v = 0;
+            for (int bit = 0; bit < 4; bit++) {
+                if ((r & (1 << bit)) != 0) {
+                    v ^= 0xe100000000000000L >>> (3 - bit);
+                }
+            }
+            REDUCE4[r] = v;
+        }
+    }
+
     // Multiplies state[0], state[1] by subkeyH[0], subkeyH[1].
     private static void blockMult(long[] st, long[] subH) {
         long Z0 = 0;
@@ -122,11 +165,80 @@ final class GHASH {
 
     }
 
+    /*
+     * Builds the table for the 4-bit method.  Entry v holds (v * H), where
+     * the most significant bit of v is the coefficient of x^0; the high and
+     * low words of entry v are at indices 2v and 2v+1.
+     */
+    private static long[] buildTable(long[] subH) {
+        long[] table = new long[32];
+        long V0 = subH[0];
+        long V1 = subH[1];
+        for (int bit = 8; bit > 0; bit >>= 1) {
+            table[2 * bit] = V0;
+            table[2 * bit + 1] = V1;
+            // V = V * x
+            long mask = (V1 << 63) >> 63;
+            V1 = (V1 >>> 1) | (V0 << 63);
+            V0 = (V0 >>> 1) ^ (0xe100000000000000L & mask);
+        }
+        for (int v = 3; v < 16; v++) {
+            int low = v & -v;
+            if (low != v) {
+                table[2 * v] = table[2 * low] ^ table[2 * (v ^ low)];
+                table[2 * v + 1] = table[2 * low + 1] ^ table[2 * (v ^ low) + 1];
+            }
+        }
+        return table;
+    }
+
+    /*
+     * Horner evaluation of X * H over the 32 nibbles of X, highest degree
+     * first, multiplying the accumulator by x^4 between nibbles.
+     */
+    private static void processBlocksTable(byte[] data, int inOfs, int blocks,
+                                           long[] st, long[] table) {
+        long Z0 = st[0];
+        long Z1 = st[1];
+        int offset = inOfs;
+        while (blocks > 0) {
+            long X0 = Z0 ^ getLong(data, offset);
+            long X1 = Z1 ^ getLong(data, offset + 8);
+            Z0 = 0;
+            Z1 = 0;
+            for (int i = 0; i < 16; i++) {
+                int r = (int) Z1 & 0xf;
+                Z1 = (Z1 >>> 4) | (Z0 << 60);
+                Z0 = (Z0 >>> 4) ^ REDUCE4[r];
+                int v = (int) X1 & 0xf;
+                Z0 ^= table[2 * v];
+                Z1 ^= table[2 * v + 1];
+                X1 >>>= 4;
+            }
+            for (int i = 0; i < 16; i++) {
+                int r = (int) Z1 & 0xf;
+                Z1 = (Z1 >>> 4) | (Z0 << 60);
+                Z0 = (Z0 >>> 4) ^ REDUCE4[r];
+                int v = (int) X0 & 0xf;
+                Z0 ^= table[2 * v];
+                Z1 ^= table[2 * v + 1];
+                X0 >>>= 4;
+            }
+            blocks--;
+            offset += AES_BLOCK_SIZE;
+        }
+        st[0] = Z0;
+        st[1] = Z1;
+    }
+
     /* subkeyH and state are stored in long[] for GHASH intrinsic use */
 
     // hash subkey H; should not change after the object has been constructed
     private final long[] subkeyH;
 
+    // multiples of H for the 4-bit method, or null to use processBlocks
+    private final long[] table;
+
     // buffer for storing hash
     private final long[] state;
 
@@ -150,6 +262,7 @@ final class GHASH {
         this.subkeyH = new long[2];
         this.subkeyH[0] = getLong(subkeyH, 0);
         this.subkeyH[1] = getLong(subkeyH, 8);
+        this.table = USE_TABLES ? buildTable(this.subkeyH) : null;
     }
 
     /**
@@ -193,7 +306,11 @@ final class GHASH {
             return;
         }
         ghashRangeCheck(in, inOfs, inLen, state, subkeyH);
-        processBlocks(in, inOfs, inLen/AES_BLOCK_SIZE, state, subkeyH);
+        if (table != null) {
+            processBlocksTable(in, inOfs, inLen/AES_BLOCK_SIZE, state, table);
+        } else {
+            processBlocks(in, inOfs, inLen/AES_BLOCK_SIZE, state, subkeyH);
+        }
     }
 
     private static void ghashRangeCheck(byte[] in, int inOfs, int inLen, long[] st, long[] subH) {
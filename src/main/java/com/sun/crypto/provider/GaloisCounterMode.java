@@ -41,7 +41,10 @@ import static com.sun.crypto.provider.AESConstants.AES_BLOCK_SIZE;
  *
  * <p>NOTE: Unlike other modes, when used for decryption, this class
  * will buffer all processed outputs internally and won't return them
- * until the tag has been successfully verified.
+ * until the tag has been successfully verified.  The ciphertext is
+ * authenticated as it arrives and kept in a single buffer, so that
+ * decryptFinal only has to check the tag and then decrypt straight into
+ * the caller's output; nothing is written there if the tag is wrong.
  *
  * @since 1.8
  */
@@ -65,7 +68,7 @@ final class GaloisCounterMode extends FeedbackCipher {
     private int sizeOfAAD = 0;
 
     // buffer for storing input in decryption, not used for encryption
-    private ByteArrayOutputStream ibuffer = null;
+    private CiphertextBuffer ibuffer = null;
 
     // in bytes; need to convert to bits (default value 128) when needed
     private int tagLenBytes = DEFAULT_TAG_LEN;
@@ -87,6 +90,13 @@ final class GaloisCounterMode extends FeedbackCipher {
     private byte[] ibufferSave = null;
     private int processedSave = 0;
 
+    // ByteArrayOutputStream whose contents can be read without a copy
+    private static final class CiphertextBuffer extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+    }
+
     // value must be 16-byte long; used by GCTR and GHASH as well
     static void increment32(byte[] value) {
         if (value.length != AES_BLOCK_SIZE) {
@@ -317,7 +327,7 @@ final class GaloisCounterMode extends FeedbackCipher {
         processed = 0;
         sizeOfAAD = 0;
         if (decrypting) {
-            ibuffer = new ByteArrayOutputStream();
+            ibuffer = new CiphertextBuffer();
         }
     }
 
@@ -376,22 +386,17 @@ final class GaloisCounterMode extends FeedbackCipher {
         }
     }
 
-    // Utility to process the last block; used by encryptFinal and decryptFinal
-    void doLastBlock(byte[] in, int inOfs, int len, byte[] out, int outOfs,
-                     boolean isEncrypt) throws IllegalBlockSizeException {
+    // Utility to process the last block; used by encryptFinal
+    void doLastBlock(byte[] in, int inOfs, int len, byte[] out, int outOfs)
+            throws IllegalBlockSizeException {
         // process data in 'in'
         gctrPAndC.doFinal(in, inOfs, len, out, outOfs);
         processed += len;
+        ghashFinalCiphertext(out, outOfs, len);
+    }
 
-        byte[] ct;
-        int ctOfs;
-        if (isEncrypt) {
-            ct = out;
-            ctOfs = outOfs;
-        } else {
-            ct = in;
-            ctOfs = inOfs;
-        }
+    // Feed the trailing ciphertext to GHASH, pad if necessary
+    private void ghashFinalCiphertext(byte[] ct, int ctOfs, int len) {
         int lastLen = len  % AES_BLOCK_SIZE;
         if (lastLen != 0) {
             ghashAllToS.update(ct, ctOfs, len - lastLen);
@@ -467,7 +472,7 @@ final class GaloisCounterMode extends FeedbackCipher {
         if (len > 0) {
             RangeUtil.nullAndBoundsCheck(in, inOfs, len);
 
-            doLastBlock(in, inOfs, len, out, outOfs, true);
+            doLastBlock(in, inOfs, len, out, outOfs);
         }
 
         byte[] lengthBlock =
@@ -508,8 +513,10 @@ final class GaloisCounterMode extends FeedbackCipher {
         if (len > 0) {
             // store internally until decryptFinal is called because
             // spec mentioned that only return recovered data after tag
-            // is successfully verified
+            // is successfully verified; authenticate it now
             RangeUtil.nullAndBoundsCheck(in, inOfs, len);
+            ghashAllToS.update(in, inOfs, len);
+            processed += len;
             ibuffer.write(in, inOfs, len);
         }
         return 0;
@@ -560,19 +567,11 @@ final class GaloisCounterMode extends FeedbackCipher {
         len -= tagLenBytes;
 
         if (len > 0) {
+            ghashFinalCiphertext(in, inOfs, len);
+            processed += len;
             ibuffer.write(in, inOfs, len);
         }
 
-        // refresh 'in' to all buffered-up bytes
-        in = ibuffer.toByteArray();
-        inOfs = 0;
-        len = in.length;
-        ibuffer.reset();
-
-        if (len > 0) {
-            doLastBlock(in, inOfs, len, out, outOfs, false);
-        }
-
         byte[] lengthBlock =
             getLengthBlock(sizeOfAAD, processed);
         ghashAllToS.update(lengthBlock);
@@ -588,10 +587,19 @@ final class GaloisCounterMode extends FeedbackCipher {
             mismatch |= tag[i] ^ sOut[i];
         }
 
-        if (mismatch != 0) {
-            throw new AEADBadTagException("Tag mismatch!");
+        // decrypt only once the tag has been verified
+        len = ibuffer.size();
+        try {
+            if (mismatch != 0) {
+                throw new AEADBadTagException("Tag mismatch!");
+            }
+            if (len > 0) {
+                gctrPAndC.doFinal(ibuffer.array(), 0, len, out, outOfs);
+            }
+        } finally {
+            gctrPAndC.reset();
+            ibuffer.reset();
         }
-
         return len;
     }
 
@@ -50,6 +50,14 @@ abstract class HmacCore extends MacSpi implements Cloneable {
     private byte[] k_opad; // outer padding - key XORd with opad
     private boolean first;       // Is this the first data to be processed?
 
+    // digests that have already absorbed k_ipad and k_opad; each pass
+    // starts from a clone of one of them instead of compressing the pad
+    // again, which halves the work for short messages such as the PBKDF2
+    // iterations.  They are never updated after init, so clones of this
+    // object may share them.  Null if the digest is not cloneable.
+    private MessageDigest ipadDigest;
+    private MessageDigest opadDigest;
+
     private final int blockLen;
 
     /**
@@ -129,6 +137,39 @@ abstract class HmacCore extends MacSpi implements Cloneable {
         secret = null;
 
         engineReset();
+        md.reset();
+        try {
+            MessageDigest inner = (MessageDigest) md.clone();
+            inner.update(k_ipad);
+            MessageDigest outer = (MessageDigest) md.clone();
+            outer.update(k_opad);
+            ipadDigest = inner;
+            opadDigest = outer;
+        } catch (CloneNotSupportedException e) {
+            // absorb the pads on every pass instead
+            ipadDigest = null;
+            opadDigest = null;
+        }
+    }
+
+    /*
+     * Starts the inner digest with the inner pad.
+     */
+    private void startInner() {
+        if (ipadDigest != null) {
+            md = cloneDigest(ipadDigest);
+        } else {
+            md.update(k_ipad);
+        }
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest padDigest) {
+        try {
+            return (MessageDigest) padDigest.clone();
+        } catch (CloneNotSupportedException e) {
+            // was cloned successfully in engineInit
+            throw new ProviderException(e);
+        }
     }
 
     /**
@@ -139,7 +180,7 @@ abstract class HmacCore extends MacSpi implements Cloneable {
     protected void engineUpdate(byte input) {
         if (first == true) {
             // compute digest for 1st pass; start with inner pad
-            md.update(k_ipad);
+            startInner();
             first = false;
         }
 
@@ -158,7 +199,7 @@ abstract class HmacCore extends MacSpi implements Cloneable {
     protected void engineUpdate(byte input[], int offset, int len) {
         if (first == true) {
             // compute digest for 1st pass; start with inner pad
-            md.update(k_ipad);
+            startInner();
             first = false;
         }
 
@@ -175,7 +216,7 @@ abstract class HmacCore extends MacSpi implements Cloneable {
     protected void engineUpdate(ByteBuffer input) {
         if (first == true) {
             // compute digest for 1st pass; start with inner pad
-            md.update(k_ipad);
+            startInner();
             first = false;
         }
 
@@ -191,7 +232,7 @@ abstract class HmacCore extends MacSpi implements Cloneable {
     protected byte[] engineDoFinal() {
         if (first == true) {
             // compute digest for 1st pass; start with inner pad
-            md.update(k_ipad);
+            startInner();
         } else {
             first = true;
         }
@@ -201,7 +242,11 @@ abstract class HmacCore extends MacSpi implements Cloneable {
             byte[] tmp = md.digest();
 
             // compute digest for 2nd pass; start with outer pad
-            md.update(k_opad);
+            if (opadDigest != null) {
+                md = cloneDigest(opadDigest);
+            } else {
+                md.update(k_opad);
+            }
             // add result of 1st hash
             md.update(tmp);
 
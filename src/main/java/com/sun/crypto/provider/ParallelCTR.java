@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.crypto.provider;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Counter-mode keystream generation split across the common fork/join
+ * pool.  Each counter block is independent of the others, so a large
+ * run of whole blocks can be divided into chunks whose starting counters
+ * are computed directly, and the chunks encrypted concurrently.
+ *
+ * <p>This is used by {@link GCTR} and {@link CounterMode} for inputs of
+ * at least {@code jdk.crypto.ctr.parallelThreshold} bytes (1 MiB by
+ * default; 0 disables it).  The embedded cipher must already be
+ * initialized; its {@code encryptBlock} method only reads the expanded
+ * key and so may be invoked from several threads at once.
+ *
+ * @since 1.8
+ */
+final class ParallelCTR {
+
+    private static final int THRESHOLD;
+
+    // smallest chunk handed to one task
+    private static final int MIN_CHUNK = 64 * 1024;
+
+    static {
+        Integer prop = AccessController.doPrivileged(
+                (PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("jdk.crypto.ctr.parallelThreshold",
+                                       1024 * 1024));
+        THRESHOLD = prop.intValue();
+    }
+
+    private ParallelCTR() {}
+
+    /**
+     * Tells whether a run of len bytes should be processed in parallel.
+     * Overlapping input and output are only allowed when they coincide,
+     * since chunks may complete in any order.
+     */
+    static boolean useParallel(byte[] in, int inOfs, byte[] out, int outOfs,
+                               int len) {
+        if (THRESHOLD <= 0 || len < THRESHOLD
+                || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            return false;
+        }
+        return in != out || inOfs == outOfs
+            || inOfs + len <= outOfs || outOfs + len <= inOfs;
+    }
+
+    /**
+     * Encrypts len bytes, a multiple of the block size, by XORing them with
+     * the keystream starting at the given counter.  On return the counter
+     * has been advanced by the number of blocks processed.
+     *
+     * @param ctrLen the number of trailing counter bytes that are
+     * incremented, with wrap-around: 4 for GCM, the block size for CTR
+     */
+    static void crypt(SymmetricCipher cipher, int blockSize, byte[] counter,
+                      int ctrLen, byte[] in, int inOfs, int len,
+                      byte[] out, int outOfs) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunk = Math.max(MIN_CHUNK, len / (parallelism * 4));
+        chunk -= chunk % blockSize;
+        int count = (len + chunk - 1) / chunk;
+        Chunk[] tasks = new Chunk[count];
+        for (int i = 0; i < count; i++) {
+            int ofs = i * chunk;
+            byte[] start = counter.clone();
+            add(start, ctrLen, ofs / blockSize);
+            tasks[i] = new Chunk(cipher, blockSize, start, ctrLen,
+                                 in, inOfs + ofs, out, outOfs + ofs,
+                                 Math.min(chunk, len - ofs));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        add(counter, ctrLen, len / blockSize);
+    }
+
+    /**
+     * Adds n to the big-endian integer held in the last ctrLen bytes of
+     * counter, discarding any carry out of those bytes.
+     */
+    static void add(byte[] counter, int ctrLen, long n) {
+        int carry = 0;
+        int end = counter.length - ctrLen;
+        for (int i = counter.length - 1; i >= end && (n != 0 || carry != 0);
+                i--) {
+            int sum = (counter[i] & 0xff) + (int)(n & 0xff) + carry;
+            counter[i] = (byte) sum;
+            carry = sum >>> 8;
+            n >>>= 8;
+        }
+    }
+
+    @SuppressWarnings("serial") // never serialized
+    private static final class Chunk extends RecursiveAction {
+        private final SymmetricCipher cipher;
+        private final int blockSize;
+        private final byte[] counter;
+        private final int ctrLen;
+        private final byte[] in;
+        private final int inOfs;
+        private final byte[] out;
+        private final int outOfs;
+        private final int len;
+
+        Chunk(SymmetricCipher cipher, int blockSize, byte[] counter,
+              int ctrLen, byte[] in, int inOfs, byte[] out, int outOfs,
+              int len) {
+            this.cipher = cipher;
+            this.blockSize = blockSize;
+            this.counter = counter;
+            this.ctrLen = ctrLen;
+            this.in = in;
+            this.inOfs = inOfs;
+            this.out = out;
+            this.outOfs = outOfs;
+            this.len = len;
+        }
+
+        @Override
+        protected void compute() {
+            byte[] keystream = new byte[blockSize];
+            for (int i = 0; i < len; i += blockSize) {
+                cipher.encryptBlock(counter, 0, keystream, 0);
+                for (int n = 0; n < blockSize; n++) {
+                    out[outOfs + i + n] =
+                        (byte) (in[inOfs + i + n] ^ keystream[n]);
+                }
+                add(counter, ctrLen, 1);
+            }
+        }
+    }
+}
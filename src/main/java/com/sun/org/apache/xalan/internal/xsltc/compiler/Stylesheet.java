@@ -425,6 +425,22 @@ public final class Stylesheet extends SyntaxTreeNode {
         _includedStylesheets.addElement(child);
     }
 
+    /**
+     * Adds the system ids of the stylesheets included or imported by this
+     * stylesheet, directly or indirectly, to <code>systemIds</code>.
+     */
+    public void addIncludedSystemIds(List<String> systemIds) {
+        if (_includedStylesheets != null) {
+            final int count = _includedStylesheets.size();
+            for (int i = 0; i < count; i++) {
+                final Stylesheet included =
+                    (Stylesheet) _includedStylesheets.elementAt(i);
+                systemIds.add(included.getSystemId());
+                included.addIncludedSystemIds(systemIds);
+            }
+        }
+    }
+
     public void setSystemId(String systemId) {
         if (systemId != null) {
             _systemId = SystemIDResolver.getAbsoluteURI(systemId);
@@ -22,6 +22,8 @@
  */
 package com.sun.org.apache.xalan.internal.xsltc.dom;
 
+import java.util.Collection;
+
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
@@ -445,4 +447,20 @@ public class XSLTCDTMManager extends DTMManagerDefault
             }
         }
     }
+
+    /**
+     * Releases every DTM held by this manager except those in
+     * <code>retained</code>, so that the manager can be used to build the
+     * documents of another transformation.
+     *
+     * @param retained the DTMs to keep
+     */
+    synchronized public void releaseAll(Collection<? extends DTM> retained) {
+        for (int i = 0; i < m_dtms.length; i++) {
+            final DTM dtm = m_dtms[i];
+            if (dtm != null && !retained.contains(dtm)) {
+                release(dtm, true);
+            }
+        }
+    }
 }
@@ -39,12 +39,19 @@ import java.io.Serializable;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import javax.xml.XMLConstants;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.URIResolver;
 
 /**
@@ -496,6 +503,67 @@ public final class TemplatesImpl implements Templates, Serializable {
         return transformer;
     }
 
+    /**
+     * Transforms each source in <code>sources</code> into the result at the
+     * same index in <code>results</code>, running up to
+     * <code>parallelism</code> transformations at a time on
+     * <code>executor</code>.
+     *
+     * @see #transform(List, List, Executor, int, Consumer)
+     */
+    public void transform(List<? extends Source> sources,
+                          List<? extends Result> results,
+                          Executor executor, int parallelism)
+        throws TransformerException
+    {
+        transform(sources, results, executor, parallelism, null);
+    }
+
+    /**
+     * Transforms each source in <code>sources</code> into the result at the
+     * same index in <code>results</code>, running up to
+     * <code>parallelism</code> transformations at a time on
+     * <code>executor</code>.
+     * <p>
+     * Each worker uses one Transformer, one DTM manager and one cache of
+     * the documents loaded by the document() function for all the sources
+     * it processes, so such documents are parsed once per worker rather
+     * than once per source. If not null, <code>setup</code> is applied to
+     * the Transformer of each worker before its first transformation, for
+     * instance to set parameters or an error listener.
+     * <p>
+     * This method returns once every source has been transformed. If a
+     * transformation fails, the sources not yet started are skipped and
+     * the first failure is thrown when the running transformations have
+     * ended, with any later failures suppressed.
+     *
+     * @param sources the documents to transform
+     * @param results where to write the result of each source
+     * @param executor the executor running the workers
+     * @param parallelism the maximum number of workers
+     * @param setup configures the Transformer of each worker, or null
+     * @throws IllegalArgumentException if the lists differ in size or
+     *         <code>parallelism</code> is less than one
+     * @throws TransformerException if a transformation fails
+     */
+    public void transform(List<? extends Source> sources,
+                          List<? extends Result> results,
+                          Executor executor, int parallelism,
+                          Consumer<? super Transformer> setup)
+        throws TransformerException
+    {
+        Objects.requireNonNull(executor);
+        if (sources.size() != results.size()) {
+            throw new IllegalArgumentException(
+                "sources.size() != results.size()");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism < 1");
+        }
+        new TransformBatch(this, sources, results, setup)
+            .run(executor, parallelism);
+    }
+
     /**
      * Implements JAXP's Templates.getOutputProperties(). We need to
      * instanciate a translet to get the output settings, so
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.org.apache.xalan.internal.xsltc.trax;
+
+import com.sun.org.apache.xalan.internal.XalanConstants;
+import com.sun.org.apache.xalan.internal.utils.SecuritySupport;
+import com.sun.org.apache.xalan.internal.xsltc.DOM;
+import com.sun.org.apache.xalan.internal.xsltc.DOMCache;
+import com.sun.org.apache.xalan.internal.xsltc.DOMEnhancedForDTM;
+import com.sun.org.apache.xalan.internal.xsltc.Translet;
+import com.sun.org.apache.xalan.internal.xsltc.dom.XSLTCDTMManager;
+import com.sun.org.apache.xalan.internal.xsltc.runtime.AbstractTranslet;
+import com.sun.org.apache.xml.internal.dtm.DTM;
+import com.sun.org.apache.xml.internal.utils.SystemIDResolver;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Applies one compiled stylesheet to a list of sources on a number of
+ * workers, see {@link TemplatesImpl#transform(List, List, Executor, int,
+ * Consumer)}. Each worker claims the next untransformed source until none
+ * are left, using the same Transformer, DTM manager and document() cache
+ * for all the sources it processes.
+ */
+final class TransformBatch {
+
+    /**
+     * Maximum number of documents loaded by the document() function that a
+     * worker keeps between transformations.
+     */
+    private static final int MAX_CACHED_DOCUMENTS = 32;
+
+    private final TemplatesImpl _templates;
+    private final List<? extends Source> _sources;
+    private final List<? extends Result> _results;
+    private final Consumer<? super Transformer> _setup;
+
+    /**
+     * Index of the next source to transform.
+     */
+    private final AtomicInteger _next = new AtomicInteger();
+
+    /**
+     * The first failure of the batch, with the later ones suppressed.
+     */
+    private TransformerException _failure;
+
+    TransformBatch(TemplatesImpl templates, List<? extends Source> sources,
+                   List<? extends Result> results,
+                   Consumer<? super Transformer> setup) {
+        _templates = templates;
+        _sources = sources;
+        _results = results;
+        _setup = setup;
+    }
+
+    /**
+     * Runs the batch with at most <code>parallelism</code> workers on
+     * <code>executor</code> and waits for it to complete. A worker the
+     * executor rejects runs in the calling thread. If the calling thread
+     * is interrupted, the workers that have not started are cancelled, and
+     * the others stop after their current source; the batch fails once
+     * they have, so that no result is written after this method returns.
+     */
+    void run(Executor executor, int parallelism) throws TransformerException {
+        final int count = Math.min(parallelism, _sources.size());
+        final CountDownLatch done = new CountDownLatch(count);
+        final Worker[] workers = new Worker[count];
+        for (int i = 0; i < count; i++) {
+            final Worker worker = new Worker(done);
+            workers[i] = worker;
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                worker.run();
+            }
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            fail(new TransformerException(e));
+            for (Worker worker : workers) {
+                worker.cancel();
+            }
+            awaitUninterruptibly(done);
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (_failure != null) {
+                throw _failure;
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        for (;;) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // the caller restores the interrupt status
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the next source to transform, or -1 when there
+     * is none left or the batch has failed.
+     */
+    private int next() {
+        synchronized (this) {
+            if (_failure != null) {
+                return -1;
+            }
+        }
+        final int index = _next.getAndIncrement();
+        return index < _sources.size() ? index : -1;
+    }
+
+    private synchronized void fail(TransformerException e) {
+        if (_failure == null) {
+            _failure = e;
+        } else if (_failure != e) {
+            _failure.addSuppressed(e);
+        }
+    }
+
+    private final class Worker implements Runnable, DOMCache {
+
+        private final CountDownLatch _done;
+        private final AtomicBoolean _started = new AtomicBoolean();
+        private XSLTCDTMManager _dtmManager;
+        private final Map<String, DOM> _documents = new HashMap<>();
+        private final List<DTM> _retained = new ArrayList<>();
+
+        Worker(CountDownLatch done) {
+            _done = done;
+        }
+
+        /**
+         * Keeps this worker from running if it has not started yet.
+         */
+        void cancel() {
+            if (_started.compareAndSet(false, true)) {
+                _done.countDown();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!_started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                int index = next();
+                if (index < 0) {
+                    return;
+                }
+                final TransformerImpl transformer =
+                    (TransformerImpl) _templates.newTransformer();
+                if (_setup != null) {
+                    _setup.accept(transformer);
+                }
+                _dtmManager = XSLTCDTMManager.createNewDTMManagerInstance();
+                transformer.setDTMManager(_dtmManager);
+                if (transformer.getURIResolver() == null) {
+                    transformer.getTranslet().setDOMCache(this);
+                }
+                do {
+                    try {
+                        transformer.transform(_sources.get(index),
+                                              _results.get(index));
+                    } finally {
+                        _dtmManager.releaseAll(_retained);
+                    }
+                } while ((index = next()) >= 0);
+            } catch (TransformerException e) {
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(new TransformerException(e));
+            } finally {
+                _done.countDown();
+            }
+        }
+
+        /**
+         * Loads the documents of the document() function, keeping them for
+         * the next sources of this worker.
+         */
+        @Override
+        public DOM retrieveDocument(String baseURI, String href,
+                                    Translet translet) {
+            final AbstractTranslet t = (AbstractTranslet) translet;
+            String uri = href;
+            try {
+                // Argument to document function was: document('');
+                uri = href.length() == 0 ? baseURI
+                    : SystemIDResolver.getAbsoluteURI(href, baseURI);
+            } catch (TransformerException e) {
+                // Use the reference as it is
+            }
+
+            DOM dom = _documents.get(uri);
+            if (dom == null) {
+                try {
+                    if (SecuritySupport.checkAccess(uri,
+                            t.getAllowedProtocols(),
+                            XalanConstants.ACCESS_EXTERNAL_ALL) != null) {
+                        return null;
+                    }
+                } catch (IOException e) {
+                    return null;
+                }
+                final DOMEnhancedForDTM enhancedDOM =
+                    (DOMEnhancedForDTM) _dtmManager.getDTM(
+                        new StreamSource(uri), false, null, true, false,
+                        t.hasIdCall(), false);
+                enhancedDOM.setDocumentURI(uri);
+                dom = enhancedDOM;
+                if (_documents.size() < MAX_CACHED_DOCUMENTS) {
+                    _documents.put(uri, dom);
+                    _retained.add((DTM) dom);
+                }
+            }
+            t.prepassDocument(dom);
+            return dom;
+        }
+    }
+}
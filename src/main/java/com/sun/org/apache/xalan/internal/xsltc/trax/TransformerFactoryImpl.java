@@ -32,6 +32,7 @@ import com.sun.org.apache.xalan.internal.xsltc.compiler.SourceLoader;
 import com.sun.org.apache.xalan.internal.xsltc.compiler.XSLTC;
 import com.sun.org.apache.xalan.internal.xsltc.compiler.util.ErrorMsg;
 import com.sun.org.apache.xalan.internal.xsltc.dom.XSLTCDTMManager;
+import com.sun.org.apache.xalan.internal.xsltc.runtime.AbstractTranslet;
 import com.sun.org.apache.xml.internal.utils.StopParseException;
 import com.sun.org.apache.xml.internal.utils.StylesheetPIHandler;
 import java.io.File;
@@ -95,6 +96,20 @@ public class TransformerFactoryImpl
     public final static String ENABLE_INLINING = "enable-inlining";
     public final static String INDENT_NUMBER = "indent-number";
 
+    /**
+     * Enables the cache of compiled translets, which lets newTemplates()
+     * skip compilation when a stylesheet with the same content has already
+     * been compiled with the same settings.
+     */
+    public final static String TRANSLET_CACHE = "translet-cache";
+
+    /**
+     * The directory in which cached translets are also kept across runs;
+     * setting it enables the cache. Translets read from this directory are
+     * loaded as code, so it must only be writable by trusted users.
+     */
+    public final static String TRANSLET_CACHE_DIRECTORY = "translet-cache-directory";
+
     /**
      * This error listener is used only for this factory and is not passed to
      * the Templates or Transformer objects that we create.
@@ -189,6 +204,11 @@ public class TransformerFactoryImpl
      */
     private boolean _useClasspath = false;
 
+    /**
+     * The cache of compiled translets, or null if it is not enabled.
+     */
+    private TransletCache _transletCache = null;
+
     /**
      * Number of indent spaces when indentation is turned on.
      */
@@ -321,6 +341,11 @@ public class TransformerFactoryImpl
               return Boolean.TRUE;
             else
               return Boolean.FALSE;
+        } else if (name.equals(TRANSLET_CACHE)) {
+            return Boolean.valueOf(_transletCache != null);
+        } else if (name.equals(TRANSLET_CACHE_DIRECTORY)) {
+            return (_transletCache != null && _transletCache.getDirectory() != null)
+                ? _transletCache.getDirectory().getPath() : null;
         } else if (name.equals(XalanConstants.SECURITY_MANAGER)) {
             return _xmlSecurityManager;
         } else if (name.equals(XalanConstants.JDK_EXTENSION_CLASSLOADER)) {
@@ -425,6 +450,26 @@ public class TransformerFactoryImpl
                 return;
             }
         }
+        else if (name.equals(TRANSLET_CACHE)) {
+            if (value instanceof Boolean) {
+                enableTransletCache(((Boolean) value).booleanValue());
+                return;
+            }
+            else if (value instanceof String) {
+                enableTransletCache(((String) value).equalsIgnoreCase("true"));
+                return;
+            }
+        }
+        else if (name.equals(TRANSLET_CACHE_DIRECTORY)) {
+            if (value instanceof String) {
+                _transletCache = new TransletCache(new File((String) value));
+                return;
+            }
+            else if (value instanceof File) {
+                _transletCache = new TransletCache((File) value);
+                return;
+            }
+        }
         else if (name.equals(INDENT_NUMBER)) {
             if (value instanceof String) {
                 try {
@@ -880,6 +925,36 @@ public class TransformerFactoryImpl
             }
         }
 
+        // If the translet cache is enabled, reuse a translet compiled earlier
+        // from a stylesheet with the same content and the same settings.
+        String cacheKey = null;
+        if (_transletCache != null && !_generateTranslet && !_autoTranslet
+                && _extensionClassLoader == null
+                && (_piParams == null || _piParams.get(source) == null)) {
+            byte[] content = null;
+            try {
+                content = TransletCache.read(source);
+            }
+            catch (IOException e) {
+                ErrorMsg err = new ErrorMsg(ErrorMsg.FILE_ACCESS_ERR,
+                                            source.getSystemId());
+                throw new TransformerConfigurationException(err.toString(), e);
+            }
+            if (content != null) {
+                source = TransletCache.replay(source, content);
+                cacheKey = TransletCache.key(getCompileSettings(),
+                                             source.getSystemId(), content);
+                // A URIResolver may resolve includes and imports differently
+                final TransletCache.Entry entry = _transletCache.get(cacheKey,
+                    source.getSystemId(), _uriResolver == null);
+                if (entry != null) {
+                    resetTransientAttributes();
+                    return new TemplatesImpl(entry._bytecodes, entry._transletName,
+                        entry.getOutputProperties(), _indentNumber, this);
+                }
+            }
+        }
+
         // Create and initialize a stylesheet compiler
         final XSLTC xsltc = new XSLTC(_xmlFeatures);
         if (_debug) xsltc.setDebug(true);
@@ -1008,10 +1083,54 @@ public class TransformerFactoryImpl
             throw exc;
         }
 
+        if (cacheKey != null) {
+            _transletCache.put(cacheKey, transletName, bytecodes,
+                xsltc.getOutputProperties(), source.getSystemId(),
+                xsltc.getStylesheet(), _uriResolver == null);
+        }
+
         return new TemplatesImpl(bytecodes, transletName,
             xsltc.getOutputProperties(), _indentNumber, this);
     }
 
+    /**
+     * Turns the translet cache on, keeping its directory if it is already
+     * on, or off.
+     */
+    private void enableTransletCache(boolean enable) {
+        if (!enable) {
+            _transletCache = null;
+        }
+        else if (_transletCache == null) {
+            _transletCache = new TransletCache(null);
+        }
+    }
+
+    /**
+     * Returns the settings that a cached translet must have been compiled
+     * with to be used in place of compiling the stylesheet.
+     */
+    private String getCompileSettings() {
+        final StringBuilder settings = new StringBuilder(256)
+            .append("version=").append(AbstractTranslet.CURRENT_TRANSLET_VERSION)
+            .append(";java=").append(SecuritySupport.getSystemProperty("java.version"))
+            .append(";debug=").append(_debug)
+            .append(";inlining=").append(_enableInlining)
+            .append(";secure=").append(!_isNotSecureProcessing)
+            .append(";extensions=").append(_xmlFeatures.getFeature(
+                  JdkXmlFeatures.XmlFeature.ENABLE_EXTENSION_FUNCTION))
+            .append(";stylesheet=").append(_accessExternalStylesheet)
+            .append(";dtd=").append(_accessExternalDTD);
+        // the stylesheet is parsed under the limits of the security manager
+        if (_xmlSecurityManager != null) {
+            for (XMLSecurityManager.Limit limit : XMLSecurityManager.Limit.values()) {
+                settings.append(';').append(limit.name()).append('=')
+                        .append(_xmlSecurityManager.getLimit(limit));
+            }
+        }
+        return settings.toString();
+    }
+
     /**
      * javax.xml.transform.sax.SAXTransformerFactory implementation.
      * Get a TemplatesHandler object that can process SAX ContentHandler
@@ -171,6 +171,12 @@ public final class TransformerImpl extends Transformer
      */
     private XSLTCDTMManager _dtmManager = null;
 
+    /**
+     * A DTM manager kept across transformations, or null if every
+     * transformation uses a new one.
+     */
+    private XSLTCDTMManager _retainedDTMManager = null;
+
     /**
      * A reference to an object that creates and caches XMLReader objects.
      */
@@ -293,6 +299,17 @@ public final class TransformerImpl extends Transformer
         _overrideDefaultParser = flag;
     }
 
+    /**
+     * Makes this transformer build its input documents with
+     * <code>manager</code> in every transformation instead of a new
+     * DTM manager each time. The caller must release the documents built
+     * by the manager between transformations.
+     */
+    void setDTMManager(XSLTCDTMManager manager) {
+        manager.setOverrideDefaultParser(_overrideDefaultParser);
+        _dtmManager = _retainedDTMManager = manager;
+    }
+
     /**
      * Returns the translet wrapped inside this Transformer or
      * null if this is the identity transform.
@@ -739,7 +756,7 @@ public final class TransformerImpl extends Transformer
             if (_errorListener != null) postErrorToListener(e.getMessage());
             throw new TransformerException(e);
         } finally {
-            _dtmManager = null;
+            _dtmManager = _retainedDTMManager;
         }
 
         // If we create an output stream for the Result, we need to close it after the transformation.
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xalan.internal.xsltc.trax;
+
+import com.sun.org.apache.xalan.internal.xsltc.compiler.Stylesheet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * A cache of compiled translets addressed by the content and system id of
+ * the stylesheet and the factory settings that affect compilation.
+ * <p>
+ * Entries are kept in memory, shared by all factories in the VM and
+ * softly referenced, and optionally in a directory so that they survive a
+ * restart. An entry records the stylesheets the translet includes or
+ * imports together with a digest of their content, and is only used while
+ * those files are unchanged; stylesheets that depend on anything other than
+ * local files are not cached. Translets whose stylesheets include or import
+ * others are not used by factories with a URIResolver, which could resolve
+ * those stylesheets to other content.
+ *
+ * @see TransformerFactoryImpl#TRANSLET_CACHE
+ */
+final class TransletCache {
+
+    private static final int MAGIC = 0x58534c54;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".translet";
+
+    /** Entries of every cache in the VM, by key. */
+    private static final ConcurrentHashMap<String, EntryReference> MEMORY =
+        new ConcurrentHashMap<>();
+
+    /** References to entries that have been collected. */
+    private static final ReferenceQueue<Entry> COLLECTED = new ReferenceQueue<>();
+
+    /** The directory that holds entries across runs, or null. */
+    private final File _directory;
+
+    TransletCache(File directory) {
+        _directory = directory;
+    }
+
+    File getDirectory() {
+        return _directory;
+    }
+
+    /**
+     * A compiled translet.
+     */
+    static final class Entry {
+        final String _transletName;
+        final byte[][] _bytecodes;
+        final Properties _outputProperties;
+
+        /** The system id of the stylesheet, for resolving its dependencies. */
+        final String _systemId;
+
+        final String[] _dependencies;
+        final byte[][] _digests;
+
+        Entry(String transletName, byte[][] bytecodes, Properties outputProperties,
+              String systemId, String[] dependencies, byte[][] digests) {
+            _transletName = transletName;
+            _bytecodes = bytecodes;
+            _outputProperties = outputProperties;
+            _systemId = systemId;
+            _dependencies = dependencies;
+            _digests = digests;
+        }
+
+        /**
+         * Returns a copy of the output properties for a new Templates.
+         */
+        Properties getOutputProperties() {
+            return _outputProperties == null ? null
+                : (Properties) _outputProperties.clone();
+        }
+
+        /**
+         * Whether this translet can stand in for a compilation of a stylesheet
+         * with the same content at <code>systemId</code>.
+         */
+        boolean isCurrent(String systemId) {
+            // The system id is compiled in as the base URI of document(),
+            // and relative hrefs may resolve to other files from elsewhere
+            if (_systemId == null ? systemId != null : !_systemId.equals(systemId)) {
+                return false;
+            }
+            for (int i = 0; i < _dependencies.length; i++) {
+                final byte[] content = readFile(_dependencies[i]);
+                if (content == null || !Arrays.equals(_digests[i], digest(content))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A soft reference to an entry, which knows its key.
+     */
+    private static final class EntryReference extends SoftReference<Entry> {
+        final String _key;
+
+        EntryReference(String key, Entry entry) {
+            super(entry, COLLECTED);
+            _key = key;
+        }
+    }
+
+    /**
+     * Removes the keys of the entries that have been collected.
+     */
+    private static void expunge() {
+        Reference<? extends Entry> ref;
+        while ((ref = COLLECTED.poll()) != null) {
+            MEMORY.remove(((EntryReference) ref)._key, ref);
+        }
+    }
+
+    /**
+     * Returns the current translet for <code>key</code>, or null. Translets
+     * with dependencies are only returned if <code>allowDependencies</code>
+     * is true.
+     */
+    Entry get(String key, String systemId, boolean allowDependencies) {
+        expunge();
+        final EntryReference ref = MEMORY.get(key);
+        Entry entry = (ref != null) ? ref.get() : null;
+        if (entry == null && _directory != null) {
+            entry = load(new File(_directory, key + SUFFIX));
+            if (entry != null) {
+                MEMORY.put(key, new EntryReference(key, entry));
+            }
+        }
+        if (entry == null || !allowDependencies && entry._dependencies.length > 0) {
+            return null;
+        }
+        return entry.isCurrent(systemId) ? entry : null;
+    }
+
+    /**
+     * Stores a translet just compiled from <code>stylesheet</code>. Nothing is
+     * stored if one of its dependencies cannot be read back from a file, or
+     * if it has dependencies and <code>allowDependencies</code> is false.
+     */
+    void put(String key, String transletName, byte[][] bytecodes,
+             Properties outputProperties, String systemId, Stylesheet stylesheet,
+             boolean allowDependencies) {
+        final ArrayList<String> dependencies = new ArrayList<>();
+        if (stylesheet != null) {
+            stylesheet.addIncludedSystemIds(dependencies);
+        }
+        if (!dependencies.isEmpty() && !allowDependencies) {
+            return;
+        }
+        final byte[][] digests = new byte[dependencies.size()][];
+        for (int i = 0; i < digests.length; i++) {
+            final byte[] content = readFile(dependencies.get(i));
+            if (content == null) {
+                return;
+            }
+            digests[i] = digest(content);
+        }
+
+        Properties properties = null;
+        if (outputProperties != null) {
+            properties = new Properties();
+            for (String name : outputProperties.stringPropertyNames()) {
+                properties.setProperty(name, outputProperties.getProperty(name));
+            }
+        }
+        final Entry entry = new Entry(transletName, bytecodes, properties, systemId,
+            dependencies.toArray(new String[dependencies.size()]), digests);
+        expunge();
+        MEMORY.put(key, new EntryReference(key, entry));
+        if (_directory != null) {
+            store(new File(_directory, key + SUFFIX), entry);
+        }
+    }
+
+    /**
+     * Returns the key of a stylesheet: the SHA-256 digest of the settings,
+     * the system id and the content, in hexadecimal.
+     */
+    static String key(String settings, String systemId, byte[] content) {
+        final MessageDigest md = newDigest();
+        md.update(settings.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        if (systemId != null) {
+            md.update((byte) 1);
+            md.update(systemId.getBytes(StandardCharsets.UTF_8));
+        }
+        md.update((byte) 0);
+        md.update(content);
+        final byte[] digest = md.digest();
+        final StringBuilder key = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16))
+               .append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Reads the content of a stylesheet given as a StreamSource, consuming
+     * its stream or reader. Returns null if the source is of another kind or
+     * refers to something other than a local file.
+     */
+    static byte[] read(Source source) throws IOException {
+        if (!(source instanceof StreamSource)) {
+            return null;
+        }
+        final StreamSource stream = (StreamSource) source;
+        final InputStream in = stream.getInputStream();
+        if (in != null) {
+            return readFully(in);
+        }
+        final Reader reader = stream.getReader();
+        if (reader != null) {
+            final StringBuilder text = new StringBuilder();
+            final char[] buffer = new char[8192];
+            int n;
+            while ((n = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, n);
+            }
+            return text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return stream.getSystemId() != null ? readFile(stream.getSystemId()) : null;
+    }
+
+    /**
+     * Returns a source that supplies <code>content</code>, as returned by
+     * {@link #read}, in place of <code>source</code>.
+     */
+    static Source replay(Source source, byte[] content) {
+        final StreamSource stream = (StreamSource) source;
+        final StreamSource copy;
+        if (stream.getInputStream() == null && stream.getReader() != null) {
+            copy = new StreamSource(new StringReader(
+                new String(content, StandardCharsets.UTF_8)));
+        } else {
+            copy = new StreamSource(new ByteArrayInputStream(content));
+        }
+        copy.setSystemId(stream.getSystemId());
+        copy.setPublicId(stream.getPublicId());
+        return copy;
+    }
+
+    static byte[] digest(byte[] content) {
+        return newDigest().digest(content);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Returns the content of a file: URI, or null if the URI is not a file
+     * or cannot be read.
+     */
+    private static byte[] readFile(String systemId) {
+        try {
+            final URI uri = new URI(systemId);
+            if (!"file".equalsIgnoreCase(uri.getScheme())) {
+                return null;
+            }
+            return Files.readAllBytes(new File(uri).toPath());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads an entry from its file; returns null if it is missing or cannot
+     * be read.
+     */
+    private static Entry load(File file) {
+        try (DataInputStream in = new DataInputStream(
+                 new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final String transletName = in.readUTF();
+            final String systemId = in.readBoolean() ? in.readUTF() : null;
+            Properties properties = null;
+            final int propertyCount = in.readInt();
+            if (propertyCount >= 0) {
+                properties = new Properties();
+                for (int i = 0; i < propertyCount; i++) {
+                    properties.setProperty(in.readUTF(), in.readUTF());
+                }
+            }
+            final String[] dependencies = new String[in.readInt()];
+            final byte[][] digests = new byte[dependencies.length][];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = in.readUTF();
+                digests[i] = readBytes(in);
+            }
+            final byte[][] bytecodes = new byte[in.readInt()][];
+            for (int i = 0; i < bytecodes.length; i++) {
+                bytecodes[i] = readBytes(in);
+            }
+            return new Entry(transletName, bytecodes, properties, systemId,
+                             dependencies, digests);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes an entry to a temporary file and moves it into place, so that
+     * readers never see a partial entry. Failures are ignored: the
+     * stylesheet will simply be compiled again.
+     */
+    private static void store(File file, Entry entry) {
+        File temp = null;
+        try {
+            final File directory = file.getParentFile();
+            directory.mkdirs();
+            temp = File.createTempFile("translet", ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(
+                     Files.newOutputStream(temp.toPath()))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(entry._transletName);
+                out.writeBoolean(entry._systemId != null);
+                if (entry._systemId != null) {
+                    out.writeUTF(entry._systemId);
+                }
+                final Properties properties = entry._outputProperties;
+                if (properties == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(properties.size());
+                    for (String name : properties.stringPropertyNames()) {
+                        out.writeUTF(name);
+                        out.writeUTF(properties.getProperty(name));
+                    }
+                }
+                out.writeInt(entry._dependencies.length);
+                for (int i = 0; i < entry._dependencies.length; i++) {
+                    out.writeUTF(entry._dependencies[i]);
+                    out.writeInt(entry._digests[i].length);
+                    out.write(entry._digests[i]);
+                }
+                out.writeInt(entry._bytecodes.length);
+                for (byte[] bytecode : entry._bytecodes) {
+                    out.writeInt(bytecode.length);
+                    out.write(bytecode);
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp.toPath(), file.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException | SecurityException e) {
+            // ignore, the cache is best effort
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+/**
+ * An attribute of a {@link CompactDocumentImpl}. Its value is not held in a
+ * child text node: the attribute has no children.
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+public class CompactAttrImpl extends CompactNodeImpl implements Attr {
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a view of an attribute. */
+    CompactAttrImpl(CompactDocumentImpl document, int index) {
+        super(document, index);
+    }
+
+    //
+    // Node methods
+    //
+
+    public short getNodeType() {
+        return Node.ATTRIBUTE_NODE;
+    }
+
+    public String getNodeName() {
+        return fDocument.rawname(fDocument.attrName(fIndex));
+    }
+
+    public String getNodeValue() throws DOMException {
+        return fDocument.attrValue(fIndex);
+    }
+
+    public void setNodeValue(String nodeValue) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getNamespaceURI() {
+        return fDocument.uri(fDocument.attrName(fIndex));
+    }
+
+    public String getPrefix() {
+        return fDocument.prefix(fDocument.attrName(fIndex));
+    }
+
+    public String getLocalName() {
+        return fDocument.localpart(fDocument.attrName(fIndex));
+    }
+
+    public Node getParentNode() {
+        return null;
+    }
+
+    public NodeList getChildNodes() {
+        return new CompactNodeList(fDocument, -1);
+    }
+
+    public Node getFirstChild() {
+        return null;
+    }
+
+    public Node getLastChild() {
+        return null;
+    }
+
+    public Node getPreviousSibling() {
+        return null;
+    }
+
+    public Node getNextSibling() {
+        return null;
+    }
+
+    public boolean hasChildNodes() {
+        return false;
+    }
+
+    public String getBaseURI() {
+        return getOwnerElement().getBaseURI();
+    }
+
+    public String getTextContent() throws DOMException {
+        return fDocument.attrValue(fIndex);
+    }
+
+    public boolean isEqualNode(Node arg) {
+        return equals(arg)
+            || arg != null && arg.getNodeType() == Node.ATTRIBUTE_NODE
+               && equal(getNodeName(), arg.getNodeName())
+               && equal(getLocalName(), arg.getLocalName())
+               && equal(getNamespaceURI(), arg.getNamespaceURI())
+               && equal(getPrefix(), arg.getPrefix())
+               && equal(getNodeValue(), arg.getNodeValue());
+    }
+
+    //
+    // Attr methods
+    //
+
+    public String getName() {
+        return getNodeName();
+    }
+
+    public boolean getSpecified() {
+        return (fDocument.getAttr(fIndex, CompactDocumentImpl.ATTR_NAME)
+                & CompactDocumentImpl.ATTR_SPECIFIED) != 0;
+    }
+
+    public String getValue() {
+        return fDocument.attrValue(fIndex);
+    }
+
+    public void setValue(String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public Element getOwnerElement() {
+        return new CompactElementImpl(fDocument, treeNode());
+    }
+
+    public TypeInfo getSchemaTypeInfo() {
+        return NO_TYPE_INFO;
+    }
+
+    public boolean isId() {
+        return (fDocument.getAttr(fIndex, CompactDocumentImpl.ATTR_NAME)
+                & CompactDocumentImpl.ATTR_ID) != 0;
+    }
+
+    //
+    // Package methods
+    //
+
+    int treeNode() {
+        return fDocument.getAttr(fIndex, CompactDocumentImpl.ATTR_OWNER);
+    }
+
+    int attrIndex() {
+        return fIndex;
+    }
+
+    long userDataKey() {
+        return 1L << 32 | fIndex;
+    }
+
+    int namespaceContext() {
+        return treeNode();
+    }
+
+} // class CompactAttrImpl
@@ -0,0 +1,1041 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMConfiguration;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+
+/**
+ * A read-only DOM document whose nodes are stored in int and char arrays
+ * rather than as one object per node.
+ *
+ * <p>Nodes are numbered in document order as they are appended. For each node
+ * the document keeps its type, parent, siblings, last child, name and value
+ * in a row of eight ints; the first child of a node, if any, is always the
+ * node that follows it. Attributes are kept in a table of their own, and the
+ * row of an element refers to the run of its attributes. Character data is
+ * copied into shared char chunks and only becomes a String when asked for.
+ * Names are held once per document in a name table.</p>
+ *
+ * <p>The {@link Node} objects handed out are views that hold no more than
+ * the document and an index. They are created on demand and not retained,
+ * so asking for the same node twice yields two equal objects that are not
+ * identical: nodes must be compared with {@link Node#isSameNode} or
+ * {@code equals}. The document itself is the only view that is unique.</p>
+ *
+ * <p>The tree cannot be modified once built: every DOM mutator throws a
+ * {@code DOMException} with code {@code NO_MODIFICATION_ALLOWED_ERR}, and the
+ * factory methods throw {@code NOT_SUPPORTED_ERR}. The document has no
+ * document type node and no entity reference nodes; the content of
+ * entities appears in their place. Attributes have no child text nodes.</p>
+ *
+ * <p>The document is built by {@link
+ * com.sun.org.apache.xerces.internal.parsers.CompactDOMParser} through the
+ * {@code append} methods, which throw once {@link #endDocument} has been
+ * called.</p>
+ *
+ * @xerces.internal
+ *
+ * @see com.sun.org.apache.xerces.internal.parsers.CompactDOMParser
+ */
+public class CompactDocumentImpl extends CompactNodeImpl implements Document {
+
+    //
+    // Constants
+    //
+
+    /** Number of ints in a node row. */
+    private static final int NODE_SHIFT = 3;
+
+    /** Row offset of the node type and flags. */
+    static final int TYPE = 0;
+
+    /** Row offset of the parent index. */
+    static final int PARENT = 1;
+
+    /** Row offset of the previous sibling index. */
+    static final int PREV = 2;
+
+    /** Row offset of the next sibling index. */
+    static final int NEXT = 3;
+
+    /** Row offset of the last child index. */
+    static final int LAST = 4;
+
+    /** Row offset of the name index. */
+    static final int NAME = 5;
+
+    /** Row offset of the value address, or of the first attribute. */
+    static final int VALUE = 6;
+
+    /** Row offset of the value length, or of the attribute count. */
+    static final int LENGTH = 7;
+
+    /** Flag set in the type of whitespace in element content. */
+    static final int IGNORABLE_WS = 0x100;
+
+    /** Number of ints in an attribute row. */
+    private static final int ATTR_SHIFT = 2;
+
+    /** Row offset of the attribute name index and flags. */
+    static final int ATTR_NAME = 0;
+
+    /** Row offset of the attribute value address. */
+    static final int ATTR_VALUE = 1;
+
+    /** Row offset of the attribute value length. */
+    static final int ATTR_LENGTH = 2;
+
+    /** Row offset of the attribute owner element. */
+    static final int ATTR_OWNER = 3;
+
+    /** Flag set in the attribute name of specified attributes. */
+    static final int ATTR_SPECIFIED = 0x40000000;
+
+    /** Flag set in the attribute name of ID attributes. */
+    static final int ATTR_ID = 0x80000000;
+
+    /** Mask of the name index in an attribute name. */
+    static final int ATTR_NAME_MASK = 0x3FFFFFFF;
+
+    /** Rows per node and attribute chunk, as a shift. */
+    private static final int CHUNK_SHIFT = 8;
+
+    /** Rows per node and attribute chunk. */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /** Mask of the row in a chunk. */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** Chars per char chunk, as a shift. */
+    private static final int CHAR_SHIFT = 16;
+
+    /** Chars per char chunk; a single value may get a larger chunk. */
+    private static final int CHAR_CHUNK_SIZE = 1 << CHAR_SHIFT;
+
+    /** Mask of the offset in a char address. */
+    private static final int CHAR_MASK = CHAR_CHUNK_SIZE - 1;
+
+    /** Initial size of the first char chunk. */
+    private static final int INITIAL_CHARS = 1024;
+
+    /** Initial size of the name table. */
+    private static final int INITIAL_NAMES = 64;
+
+    //
+    // Data
+    //
+
+    /** Node rows. */
+    private int[][] fNodes = new int[16][];
+
+    /** Number of nodes, including the document. */
+    private int fNodeCount;
+
+    /** Attribute rows. */
+    private int[][] fAttrs = new int[16][];
+
+    /** Number of attributes. */
+    private int fAttrCount;
+
+    /** Char chunks. */
+    private char[][] fChars = new char[16][];
+
+    /** Index of the chunk that new values go to. */
+    private int fCharChunk = -1;
+
+    /** Number of chars used in the current chunk. */
+    private int fCharFill;
+
+    /** Qualified names, by name index. */
+    private String[] fNameRaw = new String[INITIAL_NAMES];
+
+    /** Prefixes, by name index. */
+    private String[] fNamePrefix = new String[INITIAL_NAMES];
+
+    /** Local names, by name index. */
+    private String[] fNameLocal = new String[INITIAL_NAMES];
+
+    /** Namespace names, by name index. */
+    private String[] fNameURI = new String[INITIAL_NAMES];
+
+    /** Open addressed hash of name indexes, each plus one. */
+    private int[] fNameHash = new int[INITIAL_NAMES << 1];
+
+    /** Number of names. */
+    private int fNameCount;
+
+    /** Node that is being built. */
+    private int fCurrentNode;
+
+    /** Text node that appended character data is merged into, or -1. */
+    private int fMergeNode = -1;
+
+    /** True until the document is complete. */
+    private boolean fBuilding = true;
+
+    /** Whether the document was parsed with namespaces. */
+    private final boolean fNamespaceAware;
+
+    /** Document URI. */
+    private String fDocumentURI;
+
+    /** Input encoding. */
+    private String fInputEncoding;
+
+    /** Encoding from the XML declaration. */
+    private String fXmlEncoding;
+
+    /** Version from the XML declaration. */
+    private String fXmlVersion = "1.0";
+
+    /** Standalone from the XML declaration. */
+    private boolean fXmlStandalone;
+
+    /** Error checking. */
+    private boolean fErrorChecking = true;
+
+    /** User data, by node key. */
+    private Map<Long, Map<String, Object>> fUserData;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs an empty document to be filled by a parser.
+     *
+     * @param namespaceAware Whether names have namespaces.
+     */
+    public CompactDocumentImpl(boolean namespaceAware) {
+        super(null, 0);
+        fNamespaceAware = namespaceAware;
+        fCurrentNode = newNode(Node.DOCUMENT_NODE, -1);
+    }
+
+    //
+    // Building
+    //
+
+    /**
+     * Sets the properties of the document entity.
+     *
+     * @param documentURI   The document URI, or null.
+     * @param inputEncoding The encoding the document was read in, or null.
+     */
+    public void setDocumentEntity(String documentURI, String inputEncoding) {
+        checkBuilding();
+        fDocumentURI = documentURI;
+        fInputEncoding = inputEncoding;
+    }
+
+    /**
+     * Sets the properties given by the XML declaration.
+     *
+     * @param version    The version, or null.
+     * @param encoding   The encoding, or null.
+     * @param standalone The standalone flag.
+     */
+    public void setXMLDeclaration(String version, String encoding,
+                                  boolean standalone) {
+        checkBuilding();
+        if (version != null) {
+            fXmlVersion = version;
+        }
+        fXmlEncoding = encoding;
+        fXmlStandalone = standalone;
+    }
+
+    /**
+     * Appends an element to the current node and makes it the current node.
+     * Its attributes are appended next, before any of its content.
+     *
+     * @param rawname   The qualified name.
+     * @param prefix    The prefix, or null.
+     * @param localpart The local name, or null if not namespace aware.
+     * @param uri       The namespace name, or null.
+     */
+    public void appendElement(String rawname, String prefix,
+                              String localpart, String uri) {
+        checkBuilding();
+        fMergeNode = -1;
+        int node = newNode(Node.ELEMENT_NODE, fCurrentNode);
+        int[] row = fNodes[node >>> CHUNK_SHIFT];
+        int off = (node & CHUNK_MASK) << NODE_SHIFT;
+        row[off + NAME] = name(rawname, prefix, localpart, uri);
+        row[off + VALUE] = fAttrCount;
+        fCurrentNode = node;
+    }
+
+    /**
+     * Appends an attribute to the element that was appended last.
+     *
+     * @param rawname   The qualified name.
+     * @param prefix    The prefix, or null.
+     * @param localpart The local name, or null if not namespace aware.
+     * @param uri       The namespace name, or null.
+     * @param value     The value.
+     * @param specified Whether the attribute was specified.
+     * @param isId      Whether the attribute is an ID attribute.
+     */
+    public void appendAttribute(String rawname, String prefix,
+                                String localpart, String uri, String value,
+                                boolean specified, boolean isId) {
+        checkBuilding();
+        int attr = fAttrCount;
+        if ((attr & CHUNK_MASK) == 0) {
+            int chunk = attr >>> CHUNK_SHIFT;
+            if (chunk == fAttrs.length) {
+                fAttrs = Arrays.copyOf(fAttrs, chunk << 1);
+            }
+            fAttrs[chunk] = new int[CHUNK_SIZE << ATTR_SHIFT];
+        }
+        int len = value.length();
+        int addr = allocChars(len);
+        value.getChars(0, len, fChars[addr >>> CHAR_SHIFT], addr & CHAR_MASK);
+        int[] row = fAttrs[attr >>> CHUNK_SHIFT];
+        int off = (attr & CHUNK_MASK) << ATTR_SHIFT;
+        int flags = (specified ? ATTR_SPECIFIED : 0) | (isId ? ATTR_ID : 0);
+        row[off + ATTR_NAME] = name(rawname, prefix, localpart, uri) | flags;
+        row[off + ATTR_VALUE] = addr;
+        row[off + ATTR_LENGTH] = len;
+        row[off + ATTR_OWNER] = fCurrentNode;
+        fAttrCount = attr + 1;
+        fNodes[fCurrentNode >>> CHUNK_SHIFT]
+            [((fCurrentNode & CHUNK_MASK) << NODE_SHIFT) + LENGTH]++;
+
+        // keep the attributes sorted by name, as NamedNodeMapImpl does
+        int first = firstAttr(fCurrentNode);
+        for (; attr > first && fNameRaw[attrName(attr - 1)].compareTo(rawname) > 0;
+             attr--) {
+            swapAttrs(attr - 1, attr);
+        }
+    }
+
+    /**
+     * Ends the current element and makes its parent the current node.
+     */
+    public void endElement() {
+        checkBuilding();
+        fMergeNode = -1;
+        fCurrentNode = get(fCurrentNode, PARENT);
+    }
+
+    /**
+     * Appends character data to the current node. The data is merged into
+     * the preceding text node or open CDATA section, if any; otherwise it
+     * starts a new text node.
+     *
+     * @param ch         The characters.
+     * @param offset     The offset of the first character.
+     * @param length     The number of characters.
+     * @param ignorable  Whether the text is whitespace in element content.
+     */
+    public void appendCharacters(char[] ch, int offset, int length,
+                                 boolean ignorable) {
+        checkBuilding();
+        if (length == 0) {
+            return;
+        }
+        int node = fMergeNode;
+        if (node == -1) {
+            node = appendCharacterData(Node.TEXT_NODE, ch, offset, length);
+            if (ignorable) {
+                fNodes[node >>> CHUNK_SHIFT]
+                    [((node & CHUNK_MASK) << NODE_SHIFT) + TYPE] |= IGNORABLE_WS;
+            }
+            fMergeNode = node;
+            return;
+        }
+        int[] row = fNodes[node >>> CHUNK_SHIFT];
+        int off = (node & CHUNK_MASK) << NODE_SHIFT;
+        row[off + VALUE] = extendChars(row[off + VALUE], row[off + LENGTH],
+                                       ch, offset, length);
+        row[off + LENGTH] += length;
+    }
+
+    /**
+     * Appends an empty CDATA section to the current node. Character data
+     * appended before {@link #endCDATASection} goes to this section.
+     */
+    public void appendCDATASection() {
+        checkBuilding();
+        fMergeNode = appendCharacterData(Node.CDATA_SECTION_NODE, null, 0, 0);
+    }
+
+    /**
+     * Ends the CDATA section appended last.
+     */
+    public void endCDATASection() {
+        checkBuilding();
+        fMergeNode = -1;
+    }
+
+    /**
+     * Appends a comment to the current node.
+     *
+     * @param ch     The characters.
+     * @param offset The offset of the first character.
+     * @param length The number of characters.
+     */
+    public void appendComment(char[] ch, int offset, int length) {
+        checkBuilding();
+        appendCharacterData(Node.COMMENT_NODE, ch, offset, length);
+    }
+
+    /**
+     * Appends a processing instruction to the current node.
+     *
+     * @param target The target.
+     * @param ch     The characters of the data.
+     * @param offset The offset of the first character.
+     * @param length The number of characters.
+     */
+    public void appendProcessingInstruction(String target, char[] ch,
+                                            int offset, int length) {
+        checkBuilding();
+        int node = appendCharacterData(Node.PROCESSING_INSTRUCTION_NODE,
+                                       ch, offset, length);
+        fNodes[node >>> CHUNK_SHIFT][((node & CHUNK_MASK) << NODE_SHIFT) + NAME] =
+            name(target, null, null, null);
+    }
+
+    /**
+     * Completes the document. Trims the storage left unused; the document
+     * cannot be appended to afterwards.
+     */
+    public void endDocument() {
+        checkBuilding();
+        fMergeNode = -1;
+        fBuilding = false;
+        if (fCharChunk >= 0) {
+            trimChars(fCharFill);
+        }
+    }
+
+    /** Throws if the document is complete. */
+    private void checkBuilding() {
+        if (!fBuilding) {
+            throw readOnly();
+        }
+    }
+
+    /** Appends a character data node with the given value. */
+    private int appendCharacterData(int type, char[] ch, int offset,
+                                    int length) {
+        int node = newNode(type, fCurrentNode);
+        int addr = allocChars(length);
+        if (length > 0) {
+            System.arraycopy(ch, offset, fChars[addr >>> CHAR_SHIFT],
+                             addr & CHAR_MASK, length);
+        }
+        int[] row = fNodes[node >>> CHUNK_SHIFT];
+        int off = (node & CHUNK_MASK) << NODE_SHIFT;
+        row[off + VALUE] = addr;
+        row[off + LENGTH] = length;
+        fMergeNode = -1;
+        return node;
+    }
+
+    /** Swaps two attribute rows. */
+    private void swapAttrs(int attr1, int attr2) {
+        int[] row1 = fAttrs[attr1 >>> CHUNK_SHIFT];
+        int off1 = (attr1 & CHUNK_MASK) << ATTR_SHIFT;
+        int[] row2 = fAttrs[attr2 >>> CHUNK_SHIFT];
+        int off2 = (attr2 & CHUNK_MASK) << ATTR_SHIFT;
+        for (int i = 0; i < 1 << ATTR_SHIFT; i++) {
+            int field = row1[off1 + i];
+            row1[off1 + i] = row2[off2 + i];
+            row2[off2 + i] = field;
+        }
+    }
+
+    /** Allocates a node row and links it as the last child of parent. */
+    private int newNode(int type, int parent) {
+        int node = fNodeCount;
+        if ((node & CHUNK_MASK) == 0) {
+            int chunk = node >>> CHUNK_SHIFT;
+            if (chunk == fNodes.length) {
+                fNodes = Arrays.copyOf(fNodes, chunk << 1);
+            }
+            fNodes[chunk] = new int[CHUNK_SIZE << NODE_SHIFT];
+        }
+        int[] row = fNodes[node >>> CHUNK_SHIFT];
+        int off = (node & CHUNK_MASK) << NODE_SHIFT;
+        row[off + TYPE] = type;
+        row[off + PARENT] = parent;
+        row[off + NEXT] = -1;
+        row[off + LAST] = -1;
+        if (parent == -1) {
+            row[off + PREV] = -1;
+        }
+        else {
+            int[] prow = fNodes[parent >>> CHUNK_SHIFT];
+            int poff = ((parent & CHUNK_MASK) << NODE_SHIFT) + LAST;
+            int prev = prow[poff];
+            row[off + PREV] = prev;
+            if (prev != -1) {
+                set(prev, NEXT, node);
+            }
+            prow[poff] = node;
+        }
+        fNodeCount = node + 1;
+        return node;
+    }
+
+    /** Returns the index of the given name, adding it if needed. */
+    private int name(String rawname, String prefix, String localpart,
+                     String uri) {
+        if (prefix != null && prefix.length() == 0) {
+            prefix = null;
+        }
+        if (uri != null && uri.length() == 0) {
+            uri = null;
+        }
+        int hash = rawname.hashCode() * 31 + (uri != null ? uri.hashCode() : 0);
+        int mask = fNameHash.length - 1;
+        int slot = hash & mask;
+        for (int entry; (entry = fNameHash[slot]) != 0; slot = (slot + 1) & mask) {
+            int index = entry - 1;
+            String u = fNameURI[index];
+            if (rawname.equals(fNameRaw[index])
+                && (uri == null ? u == null : uri.equals(u))
+                && (localpart == null) == (fNameLocal[index] == null)) {
+                return index;
+            }
+        }
+        int index = fNameCount;
+        if (index == fNameRaw.length) {
+            int size = index << 1;
+            fNameRaw = Arrays.copyOf(fNameRaw, size);
+            fNamePrefix = Arrays.copyOf(fNamePrefix, size);
+            fNameLocal = Arrays.copyOf(fNameLocal, size);
+            fNameURI = Arrays.copyOf(fNameURI, size);
+        }
+        fNameRaw[index] = rawname;
+        fNamePrefix[index] = prefix;
+        fNameLocal[index] = localpart;
+        fNameURI[index] = uri;
+        fNameCount = index + 1;
+        if (fNameCount << 1 > fNameHash.length) {
+            rehashNames();
+        }
+        else {
+            fNameHash[slot] = index + 1;
+        }
+        return index;
+    }
+
+    /** Doubles the name hash. */
+    private void rehashNames() {
+        int[] hash = new int[fNameHash.length << 1];
+        int mask = hash.length - 1;
+        for (int index = 0; index < fNameCount; index++) {
+            String uri = fNameURI[index];
+            int slot = (fNameRaw[index].hashCode() * 31
+                        + (uri != null ? uri.hashCode() : 0)) & mask;
+            while (hash[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            hash[slot] = index + 1;
+        }
+        fNameHash = hash;
+    }
+
+    /**
+     * Reserves room for a new value of the given length and returns its
+     * address: the chunk index in the high bits and the offset in the low
+     * bits.
+     */
+    private int allocChars(int length) {
+        char[] chunk = fCharChunk >= 0 ? fChars[fCharChunk] : null;
+        int end = fCharFill + length;
+        if (chunk == null || fCharFill >= CHAR_CHUNK_SIZE
+            || end > Math.min(chunk.length, CHAR_CHUNK_SIZE)) {
+            if (chunk != null && chunk.length < CHAR_CHUNK_SIZE
+                && end <= CHAR_CHUNK_SIZE) {
+                fChars[fCharChunk] = Arrays.copyOf(chunk,
+                    Math.min(CHAR_CHUNK_SIZE, Math.max(chunk.length << 1, end)));
+            }
+            else {
+                newCharChunk(Math.max(chunk == null ? INITIAL_CHARS
+                                                    : CHAR_CHUNK_SIZE, length),
+                             fCharFill);
+            }
+        }
+        int addr = (fCharChunk << CHAR_SHIFT) | fCharFill;
+        fCharFill += length;
+        return addr;
+    }
+
+    /**
+     * Appends characters to the value that was allocated last and returns
+     * its address, which changes if the value has to move.
+     */
+    private int extendChars(int addr, int length, char[] ch, int offset,
+                            int count) {
+        char[] chunk = fChars[fCharChunk];
+        int start = addr & CHAR_MASK;
+        int end = fCharFill + count;
+        if (end > chunk.length) {
+            if (start == 0 || end <= CHAR_CHUNK_SIZE) {
+                // grow the chunk in place; the value keeps its address
+                int size = Math.max(end, chunk.length << 1);
+                if (start != 0 || end <= CHAR_CHUNK_SIZE) {
+                    size = Math.min(size, CHAR_CHUNK_SIZE);
+                }
+                chunk = fChars[fCharChunk] = Arrays.copyOf(chunk, size);
+            }
+            else {
+                // move the value to a chunk of its own
+                int total = length + count;
+                newCharChunk(Math.max(CHAR_CHUNK_SIZE, total << 1), start);
+                char[] moved = fChars[fCharChunk];
+                System.arraycopy(chunk, start, moved, 0, length);
+                chunk = moved;
+                start = 0;
+                fCharFill = length;
+                end = total;
+                addr = fCharChunk << CHAR_SHIFT;
+            }
+        }
+        System.arraycopy(ch, offset, chunk, start + length, count);
+        fCharFill = end;
+        return addr;
+    }
+
+    /**
+     * Starts a new char chunk of the given size, trimming the current chunk
+     * to the given number of chars if much of it would go unused.
+     */
+    private void newCharChunk(int size, int used) {
+        if (fCharChunk >= 0) {
+            trimChars(used);
+        }
+        int index = fCharChunk + 1;
+        if (index == fChars.length) {
+            fChars = Arrays.copyOf(fChars, index << 1);
+        }
+        fChars[index] = new char[size];
+        fCharChunk = index;
+        fCharFill = 0;
+    }
+
+    /** Trims the current char chunk to the given number of chars. */
+    private void trimChars(int used) {
+        char[] chunk = fChars[fCharChunk];
+        if (used < chunk.length
+            && (!fBuilding || used < chunk.length - (chunk.length >> 3))) {
+            fChars[fCharChunk] = Arrays.copyOf(chunk, used);
+        }
+    }
+
+    //
+    // Storage access for the views
+    //
+
+    /** Returns a field of a node row. */
+    final int get(int node, int field) {
+        return fNodes[node >>> CHUNK_SHIFT][((node & CHUNK_MASK) << NODE_SHIFT) + field];
+    }
+
+    /** Sets a field of a node row. */
+    private void set(int node, int field, int value) {
+        fNodes[node >>> CHUNK_SHIFT][((node & CHUNK_MASK) << NODE_SHIFT) + field] = value;
+    }
+
+    /** Returns a field of an attribute row. */
+    final int getAttr(int attr, int field) {
+        return fAttrs[attr >>> CHUNK_SHIFT][((attr & CHUNK_MASK) << ATTR_SHIFT) + field];
+    }
+
+    /** Returns the DOM node type of a node. */
+    final short type(int node) {
+        return (short) (get(node, TYPE) & 0xFF);
+    }
+
+    /** Returns the first child of a node, or -1. */
+    final int firstChild(int node) {
+        return get(node, LAST) != -1 ? node + 1 : -1;
+    }
+
+    /** Returns the index of the first node after the subtree of a node. */
+    final int subtreeEnd(int node) {
+        for (int n = node; n != -1; n = get(n, PARENT)) {
+            int next = get(n, NEXT);
+            if (next != -1) {
+                return next;
+            }
+        }
+        return fNodeCount;
+    }
+
+    /** Returns the number of nodes. */
+    final int nodeCount() {
+        return fNodeCount;
+    }
+
+    /** Returns the value of a character data node. */
+    final String value(int node) {
+        int addr = get(node, VALUE);
+        int length = get(node, LENGTH);
+        return length == 0 ? "" : new String(fChars[addr >>> CHAR_SHIFT],
+                                             addr & CHAR_MASK, length);
+    }
+
+    /** Returns the length of the value of a character data node. */
+    final int valueLength(int node) {
+        return get(node, LENGTH);
+    }
+
+    /** Appends the value of a character data node to a buffer. */
+    final void appendValue(int node, StringBuilder buffer) {
+        int addr = get(node, VALUE);
+        buffer.append(fChars[addr >>> CHAR_SHIFT], addr & CHAR_MASK,
+                      get(node, LENGTH));
+    }
+
+    /** Returns the value of an attribute. */
+    final String attrValue(int attr) {
+        int addr = getAttr(attr, ATTR_VALUE);
+        int length = getAttr(attr, ATTR_LENGTH);
+        return length == 0 ? "" : new String(fChars[addr >>> CHAR_SHIFT],
+                                             addr & CHAR_MASK, length);
+    }
+
+    /** Returns the name index of an attribute. */
+    final int attrName(int attr) {
+        return getAttr(attr, ATTR_NAME) & ATTR_NAME_MASK;
+    }
+
+    /** Returns the qualified name for a name index. */
+    final String rawname(int name) {
+        return fNameRaw[name];
+    }
+
+    /** Returns the prefix for a name index. */
+    final String prefix(int name) {
+        return fNamePrefix[name];
+    }
+
+    /** Returns the local name for a name index. */
+    final String localpart(int name) {
+        return fNameLocal[name];
+    }
+
+    /** Returns the namespace name for a name index. */
+    final String uri(int name) {
+        return fNameURI[name];
+    }
+
+    /** Returns the first attribute of an element. */
+    final int firstAttr(int element) {
+        return get(element, VALUE);
+    }
+
+    /** Returns the number of attributes of an element. */
+    final int attrCount(int element) {
+        return get(element, LENGTH);
+    }
+
+    /** Returns the attribute of an element with the given name, or -1. */
+    final int findAttr(int element, String name) {
+        int attr = get(element, VALUE);
+        int end = attr + get(element, LENGTH);
+        for (; attr < end; attr++) {
+            if (fNameRaw[attrName(attr)].equals(name)) {
+                return attr;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the attribute of an element with the given namespace name and
+     * local name, or -1.
+     */
+    final int findAttrNS(int element, String uri, String localName) {
+        if (uri != null && uri.length() == 0) {
+            uri = null;
+        }
+        int attr = get(element, VALUE);
+        int end = attr + get(element, LENGTH);
+        for (; attr < end; attr++) {
+            int name = attrName(attr);
+            String local = fNameLocal[name];
+            String u = fNameURI[name];
+            if ((local != null ? local : fNameRaw[name]).equals(localName)
+                && (uri == null ? u == null : uri.equals(u))) {
+                return attr;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns a view of a node. */
+    final CompactNodeImpl node(int node) {
+        switch (type(node)) {
+            case Node.ELEMENT_NODE:
+                return new CompactElementImpl(this, node);
+            case Node.TEXT_NODE:
+                return new CompactTextImpl(this, node);
+            case Node.CDATA_SECTION_NODE:
+                return new CompactCDATASectionImpl(this, node);
+            case Node.COMMENT_NODE:
+                return new CompactCommentImpl(this, node);
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                return new CompactProcessingInstructionImpl(this, node);
+            default:
+                return this;
+        }
+    }
+
+    /** Returns a view of a node, or null for -1. */
+    final Node nodeOrNull(int node) {
+        return node != -1 ? node(node) : null;
+    }
+
+    /** Returns a view of an attribute. */
+    final CompactAttrImpl attr(int attr) {
+        return new CompactAttrImpl(this, attr);
+    }
+
+    /** Returns the user data of a node, or null. */
+    final Map<String, Object> userData(long key, boolean create) {
+        if (fUserData == null) {
+            if (!create) {
+                return null;
+            }
+            fUserData = new HashMap<>();
+        }
+        Map<String, Object> data = fUserData.get(key);
+        if (data == null && create) {
+            data = new HashMap<>();
+            fUserData.put(key, data);
+        }
+        return data;
+    }
+
+    //
+    // Node methods
+    //
+
+    public short getNodeType() {
+        return Node.DOCUMENT_NODE;
+    }
+
+    public String getNodeName() {
+        return "#document";
+    }
+
+    public Document getOwnerDocument() {
+        return null;
+    }
+
+    public String getTextContent() throws DOMException {
+        return null;
+    }
+
+    public String getBaseURI() {
+        return fDocumentURI;
+    }
+
+    //
+    // Document methods
+    //
+
+    public DocumentType getDoctype() {
+        return null;
+    }
+
+    public DOMImplementation getImplementation() {
+        return CoreDOMImplementationImpl.getDOMImplementation();
+    }
+
+    public Element getDocumentElement() {
+        for (int node = firstChild(0); node != -1; node = get(node, NEXT)) {
+            if (type(node) == Node.ELEMENT_NODE) {
+                return new CompactElementImpl(this, node);
+            }
+        }
+        return null;
+    }
+
+    public NodeList getElementsByTagName(String tagname) {
+        return new CompactNodeList(this, 0, null, tagname);
+    }
+
+    public NodeList getElementsByTagNameNS(String namespaceURI,
+                                           String localName) {
+        return new CompactNodeList(this, 0,
+            namespaceURI != null ? namespaceURI : "", localName);
+    }
+
+    /**
+     * Returns the element with an ID attribute of the given value. An
+     * attribute is an ID attribute if it is declared to be one in the DTD or
+     * the schema the document was validated against.
+     */
+    public Element getElementById(String elementId) {
+        for (int attr = 0; attr < fAttrCount; attr++) {
+            if ((getAttr(attr, ATTR_NAME) & ATTR_ID) != 0
+                && attrValue(attr).equals(elementId)) {
+                return new CompactElementImpl(this, getAttr(attr, ATTR_OWNER));
+            }
+        }
+        return null;
+    }
+
+    public String getInputEncoding() {
+        return fInputEncoding;
+    }
+
+    public String getXmlEncoding() {
+        return fXmlEncoding;
+    }
+
+    public boolean getXmlStandalone() {
+        return fXmlStandalone;
+    }
+
+    public void setXmlStandalone(boolean xmlStandalone) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getXmlVersion() {
+        return fXmlVersion;
+    }
+
+    public void setXmlVersion(String xmlVersion) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean getStrictErrorChecking() {
+        return fErrorChecking;
+    }
+
+    public void setStrictErrorChecking(boolean strictErrorChecking) {
+        fErrorChecking = strictErrorChecking;
+    }
+
+    public String getDocumentURI() {
+        return fDocumentURI;
+    }
+
+    public void setDocumentURI(String documentURI) {
+        throw readOnly();
+    }
+
+    public DOMConfiguration getDomConfig() {
+        throw notSupported();
+    }
+
+    public void normalizeDocument() {
+    }
+
+    /** Returns whether the document was parsed with namespaces. */
+    public boolean isNamespaceAware() {
+        return fNamespaceAware;
+    }
+
+    public Element createElement(String tagName) throws DOMException {
+        throw notSupported();
+    }
+
+    public DocumentFragment createDocumentFragment() {
+        throw notSupported();
+    }
+
+    public Text createTextNode(String data) {
+        throw notSupported();
+    }
+
+    public Comment createComment(String data) {
+        throw notSupported();
+    }
+
+    public CDATASection createCDATASection(String data) throws DOMException {
+        throw notSupported();
+    }
+
+    public ProcessingInstruction createProcessingInstruction(String target,
+                                                             String data)
+        throws DOMException {
+        throw notSupported();
+    }
+
+    public Attr createAttribute(String name) throws DOMException {
+        throw notSupported();
+    }
+
+    public EntityReference createEntityReference(String name)
+        throws DOMException {
+        throw notSupported();
+    }
+
+    public Node importNode(Node importedNode, boolean deep)
+        throws DOMException {
+        throw notSupported();
+    }
+
+    public Element createElementNS(String namespaceURI,
+                                   String qualifiedName)
+        throws DOMException {
+        throw notSupported();
+    }
+
+    public Attr createAttributeNS(String namespaceURI, String qualifiedName)
+        throws DOMException {
+        throw notSupported();
+    }
+
+    public Node adoptNode(Node source) throws DOMException {
+        throw notSupported();
+    }
+
+    public Node renameNode(Node n, String namespaceURI, String qualifiedName)
+        throws DOMException {
+        throw notSupported();
+    }
+
+} // class CompactDocumentImpl
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import com.sun.org.apache.xerces.internal.util.URI;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+/**
+ * An element of a {@link CompactDocumentImpl}.
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+public class CompactElementImpl extends CompactNodeImpl implements Element {
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a view of an element. */
+    CompactElementImpl(CompactDocumentImpl document, int index) {
+        super(document, index);
+    }
+
+    //
+    // Node methods
+    //
+
+    public short getNodeType() {
+        return Node.ELEMENT_NODE;
+    }
+
+    public String getNodeName() {
+        return fDocument.rawname(name());
+    }
+
+    public String getNamespaceURI() {
+        return fDocument.uri(name());
+    }
+
+    public String getPrefix() {
+        return fDocument.prefix(name());
+    }
+
+    public String getLocalName() {
+        return fDocument.localpart(name());
+    }
+
+    public NamedNodeMap getAttributes() {
+        return new CompactNamedNodeMap(fDocument, fIndex);
+    }
+
+    public boolean hasAttributes() {
+        return fDocument.attrCount(fIndex) > 0;
+    }
+
+    /**
+     * Returns the base URI given by the xml:base attribute of this element,
+     * resolved against the base URI of its parent, or else the base URI of
+     * its parent.
+     */
+    public String getBaseURI() {
+        int attr = fDocument.findAttr(fIndex, "xml:base");
+        if (attr != -1) {
+            String uri = fDocument.attrValue(attr);
+            if (uri.length() != 0) {
+                try {
+                    return new URI(uri).toString();
+                }
+                catch (URI.MalformedURIException e) {
+                    // This may be a relative URI.
+                    String parentBaseURI = super.getBaseURI();
+                    if (parentBaseURI != null) {
+                        try {
+                            return new URI(new URI(parentBaseURI), uri).toString();
+                        }
+                        catch (URI.MalformedURIException ex) {
+                            return null;
+                        }
+                    }
+                    return null;
+                }
+            }
+        }
+        return super.getBaseURI();
+    }
+
+    //
+    // Element methods
+    //
+
+    public String getTagName() {
+        return fDocument.rawname(name());
+    }
+
+    public String getAttribute(String name) {
+        int attr = fDocument.findAttr(fIndex, name);
+        return attr != -1 ? fDocument.attrValue(attr) : "";
+    }
+
+    public void setAttribute(String name, String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public void removeAttribute(String name) throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr getAttributeNode(String name) {
+        int attr = fDocument.findAttr(fIndex, name);
+        return attr != -1 ? fDocument.attr(attr) : null;
+    }
+
+    public Attr setAttributeNode(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr removeAttributeNode(Attr oldAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public NodeList getElementsByTagName(String name) {
+        return new CompactNodeList(fDocument, fIndex, null, name);
+    }
+
+    public String getAttributeNS(String namespaceURI, String localName)
+        throws DOMException {
+        int attr = fDocument.findAttrNS(fIndex, namespaceURI, localName);
+        return attr != -1 ? fDocument.attrValue(attr) : "";
+    }
+
+    public void setAttributeNS(String namespaceURI, String qualifiedName,
+                               String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public void removeAttributeNS(String namespaceURI, String localName)
+        throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr getAttributeNodeNS(String namespaceURI, String localName)
+        throws DOMException {
+        int attr = fDocument.findAttrNS(fIndex, namespaceURI, localName);
+        return attr != -1 ? fDocument.attr(attr) : null;
+    }
+
+    public Attr setAttributeNodeNS(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public NodeList getElementsByTagNameNS(String namespaceURI,
+                                           String localName)
+        throws DOMException {
+        return new CompactNodeList(fDocument, fIndex,
+            namespaceURI != null ? namespaceURI : "", localName);
+    }
+
+    public boolean hasAttribute(String name) {
+        return fDocument.findAttr(fIndex, name) != -1;
+    }
+
+    public boolean hasAttributeNS(String namespaceURI, String localName)
+        throws DOMException {
+        return fDocument.findAttrNS(fIndex, namespaceURI, localName) != -1;
+    }
+
+    public TypeInfo getSchemaTypeInfo() {
+        return NO_TYPE_INFO;
+    }
+
+    public void setIdAttribute(String name, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    public void setIdAttributeNS(String namespaceURI, String localName,
+                                 boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    public void setIdAttributeNode(Attr idAttr, boolean isId)
+        throws DOMException {
+        throw readOnly();
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Returns the name index of this element. */
+    private int name() {
+        return fDocument.get(fIndex, CompactDocumentImpl.NAME);
+    }
+
+} // class CompactElementImpl
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * The attributes of an element of a {@link CompactDocumentImpl}, sorted
+ * by qualified name as in NamedNodeMapImpl: <code>item(i)</code> returns
+ * the attributes in that order, not in the order they were parsed.
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+final class CompactNamedNodeMap implements NamedNodeMap {
+
+    //
+    // Data
+    //
+
+    /** The document. */
+    private final CompactDocumentImpl fDocument;
+
+    /** The element. */
+    private final int fElement;
+
+    //
+    // Constructors
+    //
+
+    /** Constructs the attribute map of an element. */
+    CompactNamedNodeMap(CompactDocumentImpl document, int element) {
+        fDocument = document;
+        fElement = element;
+    }
+
+    //
+    // NamedNodeMap methods
+    //
+
+    public Node getNamedItem(String name) {
+        int attr = fDocument.findAttr(fElement, name);
+        return attr != -1 ? fDocument.attr(attr) : null;
+    }
+
+    public Node setNamedItem(Node arg) throws DOMException {
+        throw CompactNodeImpl.readOnly();
+    }
+
+    public Node removeNamedItem(String name) throws DOMException {
+        throw CompactNodeImpl.readOnly();
+    }
+
+    public Node item(int index) {
+        return index >= 0 && index < fDocument.attrCount(fElement)
+             ? fDocument.attr(fDocument.firstAttr(fElement) + index) : null;
+    }
+
+    public int getLength() {
+        return fDocument.attrCount(fElement);
+    }
+
+    public Node getNamedItemNS(String namespaceURI, String localName)
+        throws DOMException {
+        int attr = fDocument.findAttrNS(fElement, namespaceURI, localName);
+        return attr != -1 ? fDocument.attr(attr) : null;
+    }
+
+    public Node setNamedItemNS(Node arg) throws DOMException {
+        throw CompactNodeImpl.readOnly();
+    }
+
+    public Node removeNamedItemNS(String namespaceURI, String localName)
+        throws DOMException {
+        throw CompactNodeImpl.readOnly();
+    }
+
+} // class CompactNamedNodeMap
@@ -0,0 +1,512 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import java.util.Map;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+import org.w3c.dom.UserDataHandler;
+
+/**
+ * The base of the node views of a {@link CompactDocumentImpl}. A view holds
+ * the document and the index of its node; everything else is read from the
+ * document on each call.
+ *
+ * <p>Two views are equal, and the same node, if they are views of the same
+ * node of the same document.</p>
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+public abstract class CompactNodeImpl implements Node {
+
+    /** The XML Namespaces namespace name of namespace declarations. */
+    static final String XMLNS_URI = "http://www.w3.org/2000/xmlns/";
+
+    /** Type information of nodes that have none. */
+    static final TypeInfo NO_TYPE_INFO = new TypeInfo() {
+        public String getTypeName() {
+            return null;
+        }
+
+        public String getTypeNamespace() {
+            return null;
+        }
+
+        public boolean isDerivedFrom(String typeNamespaceArg,
+                                     String typeNameArg,
+                                     int derivationMethod) {
+            return false;
+        }
+    };
+
+    //
+    // Data
+    //
+
+    /** The document. */
+    final CompactDocumentImpl fDocument;
+
+    /** The index of the node in the document. */
+    final int fIndex;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a view of a node.
+     *
+     * @param document The document, or null for the document itself.
+     * @param index    The index of the node.
+     */
+    CompactNodeImpl(CompactDocumentImpl document, int index) {
+        fDocument = document != null ? document : (CompactDocumentImpl) this;
+        fIndex = index;
+    }
+
+    //
+    // Node methods
+    //
+
+    public String getNodeValue() throws DOMException {
+        return null;
+    }
+
+    /** Has no effect on nodes whose value is null. */
+    public void setNodeValue(String nodeValue) throws DOMException {
+    }
+
+    public Node getParentNode() {
+        return fDocument.nodeOrNull(fDocument.get(fIndex, CompactDocumentImpl.PARENT));
+    }
+
+    public NodeList getChildNodes() {
+        return new CompactNodeList(fDocument, fIndex);
+    }
+
+    public Node getFirstChild() {
+        return fDocument.nodeOrNull(fDocument.firstChild(fIndex));
+    }
+
+    public Node getLastChild() {
+        return fDocument.nodeOrNull(fDocument.get(fIndex, CompactDocumentImpl.LAST));
+    }
+
+    public Node getPreviousSibling() {
+        return fDocument.nodeOrNull(fDocument.get(fIndex, CompactDocumentImpl.PREV));
+    }
+
+    public Node getNextSibling() {
+        return fDocument.nodeOrNull(fDocument.get(fIndex, CompactDocumentImpl.NEXT));
+    }
+
+    public boolean hasChildNodes() {
+        return fDocument.get(fIndex, CompactDocumentImpl.LAST) != -1;
+    }
+
+    public NamedNodeMap getAttributes() {
+        return null;
+    }
+
+    public boolean hasAttributes() {
+        return false;
+    }
+
+    public Document getOwnerDocument() {
+        return fDocument;
+    }
+
+    public String getNamespaceURI() {
+        return null;
+    }
+
+    public String getPrefix() {
+        return null;
+    }
+
+    public void setPrefix(String prefix) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getLocalName() {
+        return null;
+    }
+
+    public Node insertBefore(Node newChild, Node refChild)
+        throws DOMException {
+        throw readOnly();
+    }
+
+    public Node replaceChild(Node newChild, Node oldChild)
+        throws DOMException {
+        throw readOnly();
+    }
+
+    public Node removeChild(Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node appendChild(Node newChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node cloneNode(boolean deep) {
+        throw notSupported();
+    }
+
+    /** Does nothing: text nodes are merged as the document is built. */
+    public void normalize() {
+    }
+
+    public boolean isSupported(String feature, String version) {
+        return fDocument.getImplementation().hasFeature(feature, version);
+    }
+
+    public Object getFeature(String feature, String version) {
+        return isSupported(feature, version) ? this : null;
+    }
+
+    public String getBaseURI() {
+        Node parent = getParentNode();
+        return parent != null ? parent.getBaseURI() : null;
+    }
+
+    /**
+     * Returns the concatenated text of the text nodes and CDATA sections
+     * of the subtree of this node.
+     */
+    public String getTextContent() throws DOMException {
+        CompactDocumentImpl doc = fDocument;
+        int end = doc.subtreeEnd(fIndex);
+        StringBuilder buffer = null;
+        String text = "";
+        for (int node = fIndex + 1; node < end; node++) {
+            short type = doc.type(node);
+            if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
+                if (buffer != null) {
+                    doc.appendValue(node, buffer);
+                }
+                else if (text.length() == 0) {
+                    text = doc.value(node);
+                }
+                else {
+                    buffer = new StringBuilder(text);
+                    doc.appendValue(node, buffer);
+                }
+            }
+        }
+        return buffer != null ? buffer.toString() : text;
+    }
+
+    public void setTextContent(String textContent) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean isSameNode(Node other) {
+        return equals(other);
+    }
+
+    public short compareDocumentPosition(Node other) throws DOMException {
+        if (equals(other)) {
+            return 0;
+        }
+        if (!(other instanceof CompactNodeImpl)
+            || ((CompactNodeImpl) other).fDocument != fDocument) {
+            // order disconnected nodes consistently but arbitrarily
+            Object otherRoot = other.getOwnerDocument() != null
+                             ? other.getOwnerDocument() : other;
+            return (short) (Node.DOCUMENT_POSITION_DISCONNECTED
+                | Node.DOCUMENT_POSITION_IMPLEMENTATION_SPECIFIC
+                | (System.identityHashCode(otherRoot)
+                   < System.identityHashCode(fDocument)
+                   ? Node.DOCUMENT_POSITION_PRECEDING
+                   : Node.DOCUMENT_POSITION_FOLLOWING));
+        }
+        CompactNodeImpl node = (CompactNodeImpl) other;
+        int thisNode = treeNode();
+        int otherNode = node.treeNode();
+        int thisAttr = attrIndex();
+        int otherAttr = node.attrIndex();
+        if (otherAttr == -1 && (thisNode == otherNode
+            || otherNode < thisNode && thisNode < fDocument.subtreeEnd(otherNode))) {
+            return (short) (Node.DOCUMENT_POSITION_CONTAINS
+                | Node.DOCUMENT_POSITION_PRECEDING);
+        }
+        if (thisAttr == -1 && (thisNode == otherNode
+            || thisNode < otherNode && otherNode < fDocument.subtreeEnd(thisNode))) {
+            return (short) (Node.DOCUMENT_POSITION_CONTAINED_BY
+                | Node.DOCUMENT_POSITION_FOLLOWING);
+        }
+        boolean preceding = otherNode != thisNode ? otherNode < thisNode
+                                                  : otherAttr < thisAttr;
+        return (short) ((thisNode == otherNode
+                         ? Node.DOCUMENT_POSITION_IMPLEMENTATION_SPECIFIC : 0)
+            | (preceding ? Node.DOCUMENT_POSITION_PRECEDING
+                         : Node.DOCUMENT_POSITION_FOLLOWING));
+    }
+
+    public String lookupPrefix(String namespaceURI) {
+        if (namespaceURI == null) {
+            return null;
+        }
+        int element = namespaceContext();
+        for (int e = element; e != -1; e = parentElement(e)) {
+            CompactDocumentImpl doc = fDocument;
+            int name = doc.get(e, CompactDocumentImpl.NAME);
+            String prefix = doc.prefix(name);
+            if (prefix != null && namespaceURI.equals(doc.uri(name))
+                && namespaceURI.equals(lookupNamespaceURI(element, prefix))) {
+                return prefix;
+            }
+            int attr = doc.firstAttr(e);
+            for (int end = attr + doc.attrCount(e); attr < end; attr++) {
+                int attrName = doc.attrName(attr);
+                if (XMLNS_URI.equals(doc.uri(attrName))
+                    && "xmlns".equals(doc.prefix(attrName))
+                    && namespaceURI.equals(doc.attrValue(attr))) {
+                    String local = doc.localpart(attrName);
+                    if (namespaceURI.equals(lookupNamespaceURI(element, local))) {
+                        return local;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean isDefaultNamespace(String namespaceURI) {
+        CompactDocumentImpl doc = fDocument;
+        for (int e = namespaceContext(); e != -1; e = parentElement(e)) {
+            int name = doc.get(e, CompactDocumentImpl.NAME);
+            String prefix = doc.prefix(name);
+            if (prefix == null || prefix.length() == 0) {
+                String namespace = doc.uri(name);
+                return namespaceURI == null ? namespace == null
+                                            : namespaceURI.equals(namespace);
+            }
+            int attr = doc.findAttrNS(e, XMLNS_URI, "xmlns");
+            if (attr != -1) {
+                return namespaceURI != null
+                    && namespaceURI.equals(doc.attrValue(attr));
+            }
+        }
+        return false;
+    }
+
+    public String lookupNamespaceURI(String prefix) {
+        return lookupNamespaceURI(namespaceContext(), prefix);
+    }
+
+    public boolean isEqualNode(Node arg) {
+        if (equals(arg)) {
+            return true;
+        }
+        if (arg == null || arg.getNodeType() != getNodeType()
+            || !equal(getNodeName(), arg.getNodeName())
+            || !equal(getLocalName(), arg.getLocalName())
+            || !equal(getNamespaceURI(), arg.getNamespaceURI())
+            || !equal(getPrefix(), arg.getPrefix())
+            || !equal(getNodeValue(), arg.getNodeValue())) {
+            return false;
+        }
+        NamedNodeMap attrs = getAttributes();
+        NamedNodeMap argAttrs = arg.getAttributes();
+        if (attrs != null) {
+            if (argAttrs == null || attrs.getLength() != argAttrs.getLength()) {
+                return false;
+            }
+            for (int i = 0; i < attrs.getLength(); i++) {
+                Node attr = attrs.item(i);
+                Node argAttr = attr.getLocalName() == null
+                    ? argAttrs.getNamedItem(attr.getNodeName())
+                    : argAttrs.getNamedItemNS(attr.getNamespaceURI(),
+                                              attr.getLocalName());
+                if (!attr.isEqualNode(argAttr)) {
+                    return false;
+                }
+            }
+        }
+        else if (argAttrs != null && argAttrs.getLength() > 0) {
+            return false;
+        }
+        Node child = getFirstChild();
+        Node argChild = arg.getFirstChild();
+        while (child != null && argChild != null) {
+            if (!child.isEqualNode(argChild)) {
+                return false;
+            }
+            child = child.getNextSibling();
+            argChild = argChild.getNextSibling();
+        }
+        return child == argChild;
+    }
+
+    /**
+     * Associates an object to a key on this node. The handler is not kept:
+     * nodes of a compact document are never cloned, imported, renamed or
+     * deleted.
+     */
+    public Object setUserData(String key, Object data,
+                              UserDataHandler handler) {
+        if (data == null) {
+            Map<String, Object> userData = fDocument.userData(userDataKey(), false);
+            return userData != null ? userData.remove(key) : null;
+        }
+        return fDocument.userData(userDataKey(), true).put(key, data);
+    }
+
+    public Object getUserData(String key) {
+        Map<String, Object> userData = fDocument.userData(userDataKey(), false);
+        return userData != null ? userData.get(key) : null;
+    }
+
+    //
+    // Object methods
+    //
+
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        CompactNodeImpl node = (CompactNodeImpl) obj;
+        return node.fDocument == fDocument && node.fIndex == fIndex;
+    }
+
+    public int hashCode() {
+        return System.identityHashCode(fDocument) * 31 + fIndex;
+    }
+
+    public String toString() {
+        return "[" + getNodeName() + ": " + getNodeValue() + "]";
+    }
+
+    //
+    // Package methods
+    //
+
+    /**
+     * Returns the node of the tree this node is or belongs to: the owner
+     * element for an attribute.
+     */
+    int treeNode() {
+        return fIndex;
+    }
+
+    /** Returns the attribute index, or -1 if this is not an attribute. */
+    int attrIndex() {
+        return -1;
+    }
+
+    /** Returns the key of the user data of this node. */
+    long userDataKey() {
+        return fIndex;
+    }
+
+    /**
+     * Returns the element that namespace lookups start from: the nearest
+     * element that is this node or contains it, or the document element.
+     */
+    int namespaceContext() {
+        CompactDocumentImpl doc = fDocument;
+        if (fIndex == 0) {
+            for (int node = doc.firstChild(0); node != -1;
+                 node = doc.get(node, CompactDocumentImpl.NEXT)) {
+                if (doc.type(node) == Node.ELEMENT_NODE) {
+                    return node;
+                }
+            }
+            return -1;
+        }
+        int node = fIndex;
+        while (node != -1 && doc.type(node) != Node.ELEMENT_NODE) {
+            node = doc.get(node, CompactDocumentImpl.PARENT);
+        }
+        return node;
+    }
+
+    /** Returns the parent element of an element, or -1. */
+    final int parentElement(int element) {
+        int parent = fDocument.get(element, CompactDocumentImpl.PARENT);
+        return parent > 0 ? parent : -1;
+    }
+
+    /** Looks up the namespace bound to a prefix in scope of an element. */
+    final String lookupNamespaceURI(int element, String specifiedPrefix) {
+        CompactDocumentImpl doc = fDocument;
+        for (int e = element; e != -1; e = parentElement(e)) {
+            int name = doc.get(e, CompactDocumentImpl.NAME);
+            String namespace = doc.uri(name);
+            if (namespace != null && equal(specifiedPrefix, doc.prefix(name))) {
+                return namespace;
+            }
+            int attr = doc.firstAttr(e);
+            for (int end = attr + doc.attrCount(e); attr < end; attr++) {
+                int attrName = doc.attrName(attr);
+                if (XMLNS_URI.equals(doc.uri(attrName))) {
+                    String attrPrefix = doc.prefix(attrName);
+                    if (specifiedPrefix == null
+                        ? attrPrefix == null
+                        : "xmlns".equals(attrPrefix)
+                          && specifiedPrefix.equals(doc.localpart(attrName))) {
+                        String value = doc.attrValue(attr);
+                        return value.length() > 0 ? value : null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Compares two strings that may be null. */
+    static boolean equal(String s1, String s2) {
+        return s1 == null ? s2 == null : s1.equals(s2);
+    }
+
+    /** Returns the exception thrown by mutators. */
+    static DOMException readOnly() {
+        return new DOMException(DOMException.NO_MODIFICATION_ALLOWED_ERR,
+            DOMMessageFormatter.formatMessage(DOMMessageFormatter.DOM_DOMAIN,
+                "NO_MODIFICATION_ALLOWED_ERR", null));
+    }
+
+    /** Returns the exception thrown by factory and copying methods. */
+    static DOMException notSupported() {
+        return new DOMException(DOMException.NOT_SUPPORTED_ERR,
+            DOMMessageFormatter.formatMessage(DOMMessageFormatter.DOM_DOMAIN,
+                "NOT_SUPPORTED_ERR", null));
+    }
+
+} // class CompactNodeImpl
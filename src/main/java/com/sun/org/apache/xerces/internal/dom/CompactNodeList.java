@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import java.util.Arrays;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * A node list of a {@link CompactDocumentImpl}: either the children of a
+ * node, or the descendant elements of a node that match a name.
+ *
+ * <p>As the document does not change, positions and matches found are kept
+ * for later calls. Descendants are searched only as far as an item asked
+ * for.</p>
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+final class CompactNodeList implements NodeList {
+
+    //
+    // Data
+    //
+
+    /** The document. */
+    private final CompactDocumentImpl fDocument;
+
+    /** The node whose children or descendants are listed, or -1. */
+    private final int fRoot;
+
+    /** Whether the list holds descendants rather than children. */
+    private final boolean fDeep;
+
+    /** The namespace name to match, "" for none, or null to match names. */
+    private final String fNamespaceURI;
+
+    /** The name or local name to match. */
+    private final String fName;
+
+    /** Number of nodes, or -1 if not known yet. */
+    private int fLength = -1;
+
+    /** Item that the children cursor is at. */
+    private int fCursorItem = -1;
+
+    /** Node that the children cursor is at. */
+    private int fCursorNode = -1;
+
+    /** Descendants found so far. */
+    private int[] fMatches;
+
+    /** Number of descendants found so far. */
+    private int fMatchCount;
+
+    /** Node to continue the search for descendants at. */
+    private int fSearchNode;
+
+    /** End of the subtree searched. */
+    private int fSearchEnd;
+
+    /** Match results by name index: 0 unknown, 1 match, 2 no match. */
+    private byte[] fNameMatches;
+
+    //
+    // Constructors
+    //
+
+    /** Constructs the list of the children of a node. */
+    CompactNodeList(CompactDocumentImpl document, int parent) {
+        fDocument = document;
+        fRoot = parent;
+        fDeep = false;
+        fNamespaceURI = null;
+        fName = null;
+        if (parent == -1) {
+            fLength = 0;
+        }
+    }
+
+    /**
+     * Constructs the list of the descendant elements of a node that match a
+     * name. Either part of a name may be "*" to match any.
+     *
+     * @param root         The node whose descendants are listed.
+     * @param namespaceURI The namespace name, "" for no namespace, or null
+     *                     to match qualified names.
+     * @param name         The qualified name, or the local name if a
+     *                     namespace name is given.
+     */
+    CompactNodeList(CompactDocumentImpl document, int root,
+                    String namespaceURI, String name) {
+        fDocument = document;
+        fRoot = root;
+        fDeep = true;
+        fNamespaceURI = namespaceURI;
+        fName = name;
+        fMatches = new int[8];
+        fSearchNode = root + 1;
+        fSearchEnd = document.subtreeEnd(root);
+    }
+
+    //
+    // NodeList methods
+    //
+
+    public Node item(int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (fDeep) {
+            return search(index) ? fDocument.node(fMatches[index]) : null;
+        }
+        if (fLength != -1 && index >= fLength) {
+            return null;
+        }
+        CompactDocumentImpl doc = fDocument;
+        if (fCursorItem == -1 || index < fCursorItem >> 1) {
+            fCursorItem = 0;
+            fCursorNode = doc.firstChild(fRoot);
+        }
+        while (fCursorItem > index) {
+            fCursorNode = doc.get(fCursorNode, CompactDocumentImpl.PREV);
+            fCursorItem--;
+        }
+        while (fCursorItem < index && fCursorNode != -1) {
+            fCursorNode = doc.get(fCursorNode, CompactDocumentImpl.NEXT);
+            fCursorItem++;
+        }
+        if (fCursorNode == -1) {
+            fLength = fCursorItem;
+            fCursorItem = -1;
+            return null;
+        }
+        return doc.node(fCursorNode);
+    }
+
+    public int getLength() {
+        if (fLength == -1) {
+            if (fDeep) {
+                search(Integer.MAX_VALUE);
+                fLength = fMatchCount;
+            }
+            else {
+                int length = 0;
+                for (int node = fDocument.firstChild(fRoot); node != -1;
+                     node = fDocument.get(node, CompactDocumentImpl.NEXT)) {
+                    length++;
+                }
+                fLength = length;
+            }
+        }
+        return fLength;
+    }
+
+    //
+    // Private methods
+    //
+
+    /**
+     * Searches descendants until the given item is found or the subtree
+     * ends, and returns whether it was found.
+     */
+    private boolean search(int index) {
+        CompactDocumentImpl doc = fDocument;
+        int node = fSearchNode;
+        while (index >= fMatchCount && node < fSearchEnd) {
+            if (doc.type(node) == Node.ELEMENT_NODE
+                && matches(doc.get(node, CompactDocumentImpl.NAME))) {
+                if (fMatchCount == fMatches.length) {
+                    fMatches = Arrays.copyOf(fMatches, fMatchCount << 1);
+                }
+                fMatches[fMatchCount++] = node;
+            }
+            node++;
+        }
+        fSearchNode = node;
+        return index < fMatchCount;
+    }
+
+    /** Returns whether the element name with the given index matches. */
+    private boolean matches(int name) {
+        if (fNameMatches == null || name >= fNameMatches.length) {
+            fNameMatches = fNameMatches == null
+                         ? new byte[Math.max(name + 1, 16)]
+                         : Arrays.copyOf(fNameMatches,
+                               Math.max(name + 1, fNameMatches.length << 1));
+        }
+        byte match = fNameMatches[name];
+        if (match == 0) {
+            match = matchesName(name) ? (byte) 1 : (byte) 2;
+            fNameMatches[name] = match;
+        }
+        return match == 1;
+    }
+
+    /** Compares the element name with the given index to the name sought. */
+    private boolean matchesName(int name) {
+        CompactDocumentImpl doc = fDocument;
+        if (fNamespaceURI == null) {
+            return fName.equals("*") || fName.equals(doc.rawname(name));
+        }
+        String local = doc.localpart(name);
+        if (local == null || !fName.equals("*") && !fName.equals(local)) {
+            return false;
+        }
+        if (fNamespaceURI.equals("*")) {
+            return true;
+        }
+        String uri = doc.uri(name);
+        return fNamespaceURI.length() == 0 ? uri == null
+                                           : fNamespaceURI.equals(uri);
+    }
+
+} // class CompactNodeList
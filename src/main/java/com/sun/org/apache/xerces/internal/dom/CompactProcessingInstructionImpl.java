@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Node;
+import org.w3c.dom.ProcessingInstruction;
+
+/**
+ * A processing instruction of a {@link CompactDocumentImpl}.
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+public class CompactProcessingInstructionImpl extends CompactNodeImpl
+    implements ProcessingInstruction {
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a view of a processing instruction. */
+    CompactProcessingInstructionImpl(CompactDocumentImpl document, int index) {
+        super(document, index);
+    }
+
+    //
+    // Node methods
+    //
+
+    public short getNodeType() {
+        return Node.PROCESSING_INSTRUCTION_NODE;
+    }
+
+    public String getNodeName() {
+        return getTarget();
+    }
+
+    public String getNodeValue() throws DOMException {
+        return fDocument.value(fIndex);
+    }
+
+    public void setNodeValue(String nodeValue) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getTextContent() throws DOMException {
+        return fDocument.value(fIndex);
+    }
+
+    //
+    // ProcessingInstruction methods
+    //
+
+    public String getTarget() {
+        return fDocument.rawname(fDocument.get(fIndex, CompactDocumentImpl.NAME));
+    }
+
+    public String getData() {
+        return fDocument.value(fIndex);
+    }
+
+    public void setData(String data) throws DOMException {
+        throw readOnly();
+    }
+
+} // class CompactProcessingInstructionImpl
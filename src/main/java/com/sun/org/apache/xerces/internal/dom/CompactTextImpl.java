@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.dom;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * A text node of a {@link CompactDocumentImpl}.
+ *
+ * @xerces.internal
+ *
+ * @see CompactDocumentImpl
+ */
+public class CompactTextImpl extends CompactCharacterDataImpl implements Text {
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a view of a text node. */
+    CompactTextImpl(CompactDocumentImpl document, int index) {
+        super(document, index);
+    }
+
+    //
+    // Node methods
+    //
+
+    public short getNodeType() {
+        return Node.TEXT_NODE;
+    }
+
+    public String getNodeName() {
+        return "#text";
+    }
+
+    //
+    // Text methods
+    //
+
+    public Text splitText(int offset) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean isElementContentWhitespace() {
+        return (fDocument.get(fIndex, CompactDocumentImpl.TYPE)
+                & CompactDocumentImpl.IGNORABLE_WS) != 0;
+    }
+
+    /**
+     * Returns the text of this node and of the text nodes and CDATA
+     * sections next to it, in document order.
+     */
+    public String getWholeText() {
+        CompactDocumentImpl doc = fDocument;
+        int first = fIndex;
+        for (int prev; (prev = doc.get(first, CompactDocumentImpl.PREV)) != -1
+                       && isText(doc.type(prev)); ) {
+            first = prev;
+        }
+        int next = doc.get(first, CompactDocumentImpl.NEXT);
+        if (first == fIndex && (next == -1 || !isText(doc.type(next)))) {
+            return doc.value(fIndex);
+        }
+        StringBuilder buffer = new StringBuilder();
+        for (int node = first; node != -1 && isText(doc.type(node));
+             node = doc.get(node, CompactDocumentImpl.NEXT)) {
+            doc.appendValue(node, buffer);
+        }
+        return buffer.toString();
+    }
+
+    public Text replaceWholeText(String content) throws DOMException {
+        throw readOnly();
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Returns whether a node type is a text node type. */
+    private static boolean isText(short type) {
+        return type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE;
+    }
+
+} // class CompactTextImpl
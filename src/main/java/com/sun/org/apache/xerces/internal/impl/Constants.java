@@ -57,6 +57,15 @@ public final class Constants {
     public static final String ESCAPE_CHARACTERS = "escapeCharacters";
     public static final String REUSE_INSTANCE = "reuse-instance" ;
 
+    /**
+     * If true, XMLOutputFactory writes to an OutputStream with an
+     * XMLStreamWriter that encodes UTF-8 straight into a byte buffer.
+     * It applies when namespaces are not repaired and the encoding is
+     * UTF-8 or not given, in which case UTF-8 is written rather than the
+     * platform's default encoding.
+     */
+    public static final String UTF8_BYTE_WRITER = "utf8-byte-writer";
+
     //DOM properties
     public static final String SUN_DOM_PROPERTY_PREFIX = "http://java.sun.com/xml/dom/properties/" ;
     public static final String SUN_DOM_ANCESTOR_CHECCK = "ancestor-check";
@@ -156,6 +165,85 @@ public final class Constants {
      */
     public static final String ORACLE_FEATURE_SERVICE_MECHANISM = "http://www.oracle.com/feature/use-service-mechanism";
 
+    /**
+     * Feature cache-grammars: specifies whether the XML Schema grammars
+     * loaded by parsers or validators are kept and shared with the other
+     * parsers or validators created by the same factory
+     *
+     * <ul>
+     *   <li>
+     * {@code true} instruct a factory to cache the grammars loaded through
+     * schema location hints or the JAXP schema source property, and to reuse
+     * them for later documents with the same target namespace. The first
+     * grammar cached for a namespace is kept, whichever document loaded it,
+     * and at most {@code ConcurrentGrammarPool.DEFAULT_MAX_GRAMMARS} grammars
+     * are cached: set this only on factories whose documents are trusted.
+     *   </li>
+     *   <li>
+     * {@code false} instruct a factory to let every parser load its own
+     * grammars. This is the default behavior.
+     *   </li>
+     * </ul>
+     */
+    public static final String ORACLE_FEATURE_CACHE_GRAMMARS = "http://www.oracle.com/feature/cache-grammars";
+
+    /**
+     * Feature shared-symbol-table: specifies whether a parser interns names
+     * in a symbol table shared by all parsers
+     *
+     * <ul>
+     *   <li>
+     * {@code true} instruct a parser to use the symbol table returned by
+     * {@code ConcurrentSymbolTable.getSharedInstance()}, so that names seen
+     * by earlier parsers are not interned again.
+     *   </li>
+     *   <li>
+     * {@code false} instruct a parser to use its own symbol table. This is
+     * the default behavior.
+     *   </li>
+     * </ul>
+     */
+    public static final String ORACLE_FEATURE_SHARED_SYMBOL_TABLE = "http://www.oracle.com/feature/shared-symbol-table";
+
+    /**
+     * Feature compact-dom: specifies whether a document builder builds a
+     * compact, read-only DOM
+     *
+     * <ul>
+     *   <li>
+     * {@code true} instruct a factory to create builders that store the
+     * nodes of a document in arrays and create node objects only when they
+     * are asked for. The document cannot be modified, has no document type
+     * node and has the content of entity references in their place.
+     *   </li>
+     *   <li>
+     * {@code false} instruct a factory to create builders that build a
+     * regular DOM. This is the default behavior.
+     *   </li>
+     * </ul>
+     */
+    public static final String ORACLE_FEATURE_COMPACT_DOM = "http://www.oracle.com/feature/compact-dom";
+
+    /**
+     * Feature parallel-validation: specifies whether a validator splits the
+     * documents of stream sources and validates the parts concurrently
+     *
+     * <ul>
+     *   <li>
+     * {@code true} instruct a validator to split a document between the
+     * children of its root element, validate runs of children on the
+     * common fork/join pool against the shared grammars of the schema, and
+     * check identity constraints and IDs across the runs at the end of the
+     * root. Documents that cannot be split safely are validated as usual.
+     *   </li>
+     *   <li>
+     * {@code false} instruct a validator to validate a document in a single
+     * pass. This is the default behavior.
+     *   </li>
+     * </ul>
+     */
+    public static final String ORACLE_FEATURE_PARALLEL_VALIDATION = "http://www.oracle.com/feature/parallel-validation";
+
     /** Document XML version property ("document-xml-version"). */
     public static final String DOCUMENT_XML_VERSION_PROPERTY = "document-xml-version";
 
@@ -141,6 +141,7 @@ public class PropertyManager {
         //default value of escaping characters is 'true'
         supportedProps.put(Constants.ESCAPE_CHARACTERS , Boolean.TRUE);
         supportedProps.put(Constants.REUSE_INSTANCE, new Boolean(true));
+        supportedProps.put(Constants.UTF8_BYTE_WRITER, Boolean.FALSE);
     }
 
     /**
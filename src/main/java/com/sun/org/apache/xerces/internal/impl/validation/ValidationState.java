@@ -25,6 +25,7 @@ import com.sun.org.apache.xerces.internal.impl.dv.ValidationContext;
 
 import com.sun.org.apache.xerces.internal.xni.NamespaceContext;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -181,6 +182,17 @@ public class ValidationState implements ValidationContext {
         if (fIdRefList == null) fIdRefList = new ArrayList();
         fIdRefList.add(name);
     }
+
+    /** Returns the ID values added since the tables were reset, or null. */
+    public List<String> getIdList() {
+        return fIdList;
+    }
+
+    /** Returns the IDREF values added since the tables were reset, or null. */
+    public List<String> getIdRefList() {
+        return fIdRefList;
+    }
+
     // get symbols
 
     public String getSymbol (String symbol) {
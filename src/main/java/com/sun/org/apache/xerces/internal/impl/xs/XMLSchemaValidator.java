@@ -30,6 +30,7 @@ import com.sun.org.apache.xerces.internal.impl.dv.ValidatedInfo;
 import com.sun.org.apache.xerces.internal.impl.dv.XSSimpleType;
 import com.sun.org.apache.xerces.internal.impl.validation.ValidationManager;
 import com.sun.org.apache.xerces.internal.impl.validation.ValidationState;
+import com.sun.org.apache.xerces.internal.impl.xpath.XPath;
 import com.sun.org.apache.xerces.internal.impl.xs.identity.Field;
 import com.sun.org.apache.xerces.internal.impl.xs.identity.FieldActivator;
 import com.sun.org.apache.xerces.internal.impl.xs.identity.IdentityConstraint;
@@ -78,6 +79,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 import java.util.Vector;
@@ -1262,6 +1266,76 @@ public class XMLSchemaValidator
     /** Cache of value stores for identity constraint fields. */
     protected ValueStoreCache fValueStoreCache = new ValueStoreCache();
 
+    // parallel validation
+
+    /** Coordinator of the fragments, when validating the outline of a document. */
+    private FragmentCoordinator fOutline;
+
+    /** Declarations of the children of the validation root, when validating a fragment. */
+    private Object[] fFragmentDecls;
+
+    /** Index of the next child of the validation root in a fragment. */
+    private int fFragmentChild;
+
+    /** State passed on to the outline validator, when validating a fragment. */
+    private FragmentState fFragmentState;
+
+    /**
+     * Receives the outline of a document that is validated in parts. The
+     * outline is the document with the content of the children of the
+     * validation root left out; the children themselves are validated as
+     * fragments by other validators.
+     */
+    public interface FragmentCoordinator {
+
+        /**
+         * Called at the start of the validation root.
+         *
+         * @param splittable whether the children of the root can be
+         *                   validated as fragments. If false, the
+         *                   coordinator has to validate the document
+         *                   as a whole.
+         */
+        public void startRoot(boolean splittable);
+
+        /**
+         * Called for each child of the validation root, in document order,
+         * with what it matched in the content model of the root: an element
+         * declaration, a wildcard or null.
+         */
+        public void childMatched(Object decl);
+
+        /**
+         * Called at the end of the validation root. Returns the states of
+         * all the fragments, in document order, once they are validated.
+         */
+        public FragmentState[] endRoot();
+
+    } // interface FragmentCoordinator
+
+    /**
+     * The identity constraint and ID/IDREF state left by the validation of a
+     * fragment, to be merged at the end of the validation root.
+     */
+    public static final class FragmentState {
+
+        /** Unique and key values selected from the root. */
+        final Map<IdentityConstraint, ValueStoreBase> fKeys = new LinkedHashMap<>();
+
+        /** Keyref values selected from the root. */
+        final Map<IdentityConstraint, ValueStoreBase> fKeyRefs = new LinkedHashMap<>();
+
+        /** Unique and key values in scope at the end of the root. */
+        Map<IdentityConstraint, ValueStoreBase> fGlobal;
+
+        /** IDs and IDREFs of the root, which every fragment sees. */
+        int fRootIds, fRootIdRefs;
+
+        /** IDs and IDREFs of the fragment. */
+        List<String> fIds, fIdRefs;
+
+    } // class FragmentState
+
     //
     // Constructors
     //
@@ -1273,6 +1347,34 @@ public class XMLSchemaValidator
 
     } // <init>()
 
+    /**
+     * Validates the outline of the next document: the validation root and
+     * the sequence of its children, but not the content of the children.
+     * The identity constraints and IDs of the fragments reported by the
+     * coordinator are checked at the end of the root. Cleared by reset.
+     */
+    public void setFragmentCoordinator(FragmentCoordinator coordinator) {
+        fOutline = coordinator;
+    }
+
+    /**
+     * Validates the children of the validation root of the next document as
+     * a fragment of a larger document. The root only provides the context:
+     * its own attributes and content are checked by the outline validator,
+     * which has matched the children to the given declarations. Cleared by
+     * reset.
+     */
+    public void setFragmentDeclarations(Object[] decls) {
+        fFragmentDecls = decls;
+        fFragmentChild = 0;
+        fFragmentState = decls != null ? new FragmentState() : null;
+    }
+
+    /** Returns the state left by the validation of a fragment. */
+    public FragmentState getFragmentState() {
+        return fFragmentState;
+    }
+
     /*
      * Resets the component. The component can query the component manager
      * about any features and properties that affect the operation of the
@@ -1291,6 +1393,8 @@ public class XMLSchemaValidator
 
 
         fIdConstraint = false;
+        fOutline = null;
+        setFragmentDeclarations(null);
         //reset XSDDescription
         fLocationPairs.clear();
 
@@ -1778,7 +1882,13 @@ public class XMLSchemaValidator
         // error reported here (if any) is stored within the parent element's
         // context, instead of that of the current element.
         Object decl = null;
-        if (fCurrentCM != null) {
+        if (fFragmentDecls != null && fElementDepth == 0) {
+            // a child of the root of a fragment: the outline validator has
+            // already matched it against the content model of the root
+            if (fFragmentChild < fFragmentDecls.length)
+                decl = fFragmentDecls[fFragmentChild++];
+        }
+        else if (fCurrentCM != null) {
             decl = fCurrentCM.oneTransition(element, fCurrCMState, fSubGroupHandler);
             // it could be an element decl or a wildcard decl
             if (fCurrCMState[0] == XSCMValidator.FIRST_ERROR) {
@@ -1838,6 +1948,12 @@ public class XMLSchemaValidator
             }
         }
 
+        // the fragment validators take the declarations of the children of
+        // the root in order, including those of skipped children
+        if (fOutline != null && fElementDepth == 1) {
+            fOutline.childMatched(decl);
+        }
+
         // if the wildcard is skip, then return
         if (wildcard != null && wildcard.fProcessContents == XSWildcardDecl.PC_SKIP) {
             fSkipValidationDepth = fElementDepth;
@@ -1846,6 +1962,15 @@ public class XMLSchemaValidator
             return augs;
         }
 
+        // the content of the children of the root is left to the fragment
+        // validators: skip it once the child has been matched
+        if (fOutline != null && fElementDepth == 1) {
+            fSkipValidationDepth = fElementDepth;
+            if (fAugPSVI)
+                augs = getEmptyAugs(augs);
+            return augs;
+        }
+
         // try again to get the element decl:
         // case 1: find declaration for root element
         // case 2: find declaration for element from another namespace
@@ -2043,7 +2168,7 @@ public class XMLSchemaValidator
         // activate identity constraints
         fValueStoreCache.startElement();
         fMatcherStack.pushContext();
-        if (fCurrentElemDecl != null && fCurrentElemDecl.fIDCPos > 0) {
+        if (fCurrentElemDecl != null && fCurrentElemDecl.fIDCPos > 0 && fOutline == null) {
             fIdConstraint = true;
             // initialize when identity constrains are defined for the elem
             fValueStoreCache.initValueStoresFor(fCurrentElemDecl, this);
@@ -2075,10 +2200,50 @@ public class XMLSchemaValidator
             fCurrentPSVI.fNotation = fNotation;
         }
 
+        if (fElementDepth == 0) {
+            if (fOutline != null) {
+                fOutline.startRoot(isSplittable());
+            }
+            else if (fFragmentDecls != null) {
+                // the IDs of the root are counted by the outline validator
+                fFragmentState.fRootIds = size(fValidationState.getIdList());
+                fFragmentState.fRootIdRefs = size(fValidationState.getIdRefList());
+            }
+        }
+
         return augs;
 
     } // handleStartElement(QName,XMLAttributes,boolean)
 
+    /**
+     * Returns whether the children of the validation root can be validated
+     * as separate fragments. They cannot when an identity constraint of the
+     * root may select the root itself: every fragment would see it.
+     */
+    private boolean isSplittable() {
+        if (fCurrentElemDecl == null)
+            return true;
+        for (int i = 0; i < fCurrentElemDecl.fIDCPos; i++) {
+            Selector selector = fCurrentElemDecl.fIDConstraints[i].getSelector();
+            if (selector == null)
+                continue;
+            XPath.LocationPath[] paths = selector.getXPath().getLocationPaths();
+            LOOP: for (int j = 0; j < paths.length; j++) {
+                XPath.Step[] steps = paths[j].steps;
+                for (int k = 0; k < steps.length; k++) {
+                    if (steps[k].axis.type == XPath.Axis.CHILD)
+                        continue LOOP;
+                }
+                return false;
+            }
+        }
+        return true;
+    } // isSplittable():boolean
+
+    private static int size(List<String> list) {
+        return list != null ? list.size() : 0;
+    }
+
     /**
      *  Handle end element. If there is not text content, and there is a
      *  {value constraint} on the corresponding element decl, then
@@ -2131,8 +2296,10 @@ public class XMLSchemaValidator
             return augs;
         }
 
-        // now validate the content of the element
-        processElementContent(element);
+        // now validate the content of the element; the content of the root
+        // of a fragment is only part of it, and is left to the outline
+        if (fFragmentDecls == null || fElementDepth != 0)
+            processElementContent(element);
 
         // Element Locally Valid (Element)
         // 6 The element information item must be valid with respect to each of the {identity-constraint definitions} as per Identity-constraint Satisfied (3.11.4).
@@ -2174,6 +2341,10 @@ public class XMLSchemaValidator
                 if ((id = selMatcher.getIdentityConstraint()) != null
                     && id.getCategory() != IdentityConstraint.IC_KEYREF) {
                     fValueStoreCache.transplant(id, selMatcher.getInitialDepth());
+                    if (fFragmentState != null && fElementDepth == 0) {
+                        fFragmentState.fKeys.put(id,
+                            fValueStoreCache.getValueStoreFor(id, selMatcher.getInitialDepth()));
+                    }
                 }
             }
         }
@@ -2188,18 +2359,42 @@ public class XMLSchemaValidator
                     && id.getCategory() == IdentityConstraint.IC_KEYREF) {
                     ValueStoreBase values =
                         fValueStoreCache.getValueStoreFor(id, selMatcher.getInitialDepth());
-                    if (values != null) // nothing to do if nothing matched!
+                    if (values == null) // nothing to do if nothing matched!
+                        continue;
+                    // the keys of a fragment are only part of those in scope:
+                    // leave the check to the outline validator
+                    if (fFragmentState != null && fElementDepth == 0)
+                        fFragmentState.fKeyRefs.put(id, values);
+                    else
                         values.endDocumentFragment();
                 }
             }
         }
+        if (fFragmentState != null && fElementDepth == 0) {
+            fFragmentState.fGlobal = new HashMap<>(fValueStoreCache.fGlobalIDConstraintMap);
+        }
         fValueStoreCache.endElement();
 
         SchemaGrammar[] grammars = null;
         // have we reached the end tag of the validation root?
         if (fElementDepth == 0) {
             // 7 If the element information item is the validation root, it must be valid per Validation Root Valid (ID/IDREF) (3.3.4).
-            String invIdRef = fValidationState.checkIDRefID();
+            String invIdRef;
+            if (fFragmentState != null) {
+                List<String> ids = fValidationState.getIdList();
+                List<String> idRefs = fValidationState.getIdRefList();
+                fFragmentState.fIds = ids != null
+                    ? ids.subList(fFragmentState.fRootIds, ids.size()) : null;
+                fFragmentState.fIdRefs = idRefs != null
+                    ? idRefs.subList(fFragmentState.fRootIdRefs, idRefs.size()) : null;
+                invIdRef = null;
+            }
+            else if (fOutline != null) {
+                invIdRef = mergeFragments(fOutline.endRoot());
+            }
+            else {
+                invIdRef = fValidationState.checkIDRefID();
+            }
             fValidationState.resetIDTables();
             if (invIdRef != null) {
                 reportSchemaError("cvc-id.1", new Object[] { invIdRef });
@@ -2257,6 +2452,98 @@ public class XMLSchemaValidator
         return augs;
     } // handleEndElement(QName,boolean)*/
 
+    /**
+     * Checks the identity constraints of the validation root and the IDs
+     * of the document across its fragments, once each fragment has been
+     * validated on its own. Values that repeat across fragments are
+     * reported here, at the end of the root, rather than where they occur.
+     * Returns the first IDREF without a matching ID, or null.
+     */
+    private String mergeFragments(FragmentState[] fragments) {
+
+        // unique and key values of the root must not repeat across fragments
+        Map<IdentityConstraint, ValueStoreBase> keys = new HashMap<>();
+        Map<IdentityConstraint, ValueStoreBase> keyRefs = new LinkedHashMap<>();
+        Map<IdentityConstraint, ValueStoreBase> global = fValueStoreCache.fGlobalIDConstraintMap;
+        for (FragmentState fragment : fragments) {
+            for (Map.Entry<IdentityConstraint, ValueStoreBase> entry : fragment.fKeys.entrySet()) {
+                if (entry.getValue() != null)
+                    mergedStore(keys, entry.getKey()).appendFragment(entry.getValue(), true);
+            }
+            for (Map.Entry<IdentityConstraint, ValueStoreBase> entry : fragment.fKeyRefs.entrySet()) {
+                mergedStore(keyRefs, entry.getKey()).appendFragment(entry.getValue(), false);
+            }
+            if (fragment.fGlobal != null) {
+                for (Map.Entry<IdentityConstraint, ValueStoreBase> entry : fragment.fGlobal.entrySet()) {
+                    if (entry.getValue() != null)
+                        mergedStore(global, entry.getKey()).appendFragment(entry.getValue(), false);
+                }
+            }
+        }
+
+        // keyrefs of the root refer to the keys in scope in all fragments
+        for (ValueStoreBase values : keyRefs.values()) {
+            values.endDocumentFragment();
+        }
+
+        // IDs must not repeat across fragments: repeats within a fragment
+        // have been reported by its own validator
+        HashSet<String> ids = new HashSet<>();
+        HashSet<String> own = new HashSet<>();
+        for (FragmentState fragment : fragments) {
+            if (fragment.fIds == null)
+                continue;
+            own.clear();
+            for (String id : fragment.fIds) {
+                if (own.add(id) && ids.contains(id))
+                    reportSchemaError("cvc-id.2", new Object[] { id });
+            }
+            ids.addAll(own);
+        }
+
+        // IDREFs may refer to IDs of the root or of any fragment
+        List<String> rootIds = fValidationState.getIdList();
+        if (rootIds != null)
+            ids.addAll(rootIds);
+        List<String> rootIdRefs = fValidationState.getIdRefList();
+        if (rootIdRefs != null) {
+            for (String idRef : rootIdRefs) {
+                if (!ids.contains(idRef))
+                    return idRef;
+            }
+        }
+        for (FragmentState fragment : fragments) {
+            if (fragment.fIdRefs == null)
+                continue;
+            for (String idRef : fragment.fIdRefs) {
+                if (!ids.contains(idRef))
+                    return idRef;
+            }
+        }
+        return null;
+
+    } // mergeFragments(FragmentState[]):String
+
+    private ValueStoreBase mergedStore(Map<IdentityConstraint, ValueStoreBase> stores,
+            IdentityConstraint id) {
+        ValueStoreBase values = stores.get(id);
+        if (values == null) {
+            switch (id.getCategory()) {
+                case IdentityConstraint.IC_UNIQUE :
+                    values = new UniqueValueStore((UniqueOrKey) id);
+                    break;
+                case IdentityConstraint.IC_KEY :
+                    values = new KeyValueStore((UniqueOrKey) id);
+                    break;
+                default :
+                    values = new KeyRefValueStore((KeyRef) id, null);
+                    break;
+            }
+            stores.put(id, values);
+        }
+        return values;
+    } // mergedStore(Map,IdentityConstraint):ValueStoreBase
+
     final Augmentations endElementPSVI(
         boolean root,
         SchemaGrammar[] grammars,
@@ -3424,6 +3711,10 @@ public class XMLSchemaValidator
         private int fItemValueTypesLength = 0;
         private ShortList fItemValueType = null;
 
+        /** sets of fields of earlier fragments, for duplicate checks */
+        private HashSet<Tuple> fTuples = null;
+        private int fTuplesLength = 0;
+
         /** buffer for error messages */
         final StringBuffer fTempBuffer = new StringBuffer();
 
@@ -3458,6 +3749,8 @@ public class XMLSchemaValidator
             fUseItemValueTypeVector = false;
             fItemValueTypesLength = 0;
             fItemValueType = null;
+            fTuples = null;
+            fTuplesLength = 0;
             fValues.setSize(0);
             if (fValueTypes != null) {
                 fValueTypes.clear();
@@ -3474,6 +3767,118 @@ public class XMLSchemaValidator
             }
         } // append(ValueStoreBase)
 
+        // appends the values of a fragment of the document, with their
+        // types. If the values have to be unique, those that repeat a value
+        // of an earlier fragment are reported; values repeated within the
+        // fragment have been reported by its own validator.
+        void appendFragment(ValueStoreBase fragment, boolean unique) {
+            HashSet<Tuple> added = null;
+            if (unique) {
+                if (fTuples == null) {
+                    fTuples = new HashSet<>();
+                }
+                for (; fTuplesLength < fValues.size(); fTuplesLength += fFieldCount) {
+                    fTuples.add(new Tuple(this, fTuplesLength));
+                }
+                added = new HashSet<>();
+            }
+            final int size = fragment.fValues.size();
+            for (int i = 0; i < size; i += fFieldCount) {
+                if (unique) {
+                    Tuple tuple = new Tuple(fragment, i);
+                    if (added.add(tuple) && fTuples.contains(tuple)) {
+                        String code = fIdentityConstraint.getCategory() == IdentityConstraint.IC_KEY
+                            ? "DuplicateKey" : "DuplicateUnique";
+                        String value = toString(fragment.fValues, i, fFieldCount);
+                        String eName = fIdentityConstraint.getElementName();
+                        String cName = fIdentityConstraint.getIdentityConstraintName();
+                        reportSchemaError(code, new Object[] { value, eName, cName });
+                    }
+                }
+                for (int j = i; j < i + fFieldCount; j++) {
+                    fValues.addElement(fragment.fValues.elementAt(j));
+                    addValueType(fragment.valueTypeAt(j));
+                    addItemValueType(fragment.itemValueTypeAt(j));
+                }
+            }
+            if (unique) {
+                fTuples.addAll(added);
+                fTuplesLength = fValues.size();
+            }
+        } // appendFragment(ValueStoreBase,boolean)
+
+        // returns whether the set of fields starting at start1 in one value
+        // store equals the set starting at start2 in another.
+        private boolean equalFields(ValueStoreBase vsb1, int start1, ValueStoreBase vsb2, int start2) {
+            for (int k = 0; k < fFieldCount; ++k) {
+                final Object value1 = vsb1.fValues.elementAt(start1+k);
+                final Object value2 = vsb2.fValues.elementAt(start2+k);
+                final short valueType1 = vsb1.valueTypeAt(start1+k);
+                final short valueType2 = vsb2.valueTypeAt(start2+k);
+                if (value1 != value2 && (valueType1 != valueType2 || value1 == null || !value1.equals(value2))) {
+                    return false;
+                }
+                else if(valueType1 == XSConstants.LIST_DT || valueType1 == XSConstants.LISTOFUNION_DT) {
+                    ShortList list1 = vsb1.itemValueTypeAt(start1+k);
+                    ShortList list2 = vsb2.itemValueTypeAt(start2+k);
+                    if (list1 == null || list2 == null || !list1.equals(list2)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } // equalFields(ValueStoreBase,int,ValueStoreBase,int):boolean
+
+        /**
+         * A set of fields in a value store, hashed by value so that
+         * duplicates can be found without traversing the global vector.
+         */
+        private final class Tuple {
+            final ValueStoreBase fStore;
+            final int fStart;
+            final int fHash;
+
+            Tuple(ValueStoreBase store, int start) {
+                fStore = store;
+                fStart = start;
+                int hash = 0;
+                for (int k = 0; k < fFieldCount; ++k) {
+                    final Object value = store.fValues.elementAt(start+k);
+                    hash = hash * 31 + (value != null ? value.hashCode() : 0);
+                }
+                fHash = hash;
+            }
+
+            public int hashCode() {
+                return fHash;
+            }
+
+            public boolean equals(Object object) {
+                if (!(object instanceof Tuple)) {
+                    return false;
+                }
+                final Tuple tuple = (Tuple) object;
+                return fHash == tuple.fHash
+                    && equalFields(fStore, fStart, tuple.fStore, tuple.fStart);
+            }
+        } // class Tuple
+
+        // append() copies values without their types: fall back to the
+        // first type for the values it added
+        private short valueTypeAt(int index) {
+            if (fUseValueTypeVector && index >= fValueTypes.length()) {
+                return fValueType;
+            }
+            return getValueTypeAt(index);
+        }
+
+        private ShortList itemValueTypeAt(int index) {
+            if (fUseItemValueTypeVector && index >= fItemValueTypes.size()) {
+                return fItemValueType;
+            }
+            return getItemValueTypeAt(index);
+        }
+
         /** Start scope for value store. */
         public void startValueScope() {
             fValuesCount = 0;
@@ -20,8 +20,12 @@
 
 package com.sun.org.apache.xerces.internal.jaxp;
 
+import com.sun.org.apache.xerces.internal.impl.Constants;
 import com.sun.org.apache.xerces.internal.parsers.DOMParser;
+import com.sun.org.apache.xerces.internal.util.ConcurrentGrammarPool;
 import com.sun.org.apache.xerces.internal.util.SAXMessageFormatter;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarDescription;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarPool;
 import java.util.HashMap;
 import java.util.Map;
 import javax.xml.XMLConstants;
@@ -50,6 +54,17 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
      */
     private boolean fSecureProcess = true;
 
+    /**
+     * Grammars shared by the builders of this factory, or null if the
+     * cache-grammars feature is not set
+     */
+    private XMLGrammarPool fGrammarPool;
+
+    /**
+     * State of the compact-dom feature, initially <code>false</code>
+     */
+    private boolean fCompactDOM;
+
     /**
      * Creates a new instance of a {@link javax.xml.parsers.DocumentBuilder}
      * using the currently configured parameters.
@@ -155,6 +170,16 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
         return grammar;
     }
 
+    // package private
+    XMLGrammarPool getGrammarPool() {
+        return fGrammarPool;
+    }
+
+    // package private
+    boolean isCompactDOM() {
+        return fCompactDOM;
+    }
+
     public void setSchema(Schema grammar) {
         this.grammar = grammar;
     }
@@ -172,6 +197,12 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
         if (name.equals(XMLConstants.FEATURE_SECURE_PROCESSING)) {
             return fSecureProcess;
         }
+        if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            return fGrammarPool != null;
+        }
+        if (name.equals(Constants.ORACLE_FEATURE_COMPACT_DOM)) {
+            return fCompactDOM;
+        }
         // See if it's in the features map
         if (features != null) {
             Boolean val = features.get(name);
@@ -204,6 +235,20 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
             features.put(name, value ? Boolean.TRUE : Boolean.FALSE);
             return;
         }
+        // The grammar cache belongs to the factory, not to the parsers.
+        if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            if (!value) {
+                fGrammarPool = null;
+            } else if (fGrammarPool == null) {
+                fGrammarPool = new ConcurrentGrammarPool(XMLGrammarDescription.XML_SCHEMA);
+            }
+            return;
+        }
+        // So is the choice of DOM: the parsers do not know the feature.
+        if (name.equals(Constants.ORACLE_FEATURE_COMPACT_DOM)) {
+            fCompactDOM = value;
+            return;
+        }
 
         features.put(name, value ? Boolean.TRUE : Boolean.FALSE);
         // Test the feature by possibly throwing SAX exceptions
@@ -26,6 +26,7 @@ import com.sun.org.apache.xerces.internal.impl.Constants;
 import com.sun.org.apache.xerces.internal.impl.validation.ValidationManager;
 import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaValidator;
 import com.sun.org.apache.xerces.internal.jaxp.validation.XSGrammarPoolContainer;
+import com.sun.org.apache.xerces.internal.parsers.CompactDOMParser;
 import com.sun.org.apache.xerces.internal.parsers.DOMParser;
 import com.sun.org.apache.xerces.internal.utils.XMLSecurityManager;
 import com.sun.org.apache.xerces.internal.utils.XMLSecurityPropertyManager;
@@ -99,6 +100,10 @@ public class DocumentBuilderImpl extends DocumentBuilder
     private static final String XML_SECURITY_PROPERTY_MANAGER =
             Constants.XML_SECURITY_PROPERTY_MANAGER;
 
+    /** Property identifier: grammar pool. */
+    private static final String XMLGRAMMAR_POOL =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.XMLGRAMMAR_POOL_PROPERTY;
+
     /** property identifier: access external dtd. */
     public static final String ACCESS_EXTERNAL_DTD = XMLConstants.ACCESS_EXTERNAL_DTD;
 
@@ -133,7 +138,7 @@ public class DocumentBuilderImpl extends DocumentBuilder
             Map<String, Boolean> features, boolean secureProcessing)
         throws SAXNotRecognizedException, SAXNotSupportedException
     {
-        domParser = new DOMParser();
+        domParser = dbf.isCompactDOM() ? new CompactDOMParser() : new DOMParser();
 
         // If validating, provide a default ErrorHandler that prints
         // validation errors with a warning telling the user to set an
@@ -229,6 +234,10 @@ public class DocumentBuilderImpl extends DocumentBuilder
             fSchemaValidatorComponentManager = null;
             fSchemaValidator = null;
             setFeatures(features);
+            // Share the grammars loaded through hints with the factory's other builders.
+            if (dbf.getGrammarPool() != null) {
+                domParser.setProperty(XMLGRAMMAR_POOL, dbf.getGrammarPool());
+            }
         }
 
         //setAttribute override those that may be set by other means
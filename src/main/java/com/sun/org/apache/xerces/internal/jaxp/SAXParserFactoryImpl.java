@@ -21,7 +21,10 @@
 package com.sun.org.apache.xerces.internal.jaxp;
 
 import com.sun.org.apache.xerces.internal.impl.Constants;
+import com.sun.org.apache.xerces.internal.util.ConcurrentGrammarPool;
 import com.sun.org.apache.xerces.internal.util.SAXMessageFormatter;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarDescription;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarPool;
 import java.util.HashMap;
 import java.util.Map;
 import javax.xml.XMLConstants;
@@ -66,6 +69,12 @@ public class SAXParserFactoryImpl extends SAXParserFactory {
      */
     private boolean fSecureProcess = true;
 
+    /**
+     * Grammars shared by the parsers of this factory, or null if the
+     * cache-grammars feature is not set
+     */
+    private XMLGrammarPool fGrammarPool;
+
     /**
      * Creates a new instance of <code>SAXParser</code> using the currently
      * configured factory parameters.
@@ -125,6 +134,15 @@ public class SAXParserFactoryImpl extends SAXParserFactory {
             putInFeatures(name, value);
             return;
         }
+        // The grammar cache belongs to the factory, not to the parsers.
+        if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            if (!value) {
+                fGrammarPool = null;
+            } else if (fGrammarPool == null) {
+                fGrammarPool = new ConcurrentGrammarPool(XMLGrammarDescription.XML_SCHEMA);
+            }
+            return;
+        }
 
         // XXX This is ugly.  We have to collect the features and then
         // later create an XMLReader to verify the features.
@@ -154,6 +172,9 @@ public class SAXParserFactoryImpl extends SAXParserFactory {
         if (name.equals(XMLConstants.FEATURE_SECURE_PROCESSING)) {
             return fSecureProcess;
         }
+        if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            return fGrammarPool != null;
+        }
         // Check for valid name by creating a dummy XMLReader to get
         // feature value
         return newSAXParserImpl().getXMLReader().getFeature(name);
@@ -167,6 +188,11 @@ public class SAXParserFactoryImpl extends SAXParserFactory {
         this.grammar = grammar;
     }
 
+    // package private
+    XMLGrammarPool getGrammarPool() {
+        return fGrammarPool;
+    }
+
     public boolean isXIncludeAware() {
         return getFromFeatures(XINCLUDE_FEATURE);
     }
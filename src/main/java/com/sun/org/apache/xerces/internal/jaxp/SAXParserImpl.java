@@ -95,6 +95,10 @@ public class SAXParserImpl extends javax.xml.parsers.SAXParser
     private static final String XML_SECURITY_PROPERTY_MANAGER =
             Constants.XML_SECURITY_PROPERTY_MANAGER;
 
+    /** Property identifier: grammar pool. */
+    private static final String XMLGRAMMAR_POOL =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.XMLGRAMMAR_POOL_PROPERTY;
+
     private final JAXPSAXParser xmlReader;
     private String schemaLanguage = null;     // null means DTD
     private final Schema grammar;
@@ -227,6 +231,11 @@ public class SAXParserImpl extends javax.xml.parsers.SAXParser
             fUnparsedEntityHandler = null;
             fSchemaValidatorComponentManager = null;
             fSchemaValidator = null;
+            // Share the grammars loaded through hints with the factory's other parsers.
+            // Not recorded as initial state, so reset() leaves it in place.
+            if (spf.getGrammarPool() != null) {
+                xmlReader.setProperty0(XMLGRAMMAR_POOL, spf.getGrammarPool());
+            }
         }
 
         // Initial EntityResolver
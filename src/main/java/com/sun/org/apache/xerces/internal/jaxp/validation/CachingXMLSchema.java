@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.jaxp.validation;
+
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarPool;
+
+/**
+ * <p>Implementation of Schema for W3C XML Schemas which, like
+ * {@link WeakReferenceXMLSchema}, loads its components from the schema
+ * location hints of the validated documents, but keeps them in a grammar
+ * pool shared with the other schemas of the factory that created it.</p>
+ */
+final class CachingXMLSchema extends AbstractXMLSchema {
+
+    /** The shared grammar pool. */
+    private final XMLGrammarPool fGrammarPool;
+
+    public CachingXMLSchema(XMLGrammarPool grammarPool) {
+        fGrammarPool = grammarPool;
+    }
+
+    /*
+     * XSGrammarPoolContainer methods
+     */
+
+    public XMLGrammarPool getGrammarPool() {
+        return fGrammarPool;
+    }
+
+    public boolean isFullyComposed() {
+        return false;
+    }
+
+} // CachingXMLSchema
@@ -0,0 +1,1509 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.jaxp.validation;
+
+import com.sun.org.apache.xerces.internal.impl.Constants;
+import com.sun.org.apache.xerces.internal.impl.XMLEntityManager;
+import com.sun.org.apache.xerces.internal.impl.XMLErrorReporter;
+import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaValidator;
+import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaValidator.FragmentCoordinator;
+import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaValidator.FragmentState;
+import com.sun.org.apache.xerces.internal.xni.XMLLocator;
+import com.sun.org.apache.xerces.internal.xni.XNIException;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLErrorHandler;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLInputSource;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLParseException;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLParserConfiguration;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import org.xml.sax.SAXException;
+
+/**
+ * <p>A validator helper for <code>StreamSource</code>s which validates
+ * a document in parts, in parallel.</p>
+ *
+ * <p>The document is read once, on the calling thread, and split between
+ * the children of its root element. Runs of children are copied behind
+ * the start tag of the root into fragments, which are validated on the
+ * common fork/join pool. The calling thread validates the outline of the
+ * document: the document with the content of the children of the root
+ * left out. The outline validator checks the root and the sequence of its
+ * children, hands the declarations the children matched on to the
+ * fragments, and checks the identity constraints and IDs of the fragments
+ * against each other at the end of the root.</p>
+ *
+ * <p>All errors are buffered and passed on to the error handler in
+ * document order, at their positions in the document. Documents which
+ * cannot be split are validated by the stream validator helper.</p>
+ *
+ * @see Constants#ORACLE_FEATURE_PARALLEL_VALIDATION
+ */
+final class ParallelValidatorHelper implements ValidatorHelper, FragmentCoordinator {
+
+    // feature identifiers
+
+    /** Feature identifier: use grammar pool only. */
+    private static final String USE_GRAMMAR_POOL_ONLY =
+        Constants.XERCES_FEATURE_PREFIX + Constants.USE_GRAMMAR_POOL_ONLY_FEATURE;
+
+    /** Feature identifier: dynamic validation. */
+    private static final String DYNAMIC_VALIDATION =
+        Constants.XERCES_FEATURE_PREFIX + Constants.DYNAMIC_VALIDATION_FEATURE;
+
+    /** Feature identifier: continue after fatal error. */
+    private static final String CONTINUE_AFTER_FATAL_ERROR =
+        Constants.XERCES_FEATURE_PREFIX + Constants.CONTINUE_AFTER_FATAL_ERROR_FEATURE;
+
+    // property identifiers
+
+    /** Property identifier: error handler. */
+    private static final String ERROR_HANDLER =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.ERROR_HANDLER_PROPERTY;
+
+    /** Property identifier: XML Schema validator. */
+    private static final String SCHEMA_VALIDATOR =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_VALIDATOR_PROPERTY;
+
+    /** Bytes of children of the root in a fragment. */
+    private static final int FRAGMENT_SIZE = 1 << 20;
+
+    /** Size of the buffers of the splitter. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Pseudo-attributes of the XML declaration. */
+    private static final Pattern VERSION = Pattern.compile("version\\s*=\\s*[\"']([^\"']*)[\"']");
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    /** Encodings in which every byte below 0x80 is an ASCII character. */
+    private static final Pattern UTF_8 = Pattern.compile("(?i)UTF-?8");
+    private static final Pattern SINGLE_BYTE =
+        Pattern.compile("(?i)(US-)?ASCII|ISO[-_]?8859[-_]\\d+|(windows-|cp)125\\d");
+
+    //
+    // Data
+    //
+
+    /** Component manager. **/
+    private final XMLSchemaValidatorComponentManager fComponentManager;
+
+    /** Stream validator helper, for documents which are not split. **/
+    private final StreamValidatorHelper fStreamValidatorHelper;
+
+    /** Fragments and children allowed to be in progress at once. */
+    private final int fMaxPending = ForkJoinPool.getCommonPoolParallelism() + 1;
+
+    // state of the current document
+
+    /** Splitter of the current document. */
+    private Splitter fSplitter;
+
+    /** Validator of the outline of the document. */
+    private FragmentValidator fOutline;
+
+    /** Errors of the outline passed on so far. */
+    private int fOutlineErrors;
+
+    /** Fragments the outline validator has not matched completely yet. */
+    private final ArrayDeque<Fragment> fUnmatched = new ArrayDeque<>();
+
+    /** Fragments submitted, in document order. */
+    private final ArrayDeque<Fragment> fPending = new ArrayDeque<>();
+
+    /** States of the fragments validated, in document order. */
+    private final ArrayList<FragmentState> fStates = new ArrayList<>();
+
+    /** Children of the root matched by the outline validator. */
+    private int fMatched;
+
+    /** Whether the validation of the root has started in parts. */
+    private boolean fStarted;
+
+    /** Whether the error handler has thrown. */
+    private boolean fAborted;
+
+    /** Error handler of the application. */
+    private XMLErrorHandler fErrorHandler;
+
+    /** Whether to continue after a fatal error. */
+    private boolean fContinueAfterFatalError;
+
+    public ParallelValidatorHelper(XMLSchemaValidatorComponentManager componentManager,
+            StreamValidatorHelper streamValidatorHelper) {
+        fComponentManager = componentManager;
+        fStreamValidatorHelper = streamValidatorHelper;
+    }
+
+    public void validate(Source source, Result result)
+        throws SAXException, IOException {
+        final StreamSource streamSource = (StreamSource) source;
+
+        // the document is split as bytes, against grammars which do not
+        // change while it is validated
+        if (result != null || streamSource.getReader() != null
+                || !fComponentManager.getFeature(USE_GRAMMAR_POOL_ONLY)
+                || fComponentManager.getFeature(DYNAMIC_VALIDATION)) {
+            fStreamValidatorHelper.validate(source, result);
+            return;
+        }
+        InputStream stream = streamSource.getInputStream();
+        boolean close = false;
+        if (stream == null) {
+            String systemId = streamSource.getSystemId();
+            String expandedSystemId = systemId != null
+                ? XMLEntityManager.expandSystemId(systemId, null, false) : null;
+            if (expandedSystemId == null || !expandedSystemId.startsWith("file:")) {
+                fStreamValidatorHelper.validate(source, result);
+                return;
+            }
+            stream = new URL(expandedSystemId).openStream();
+            close = true;
+        }
+
+        try {
+            fSplitter = new Splitter(stream, streamSource.getPublicId(), streamSource.getSystemId());
+            boolean validated;
+            try {
+                validated = validate();
+            }
+            catch (XMLParseException e) {
+                throw Util.toSAXParseException(e);
+            }
+            catch (XNIException e) {
+                throw Util.toSAXException(e);
+            }
+            if (!validated) {
+                StreamSource replay = new StreamSource(fSplitter.replay(), streamSource.getSystemId());
+                replay.setPublicId(streamSource.getPublicId());
+                fSplitter = null;
+                fStreamValidatorHelper.validate(replay, null);
+            }
+        }
+        finally {
+            for (Fragment fragment : fPending) {
+                fragment.fTask.cancel(false);
+            }
+            fSplitter = null;
+            fOutline = null;
+            fOutlineErrors = 0;
+            fUnmatched.clear();
+            fPending.clear();
+            fStates.clear();
+            fMatched = 0;
+            fStarted = false;
+            fAborted = false;
+            fErrorHandler = null;
+            if (close) {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Validates the document in parts. Returns false if it has to be
+     * validated as a whole.
+     */
+    private boolean validate() throws IOException {
+        if (!fSplitter.scanProlog()) {
+            return false;
+        }
+        fErrorHandler = (XMLErrorHandler) fComponentManager.getProperty(ERROR_HANDLER);
+        fContinueAfterFatalError = fComponentManager.getFeature(CONTINUE_AFTER_FATAL_ERROR);
+
+        fOutline = new FragmentValidator(fSplitter);
+        fOutline.fManager.reset();
+        fOutline.fValidator.setFragmentCoordinator(this);
+        XMLInputSource input = new XMLInputSource(fSplitter.fPublicId, fSplitter.fSystemId, null);
+        input.setByteStream(fSplitter);
+        try {
+            fOutline.fConfiguration.parse(input);
+        }
+        catch (Fallback e) {
+            return false;
+        }
+        catch (XNIException e) {
+            // errors before the root are those of the document itself
+            if (!fStarted) {
+                return false;
+            }
+            if (fAborted) {
+                throw e;
+            }
+            // a fatal error in the outline: report the errors of the
+            // fragments before it, then the error itself
+            drain();
+            flush();
+            throw e;
+        }
+        drain();
+        flush();
+        return true;
+    }
+
+    //
+    // FragmentCoordinator methods
+    //
+
+    public void startRoot(boolean splittable) {
+        if (!splittable) {
+            throw new Fallback();
+        }
+        fSplitter.fRecord = null;
+        fStarted = true;
+    }
+
+    public void childMatched(Object decl) {
+        fSplitter.trimPoints(fMatched++);
+        Fragment fragment = fUnmatched.peekFirst();
+        if (fragment == null) {
+            return;
+        }
+        fragment.fMatched.add(decl);
+        if (fragment.fCut && fragment.fMatched.size() >= fragment.fChildren) {
+            fUnmatched.removeFirst();
+            submit(fragment);
+        }
+    }
+
+    public FragmentState[] endRoot() {
+        drain();
+        FragmentState[] states = fStates.toArray(new FragmentState[fStates.size()]);
+        fStates.clear();
+        return states;
+    }
+
+    //
+    // Private methods
+    //
+
+    /** Validates the given fragment on the common pool. */
+    private void submit(final Fragment fragment) {
+        while (fPending.size() >= fMaxPending) {
+            complete(fPending.removeFirst());
+        }
+        final Splitter splitter = fSplitter;
+        if (splitter.fValidators < fPending.size() + 1) {
+            splitter.fIdle.add(new FragmentValidator(splitter));
+            splitter.fValidators++;
+        }
+        fragment.fDeclarations = fragment.fMatched.toArray();
+        fragment.fTask = ForkJoinPool.commonPool().submit(new Callable<Void>() {
+            public Void call() throws IOException {
+                FragmentValidator validator = splitter.fIdle.poll();
+                try {
+                    validator.validate(fragment);
+                }
+                finally {
+                    splitter.fIdle.add(validator);
+                }
+                return null;
+            }
+        });
+        fPending.addLast(fragment);
+    }
+
+    /** Waits for the given fragment, and passes on its errors. */
+    private void complete(Fragment fragment) {
+        try {
+            fragment.fTask.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new XNIException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new XNIException((Exception) cause);
+        }
+        fStates.add(fragment.fState);
+        flush(fragment.fErrors, fragment.fEndLine, fragment.fEndColumn);
+        fragment.fBytes = null;
+    }
+
+    /** Validates all the fragments left, and passes on their errors. */
+    private void drain() {
+        fSplitter.cut();
+        while (!fUnmatched.isEmpty()) {
+            submit(fUnmatched.removeFirst());
+        }
+        while (!fPending.isEmpty()) {
+            complete(fPending.removeFirst());
+        }
+    }
+
+    /**
+     * Passes on the errors of a fragment, with the errors of the outline
+     * up to its end.
+     */
+    private void flush(ArrayList<BufferedError> errors, int endLine, int endColumn) {
+        ArrayList<BufferedError> outline = fOutline.fErrors.fErrors;
+        int i = 0;
+        while (fOutlineErrors < outline.size()) {
+            BufferedError error = outline.get(fOutlineErrors);
+            if (before(endLine, endColumn, error.fLine, error.fColumn)) {
+                break;
+            }
+            while (i < errors.size() && before(errors.get(i), error)) {
+                report(errors.get(i++));
+            }
+            fOutlineErrors++;
+            report(error);
+        }
+        while (i < errors.size()) {
+            report(errors.get(i++));
+        }
+        if (fOutlineErrors == outline.size()) {
+            outline.clear();
+            fOutlineErrors = 0;
+        }
+    }
+
+    /** Passes on the errors of the outline left. */
+    private void flush() {
+        ArrayList<BufferedError> outline = fOutline.fErrors.fErrors;
+        while (fOutlineErrors < outline.size()) {
+            report(outline.get(fOutlineErrors++));
+        }
+    }
+
+    /** Passes on an error to the error handler of the application. */
+    private void report(BufferedError error) {
+        try {
+            switch (error.fSeverity) {
+                case XMLErrorReporter.SEVERITY_WARNING:
+                    fErrorHandler.warning(error.fDomain, error.fKey, error.fException);
+                    break;
+                case XMLErrorReporter.SEVERITY_ERROR:
+                    fErrorHandler.error(error.fDomain, error.fKey, error.fException);
+                    break;
+                default:
+                    fErrorHandler.fatalError(error.fDomain, error.fKey, error.fException);
+                    if (!fContinueAfterFatalError) {
+                        throw error.fException;
+                    }
+                    break;
+            }
+        }
+        catch (RuntimeException e) {
+            fAborted = true;
+            throw e;
+        }
+    }
+
+    private static boolean before(BufferedError error, BufferedError other) {
+        return before(error.fLine, error.fColumn, other.fLine, other.fColumn);
+    }
+
+    private static boolean before(int line, int column, int otherLine, int otherColumn) {
+        return line < otherLine || line == otherLine && column < otherColumn;
+    }
+
+    //
+    // Classes
+    //
+
+    /** Thrown to validate the document as a whole. */
+    private static final class Fallback extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        Fallback() {
+            super(null, null, false, false);
+        }
+
+    } // class Fallback
+
+    /**
+     * A run of children of the root, behind a copy of the start tag of the
+     * root and followed by its end tag.
+     */
+    private static final class Fragment {
+
+        /** The fragment as a document. */
+        byte[] fBytes;
+        int fLength;
+
+        /** Length up to the end of the last child. */
+        int fContentLength;
+
+        /** Where the children start and end in the document. */
+        int fLine, fColumn, fEndLine, fEndColumn;
+
+        /** Children in the fragment. */
+        int fChildren;
+
+        /** Declarations matched by the children. */
+        final ArrayList<Object> fMatched = new ArrayList<>();
+
+        /** Whether all the children are in the fragment. */
+        boolean fCut;
+
+        // validation
+
+        Object[] fDeclarations;
+        Future<Void> fTask;
+        FragmentState fState;
+        ArrayList<BufferedError> fErrors;
+
+        Fragment(byte[] prefix, int line, int column) {
+            fBytes = Arrays.copyOf(prefix, prefix.length + FRAGMENT_SIZE + BUFFER_SIZE);
+            fLength = prefix.length;
+            fLine = line;
+            fColumn = column;
+        }
+
+        void append(byte b) {
+            if (fLength == fBytes.length) {
+                fBytes = Arrays.copyOf(fBytes, fLength * 2);
+            }
+            fBytes[fLength++] = b;
+        }
+
+        void append(byte[] bytes, int offset, int length) {
+            if (fLength + length > fBytes.length) {
+                fBytes = Arrays.copyOf(fBytes, Math.max(fLength * 2, fLength + length));
+            }
+            System.arraycopy(bytes, offset, fBytes, fLength, length);
+            fLength += length;
+        }
+
+    } // class Fragment
+
+    /** An error, at its position in the document. */
+    private static final class BufferedError {
+
+        final String fDomain;
+        final String fKey;
+        final XMLParseException fException;
+        final short fSeverity;
+        final int fLine, fColumn;
+
+        BufferedError(String domain, String key, XMLParseException exception,
+                short severity, int line, int column) {
+            fDomain = domain;
+            fKey = key;
+            fException = exception;
+            fSeverity = severity;
+            fLine = line;
+            fColumn = column;
+        }
+
+    } // class BufferedError
+
+    /** The location of an error moved to its position in the document. */
+    private static final class Location implements XMLLocator {
+
+        private final XMLParseException fException;
+        private final int fLine, fColumn;
+
+        Location(XMLParseException exception, int line, int column) {
+            fException = exception;
+            fLine = line;
+            fColumn = column;
+        }
+
+        public String getPublicId() {
+            return fException.getPublicId();
+        }
+
+        public String getLiteralSystemId() {
+            return fException.getLiteralSystemId();
+        }
+
+        public String getBaseSystemId() {
+            return fException.getBaseSystemId();
+        }
+
+        public String getExpandedSystemId() {
+            return fException.getExpandedSystemId();
+        }
+
+        public int getLineNumber() {
+            return fLine;
+        }
+
+        public int getColumnNumber() {
+            return fColumn;
+        }
+
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        public String getEncoding() {
+            return null;
+        }
+
+        public String getXMLVersion() {
+            return null;
+        }
+
+    } // class Location
+
+    /**
+     * Buffers the errors of the outline or of a fragment, at their
+     * positions in the document.
+     */
+    private static final class ErrorBuffer implements XMLErrorHandler {
+
+        final ArrayList<BufferedError> fErrors = new ArrayList<>();
+
+        /** Splitter of the document. */
+        private final Splitter fSplitter;
+
+        /** Fragment validated, or null for the outline. */
+        Fragment fFragment;
+
+        ErrorBuffer(Splitter splitter) {
+            fSplitter = splitter;
+        }
+
+        public void warning(String domain, String key, XMLParseException exception)
+            throws XNIException {
+            add(domain, key, exception, XMLErrorReporter.SEVERITY_WARNING);
+        }
+
+        public void error(String domain, String key, XMLParseException exception)
+            throws XNIException {
+            add(domain, key, exception, XMLErrorReporter.SEVERITY_ERROR);
+        }
+
+        public void fatalError(String domain, String key, XMLParseException exception)
+            throws XNIException {
+            add(domain, key, exception, XMLErrorReporter.SEVERITY_FATAL_ERROR);
+        }
+
+        private void add(String domain, String key, XMLParseException exception, short severity) {
+            int line = exception.getLineNumber();
+            int column = exception.getColumnNumber();
+            final Fragment fragment = fFragment;
+            if (fragment == null) {
+                long position = fSplitter.documentPosition(line, column);
+                line = (int) (position >> 32);
+                column = (int) position;
+            }
+            else {
+                // the children follow the start tag of the root: errors
+                // before them are those of the root, which the outline
+                // reports, and errors after them those of the end tag
+                final int rootLine = fSplitter.fRootLine;
+                final int rootColumn = fSplitter.fRootColumn;
+                final boolean fatal = severity == XMLErrorReporter.SEVERITY_FATAL_ERROR;
+                if (!before(rootLine, rootColumn, line, column)) {
+                    if (!fatal) {
+                        return;
+                    }
+                    line = fragment.fLine;
+                    column = fragment.fColumn;
+                }
+                else if (line == rootLine) {
+                    line = fragment.fLine;
+                    column = fragment.fColumn + column - rootColumn;
+                }
+                else {
+                    line = fragment.fLine + line - rootLine;
+                }
+                if (before(fragment.fEndLine, fragment.fEndColumn, line, column)) {
+                    if (!fatal) {
+                        return;
+                    }
+                    line = fragment.fEndLine;
+                    column = fragment.fEndColumn;
+                }
+            }
+            Location location = new Location(exception, line, column);
+            fErrors.add(new BufferedError(domain, key,
+                new XMLParseException(location, exception.getMessage(), exception.getException()),
+                severity, line, column));
+        }
+
+    } // class ErrorBuffer
+
+    /** A schema validator, with a component manager of its own. */
+    private final class FragmentValidator {
+
+        final ErrorBuffer fErrors;
+        final XMLSchemaValidatorComponentManager fManager;
+        final XMLParserConfiguration fConfiguration;
+        final XMLSchemaValidator fValidator;
+
+        FragmentValidator(Splitter splitter) {
+            fErrors = new ErrorBuffer(splitter);
+            fManager = fComponentManager.newFragmentManager(fErrors);
+            fConfiguration = StreamValidatorHelper.newConfiguration(fManager);
+            fValidator = (XMLSchemaValidator) fManager.getProperty(SCHEMA_VALIDATOR);
+        }
+
+        /** Validates a fragment, leaving its state and errors in it. */
+        void validate(Fragment fragment) throws IOException {
+            fManager.reset();
+            fValidator.setFragmentDeclarations(fragment.fDeclarations);
+            fErrors.fFragment = fragment;
+            XMLInputSource input = new XMLInputSource(fErrors.fSplitter.fPublicId,
+                    fErrors.fSplitter.fSystemId, null);
+            input.setByteStream(new ByteArrayInputStream(fragment.fBytes, 0, fragment.fLength));
+            try {
+                fConfiguration.parse(input);
+            }
+            catch (XMLParseException e) {
+                // a fatal error, which is buffered
+            }
+            fragment.fState = fValidator.getFragmentState();
+            fragment.fErrors = new ArrayList<>(fErrors.fErrors);
+            fErrors.fErrors.clear();
+            fErrors.fFragment = null;
+        }
+
+    } // class FragmentValidator
+
+    /**
+     * Reads the document and splits it. As a stream, the splitter is the
+     * outline of the document: the document with each child of the root
+     * reduced to its name and namespace declarations. The children
+     * themselves go into fragments.
+     */
+    private final class Splitter extends InputStream {
+
+        // states
+        private static final int CONTENT = 0;
+        private static final int TRAILER = 1;
+        private static final int END = 2;
+
+        // states in the content of a child
+        private static final int TEXT = 0;
+        private static final int OPEN = 1;
+        private static final int START_TAG = 2;
+        private static final int END_TAG = 3;
+        private static final int BANG = 4;
+        private static final int COMMENT_OPEN = 5;
+        private static final int MARKED = 6;
+        private static final int DECLARATION = 7;
+
+        final String fPublicId;
+        final String fSystemId;
+
+        /** Idle fragment validators, and how many there are. */
+        final ConcurrentLinkedQueue<FragmentValidator> fIdle = new ConcurrentLinkedQueue<>();
+        int fValidators;
+
+        /** The document. */
+        private final InputStream fStream;
+        private final byte[] fBuffer = new byte[BUFFER_SIZE];
+        private int fPosition;
+        private int fLimit;
+
+        /** The bytes read, until the document is known to be split. */
+        ByteArrayOutputStream fRecord = new ByteArrayOutputStream();
+
+        /** Whether the document is in UTF-8, rather than a single byte encoding. */
+        private boolean fUTF8 = true;
+
+        /** Position in the document. */
+        private int fLine = 1;
+        private int fColumn = 1;
+        private boolean fCR;
+
+        /**
+         * Position in the outline less the position in the document, where
+         * the document is copied to the outline.
+         */
+        private int fLineOffset;
+        private int fColumnOffset;
+
+        /** The outline. */
+        private byte[] fOutput = new byte[BUFFER_SIZE];
+        private int fOutputStart;
+        private int fOutputEnd;
+
+        /** Whether the document is copied to the outline. */
+        private boolean fVerbatim = true;
+
+        private int fState;
+
+        /** The document up to the end of the start tag of the root, and the end tag of the root. */
+        private byte[] fPrefix;
+        private byte[] fSuffix;
+
+        /** Position of the end of the start tag of the root. */
+        int fRootLine;
+        int fRootColumn;
+
+        /** Fragment the children go into. */
+        private Fragment fFragment;
+
+        /** Children of the root. */
+        private int fChildren;
+
+        /** The tags of a child in the outline. */
+        private byte[] fTag = new byte[256];
+        private int fTagLength;
+        private int fNameLength;
+
+        /**
+         * Points where positions in the outline and the document meet: the
+         * ends of the tags of each child, with the index of the child.
+         */
+        private int[] fPointChild = new int[64];
+        private int[] fPointLine = new int[64];
+        private int[] fPointColumn = new int[64];
+        private int[] fPointDocumentLine = new int[64];
+        private int[] fPointDocumentColumn = new int[64];
+        private int fPointStart;
+        private int fPointEnd;
+
+        Splitter(InputStream stream, String publicId, String systemId) {
+            fStream = stream;
+            fPublicId = publicId;
+            fSystemId = systemId;
+        }
+
+        /** Returns the document, from the start. */
+        InputStream replay() {
+            return new SequenceInputStream(new ByteArrayInputStream(fRecord.toByteArray()), fStream);
+        }
+
+        /**
+         * Reads the document up to the end of the start tag of the root.
+         * Returns false if the document cannot be split: an encoding other
+         * than UTF-8 or an ASCII based single byte encoding, XML 1.1, a
+         * document type declaration or an empty root.
+         */
+        boolean scanProlog() throws IOException {
+            if (!ensure(4)) {
+                return false;
+            }
+            if (lookingAt("\u00EF\u00BB\u00BF")) {
+                next(); next(); next();
+                fColumn = 1;
+            }
+            if (!ensure(2) || fBuffer[fPosition] == 0 || fBuffer[fPosition + 1] == 0
+                    || (fBuffer[fPosition] & 0xFE) == 0xFE) {
+                // UTF-16 or UCS-4
+                return false;
+            }
+            if (lookingAt("<?xml") && ensure(6) && isSpace(fBuffer[fPosition + 5])) {
+                int start = fOutputEnd;
+                skipTo('?', 1);
+                String declaration = new String(fOutput, start, fOutputEnd - start, "ISO-8859-1");
+                Matcher version = VERSION.matcher(declaration);
+                if (!version.find() || !version.group(1).equals("1.0")) {
+                    return false;
+                }
+                Matcher encoding = ENCODING.matcher(declaration);
+                if (encoding.find()) {
+                    if (SINGLE_BYTE.matcher(encoding.group(1)).matches()) {
+                        fUTF8 = false;
+                    }
+                    else if (!UTF_8.matcher(encoding.group(1)).matches()) {
+                        return false;
+                    }
+                }
+            }
+            for (;;) {
+                if (!ensure(2)) {
+                    return false;
+                }
+                byte b = fBuffer[fPosition];
+                byte c = fBuffer[fPosition + 1];
+                if (isSpace(b)) {
+                    next();
+                }
+                else if (b != '<') {
+                    return false;
+                }
+                else if (c == '?') {
+                    skipTo('?', 1);
+                }
+                else if (c == '!') {
+                    if (!lookingAt("<!--")) {
+                        return false;
+                    }
+                    next(); next(); next(); next();
+                    skipTo('-', 2);
+                }
+                else {
+                    break;
+                }
+            }
+
+            // the start tag of the root
+            next();
+            int start = fOutputEnd;
+            while (ensure(1) && !isSpace(fBuffer[fPosition])
+                    && fBuffer[fPosition] != '/' && fBuffer[fPosition] != '>') {
+                next();
+            }
+            int length = fOutputEnd - start;
+            if (length == 0) {
+                return false;
+            }
+            fSuffix = new byte[length + 3];
+            fSuffix[0] = '<';
+            fSuffix[1] = '/';
+            System.arraycopy(fOutput, start, fSuffix, 2, length);
+            fSuffix[length + 2] = '>';
+            if (scanTag() || fState == END) {
+                return false;
+            }
+            fPrefix = Arrays.copyOf(fOutput, fOutputEnd);
+            fRootLine = fLine;
+            fRootColumn = fColumn;
+            fState = CONTENT;
+            return true;
+        }
+
+        //
+        // InputStream methods
+        //
+
+        public int read() throws IOException {
+            while (fOutputStart == fOutputEnd) {
+                if (fState == END) {
+                    return -1;
+                }
+                fOutputStart = fOutputEnd = 0;
+                scan();
+            }
+            return fOutput[fOutputStart++] & 0xFF;
+        }
+
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (fOutputStart == fOutputEnd) {
+                if (fState == END) {
+                    return -1;
+                }
+                fOutputStart = fOutputEnd = 0;
+                scan();
+            }
+            int count = Math.min(length, fOutputEnd - fOutputStart);
+            System.arraycopy(fOutput, fOutputStart, bytes, offset, count);
+            fOutputStart += count;
+            return count;
+        }
+
+        //
+        // Splitting
+        //
+
+        /** Scans the next item in the root or after it. */
+        private void scan() throws IOException {
+            if (fState == TRAILER) {
+                if (fPosition == fLimit && !ensure(1)) {
+                    fState = END;
+                    return;
+                }
+                output(fBuffer, fPosition, fLimit - fPosition);
+                fPosition = fLimit;
+                return;
+            }
+
+            // text between the children goes into the outline, and into
+            // the fragment if it is between two of its children
+            text();
+            if (!ensure(2)) {
+                while (next() != -1);
+                cut();
+                fState = END;
+                return;
+            }
+            byte c = fBuffer[fPosition + 1];
+            if (c == '/') {
+                cut();
+                fState = TRAILER;
+                return;
+            }
+            if (c == '!' || c == '?') {
+                next();
+                markup();
+                return;
+            }
+
+            // a child: only its name and namespace declarations go into
+            // the outline, the whole child into the fragment
+            if (fFragment == null) {
+                fFragment = new Fragment(fPrefix, fLine, fColumn);
+                fUnmatched.addLast(fFragment);
+            }
+            int line = fLine + fLineOffset;
+            int column = fColumn + fColumnOffset;
+            fVerbatim = false;
+            next();
+            boolean empty = startTag();
+            column += outline(fTag, 0, fTagLength);
+            addPoint(fChildren, line, column, fLine, fColumn);
+            if (!empty) {
+                if (!content()) {
+                    // the outline ends where the document does
+                    addPoint(fChildren, line, column, fLine, fColumn);
+                    fState = END;
+                    return;
+                }
+                next();
+                scanTag();
+                fTagLength = fNameLength + 1;
+                tag('/');
+                System.arraycopy(fTag, 1, fTag, 2, fNameLength);
+                fTag[1] = '/';
+                tag('>');
+                column += outline(fTag, 0, fTagLength);
+                addPoint(fChildren, line, column, fLine, fColumn);
+            }
+            fLineOffset = line - fLine;
+            fColumnOffset = column - fColumn;
+            fVerbatim = true;
+            childEnded();
+        }
+
+        private void childEnded() {
+            final Fragment fragment = fFragment;
+            fChildren++;
+            fragment.fChildren++;
+            fragment.fContentLength = fragment.fLength;
+            fragment.fEndLine = fLine;
+            fragment.fEndColumn = fColumn;
+            if (fragment.fLength - fPrefix.length >= FRAGMENT_SIZE) {
+                cut();
+            }
+        }
+
+        /** Ends the current fragment after its last child. */
+        void cut() {
+            final Fragment fragment = fFragment;
+            if (fragment == null) {
+                return;
+            }
+            fFragment = null;
+            if (fragment.fChildren == 0) {
+                fUnmatched.remove(fragment);
+                return;
+            }
+            fragment.fLength = fragment.fContentLength;
+            fragment.append(fSuffix, 0, fSuffix.length);
+            fragment.fCut = true;
+        }
+
+        /**
+         * Scans the start tag of a child after its '<' into the tag of the
+         * outline: its name and namespace declarations. Returns whether the
+         * tag is empty.
+         */
+        private boolean startTag() throws IOException {
+            fTagLength = 0;
+            tag('<');
+            int b = next();
+            while (b != -1 && !isSpace((byte) b) && b != '/' && b != '>') {
+                tag(b);
+                b = next();
+            }
+            fNameLength = fTagLength - 1;
+            for (;;) {
+                while (b != -1 && isSpace((byte) b)) {
+                    b = next();
+                }
+                if (b == -1 || b == '>' || b == '/') {
+                    break;
+                }
+                final int start = fTagLength;
+                tag(' ');
+                while (b != -1 && b != '=' && !isSpace((byte) b)) {
+                    tag(b);
+                    b = next();
+                }
+                while (b != -1 && b != '"' && b != '\'') {
+                    if (b == '=') {
+                        tag(b);
+                    }
+                    b = next();
+                }
+                final int quote = b;
+                tag(quote);
+                while ((b = next()) != -1 && b != quote) {
+                    tag(isSpace((byte) b) ? ' ' : b);
+                }
+                tag(quote);
+                b = next();
+                if (!isNamespaceDeclaration(start + 1)) {
+                    fTagLength = start;
+                }
+            }
+            boolean empty = b == '/';
+            while (b != -1 && b != '>') {
+                b = next();
+            }
+            if (empty) {
+                tag('/');
+            }
+            tag('>');
+            return empty;
+        }
+
+        private boolean isNamespaceDeclaration(int offset) {
+            final byte[] tag = fTag;
+            return fTagLength - offset > 5 && tag[offset] == 'x' && tag[offset + 1] == 'm'
+                && tag[offset + 2] == 'l' && tag[offset + 3] == 'n' && tag[offset + 4] == 's'
+                && (tag[offset + 5] == '=' || tag[offset + 5] == ':');
+        }
+
+        private void tag(int b) {
+            if (fTagLength == fTag.length) {
+                fTag = Arrays.copyOf(fTag, fTagLength * 2);
+            }
+            fTag[fTagLength++] = (byte) b;
+        }
+
+        /**
+         * Skips the content of a child, up to the '<' of its end tag, into
+         * the fragment. Returns false at the end of the document.
+         */
+        private boolean content() throws IOException {
+            int state = TEXT;
+            int depth = 0;
+            int quote = 0;
+            int last = 0;
+            int mark = 0;
+            int marks = 0;
+            int run = 0;
+            for (;;) {
+                if (!ensure(2)) {
+                    while (next() != -1);
+                    return false;
+                }
+                final byte[] buffer = fBuffer;
+                final int start = fPosition;
+                final int limit = fLimit - 1;
+                boolean end = false;
+                boolean cr = fCR;
+                int lines = 0;
+                int lineStart = start;
+                int i = start;
+                for (; i < limit; i++) {
+                    final byte b = buffer[i];
+                    if (b == '\n') {
+                        if (!cr) {
+                            lines++;
+                        }
+                        lineStart = i + 1;
+                    }
+                    else if (b == '\r') {
+                        lines++;
+                        lineStart = i + 1;
+                    }
+                    cr = b == '\r';
+                    switch (state) {
+                        case TEXT:
+                            if (b == '<') {
+                                if (depth == 0 && buffer[i + 1] == '/') {
+                                    end = true;
+                                }
+                                else {
+                                    state = OPEN;
+                                }
+                            }
+                            break;
+                        case OPEN:
+                            if (b == '/') {
+                                depth--;
+                                state = END_TAG;
+                            }
+                            else if (b == '!') {
+                                state = BANG;
+                            }
+                            else if (b == '?') {
+                                state = MARKED;
+                                mark = '?';
+                                marks = 1;
+                                run = 0;
+                            }
+                            else {
+                                state = START_TAG;
+                                quote = 0;
+                                last = b;
+                            }
+                            break;
+                        case START_TAG:
+                            if (quote != 0) {
+                                if (b == quote) {
+                                    quote = 0;
+                                }
+                            }
+                            else if (b == '"' || b == '\'') {
+                                quote = b;
+                            }
+                            else if (b == '>') {
+                                if (last != '/') {
+                                    depth++;
+                                }
+                                state = TEXT;
+                            }
+                            last = b;
+                            break;
+                        case END_TAG:
+                        case DECLARATION:
+                            if (b == '>') {
+                                state = TEXT;
+                            }
+                            break;
+                        case BANG:
+                            if (b == '-') {
+                                state = COMMENT_OPEN;
+                            }
+                            else if (b == '[') {
+                                state = MARKED;
+                                mark = ']';
+                                marks = 2;
+                                run = 0;
+                            }
+                            else {
+                                state = DECLARATION;
+                            }
+                            break;
+                        case COMMENT_OPEN:
+                            state = MARKED;
+                            mark = '-';
+                            marks = 2;
+                            run = 0;
+                            break;
+                        default:
+                            if (b == mark) {
+                                run++;
+                            }
+                            else if (b == '>' && run >= marks) {
+                                state = TEXT;
+                            }
+                            else {
+                                run = 0;
+                            }
+                            break;
+                    }
+                    if (end) {
+                        break;
+                    }
+                }
+                if (lines > 0) {
+                    fLine += lines;
+                    fColumn = 1 + columns(buffer, lineStart, i);
+                }
+                else {
+                    fColumn += columns(buffer, start, i);
+                }
+                fCR = cr;
+                fFragment.append(buffer, start, i - start);
+                fPosition = i;
+                if (end) {
+                    return true;
+                }
+            }
+        }
+
+        /** Skips a comment, processing instruction, CDATA section or declaration after its '<'. */
+        private void markup() throws IOException {
+            if (next() == '?') {
+                skipTo('?', 1);
+            }
+            else if (lookingAt("--")) {
+                next(); next();
+                skipTo('-', 2);
+            }
+            else if (lookingAt("[CDATA[")) {
+                skipTo(']', 2);
+            }
+            else {
+                scanTag();
+            }
+        }
+
+        /** Skips to the end of a tag. Returns whether the tag is empty. */
+        private boolean scanTag() throws IOException {
+            int quote = 0;
+            int last = 0;
+            for (int b; (b = next()) != -1; ) {
+                if (quote != 0) {
+                    if (b == quote) {
+                        quote = 0;
+                    }
+                }
+                else if (b == '"' || b == '\'') {
+                    quote = b;
+                }
+                else if (b == '>') {
+                    return last == '/';
+                }
+                last = b;
+            }
+            fState = END;
+            return false;
+        }
+
+        /** Skips past the next '>' following count or more marks. */
+        private void skipTo(int mark, int count) throws IOException {
+            int run = 0;
+            for (int b; (b = next()) != -1; ) {
+                if (b == mark) {
+                    run++;
+                }
+                else if (b == '>' && run >= count) {
+                    return;
+                }
+                else {
+                    run = 0;
+                }
+            }
+            fState = END;
+        }
+
+        /** Skips to the next '<'. */
+        private void text() throws IOException {
+            for (;;) {
+                if (fPosition == fLimit && !ensure(1)) {
+                    return;
+                }
+                final byte[] buffer = fBuffer;
+                final int start = fPosition;
+                final int limit = fLimit;
+                int i = start;
+                for (; i < limit; i++) {
+                    final byte b = buffer[i];
+                    if (b == '<') {
+                        break;
+                    }
+                    count(b);
+                }
+                output(buffer, start, i - start);
+                if (fFragment != null) {
+                    fFragment.append(buffer, start, i - start);
+                }
+                fPosition = i;
+                if (i < limit) {
+                    return;
+                }
+            }
+        }
+
+        /** Consumes the next byte of the document. */
+        private int next() throws IOException {
+            if (fPosition == fLimit && !ensure(1)) {
+                return -1;
+            }
+            final byte b = fBuffer[fPosition++];
+            count(b);
+            if (fVerbatim) {
+                if (fOutputEnd == fOutput.length) {
+                    fOutput = Arrays.copyOf(fOutput, fOutputEnd * 2);
+                }
+                fOutput[fOutputEnd++] = b;
+            }
+            if (fFragment != null) {
+                fFragment.append(b);
+            }
+            return b & 0xFF;
+        }
+
+        /** Counts lines and columns as the entity scanner does. */
+        private void count(byte b) {
+            if (b == '\n') {
+                if (fCR) {
+                    fCR = false;
+                }
+                else {
+                    fLine++;
+                    fColumn = 1;
+                    fColumnOffset = 0;
+                }
+            }
+            else if (b == '\r') {
+                fLine++;
+                fColumn = 1;
+                fColumnOffset = 0;
+                fCR = true;
+            }
+            else {
+                fCR = false;
+                if (b >= 0 || !fUTF8) {
+                    fColumn++;
+                }
+                else if ((b & 0xC0) == 0xC0) {
+                    // a supplementary character takes two columns
+                    fColumn += (b & 0xF8) == 0xF0 ? 2 : 1;
+                }
+            }
+        }
+
+        /** Returns the columns taken by bytes without line breaks. */
+        private int columns(byte[] bytes, int start, int end) {
+            if (!fUTF8) {
+                return end - start;
+            }
+            int columns = 0;
+            for (int i = start; i < end; i++) {
+                final byte b = bytes[i];
+                if (b >= 0) {
+                    columns++;
+                }
+                else if ((b & 0xC0) == 0xC0) {
+                    // a supplementary character takes two columns
+                    columns += (b & 0xF8) == 0xF0 ? 2 : 1;
+                }
+            }
+            return columns;
+        }
+
+        /** Appends to the outline bytes without line breaks. Returns their columns. */
+        private int outline(byte[] bytes, int offset, int length) {
+            output(bytes, offset, length);
+            return columns(bytes, offset, offset + length);
+        }
+
+        private void output(byte[] bytes, int offset, int length) {
+            if (fOutputEnd + length > fOutput.length) {
+                fOutput = Arrays.copyOf(fOutput, Math.max(fOutputEnd * 2, fOutputEnd + length));
+            }
+            System.arraycopy(bytes, offset, fOutput, fOutputEnd, length);
+            fOutputEnd += length;
+        }
+
+        /** Makes count bytes available in the buffer. Returns false at the end of the document. */
+        private boolean ensure(int count) throws IOException {
+            while (fLimit - fPosition < count) {
+                if (fPosition > 0) {
+                    System.arraycopy(fBuffer, fPosition, fBuffer, 0, fLimit - fPosition);
+                    fLimit -= fPosition;
+                    fPosition = 0;
+                }
+                int length = fStream.read(fBuffer, fLimit, fBuffer.length - fLimit);
+                if (length == -1) {
+                    return false;
+                }
+                if (fRecord != null) {
+                    fRecord.write(fBuffer, fLimit, length);
+                }
+                fLimit += length;
+            }
+            return true;
+        }
+
+        private boolean lookingAt(String s) throws IOException {
+            if (!ensure(s.length())) {
+                return false;
+            }
+            for (int i = 0; i < s.length(); i++) {
+                if ((fBuffer[fPosition + i] & 0xFF) != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isSpace(byte b) {
+            return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+        }
+
+        //
+        // Positions
+        //
+
+        private void addPoint(int child, int line, int column, int documentLine, int documentColumn) {
+            if (fPointEnd == fPointChild.length) {
+                int length = fPointEnd - fPointStart;
+                int capacity = length < fPointEnd / 2 ? fPointEnd : fPointEnd * 2;
+                fPointChild = move(fPointChild, capacity);
+                fPointLine = move(fPointLine, capacity);
+                fPointColumn = move(fPointColumn, capacity);
+                fPointDocumentLine = move(fPointDocumentLine, capacity);
+                fPointDocumentColumn = move(fPointDocumentColumn, capacity);
+                fPointStart = 0;
+                fPointEnd = length;
+            }
+            fPointChild[fPointEnd] = child;
+            fPointLine[fPointEnd] = line;
+            fPointColumn[fPointEnd] = column;
+            fPointDocumentLine[fPointEnd] = documentLine;
+            fPointDocumentColumn[fPointEnd] = documentColumn;
+            fPointEnd++;
+        }
+
+        private int[] move(int[] points, int capacity) {
+            int[] moved = new int[capacity];
+            System.arraycopy(points, fPointStart, moved, 0, fPointEnd - fPointStart);
+            return moved;
+        }
+
+        /**
+         * Drops the points the outline validator has passed: it is at the
+         * given child, after the tags of the child before it.
+         */
+        void trimPoints(int child) {
+            while (fPointStart < fPointEnd && fPointChild[fPointStart] < child - 1) {
+                fPointStart++;
+            }
+        }
+
+        /**
+         * Returns the position in the document of a position in the
+         * outline, as its line in the high and its column in the low half.
+         */
+        long documentPosition(int line, int column) {
+            int i = fPointEnd - 1;
+            while (i >= fPointStart && before(line, column, fPointLine[i], fPointColumn[i])) {
+                i--;
+            }
+            if (i < fPointStart) {
+                return (long) line << 32 | column & 0xFFFFFFFFL;
+            }
+            if (line == fPointLine[i]) {
+                column = fPointDocumentColumn[i] + column - fPointColumn[i];
+            }
+            line = fPointDocumentLine[i] + line - fPointLine[i];
+            return (long) line << 32 | column & 0xFFFFFFFFL;
+        }
+
+    } // class Splitter
+
+} // ParallelValidatorHelper
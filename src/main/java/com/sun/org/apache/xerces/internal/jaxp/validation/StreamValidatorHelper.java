@@ -24,6 +24,7 @@ import com.sun.org.apache.xerces.internal.impl.XMLErrorReporter;
 import com.sun.org.apache.xerces.internal.impl.msg.XMLMessageFormatter;
 import com.sun.org.apache.xerces.internal.parsers.XML11Configuration;
 import com.sun.org.apache.xerces.internal.utils.XMLSecurityManager;
+import com.sun.org.apache.xerces.internal.xni.XMLDocumentHandler;
 import com.sun.org.apache.xerces.internal.xni.XNIException;
 import com.sun.org.apache.xerces.internal.xni.parser.XMLInputSource;
 import com.sun.org.apache.xerces.internal.xni.parser.XMLParseException;
@@ -165,13 +166,23 @@ final class StreamValidatorHelper implements ValidatorHelper {
     }
 
     private XMLParserConfiguration initialize() {
+        XML11Configuration config = newConfiguration(fComponentManager);
+        fConfiguration = new SoftReference(config);
+        return config;
+    }
+
+    /**
+     * Creates a parser configuration which sends the document to the
+     * schema validator of the given component manager.
+     */
+    static XML11Configuration newConfiguration(XMLSchemaValidatorComponentManager componentManager) {
         XML11Configuration config = new XML11Configuration();
-        if (fComponentManager.getFeature(XMLConstants.FEATURE_SECURE_PROCESSING)) {
+        if (componentManager.getFeature(XMLConstants.FEATURE_SECURE_PROCESSING)) {
             config.setProperty(SECURITY_MANAGER, new XMLSecurityManager());
         }
-        config.setProperty(ENTITY_RESOLVER, fComponentManager.getProperty(ENTITY_RESOLVER));
-        config.setProperty(ERROR_HANDLER, fComponentManager.getProperty(ERROR_HANDLER));
-        XMLErrorReporter errorReporter = (XMLErrorReporter) fComponentManager.getProperty(ERROR_REPORTER);
+        config.setProperty(ENTITY_RESOLVER, componentManager.getProperty(ENTITY_RESOLVER));
+        config.setProperty(ERROR_HANDLER, componentManager.getProperty(ERROR_HANDLER));
+        XMLErrorReporter errorReporter = (XMLErrorReporter) componentManager.getProperty(ERROR_REPORTER);
         config.setProperty(ERROR_REPORTER, errorReporter);
         // add message formatters
         if (errorReporter.getMessageFormatter(XMLMessageFormatter.XML_DOMAIN) == null) {
@@ -179,16 +190,15 @@ final class StreamValidatorHelper implements ValidatorHelper {
             errorReporter.putMessageFormatter(XMLMessageFormatter.XML_DOMAIN, xmft);
             errorReporter.putMessageFormatter(XMLMessageFormatter.XMLNS_DOMAIN, xmft);
         }
-        config.setProperty(SYMBOL_TABLE, fComponentManager.getProperty(SYMBOL_TABLE));
-        config.setProperty(VALIDATION_MANAGER, fComponentManager.getProperty(VALIDATION_MANAGER));
-        config.setDocumentHandler(fSchemaValidator);
+        config.setProperty(SYMBOL_TABLE, componentManager.getProperty(SYMBOL_TABLE));
+        config.setProperty(VALIDATION_MANAGER, componentManager.getProperty(VALIDATION_MANAGER));
+        config.setDocumentHandler((XMLDocumentHandler) componentManager.getProperty(SCHEMA_VALIDATOR));
         config.setDTDHandler(null);
         config.setDTDContentModelHandler(null);
         config.setProperty(Constants.XML_SECURITY_PROPERTY_MANAGER,
-                fComponentManager.getProperty(Constants.XML_SECURITY_PROPERTY_MANAGER));
+                componentManager.getProperty(Constants.XML_SECURITY_PROPERTY_MANAGER));
         config.setProperty(Constants.SECURITY_MANAGER,
-                fComponentManager.getProperty(Constants.SECURITY_MANAGER));
-        fConfiguration = new SoftReference(config);
+                componentManager.getProperty(Constants.SECURITY_MANAGER));
         return config;
     }
 
@@ -74,6 +74,9 @@ final class ValidatorImpl extends Validator implements PSVIProvider {
     /** StAX validator helper. **/
     private StAXValidatorHelper fStaxValidatorHelper;
 
+    /** Parallel stream validator helper. **/
+    private ParallelValidatorHelper fParallelValidatorHelper;
+
     /** Flag for tracking whether features/properties changed since last reset. */
     private boolean fConfigurationChanged = false;
 
@@ -113,7 +116,15 @@ final class ValidatorImpl extends Validator implements PSVIProvider {
             if (fStreamValidatorHelper == null) {
                 fStreamValidatorHelper = new StreamValidatorHelper(fComponentManager);
             }
-            fStreamValidatorHelper.validate(source, result);
+            if (result == null && fComponentManager.getFeature(Constants.ORACLE_FEATURE_PARALLEL_VALIDATION)) {
+                if (fParallelValidatorHelper == null) {
+                    fParallelValidatorHelper = new ParallelValidatorHelper(fComponentManager, fStreamValidatorHelper);
+                }
+                fParallelValidatorHelper.validate(source, result);
+            }
+            else {
+                fStreamValidatorHelper.validate(source, result);
+            }
         }
         else if (source instanceof StAXSource) {
             // Hand off to stax validator helper.
@@ -37,6 +37,7 @@ import jdk.xml.internal.JdkXmlUtils;
 
 import com.sun.org.apache.xerces.internal.impl.Constants;
 import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaLoader;
+import com.sun.org.apache.xerces.internal.util.ConcurrentGrammarPool;
 import com.sun.org.apache.xerces.internal.util.DOMEntityResolverWrapper;
 import com.sun.org.apache.xerces.internal.util.DOMInputSource;
 import com.sun.org.apache.xerces.internal.util.ErrorHandlerWrapper;
@@ -117,6 +118,9 @@ public final class XMLSchemaFactory extends SchemaFactory {
     /** The container for the real grammar pool. */
     private XMLGrammarPoolWrapper fXMLGrammarPoolWrapper;
 
+    /** Grammars shared by the hint-driven schemas, or null if not caching. */
+    private XMLGrammarPool fSharedGrammarPool;
+
     private final JdkXmlFeatures fXmlFeatures;
     /**
      * Indicates whether 3rd party parser may be used to override the system-default
@@ -287,7 +291,9 @@ public final class XMLSchemaFactory extends SchemaFactory {
 
     public Schema newSchema() throws SAXException {
         // Use a Schema that uses the system id as the equality source.
-        AbstractXMLSchema schema = new WeakReferenceXMLSchema();
+        AbstractXMLSchema schema = (fSharedGrammarPool != null)
+                ? new CachingXMLSchema(fSharedGrammarPool)
+                : new WeakReferenceXMLSchema();
         propagateFeatures(schema);
         propagateProperties(schema);
         return schema;
@@ -302,6 +308,9 @@ public final class XMLSchemaFactory extends SchemaFactory {
         if (name.equals(XMLConstants.FEATURE_SECURE_PROCESSING)) {
             return (fSecurityManager != null && fSecurityManager.isSecureProcessing());
         }
+        if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            return fSharedGrammarPool != null;
+        }
         try {
             return fXMLSchemaLoader.getFeature(name);
         }
@@ -382,6 +391,14 @@ public final class XMLSchemaFactory extends SchemaFactory {
 
             fXMLSchemaLoader.setProperty(SECURITY_MANAGER, fSecurityManager);
             return;
+        } else if (name.equals(Constants.ORACLE_FEATURE_CACHE_GRAMMARS)) {
+            // Schemas created before this call keep the pool they were given.
+            if (!value) {
+                fSharedGrammarPool = null;
+            } else if (fSharedGrammarPool == null) {
+                fSharedGrammarPool = new ConcurrentGrammarPool(XMLGrammarDescription.XML_SCHEMA);
+            }
+            return;
         } else if (name.equals(Constants.ORACLE_FEATURE_SERVICE_MECHANISM)) {
             //in secure mode, let useServicesMechanism be determined by the constructor
             if (System.getSecurityManager() != null)
@@ -48,6 +48,7 @@ import com.sun.org.apache.xerces.internal.xni.XNIException;
 import com.sun.org.apache.xerces.internal.xni.parser.XMLComponent;
 import com.sun.org.apache.xerces.internal.xni.parser.XMLComponentManager;
 import com.sun.org.apache.xerces.internal.xni.parser.XMLConfigurationException;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLErrorHandler;
 import org.w3c.dom.ls.LSResourceResolver;
 import org.xml.sax.ErrorHandler;
 
@@ -78,6 +79,10 @@ final class XMLSchemaValidatorComponentManager extends ParserConfigurationSettin
     private static final String USE_GRAMMAR_POOL_ONLY =
         Constants.XERCES_FEATURE_PREFIX + Constants.USE_GRAMMAR_POOL_ONLY_FEATURE;
 
+    /** Feature identifier: parallel validation. */
+    private static final String PARALLEL_VALIDATION =
+        Constants.ORACLE_FEATURE_PARALLEL_VALIDATION;
+
     // property identifiers
 
     /** Property identifier: entity manager. */
@@ -186,6 +191,9 @@ final class XMLSchemaValidatorComponentManager extends ParserConfigurationSettin
     /** Stores the initial security property manager. */
     private final XMLSecurityPropertyManager fSecurityPropertyMgr;
 
+    /** Grammars and settings of the schema. */
+    private final XSGrammarPoolContainer fGrammarContainer;
+
     //
     // User Objects
     //
@@ -201,6 +209,8 @@ final class XMLSchemaValidatorComponentManager extends ParserConfigurationSettin
 
     /** Constructs a component manager suitable for Xerces' schema validator. */
     public XMLSchemaValidatorComponentManager(XSGrammarPoolContainer grammarContainer) {
+        fGrammarContainer = grammarContainer;
+
         // setup components
         fEntityManager = new XMLEntityManager();
         fComponents.put(ENTITY_MANAGER, fEntityManager);
@@ -234,6 +244,8 @@ final class XMLSchemaValidatorComponentManager extends ParserConfigurationSettin
         addRecognizedParamsAndSetDefaults(fEntityManager, grammarContainer);
         addRecognizedParamsAndSetDefaults(fErrorReporter, grammarContainer);
         addRecognizedParamsAndSetDefaults(fSchemaValidator, grammarContainer);
+        addRecognizedFeatures(new String [] {PARALLEL_VALIDATION});
+        fFeatures.put(PARALLEL_VALIDATION, Boolean.FALSE);
 
         boolean secureProcessing = grammarContainer.getFeature(XMLConstants.FEATURE_SECURE_PROCESSING);
         if (System.getSecurityManager() != null) {
@@ -442,6 +454,23 @@ final class XMLSchemaValidatorComponentManager extends ParserConfigurationSettin
         fConfigUpdated = false;
     }
 
+    /**
+     * Creates a component manager with the grammars and the current
+     * settings of this one, for validating part of a document on another
+     * thread. Errors are sent to the given handler.
+     */
+    XMLSchemaValidatorComponentManager newFragmentManager(XMLErrorHandler errorHandler) {
+        XMLSchemaValidatorComponentManager manager =
+                new XMLSchemaValidatorComponentManager(fGrammarContainer);
+        manager.fFeatures.putAll(fFeatures);
+        manager.fProperties.putAll(fProperties);
+        manager.setProperty(ENTITY_RESOLVER, fComponents.get(ENTITY_RESOLVER));
+        manager.setProperty(SECURITY_MANAGER, fComponents.get(SECURITY_MANAGER));
+        manager.setProperty(LOCALE, fLocale);
+        manager.setProperty(ERROR_HANDLER, errorHandler);
+        return manager;
+    }
+
     void setErrorHandler(ErrorHandler errorHandler) {
         fErrorHandler = errorHandler;
         setProperty(ERROR_HANDLER, (errorHandler != null) ? new ErrorHandlerWrapper(errorHandler) :
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.parsers;
+
+import com.sun.org.apache.xerces.internal.dom.CompactDocumentImpl;
+import com.sun.org.apache.xerces.internal.impl.Constants;
+import com.sun.org.apache.xerces.internal.impl.dv.XSSimpleType;
+import com.sun.org.apache.xerces.internal.xni.Augmentations;
+import com.sun.org.apache.xerces.internal.xni.NamespaceContext;
+import com.sun.org.apache.xerces.internal.xni.QName;
+import com.sun.org.apache.xerces.internal.xni.XMLAttributes;
+import com.sun.org.apache.xerces.internal.xni.XMLLocator;
+import com.sun.org.apache.xerces.internal.xni.XMLResourceIdentifier;
+import com.sun.org.apache.xerces.internal.xni.XMLString;
+import com.sun.org.apache.xerces.internal.xni.XNIException;
+import com.sun.org.apache.xerces.internal.xni.parser.XMLParserConfiguration;
+import com.sun.org.apache.xerces.internal.xs.AttributePSVI;
+
+/**
+ * A DOM parser that builds a {@link CompactDocumentImpl}: a read-only
+ * document that keeps its nodes in arrays and creates node objects only when
+ * they are asked for.
+ *
+ * <p>The parser honors the features of {@link DOMParser} that select the
+ * nodes to keep, such as comments, CDATA sections and whitespace in element
+ * content, except for the creation of entity reference nodes: the content
+ * of entities is always put in place of their references. The document has
+ * no document type node, and the defer-node-expansion feature and the
+ * document class name property are ignored.</p>
+ *
+ * @see CompactDocumentImpl
+ */
+public class CompactDOMParser
+    extends DOMParser {
+
+    //
+    // Data
+    //
+
+    /** The document being built. */
+    protected CompactDocumentImpl fCompactDocument;
+
+    /** The locator of the document being built. */
+    private XMLLocator fDocumentLocator;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructs a compact DOM parser using the specified parser
+     * configuration.
+     */
+    public CompactDOMParser(XMLParserConfiguration config) {
+        super(config);
+    }
+
+    /**
+     * Constructs a compact DOM parser using the default parser
+     * configuration.
+     */
+    public CompactDOMParser() {
+        super();
+    }
+
+    //
+    // XMLDocumentParser methods
+    //
+
+    /**
+     * Resets the parser state.
+     *
+     * @throws XNIException Thrown on initialization error.
+     */
+    public void reset() throws XNIException {
+        super.reset();
+        fDeferNodeExpansion = false;
+        fCompactDocument = null;
+        fDocumentLocator = null;
+    } // reset()
+
+    //
+    // XMLDocumentHandler methods
+    //
+
+    public void startDocument(XMLLocator locator, String encoding,
+                              NamespaceContext namespaceContext,
+                              Augmentations augs) throws XNIException {
+        fDocumentLocator = locator;
+        fCompactDocument = new CompactDocumentImpl(fNamespaceAware);
+        fCompactDocument.setDocumentEntity(
+            locator != null ? locator.getExpandedSystemId() : null, encoding);
+        fDocument = fCompactDocument;
+    } // startDocument(XMLLocator,String,NamespaceContext,Augmentations)
+
+    public void xmlDecl(String version, String encoding, String standalone,
+                        Augmentations augs) throws XNIException {
+        fCompactDocument.setXMLDeclaration(version, encoding,
+                                           "yes".equals(standalone));
+    } // xmlDecl(String,String,String,Augmentations)
+
+    /** The document has no document type node. */
+    public void doctypeDecl(String rootElement, String publicId,
+                            String systemId, Augmentations augs)
+        throws XNIException {
+    } // doctypeDecl(String,String,String,Augmentations)
+
+    public void startElement(QName element, XMLAttributes attributes,
+                             Augmentations augs) throws XNIException {
+        CompactDocumentImpl doc = fCompactDocument;
+        if (fNamespaceAware) {
+            doc.appendElement(element.rawname, element.prefix,
+                              element.localpart, element.uri);
+        }
+        else {
+            doc.appendElement(element.rawname, null, null, null);
+        }
+        int attrCount = attributes.getLength();
+        for (int i = 0; i < attrCount; i++) {
+            Augmentations attrAugs = attributes.getAugmentations(i);
+            AttributePSVI attrPSVI = (AttributePSVI)
+                attrAugs.getItem(Constants.ATTRIBUTE_PSVI);
+            boolean id = false;
+            if (attrPSVI != null && fNamespaceAware) {
+                // XML Schema
+                Object type = attrPSVI.getMemberTypeDefinition();
+                if (type == null) {
+                    type = attrPSVI.getTypeDefinition();
+                }
+                id = type != null && ((XSSimpleType) type).isIDType();
+            }
+            else {
+                // DTD
+                id = Boolean.TRUE.equals(
+                        attrAugs.getItem(Constants.ATTRIBUTE_DECLARED))
+                     && "ID".equals(attributes.getType(i));
+            }
+            if (fNamespaceAware) {
+                doc.appendAttribute(attributes.getQName(i),
+                                    attributes.getPrefix(i),
+                                    attributes.getLocalName(i),
+                                    attributes.getURI(i),
+                                    attributes.getValue(i),
+                                    attributes.isSpecified(i), id);
+            }
+            else {
+                doc.appendAttribute(attributes.getQName(i), null, null, null,
+                                    attributes.getValue(i),
+                                    attributes.isSpecified(i), id);
+            }
+        }
+    } // startElement(QName,XMLAttributes,Augmentations)
+
+    public void emptyElement(QName element, XMLAttributes attributes,
+                             Augmentations augs) throws XNIException {
+        startElement(element, attributes, augs);
+        fCompactDocument.endElement();
+    } // emptyElement(QName,XMLAttributes,Augmentations)
+
+    public void characters(XMLString text, Augmentations augs)
+        throws XNIException {
+        fCompactDocument.appendCharacters(text.ch, text.offset, text.length,
+                                          false);
+    } // characters(XMLString,Augmentations)
+
+    public void ignorableWhitespace(XMLString text, Augmentations augs)
+        throws XNIException {
+        if (fIncludeIgnorableWhitespace) {
+            fCompactDocument.appendCharacters(text.ch, text.offset,
+                                              text.length, true);
+        }
+    } // ignorableWhitespace(XMLString,Augmentations)
+
+    public void endElement(QName element, Augmentations augs)
+        throws XNIException {
+        fCompactDocument.endElement();
+    } // endElement(QName,Augmentations)
+
+    public void startCDATA(Augmentations augs) throws XNIException {
+        fInCDATASection = true;
+        if (fCreateCDATANodes) {
+            fCompactDocument.appendCDATASection();
+        }
+    } // startCDATA(Augmentations)
+
+    public void endCDATA(Augmentations augs) throws XNIException {
+        fInCDATASection = false;
+        if (fCreateCDATANodes) {
+            fCompactDocument.endCDATASection();
+        }
+    } // endCDATA(Augmentations)
+
+    public void comment(XMLString text, Augmentations augs)
+        throws XNIException {
+        if (!fInDTD && fIncludeComments) {
+            fCompactDocument.appendComment(text.ch, text.offset, text.length);
+        }
+    } // comment(XMLString,Augmentations)
+
+    public void processingInstruction(String target, XMLString data,
+                                      Augmentations augs)
+        throws XNIException {
+        if (!fInDTD) {
+            fCompactDocument.appendProcessingInstruction(target, data.ch,
+                data.offset, data.length);
+        }
+    } // processingInstruction(String,XMLString,Augmentations)
+
+    /** Entity content is put in place of the reference. */
+    public void startGeneralEntity(String name,
+                                   XMLResourceIdentifier identifier,
+                                   String encoding, Augmentations augs)
+        throws XNIException {
+    } // startGeneralEntity(String,XMLResourceIdentifier,String,Augmentations)
+
+    /** Entity content is put in place of the reference. */
+    public void endGeneralEntity(String name, Augmentations augs)
+        throws XNIException {
+    } // endGeneralEntity(String,Augmentations)
+
+    public void textDecl(String version, String encoding,
+                         Augmentations augs) throws XNIException {
+    } // textDecl(String,String,Augmentations)
+
+    public void endDocument(Augmentations augs) throws XNIException {
+        CompactDocumentImpl doc = fCompactDocument;
+        if (fDocumentLocator != null && fDocumentLocator.getEncoding() != null) {
+            doc.setDocumentEntity(doc.getDocumentURI(),
+                                  fDocumentLocator.getEncoding());
+        }
+        doc.endDocument();
+        fCompactDocument = null;
+        fDocumentLocator = null;
+    } // endDocument(Augmentations)
+
+} // class CompactDOMParser
@@ -48,6 +48,7 @@ import com.sun.org.apache.xerces.internal.impl.msg.XMLMessageFormatter;
 import com.sun.org.apache.xerces.internal.impl.validation.ValidationManager;
 import com.sun.org.apache.xerces.internal.impl.xs.XMLSchemaValidator;
 import com.sun.org.apache.xerces.internal.impl.xs.XSMessageFormatter;
+import com.sun.org.apache.xerces.internal.util.ConcurrentSymbolTable;
 import com.sun.org.apache.xerces.internal.util.FeatureState;
 import com.sun.org.apache.xerces.internal.util.ParserConfigurationSettings;
 import com.sun.org.apache.xerces.internal.util.PropertyState;
@@ -183,6 +184,10 @@ public class XML11Configuration extends ParserConfigurationSettings
     protected static final String EXTERNAL_PARAMETER_ENTITIES =
         Constants.SAX_FEATURE_PREFIX + Constants.EXTERNAL_PARAMETER_ENTITIES_FEATURE;
 
+    /** Feature identifier: shared symbol table. */
+    protected static final String SHARED_SYMBOL_TABLE =
+        Constants.ORACLE_FEATURE_SHARED_SYMBOL_TABLE;
+
     // property identifiers
 
     /** Property identifier: xml string. */
@@ -478,7 +483,8 @@ public class XML11Configuration extends ParserConfigurationSettings
                 EXTERNAL_PARAMETER_ENTITIES,
                 PARSER_SETTINGS,
                 XMLConstants.FEATURE_SECURE_PROCESSING,
-                JdkXmlUtils.OVERRIDE_PARSER
+                JdkXmlUtils.OVERRIDE_PARSER,
+                SHARED_SYMBOL_TABLE
                         };
         addRecognizedFeatures(recognizedFeatures);
         // set state for default features
@@ -500,6 +506,7 @@ public class XML11Configuration extends ParserConfigurationSettings
         fFeatures.put(PARSER_SETTINGS, Boolean.TRUE);
         fFeatures.put(XMLConstants.FEATURE_SECURE_PROCESSING, Boolean.TRUE);
         fFeatures.put(JdkXmlUtils.OVERRIDE_PARSER, JdkXmlUtils.OVERRIDE_PARSER_DEFAULT);
+        fFeatures.put(SHARED_SYMBOL_TABLE, Boolean.FALSE);
 
         // add default recognized properties
         final String[] recognizedProperties =
@@ -898,6 +905,11 @@ public class XML11Configuration extends ParserConfigurationSettings
         public void setFeature(String featureId, boolean state)
                 throws XMLConfigurationException {
                 fConfigUpdated = true;
+                // components pick up the symbol table on their next reset
+                if (SHARED_SYMBOL_TABLE.equals(featureId)) {
+                        setProperty(SYMBOL_TABLE, state
+                                ? ConcurrentSymbolTable.getSharedInstance() : fSymbolTable);
+                }
                 // forward to every XML 1.0 component
                 int count = fComponents.size();
                 for (int i = 0; i < count; i++) {
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.util;
+
+import com.sun.org.apache.xerces.internal.xni.grammars.Grammar;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarDescription;
+import com.sun.org.apache.xerces.internal.xni.grammars.XMLGrammarPool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A grammar pool that may be shared by any number of parsers running
+ * concurrently. Lookups do not lock, so parsers validating against an
+ * already cached grammar do not contend with each other, unlike with
+ * {@link XMLGrammarPoolImpl} where every lookup synchronizes on the pool.
+ *
+ * Grammars are keyed by their descriptions, as in XMLGrammarPoolImpl. The
+ * pool can be restricted to one type of grammar; descriptions of any other
+ * type are never found and grammars of any other type are not cached.
+ *
+ * The pool trusts the documents parsed with it. The grammars that parsers
+ * cache are those they loaded, including from the schema location hints
+ * of a document, and the first grammar cached for a description is the one
+ * every later parser uses for it: the pool should only be shared by parsers
+ * of trusted documents. A grammar cached for a description is never
+ * replaced by a parser, and parsers cache no more than a fixed number of
+ * grammars, after which further grammars are loaded but not kept.
+ *
+ * @see XMLGrammarPoolImpl
+ */
+public final class ConcurrentGrammarPool implements XMLGrammarPool {
+
+    private static final Grammar[] NO_GRAMMARS = new Grammar[0];
+
+    /** The default number of grammars parsers may cache. */
+    public static final int DEFAULT_MAX_GRAMMARS = 128;
+
+    /** Grammars, keyed by their descriptions. */
+    private final ConcurrentHashMap<XMLGrammarDescription, Grammar> fGrammars =
+        new ConcurrentHashMap<>();
+
+    /** The only grammar type held by this pool, or null for any type. */
+    private final String fGrammarType;
+
+    /** The number of grammars parsers may cache. */
+    private final int fMaxGrammars;
+
+    /** Whether this pool is locked. */
+    private volatile boolean fPoolIsLocked;
+
+    /** Constructs a grammar pool holding grammars of any type. */
+    public ConcurrentGrammarPool() {
+        this(null);
+    }
+
+    /**
+     * Constructs a grammar pool holding grammars of one type only.
+     *
+     * @param grammarType The grammar type, or null for any type.
+     */
+    public ConcurrentGrammarPool(String grammarType) {
+        this(grammarType, DEFAULT_MAX_GRAMMARS);
+    }
+
+    /**
+     * Constructs a grammar pool holding grammars of one type only, of
+     * which parsers may cache at most <code>maxGrammars</code>.
+     *
+     * @param grammarType The grammar type, or null for any type.
+     * @param maxGrammars The number of grammars parsers may cache.
+     */
+    public ConcurrentGrammarPool(String grammarType, int maxGrammars) {
+        fGrammarType = grammarType;
+        fMaxGrammars = maxGrammars;
+    }
+
+    //
+    // XMLGrammarPool methods
+    //
+
+    public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+        if (!accepts(grammarType)) {
+            return NO_GRAMMARS;
+        }
+        List<Grammar> grammars = new ArrayList<>();
+        for (Grammar grammar : fGrammars.values()) {
+            if (grammar.getGrammarDescription().getGrammarType().equals(grammarType)) {
+                grammars.add(grammar);
+            }
+        }
+        return grammars.toArray(NO_GRAMMARS);
+    }
+
+    public void cacheGrammars(String grammarType, Grammar[] grammars) {
+        if (!fPoolIsLocked && accepts(grammarType)) {
+            for (Grammar grammar : grammars) {
+                if (fGrammars.size() >= fMaxGrammars) {
+                    break;
+                }
+                fGrammars.putIfAbsent(grammar.getGrammarDescription(), grammar);
+            }
+        }
+    }
+
+    public Grammar retrieveGrammar(XMLGrammarDescription desc) {
+        return getGrammar(desc);
+    }
+
+    public void lockPool() {
+        fPoolIsLocked = true;
+    }
+
+    public void unlockPool() {
+        fPoolIsLocked = false;
+    }
+
+    public void clear() {
+        fGrammars.clear();
+    }
+
+    //
+    // Public methods
+    //
+
+    /**
+     * Puts the specified grammar into the grammar pool, replacing any grammar
+     * with an equal description.
+     *
+     * @param grammar The Grammar.
+     */
+    public void putGrammar(Grammar grammar) {
+        XMLGrammarDescription desc = grammar.getGrammarDescription();
+        if (!fPoolIsLocked && accepts(desc.getGrammarType())) {
+            fGrammars.put(desc, grammar);
+        }
+    }
+
+    /**
+     * Returns the grammar associated to the specified grammar description.
+     *
+     * @param desc The Grammar Description.
+     */
+    public Grammar getGrammar(XMLGrammarDescription desc) {
+        if (!accepts(desc.getGrammarType())) {
+            return null;
+        }
+        return fGrammars.get(desc);
+    }
+
+    /**
+     * Removes the grammar associated to the specified grammar description
+     * from the pool.
+     *
+     * @param desc The Grammar Description.
+     * @return     The removed grammar, or null if there was none.
+     */
+    public Grammar removeGrammar(XMLGrammarDescription desc) {
+        return fGrammars.remove(desc);
+    }
+
+    /**
+     * Returns true if the grammar pool contains a grammar associated
+     * to the specified grammar description.
+     *
+     * @param desc The Grammar Description.
+     */
+    public boolean containsGrammar(XMLGrammarDescription desc) {
+        return getGrammar(desc) != null;
+    }
+
+    private boolean accepts(String grammarType) {
+        return fGrammarType == null || fGrammarType.equals(grammarType);
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xerces.internal.util;
+
+/**
+ * A symbol table that may be shared by any number of parsers running
+ * concurrently, so that the element and attribute names of a vocabulary are
+ * interned once rather than once per parser.
+ *
+ * <p>Lookups of symbols already in the table take no locks: the buckets hold
+ * immutable chains, which are replaced as a whole when a symbol is added.
+ * Adding a symbol locks the table.</p>
+ *
+ * <p>The table grows up to a fixed number of buckets and holds a bounded
+ * number of symbols per bucket. When a bucket is full, the symbols not looked
+ * up since the bucket was last trimmed are evicted first. Eviction never
+ * changes the identity of a symbol: symbols are interned, so a symbol added
+ * again after being evicted is the same String object as before, for as long
+ * as anything still refers to it.</p>
+ *
+ * <p>Hash codes use randomly selected multipliers, as {@link SymbolTable}
+ * does after a rebalance, so documents cannot be crafted to collide in
+ * every table.</p>
+ *
+ * @see SynchronizedSymbolTable
+ */
+public final class ConcurrentSymbolTable extends SymbolTable {
+
+    //
+    // Constants
+    //
+
+    /** Default initial number of buckets. */
+    private static final int INITIAL_BUCKETS = 256;
+
+    /** Default maximum number of buckets. */
+    private static final int MAX_BUCKETS = 1 << 14;
+
+    /** Maximum number of symbols per bucket. */
+    private static final int MAX_CHAIN_LENGTH = 8;
+
+    //
+    // Data
+    //
+
+    /** The table shared by parsers with the shared-symbol-table feature. */
+    private static volatile ConcurrentSymbolTable fSharedInstance;
+
+    /** Buckets; the length is a power of two. */
+    private volatile Node[] fTable;
+
+    /** Maximum number of buckets. */
+    private final int fMaxBuckets;
+
+    /** Number of symbols in the table, guarded by this. */
+    private int fSize;
+
+    /** Hash function multipliers. */
+    private final int[] fMultipliers = new int[MULTIPLIERS_SIZE];
+
+    //
+    // Constructors
+    //
+
+    /** Constructs a concurrent symbol table of the default size. */
+    public ConcurrentSymbolTable() {
+        this(INITIAL_BUCKETS, MAX_BUCKETS);
+    }
+
+    /**
+     * Constructs a concurrent symbol table.
+     *
+     * @param initialBuckets the initial number of buckets
+     * @param maxBuckets the number of buckets beyond which the table does
+     *        not grow; it then holds at most 8 symbols per bucket
+     * @throws IllegalArgumentException if either number is not positive,
+     *         or if <code>initialBuckets</code> exceeds <code>maxBuckets</code>
+     */
+    public ConcurrentSymbolTable(int initialBuckets, int maxBuckets) {
+        // the inherited table is not used
+        super(1);
+        if (initialBuckets <= 0 || maxBuckets < initialBuckets) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialBuckets + ", " + maxBuckets);
+        }
+        fTable = new Node[powerOfTwo(initialBuckets)];
+        fMaxBuckets = Math.max(powerOfTwo(maxBuckets), fTable.length);
+        PrimeNumberSequenceGenerator.generateSequence(fMultipliers);
+    }
+
+    /**
+     * Returns the symbol table shared by all parsers that have the
+     * <code>http://www.oracle.com/feature/shared-symbol-table</code>
+     * feature set.
+     */
+    public static ConcurrentSymbolTable getSharedInstance() {
+        ConcurrentSymbolTable table = fSharedInstance;
+        if (table == null) {
+            synchronized (ConcurrentSymbolTable.class) {
+                table = fSharedInstance;
+                if (table == null) {
+                    fSharedInstance = table = new ConcurrentSymbolTable();
+                }
+            }
+        }
+        return table;
+    }
+
+    //
+    // SymbolTable methods
+    //
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param symbol The new symbol.
+     */
+    public String addSymbol(String symbol) {
+        int hash = hash(symbol);
+        Node[] table = fTable;
+        for (Node node = table[hash & (table.length - 1)]; node != null; node = node.next) {
+            if (node.hash == hash && node.symbol.equals(symbol)) {
+                node.touch();
+                return node.symbol;
+            }
+        }
+        return add(new Node(hash, symbol.intern(), null));
+    }
+
+    /**
+     * Adds the specified symbol to the symbol table and returns a
+     * reference to the unique symbol. If the symbol already exists,
+     * the previous symbol reference is returned instead, in order
+     * guarantee that symbol references remain unique.
+     *
+     * @param buffer The buffer containing the new symbol.
+     * @param offset The offset into the buffer of the new symbol.
+     * @param length The length of the new symbol in the buffer.
+     */
+    public String addSymbol(char[] buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        Node node = find(hash, buffer, offset, length);
+        if (node != null) {
+            node.touch();
+            return node.symbol;
+        }
+        return add(new Node(hash, new String(buffer, offset, length).intern(), null));
+    }
+
+    /**
+     * Returns a hashcode value for the specified symbol. The value
+     * returned by this method must be identical to the value returned
+     * by the <code>hash(char[],int,int)</code> method when called
+     * with the character array that comprises the symbol string.
+     *
+     * @param symbol The symbol to hash.
+     */
+    public int hash(String symbol) {
+        int code = 0;
+        final int length = symbol.length();
+        final int[] multipliers = fMultipliers;
+        for (int i = 0; i < length; ++i) {
+            code = code * multipliers[i & MULTIPLIERS_MASK] + symbol.charAt(i);
+        }
+        return code & 0x7FFFFFFF;
+    }
+
+    /**
+     * Returns a hashcode value for the specified symbol information.
+     * The value returned by this method must be identical to the value
+     * returned by the <code>hash(String)</code> method when called
+     * with the string object created from the symbol information.
+     *
+     * @param buffer The character buffer containing the symbol.
+     * @param offset The offset into the character buffer of the start
+     *               of the symbol.
+     * @param length The length of the symbol.
+     */
+    public int hash(char[] buffer, int offset, int length) {
+        int code = 0;
+        final int[] multipliers = fMultipliers;
+        for (int i = 0; i < length; ++i) {
+            code = code * multipliers[i & MULTIPLIERS_MASK] + buffer[offset + i];
+        }
+        return code & 0x7FFFFFFF;
+    }
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param symbol The symbol to look for.
+     */
+    public boolean containsSymbol(String symbol) {
+        int hash = hash(symbol);
+        Node[] table = fTable;
+        for (Node node = table[hash & (table.length - 1)]; node != null; node = node.next) {
+            if (node.hash == hash && node.symbol.equals(symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the symbol table already contains the specified
+     * symbol.
+     *
+     * @param buffer The buffer containing the symbol to look for.
+     * @param offset The offset into the buffer.
+     * @param length The length of the symbol in the buffer.
+     */
+    public boolean containsSymbol(char[] buffer, int offset, int length) {
+        return find(hash(buffer, offset, length), buffer, offset, length) != null;
+    }
+
+    /** Returns the number of symbols in the table. */
+    public synchronized int size() {
+        return fSize;
+    }
+
+    //
+    // Private methods
+    //
+
+    private Node find(int hash, char[] buffer, int offset, int length) {
+        Node[] table = fTable;
+        OUTER: for (Node node = table[hash & (table.length - 1)]; node != null; node = node.next) {
+            if (node.hash == hash && node.symbol.length() == length) {
+                String symbol = node.symbol;
+                for (int i = 0; i < length; i++) {
+                    if (buffer[offset + i] != symbol.charAt(i)) {
+                        continue OUTER;
+                    }
+                }
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the symbol of the given node unless another thread added it
+     * first, and returns the symbol in the table.
+     */
+    private synchronized String add(Node added) {
+        Node[] table = fTable;
+        for (Node node = table[added.hash & (table.length - 1)]; node != null; node = node.next) {
+            if (node.hash == added.hash && node.symbol.equals(added.symbol)) {
+                return node.symbol;
+            }
+        }
+        if (fSize >= table.length && table.length < fMaxBuckets) {
+            table = resize(table);
+        }
+        int index = added.hash & (table.length - 1);
+        int length = 0;
+        for (Node node = table[index]; node != null; node = node.next) {
+            length++;
+        }
+        Node head = (length < MAX_CHAIN_LENGTH) ? table[index] : evict(table[index]);
+        table[index] = new Node(added.hash, added.symbol, head);
+        fSize++;
+        return added.symbol;
+    }
+
+    /** Doubles the number of buckets. Called with the lock held. */
+    private Node[] resize(Node[] oldTable) {
+        Node[] newTable = new Node[oldTable.length * 2];
+        int mask = newTable.length - 1;
+        for (Node head : oldTable) {
+            for (Node node = head; node != null; node = node.next) {
+                int index = node.hash & mask;
+                newTable[index] = new Node(node.hash, node.symbol, newTable[index]);
+            }
+        }
+        fTable = newTable;
+        return newTable;
+    }
+
+    /**
+     * Returns a copy of the given full chain without the symbols that were
+     * not looked up since the chain was built, or without its oldest symbol
+     * if all of them were. The copies start unmarked, so every symbol kept
+     * has to be looked up again to survive the next eviction. Called with
+     * the lock held.
+     */
+    private Node evict(Node head) {
+        int length = 0;
+        boolean allUsed = true;
+        for (Node node = head; node != null; node = node.next) {
+            allUsed &= node.used;
+            length++;
+        }
+        // newest first, as in the chain
+        Node[] chain = new Node[length];
+        length = 0;
+        for (Node node = head; node != null; node = node.next) {
+            chain[length++] = node;
+        }
+        Node kept = null;
+        for (int i = length - 1; i >= 0; i--) {
+            Node node = chain[i];
+            if (allUsed ? i == length - 1 : !node.used) {
+                fSize--;
+            }
+            else {
+                kept = new Node(node.hash, node.symbol, kept);
+            }
+        }
+        return kept;
+    }
+
+    private static int powerOfTwo(int n) {
+        int powerOfTwo = 1;
+        while (powerOfTwo < n && powerOfTwo < (1 << 30)) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    //
+    // Classes
+    //
+
+    /** An immutable symbol chain node, apart from its usage mark. */
+    private static final class Node {
+
+        final int hash;
+        final String symbol;
+        final Node next;
+
+        /**
+         * Whether the symbol was looked up since this node was created.
+         * Written without synchronization; a lost write only makes the
+         * symbol a candidate for eviction.
+         */
+        boolean used;
+
+        Node(int hash, String symbol, Node next) {
+            this.hash = hash;
+            this.symbol = symbol;
+            this.next = next;
+        }
+
+        void touch() {
+            if (!used) {
+                used = true;
+            }
+        }
+    }
+
+} // class ConcurrentSymbolTable
@@ -653,10 +653,9 @@ public class DOM2DTM extends DTMDefaultBaseIterators
    * this call to handle nodes which would be in this DTM but
    * have not yet been built, which might or might not be a Good Thing.</p>
    *
-   * %REVIEW% This relies on being able to test node-identity via
-   * object-identity. DTM2DOM proxying is a great example of a case where
-   * that doesn't work. DOM Level 3 will provide the isSameNode() method
-   * to fix that, but until then this is going to be flaky.
+   * Node identity is tested with the DOM Level 3 isSameNode() method
+   * rather than object identity, so that DOMs which create node objects
+   * on demand can be searched.
    *
    * @param node A node, which may be null.
    *
@@ -673,7 +672,7 @@ public class DOM2DTM extends DTMDefaultBaseIterators
       {
         for (; i < len; i++)
         {
-          if (m_nodes.elementAt(i) == node)
+          if (node.isSameNode((Node) m_nodes.elementAt(i)))
             return makeNodeHandle(i);
         }
 
@@ -693,10 +692,9 @@ public class DOM2DTM extends DTMDefaultBaseIterators
    *
    * <p>%OPT% This will be pretty slow.</p>
    *
-   * %REVIEW% This relies on being able to test node-identity via
-   * object-identity. DTM2DOM proxying is a great example of a case where
-   * that doesn't work. DOM Level 3 will provide the isSameNode() method
-   * to fix that, but until then this is going to be flaky.
+   * Node identity is tested with the DOM Level 3 isSameNode() method
+   * rather than object identity, so that DOMs which create node objects
+   * on demand can be searched.
    *
    * @param node A node, which may be null.
    *
@@ -708,9 +706,9 @@ public class DOM2DTM extends DTMDefaultBaseIterators
       // Is Node actually within the same document? If not, don't search!
       // This would be easier if m_root was always the Document node, but
       // we decided to allow wrapping a DTM around a subtree.
-      if((m_root==node) ||
+      if((m_root.isSameNode(node)) ||
          (m_root.getNodeType()==DOCUMENT_NODE &&
-          m_root==node.getOwnerDocument()) ||
+          m_root.isSameNode(node.getOwnerDocument())) ||
          (m_root.getNodeType()!=DOCUMENT_NODE &&
           m_root.getOwnerDocument()==node.getOwnerDocument())
          )
@@ -727,7 +725,7 @@ public class DOM2DTM extends DTMDefaultBaseIterators
                 ? cursor.getParentNode()
                 : ((org.w3c.dom.Attr)cursor).getOwnerElement())
             {
-              if(cursor==m_root)
+              if(m_root.isSameNode(cursor))
                 // We know this node; find its handle.
                 return getHandleFromNode(node);
             } // for ancestors of node
@@ -1362,7 +1360,7 @@ public class DOM2DTM extends DTMDefaultBaseIterators
           while (DTM.NULL != (identity = getNextNodeIdentity(identity)))
           {
             Node node = getNode(identity);
-            if(node == elem)
+            if(elem.isSameNode(node))
             {
               elemHandle = getHandleFromNode(elem);
               break;
@@ -0,0 +1,658 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.org.apache.xpath.internal.jaxp;
+
+import com.sun.org.apache.xalan.internal.res.XSLMessages;
+import com.sun.org.apache.xml.internal.utils.PrefixResolver;
+import com.sun.org.apache.xpath.internal.compiler.Compiler;
+import com.sun.org.apache.xpath.internal.compiler.FunctionTable;
+import com.sun.org.apache.xpath.internal.compiler.OpCodes;
+import com.sun.org.apache.xpath.internal.compiler.OpMap;
+import com.sun.org.apache.xpath.internal.compiler.XPathParser;
+import com.sun.org.apache.xpath.internal.objects.XObject;
+import com.sun.org.apache.xpath.internal.patterns.NodeTest;
+import com.sun.org.apache.xpath.internal.res.XPATHErrorResources;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.TransformerException;
+import javax.xml.xpath.XPathExpressionException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Evaluates the forward-axis subset of XPath directly over an
+ * {@link XMLStreamReader}, without building a DTM of the document.
+ * <p>
+ * The plan is taken from the op map the {@link XPathParser} produces for
+ * the expression. It accepts a location path of child, descendant,
+ * descendant-or-self and self::node() steps with name tests, optionally
+ * ending in a text() test or an attribute step. A predicate may be a
+ * position on a child step, or a test on the attributes of the context
+ * element ({@code @a}, {@code @a = 'v'}, {@code @a != 'v'}) combined with
+ * {@code and} and {@code or}. Anything else is rejected when the plan is
+ * built.
+ * <p>
+ * Matching keeps, for each open element, the set of steps the element
+ * satisfies as a bit mask, so the cost per event does not depend on the
+ * size of the document. A selected element is copied into a DOM subtree
+ * up to its end tag and is then passed to the callback, followed by any
+ * nodes selected inside it, in document order; nothing else is retained.
+ *
+ * @see XPathExpressionImpl#evaluate(XMLStreamReader, Consumer)
+ */
+final class StreamingXPath {
+
+    /** The largest number of steps that fit in a state mask. */
+    private static final int MAX_STEPS = 63;
+
+    /** The expression, for error messages. */
+    private final String fExpression;
+
+    /** The location steps after the root, in order. */
+    private final Step[] fSteps;
+
+    /** The state bit of a node that satisfies every step. */
+    private final long fSelected;
+
+    /** The state bit of an element whose attributes or text are selected. */
+    private final long fLastStep;
+
+    /** Whether the last step selects attributes. */
+    private final boolean fSelectsAttributes;
+
+    /** Whether the last step selects text. */
+    private final boolean fSelectsText;
+
+    /** The number of positional predicates, each with its own counter. */
+    private final int fSlots;
+
+    /**
+     * Builds a plan for the given expression.
+     *
+     * @param expression an expression already accepted by the XPath compiler
+     * @param resolver the prefix resolver used to compile it
+     * @return the plan
+     * @throws XPathExpressionException if the expression is not in the
+     *         subset that can be evaluated over a stream
+     */
+    static StreamingXPath compile(String expression, PrefixResolver resolver)
+        throws XPathExpressionException {
+        Compiler compiler = new Compiler(null, null, new FunctionTable());
+        try {
+            new XPathParser(null, null).initXPath(compiler, expression, resolver);
+            return new StreamingXPath(expression, compiler);
+        } catch (TransformerException te) {
+            throw new XPathExpressionException(te);
+        }
+    }
+
+    private StreamingXPath(String expression, Compiler compiler)
+        throws TransformerException, XPathExpressionException {
+        fExpression = expression;
+        int pathPos = OpMap.getFirstChildPos(0);
+        if (compiler.getOp(pathPos) != OpCodes.OP_LOCATIONPATH) {
+            throw notStreamable("not a location path");
+        }
+
+        ArrayList<Step> steps = new ArrayList<>();
+        int slots = 0;
+        for (int stepPos = OpMap.getFirstChildPos(pathPos);
+             compiler.getOp(stepPos) != OpCodes.ENDOP;
+             stepPos = compiler.getNextStepPos(stepPos)) {
+            int axis = compiler.getOp(stepPos);
+            int testType = compiler.getStepTestType(stepPos);
+            int predPos = compiler.getFirstPredicateOpPos(stepPos);
+            int stepEnd = compiler.getNextOpPos(stepPos);
+
+            if (axis == OpCodes.FROM_ROOT) {
+                continue;
+            }
+            if (!steps.isEmpty()) {
+                Step last = steps.get(steps.size() - 1);
+                if (last.fAxis == OpCodes.FROM_ATTRIBUTES
+                        || last.fTestType == OpCodes.NODETYPE_TEXT) {
+                    throw notStreamable("a step follows an attribute or text() step");
+                }
+            }
+            if (testType == OpCodes.NODETYPE_NODE && predPos == stepEnd) {
+                if (axis == OpCodes.FROM_SELF) {
+                    continue;
+                }
+                if (axis == OpCodes.FROM_DESCENDANTS_OR_SELF) {
+                    steps.add(new Step(axis, testType, null, null, null));
+                    continue;
+                }
+            }
+            if (axis != OpCodes.FROM_CHILDREN && axis != OpCodes.FROM_DESCENDANTS
+                    && axis != OpCodes.FROM_ATTRIBUTES) {
+                throw notStreamable("unsupported axis");
+            }
+
+            String namespace = null;
+            String localName = null;
+            if (testType == OpCodes.NODENAME) {
+                namespace = compiler.getStepNS(stepPos);
+                localName = compiler.getStepLocalName(stepPos);
+                if (namespace == null && NodeTest.WILD.equals(localName)) {
+                    namespace = NodeTest.WILD;
+                }
+            } else if (testType != OpCodes.NODETYPE_TEXT || axis == OpCodes.FROM_ATTRIBUTES) {
+                throw notStreamable("unsupported node test");
+            }
+
+            ArrayList<Condition> predicates = new ArrayList<>();
+            for (; predPos < stepEnd && compiler.getOp(predPos) == OpCodes.OP_PREDICATE;
+                 predPos = compiler.getNextOpPos(predPos)) {
+                if (axis == OpCodes.FROM_ATTRIBUTES || testType == OpCodes.NODETYPE_TEXT) {
+                    throw notStreamable("predicate on an attribute or text() step");
+                }
+                int exprPos = OpMap.getFirstChildPos(predPos);
+                if (compiler.getOp(exprPos) == OpCodes.OP_NUMBERLIT) {
+                    if (axis != OpCodes.FROM_CHILDREN) {
+                        throw notStreamable("positional predicate off the child axis");
+                    }
+                    XObject token = (XObject) compiler.getToken(
+                            compiler.getOp(OpMap.getFirstChildPos(exprPos)));
+                    double position = token.num();
+                    if (position < 1 || position > Integer.MAX_VALUE
+                            || position != Math.floor(position)) {
+                        // No element is at this position.
+                        position = 0;
+                    }
+                    predicates.add(new Condition((int) position, slots++));
+                } else {
+                    predicates.add(condition(compiler, exprPos));
+                }
+            }
+            steps.add(new Step(axis, testType, namespace, localName,
+                    predicates.isEmpty() ? null
+                            : predicates.toArray(new Condition[predicates.size()])));
+        }
+
+        if (steps.isEmpty()
+                || steps.get(steps.size() - 1).fAxis == OpCodes.FROM_DESCENDANTS_OR_SELF) {
+            throw notStreamable("the expression selects the document node");
+        }
+        if (steps.size() > MAX_STEPS) {
+            throw notStreamable("too many steps");
+        }
+        fSteps = steps.toArray(new Step[steps.size()]);
+        Step last = fSteps[fSteps.length - 1];
+        fSelected = 1L << fSteps.length;
+        fLastStep = 1L << (fSteps.length - 1);
+        fSelectsAttributes = last.fAxis == OpCodes.FROM_ATTRIBUTES;
+        fSelectsText = last.fTestType == OpCodes.NODETYPE_TEXT;
+        fSlots = slots;
+    }
+
+    /**
+     * Builds a predicate test on the attributes of the context element.
+     */
+    private Condition condition(Compiler compiler, int opPos)
+        throws XPathExpressionException {
+        int op = compiler.getOp(opPos);
+        switch (op) {
+            case OpCodes.OP_AND:
+            case OpCodes.OP_OR: {
+                int left = OpMap.getFirstChildPos(opPos);
+                return new Condition(op, condition(compiler, left),
+                        condition(compiler, compiler.getNextOpPos(left)));
+            }
+            case OpCodes.OP_EQUALS:
+            case OpCodes.OP_NOTEQUALS: {
+                int left = OpMap.getFirstChildPos(opPos);
+                int right = compiler.getNextOpPos(left);
+                if (compiler.getOp(left) == OpCodes.OP_LITERAL) {
+                    int swap = left;
+                    left = right;
+                    right = swap;
+                }
+                if (compiler.getOp(right) != OpCodes.OP_LITERAL) {
+                    throw notStreamable("comparison with something other than a string literal");
+                }
+                String value = ((XObject) compiler.getToken(
+                        compiler.getOp(OpMap.getFirstChildPos(right)))).str();
+                return attribute(compiler, left, op, value);
+            }
+            case OpCodes.OP_LOCATIONPATH:
+                return attribute(compiler, opPos, op, null);
+            default:
+                throw notStreamable("unsupported predicate");
+        }
+    }
+
+    /**
+     * Builds a test on a single attribute step such as {@code @a}.
+     */
+    private Condition attribute(Compiler compiler, int pathPos, int op, String value)
+        throws XPathExpressionException {
+        int stepPos = OpMap.getFirstChildPos(pathPos);
+        if (compiler.getOp(pathPos) != OpCodes.OP_LOCATIONPATH
+                || compiler.getOp(stepPos) != OpCodes.FROM_ATTRIBUTES
+                || compiler.getStepTestType(stepPos) != OpCodes.NODENAME
+                || compiler.getOp(compiler.getNextOpPos(stepPos)) != OpCodes.ENDOP) {
+            throw notStreamable("predicate path is not a single attribute step");
+        }
+        String namespace = compiler.getStepNS(stepPos);
+        String localName = compiler.getStepLocalName(stepPos);
+        if (namespace == null && NodeTest.WILD.equals(localName)) {
+            namespace = NodeTest.WILD;
+        }
+        return new Condition(op, namespace, localName, value);
+    }
+
+    private XPathExpressionException notStreamable(String reason) {
+        return new XPathExpressionException(XSLMessages.createXPATHMessage(
+                XPATHErrorResources.ER_XPATH_NOT_STREAMABLE,
+                new Object[] { fExpression, reason }));
+    }
+
+    /**
+     * Reads the rest of the document from <code>reader</code>, which must be
+     * positioned at START_DOCUMENT, and passes each selected node to
+     * <code>action</code>.
+     *
+     * @param reader the reader
+     * @param document the document that owns the nodes that are passed on
+     * @param action the callback
+     * @throws XMLStreamException if the reader fails
+     */
+    void evaluate(XMLStreamReader reader, Document document,
+            Consumer<? super Node> action) throws XMLStreamException {
+        if (reader.getEventType() != XMLStreamConstants.START_DOCUMENT) {
+            throw new IllegalStateException(
+                    "The reader must be positioned at START_DOCUMENT");
+        }
+        new Run(reader, document, action).run();
+    }
+
+    /**
+     * Whether a name test matches a name.
+     *
+     * @param namespace the namespace of the test, {@link NodeTest#WILD}, or
+     *        null for no namespace
+     * @param localName the local name of the test or {@link NodeTest#WILD}
+     */
+    static boolean matches(String namespace, String localName,
+            String uri, String local) {
+        if (localName != NodeTest.WILD && !localName.equals(local)) {
+            return false;
+        }
+        if (namespace == NodeTest.WILD) {
+            return true;
+        }
+        return namespace == null ? uri == null || uri.isEmpty() : namespace.equals(uri);
+    }
+
+    /** A location step. */
+    private static final class Step {
+
+        /** The OpCodes.FROM_XXX axis. */
+        final int fAxis;
+
+        /** OpCodes.NODENAME, NODETYPE_TEXT or NODETYPE_NODE. */
+        final int fTestType;
+
+        final String fNamespace;
+        final String fLocalName;
+
+        /** The predicates in order, or null. */
+        final Condition[] fPredicates;
+
+        Step(int axis, int testType, String namespace, String localName,
+                Condition[] predicates) {
+            fAxis = axis;
+            fTestType = testType;
+            fNamespace = namespace;
+            fLocalName = localName;
+            fPredicates = predicates;
+        }
+
+        /**
+         * Whether the current START_ELEMENT of <code>reader</code> passes the
+         * node test and the predicates. A positional predicate counts the
+         * elements that reached it in <code>counters</code>, which belong to
+         * the parent.
+         */
+        boolean accept(XMLStreamReader reader, int[] counters) {
+            if (fTestType != OpCodes.NODENAME
+                    || !matches(fNamespace, fLocalName,
+                            reader.getNamespaceURI(), reader.getLocalName())) {
+                return false;
+            }
+            if (fPredicates != null) {
+                for (Condition predicate : fPredicates) {
+                    if (!predicate.test(reader, counters)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /** A predicate, or part of one. */
+    private static final class Condition {
+
+        /**
+         * OpCodes.OP_NUMBERLIT for a position, OP_AND or OP_OR, or
+         * OP_LOCATIONPATH, OP_EQUALS or OP_NOTEQUALS for an attribute test.
+         */
+        final int fOp;
+
+        final int fPosition;
+        final int fSlot;
+        final Condition fLeft;
+        final Condition fRight;
+        final String fNamespace;
+        final String fLocalName;
+
+        /** The literal compared with, or null for an existence test. */
+        final String fValue;
+
+        Condition(int position, int slot) {
+            this(OpCodes.OP_NUMBERLIT, position, slot, null, null, null, null, null);
+        }
+
+        Condition(int op, Condition left, Condition right) {
+            this(op, 0, 0, left, right, null, null, null);
+        }
+
+        Condition(int op, String namespace, String localName, String value) {
+            this(op, 0, 0, null, null, namespace, localName, value);
+        }
+
+        private Condition(int op, int position, int slot, Condition left,
+                Condition right, String namespace, String localName, String value) {
+            fOp = op;
+            fPosition = position;
+            fSlot = slot;
+            fLeft = left;
+            fRight = right;
+            fNamespace = namespace;
+            fLocalName = localName;
+            fValue = value;
+        }
+
+        boolean test(XMLStreamReader reader, int[] counters) {
+            switch (fOp) {
+                case OpCodes.OP_NUMBERLIT:
+                    return ++counters[fSlot] == fPosition;
+                case OpCodes.OP_AND:
+                    return fLeft.test(reader, counters) && fRight.test(reader, counters);
+                case OpCodes.OP_OR:
+                    return fLeft.test(reader, counters) || fRight.test(reader, counters);
+                default:
+                    for (int i = 0, n = reader.getAttributeCount(); i < n; i++) {
+                        if (matches(fNamespace, fLocalName,
+                                reader.getAttributeNamespace(i), reader.getAttributeLocalName(i))
+                                && (fValue == null || fValue.equals(reader.getAttributeValue(i))
+                                        == (fOp == OpCodes.OP_EQUALS))) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+    }
+
+    /** The state of one evaluation. */
+    private final class Run {
+
+        private final XMLStreamReader fReader;
+        private final Document fDocument;
+        private final Consumer<? super Node> fAction;
+
+        /** The step bits of each open element; index 0 is the document. */
+        private long[] fStates = new long[16];
+
+        /** The positional counters for the children of each open element. */
+        private int[][] fCounters = new int[16][];
+
+        private int fDepth;
+
+        /** The element being copied, or null. */
+        private Element fCapture;
+
+        /** The selected text node that is still growing, or null. */
+        private Text fText;
+
+        /** Selected nodes held until the enclosing copy is complete. */
+        private final ArrayList<Node> fPending = new ArrayList<>();
+
+        Run(XMLStreamReader reader, Document document, Consumer<? super Node> action) {
+            fReader = reader;
+            fDocument = document;
+            fAction = action;
+        }
+
+        void run() throws XMLStreamException {
+            fStates[0] = closure(1L);
+            resetCounters(0);
+            while (fReader.hasNext()) {
+                switch (fReader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        fText = null;
+                        startElement();
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        fText = null;
+                        if (fCapture != null) {
+                            Node parent = fCapture.getParentNode();
+                            fCapture = parent instanceof Element ? (Element) parent : null;
+                        }
+                        fDepth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (fDepth > 0) {
+                            characters();
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        fText = null;
+                        if (fCapture != null) {
+                            fCapture.appendChild(fDocument.createComment(fReader.getText()));
+                        }
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        fText = null;
+                        if (fCapture != null) {
+                            fCapture.appendChild(fDocument.createProcessingInstruction(
+                                    fReader.getPITarget(), fReader.getPIData()));
+                        }
+                        break;
+                    default:
+                        fText = null;
+                        break;
+                }
+                if (fCapture == null && fText == null && !fPending.isEmpty()) {
+                    for (Node node : fPending) {
+                        fAction.accept(node);
+                    }
+                    fPending.clear();
+                }
+            }
+        }
+
+        @SuppressWarnings("fallthrough")
+        private void startElement() {
+            int depth = ++fDepth;
+            if (depth == fStates.length) {
+                fStates = Arrays.copyOf(fStates, depth << 1);
+                fCounters = Arrays.copyOf(fCounters, depth << 1);
+            }
+            long parent = fStates[depth - 1];
+            long state = 0;
+            if (parent != 0) {
+                int[] counters = fCounters[depth - 1];
+                for (long bits = parent & ~fSelected; bits != 0; bits &= bits - 1) {
+                    int k = Long.numberOfTrailingZeros(bits);
+                    Step step = fSteps[k];
+                    switch (step.fAxis) {
+                        case OpCodes.FROM_DESCENDANTS:
+                            state |= 1L << k;
+                            // fall through
+                        case OpCodes.FROM_CHILDREN:
+                            if (step.accept(fReader, counters)) {
+                                state |= 1L << (k + 1);
+                            }
+                            break;
+                        case OpCodes.FROM_DESCENDANTS_OR_SELF:
+                            state |= 1L << k;
+                            break;
+                    }
+                }
+                state = closure(state);
+            }
+            fStates[depth] = state;
+            if (state != 0) {
+                resetCounters(depth);
+            }
+
+            boolean selected = (state & fSelected) != 0;
+            Element element = null;
+            if (selected || fCapture != null) {
+                element = copyElement();
+                if (fCapture != null) {
+                    fCapture.appendChild(element);
+                }
+                if (selected) {
+                    fPending.add(element);
+                }
+                fCapture = element;
+            }
+            if (fSelectsAttributes && (state & fLastStep) != 0) {
+                Step step = fSteps[fSteps.length - 1];
+                for (int i = 0, n = fReader.getAttributeCount(); i < n; i++) {
+                    String uri = fReader.getAttributeNamespace(i);
+                    String local = fReader.getAttributeLocalName(i);
+                    if (matches(step.fNamespace, step.fLocalName, uri, local)) {
+                        uri = uri == null || uri.isEmpty() ? null : uri;
+                        fPending.add(element != null
+                                ? element.getAttributeNodeNS(uri, local)
+                                : copyAttribute(i, uri));
+                    }
+                }
+            }
+        }
+
+        private void characters() {
+            String text = fReader.getText();
+            boolean selected = fSelectsText && (fStates[fDepth] & fLastStep) != 0;
+            Text node = null;
+            if (fCapture != null) {
+                Node last = fCapture.getLastChild();
+                if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+                    node = (Text) last;
+                    node.appendData(text);
+                } else {
+                    node = fDocument.createTextNode(text);
+                    fCapture.appendChild(node);
+                }
+            }
+            if (selected) {
+                if (fText == null) {
+                    fText = node != null ? node : fDocument.createTextNode(text);
+                    fPending.add(fText);
+                } else if (node == null) {
+                    fText.appendData(text);
+                }
+            }
+        }
+
+        /**
+         * Adds the steps that descendant-or-self::node() satisfies on the
+         * node itself.
+         */
+        private long closure(long state) {
+            for (int k = 0; k < fSteps.length; k++) {
+                if ((state & (1L << k)) != 0
+                        && fSteps[k].fAxis == OpCodes.FROM_DESCENDANTS_OR_SELF) {
+                    state |= 1L << (k + 1);
+                }
+            }
+            return state;
+        }
+
+        private void resetCounters(int depth) {
+            if (fSlots > 0) {
+                if (fCounters[depth] == null) {
+                    fCounters[depth] = new int[fSlots];
+                } else {
+                    Arrays.fill(fCounters[depth], 0);
+                }
+            }
+        }
+
+        private Element copyElement() {
+            Element element = fDocument.createElementNS(
+                    emptyToNull(fReader.getNamespaceURI()),
+                    qualify(fReader.getPrefix(), fReader.getLocalName()));
+            for (int i = 0, n = fReader.getNamespaceCount(); i < n; i++) {
+                String prefix = fReader.getNamespacePrefix(i);
+                String uri = fReader.getNamespaceURI(i);
+                element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                        prefix == null || prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE
+                                : XMLConstants.XMLNS_ATTRIBUTE + ':' + prefix,
+                        uri == null ? "" : uri);
+            }
+            for (int i = 0, n = fReader.getAttributeCount(); i < n; i++) {
+                element.setAttributeNS(emptyToNull(fReader.getAttributeNamespace(i)),
+                        qualify(fReader.getAttributePrefix(i), fReader.getAttributeLocalName(i)),
+                        fReader.getAttributeValue(i));
+            }
+            return element;
+        }
+
+        private Node copyAttribute(int index, String uri) {
+            org.w3c.dom.Attr attr = fDocument.createAttributeNS(uri,
+                    qualify(fReader.getAttributePrefix(index),
+                            fReader.getAttributeLocalName(index)));
+            attr.setValue(fReader.getAttributeValue(index));
+            return attr;
+        }
+    }
+
+    private static String emptyToNull(String uri) {
+        return uri == null || uri.isEmpty() ? null : uri;
+    }
+
+    private static String qualify(String prefix, String localName) {
+        if (prefix == null || prefix.isEmpty()) {
+            return localName;
+        }
+        return prefix + ':' + localName;
+    }
+}
@@ -25,7 +25,10 @@ import com.sun.org.apache.xml.internal.dtm.DTM;
 import com.sun.org.apache.xpath.internal.res.XPATHErrorResources;
 import com.sun.org.apache.xalan.internal.res.XSLMessages;
 
+import java.util.function.Consumer;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFunctionResolver;
@@ -38,6 +41,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.traversal.NodeIterator;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.xml.sax.InputSource;
 
@@ -53,6 +57,7 @@ public class XPathExpressionImpl  implements javax.xml.xpath.XPathExpression{
     private XPathVariableResolver variableResolver;
     private JAXPPrefixResolver prefixResolver;
     private com.sun.org.apache.xpath.internal.XPath xpath;
+    private StreamingXPath streamingXPath;
 
     // By default Extension Functions are allowed in XPath Expressions. If
     // Secure Processing Feature is set on XPathFactory then the invocation of
@@ -93,6 +98,7 @@ public class XPathExpressionImpl  implements javax.xml.xpath.XPathExpression{
 
     public void setXPath (com.sun.org.apache.xpath.internal.XPath xpath ) {
         this.xpath = xpath;
+        this.streamingXPath = null;
     }
 
     public Object eval(Object item, QName returnType)
@@ -321,6 +327,53 @@ public class XPathExpressionImpl  implements javax.xml.xpath.XPathExpression{
         return (String)this.evaluate( source, XPathConstants.STRING );
     }
 
+    /**
+     * <p>Evaluate the compiled XPath expression over the document read by
+     * <code>reader</code> and pass each selected node to <code>action</code>
+     * in document order.</p>
+     *
+     * <p>The expression is matched against the events of the reader without
+     * building a DTM, so only forward location paths are accepted: child,
+     * descendant, descendant-or-self and self::node() steps with name tests,
+     * optionally ending in an attribute step or a text() test, with
+     * predicates that are either a position on a child step or tests on
+     * attributes of the context element such as <code>[@type='a' or @b]</code>.
+     * A selected element is held in memory from its start tag to its end
+     * tag; everything else is discarded as soon as it is read.</p>
+     *
+     * @param reader A reader positioned at START_DOCUMENT.
+     * @param action The callback that receives the selected nodes.
+     *
+     * @throws XPathExpressionException If the expression is outside the
+     * subset above or the document cannot be read.
+     * @throws IllegalStateException If <code>reader</code> is not at
+     * START_DOCUMENT.
+     * @throws NullPointerException If <code>reader</code> or
+     * <code>action</code> is <code>null</code>.
+     */
+    public void evaluate(XMLStreamReader reader, Consumer<? super Node> action)
+        throws XPathExpressionException {
+        if ( ( reader == null ) || ( action == null ) ) {
+            String fmsg = XSLMessages.createXPATHMessage(
+                    XPATHErrorResources.ER_ARG_CANNOT_BE_NULL,
+                    new Object[] { reader == null ? "reader" : "action" } );
+            throw new NullPointerException( fmsg );
+        }
+        StreamingXPath path = streamingXPath;
+        if ( path == null ) {
+            path = StreamingXPath.compile( xpath.getPatternString(), prefixResolver );
+            streamingXPath = path;
+        }
+        try {
+            if ( dbf == null ) {
+                dbf = JdkXmlUtils.getDOMFactory(overrideDefaultParser);
+            }
+            path.evaluate( reader, dbf.newDocumentBuilder().newDocument(), action );
+        } catch ( XMLStreamException | ParserConfigurationException e ) {
+            throw new XPathExpressionException( e );
+        }
+    }
+
     private boolean isSupported( QName returnType ) {
         // XPathConstants.STRING
         if ( ( returnType.equals( XPathConstants.STRING ) ) ||
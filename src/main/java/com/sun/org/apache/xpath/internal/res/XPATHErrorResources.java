@@ -319,6 +319,7 @@ public static final String ER_IGNORABLE_WHITESPACE_NOT_HANDLED =
   public static final String ER_SECUREPROCESSING_FEATURE = "ER_SECUREPROCESSING_FEATURE";
   public static final String ER_NULL_XPATH_FUNCTION_RESOLVER = "ER_NULL_XPATH_FUNCTION_RESOLVER";
   public static final String ER_NULL_XPATH_VARIABLE_RESOLVER = "ER_NULL_XPATH_VARIABLE_RESOLVER";
+  public static final String ER_XPATH_NOT_STREAMABLE = "ER_XPATH_NOT_STREAMABLE";
   //END: Keys needed for exception messages of  JAXP 1.3 XPath API implementation
 
   public static final String WG_LOCALE_NAME_NOT_HANDLED =
@@ -830,6 +831,11 @@ public static final String ER_IGNORABLE_WHITESPACE_NOT_HANDLED =
   { ER_NULL_XPATH_VARIABLE_RESOLVER,
        "Attempting to set a null XPathVariableResolver:{0}#setXPathVariableResolver(null)"},
 
+  /** Field ER_XPATH_NOT_STREAMABLE                       */
+
+  { ER_XPATH_NOT_STREAMABLE,
+       "The XPath expression ''{0}'' cannot be evaluated over a stream: {1}"},
+
   //END:  Definitions of error keys used  in exception messages of  JAXP 1.3 XPath API implementation
 
   // Warnings...
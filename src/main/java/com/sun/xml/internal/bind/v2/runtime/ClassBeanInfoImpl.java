@@ -54,6 +54,8 @@ import com.sun.xml.internal.bind.v2.runtime.property.AttributeProperty;
 import com.sun.xml.internal.bind.v2.runtime.property.Property;
 import com.sun.xml.internal.bind.v2.runtime.property.PropertyFactory;
 import com.sun.xml.internal.bind.v2.runtime.reflect.Accessor;
+import com.sun.xml.internal.bind.v2.runtime.reflect.opt.Instantiator;
+import com.sun.xml.internal.bind.v2.runtime.reflect.opt.OptimizedInstantiatorFactory;
 import com.sun.xml.internal.bind.v2.runtime.unmarshaller.Loader;
 import com.sun.xml.internal.bind.v2.runtime.unmarshaller.StructureLoader;
 import com.sun.xml.internal.bind.v2.runtime.unmarshaller.UnmarshallingContext;
@@ -121,6 +123,12 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
 
     private final Method factoryMethod;
 
+    /**
+     * Generated {@link Instantiator} that calls the default constructor
+     * directly, or null to go through {@link ClassFactory}.
+     */
+    private final Instantiator<BeanT> instantiator;
+
     /*package*/ ClassBeanInfoImpl(JAXBContextImpl owner, RuntimeClassInfo ci) {
         super(owner,ci,ci.getClazz(),ci.getTypeName(),ci.isElement(),false,true);
 
@@ -144,6 +152,11 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
                     throw e;
                 }
             }
+            this.instantiator = null;
+        } else if(owner.fastBoot) {
+            this.instantiator = null;
+        } else {
+            this.instantiator = OptimizedInstantiatorFactory.get(jaxbType);
         }
 
 
@@ -266,7 +279,9 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
     public BeanT createInstance(UnmarshallingContext context) throws IllegalAccessException, InvocationTargetException, InstantiationException, SAXException {
 
         BeanT bean = null;
-        if (factoryMethod == null){
+        if (instantiator != null) {
+            bean = instantiator.create();
+        } else if (factoryMethod == null){
            bean = ClassFactory.create0(jaxbType);
         }else {
             Object o = ClassFactory.create(factoryMethod);
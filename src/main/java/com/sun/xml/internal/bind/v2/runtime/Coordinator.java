@@ -114,10 +114,9 @@ public abstract class Coordinator implements ErrorHandler, ValidationEventHandle
      * Called whenever an execution flow exits the realm of this {@link Coordinator}.
      */
     protected final void popCoordinator() {
-        if (old != null)
-            activeTable.set(old);
-        else
-            activeTable.remove();
+        // set(null) rather than remove(): this runs for every SAX event, and
+        // remove() would make the next set() allocate a new table entry.
+        activeTable.set(old);
         old = null; // avoid memory leak
     }
 
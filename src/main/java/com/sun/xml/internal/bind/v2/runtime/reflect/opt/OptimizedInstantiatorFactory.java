@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.xml.internal.bind.v2.runtime.reflect.opt;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.xml.internal.bind.Util;
+
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+
+import static com.sun.xml.internal.bind.v2.bytecode.ClassTailor.toVMClassName;
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates {@link Instantiator}s, which create beans during unmarshalling
+ * by calling their default constructor directly instead of through
+ * {@link Constructor#newInstance}.
+ *
+ * <p>
+ * Unlike the accessors of {@link OptimizedAccessorFactory}, which are
+ * tailored from template class files, an instantiator is written with ASM,
+ * since its only content is the bean class itself. Like them, it is
+ * injected into the class loader and package of the bean class, so it can
+ * call a constructor that is not public, as long as it is not private.
+ */
+public abstract class OptimizedInstantiatorFactory {
+    private OptimizedInstantiatorFactory() {} // no instanciation please
+
+    private static final Logger logger = Util.getClassLogger();
+
+    private static final String instantiatorName = toVMClassName(Instantiator.class);
+
+    /**
+     * Gets the optimized {@link Instantiator} for the given class.
+     *
+     * @return null
+     *      if for some reason it fails to create an optimized version.
+     */
+    public static <B> Instantiator<B> get(Class<B> beanClass) {
+        if (AccessorInjector.noOptimize)
+            return null;
+
+        int mods = beanClass.getModifiers();
+        if (Modifier.isAbstract(mods) || Modifier.isInterface(mods) || beanClass.isArray())
+            return null;
+        if (beanClass.getDeclaringClass() != null && !Modifier.isStatic(mods))
+            // inner classes have no default constructor
+            return null;
+
+        try {
+            Constructor<B> cons = beanClass.getDeclaredConstructor();
+            if (Modifier.isPrivate(cons.getModifiers()))
+                // we can't access private constructors
+                return null;
+
+            ClassLoader cl = SecureLoader.getClassClassLoader(beanClass);
+            if (cl == null)
+                return null;
+
+            String beanName = toVMClassName(beanClass);
+            String newClassName = beanName + "$JaxbInstantiator";
+            Class<?> c = Injector.find(cl, newClassName);
+            if (c == null)
+                c = Injector.inject(cl, newClassName, generate(newClassName, beanName));
+            if (c == null)
+                return null;
+
+            @SuppressWarnings("unchecked")
+            Instantiator<B> inst = (Instantiator<B>) c.newInstance();
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Using optimized Instantiator for {0}", beanClass);
+            }
+            return inst;
+        } catch (NoSuchMethodException e) {
+            // ClassFactory reports this when an instance is needed
+        } catch (InstantiationException e) {
+            logger.log(Level.INFO, "failed to load an optimized Instantiator", e);
+        } catch (IllegalAccessException e) {
+            logger.log(Level.INFO, "failed to load an optimized Instantiator", e);
+        } catch (SecurityException e) {
+            logger.log(Level.INFO, "failed to load an optimized Instantiator", e);
+        }
+        return null;
+    }
+
+    /**
+     * Writes the class file of an {@link Instantiator} of the given bean
+     * class:
+     * <pre>
+     * public final class Bean$JaxbInstantiator extends Instantiator {
+     *     protected Object newInstance() { return new Bean(); }
+     * }
+     * </pre>
+     */
+    private static byte[] generate(String className, String beanName) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+                className, null, instantiatorName, null);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, instantiatorName, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PROTECTED, "newInstance", "()Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, beanName);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, beanName, "<init>", "()V", false);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -34,6 +34,7 @@ import com.sun.xml.internal.fastinfoset.util.KeyIntMap;
 import com.sun.xml.internal.fastinfoset.util.LocalNameQualifiedNamesMap;
 import com.sun.xml.internal.fastinfoset.util.StringIntMap;
 import com.sun.xml.internal.fastinfoset.vocab.SerializerVocabulary;
+import com.sun.xml.internal.fastinfoset.vocab.VocabularyRegistry;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
@@ -555,6 +556,21 @@ public abstract class Encoder extends DefaultHandler implements FastInfosetSeria
         _vIsInternal = true;
     }
 
+    /**
+     * Set the external vocabulary to the current vocabulary of a registry.
+     *
+     * <p>
+     * Unlike {@link #setExternalVocabulary(ExternalVocabulary)} the
+     * vocabulary is not converted again; the tables converted by the
+     * registry are shared with other serializers.
+     *
+     * @param registry the registry of external vocabularies.
+     */
+    public void setExternalVocabulary(VocabularyRegistry registry) {
+        _v = registry.newSerializerVocabulary(_useLocalNameAsKeyForQualifiedNameLookup);
+        _vIsInternal = true;
+    }
+
     /**
      * {@inheritDoc}
      */
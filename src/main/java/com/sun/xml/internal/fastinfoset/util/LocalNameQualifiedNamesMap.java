@@ -129,13 +129,6 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
     public final Entry obtainEntry(String key) {
         final int hash = hashHash(key.hashCode());
 
-        if (_readOnlyMap != null) {
-            final Entry entry = _readOnlyMap.getEntry(key, hash);
-            if (entry != null) {
-                return entry;
-            }
-        }
-
         final int tableIndex = indexFor(hash, _table.length);
         for (Entry e = _table[tableIndex]; e != null; e = e._next) {
             if (e._hash == hash && eq(key, e._key)) {
@@ -143,7 +136,17 @@ public class LocalNameQualifiedNamesMap extends KeyIntMap {
             }
         }
 
-        return addEntry(key, hash, tableIndex);
+        final Entry e = addEntry(key, hash, tableIndex);
+        if (_readOnlyMap != null) {
+            final Entry entry = _readOnlyMap.getEntry(key, hash);
+            if (entry != null) {
+                // Callers add names to the returned entry, so never return
+                // the entry of the read only map, which may be shared
+                e._value = entry._value.clone();
+                e._valueIndex = entry._valueIndex;
+            }
+        }
+        return e;
     }
 
     public final Entry obtainDynamicEntry(String key) {
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.xml.internal.fastinfoset.vocab;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.namespace.QName;
+import com.sun.xml.internal.org.jvnet.fastinfoset.ExternalVocabulary;
+
+/**
+ * A registry of external vocabularies shared by serializers and parsers.
+ *
+ * <p>
+ * Without an external vocabulary every document starts with empty tables,
+ * so small messages repeat every element name, namespace and prefix
+ * literally. A registered vocabulary is converted once into its serializer
+ * and parser forms, which are then used read-only by any number of
+ * serializers and parsers, on any thread. Each document only carries the
+ * URI of the vocabulary it was encoded with.
+ *
+ * <p>
+ * A vocabulary is immutable once registered; a new version is registered
+ * under a new URI. Serializers use the vocabulary registered last (or the
+ * one chosen with {@link #setCurrent}), while parsers accept documents
+ * encoded with any registered version, so peers can be upgraded one at a
+ * time.
+ *
+ * <p>
+ * Vocabularies can be saved with {@link #write} and loaded again with
+ * {@link #read}; they are typically built from sample documents with
+ * {@link com.sun.xml.internal.fastinfoset.tools.VocabularyGenerator}.
+ */
+public class VocabularyRegistry {
+    private static final int MAGIC = 0x46495643; // "FIVC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final VocabularyRegistry DEFAULT = new VocabularyRegistry();
+
+    /**
+     * The converted forms of one external vocabulary.
+     */
+    private static final class Entry {
+        final ExternalVocabulary external;
+        final ParserVocabulary parserVocabulary;
+        final SerializerVocabulary serializerVocabulary;
+        final SerializerVocabulary localNameKeyedSerializerVocabulary;
+
+        Entry(ExternalVocabulary external) {
+            this.external = external;
+            parserVocabulary = new ParserVocabulary(external.vocabulary);
+            serializerVocabulary = new SerializerVocabulary(external.vocabulary, false);
+            localNameKeyedSerializerVocabulary = new SerializerVocabulary(external.vocabulary, true);
+        }
+    }
+
+    private final Map<String, Entry> _entries = new LinkedHashMap<String, Entry>();
+
+    private volatile Entry _current;
+
+    /**
+     * Snapshot of URI to {@link ParserVocabulary}, replaced on every
+     * registration so readers never need to lock.
+     */
+    private volatile Map<String, ParserVocabulary> _parserVocabularies = Collections.emptyMap();
+
+    /**
+     * Get the registry used by default, for example by the JAX-WS
+     * Fast Infoset codecs.
+     */
+    public static VocabularyRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Register an external vocabulary and make it the current one.
+     *
+     * @param v the external vocabulary. Its tables must not be modified
+     *        after registration.
+     * @throws IllegalArgumentException if another vocabulary is already
+     *         registered with the same URI.
+     */
+    public synchronized void register(ExternalVocabulary v) {
+        Entry e = _entries.get(v.URI);
+        if (e == null) {
+            e = new Entry(v);
+            _entries.put(v.URI, e);
+
+            Map<String, ParserVocabulary> m = new HashMap<String, ParserVocabulary>(_parserVocabularies);
+            m.put(v.URI, e.parserVocabulary);
+            _parserVocabularies = Collections.unmodifiableMap(m);
+        } else if (e.external != v) {
+            throw new IllegalArgumentException("A different vocabulary is already registered for " + v.URI);
+        }
+        _current = e;
+    }
+
+    /**
+     * Choose the registered vocabulary that serializers use.
+     *
+     * @param URI the URI of a registered vocabulary, or null to serialize
+     *        without an external vocabulary.
+     * @throws IllegalArgumentException if no vocabulary is registered
+     *         with the URI.
+     */
+    public synchronized void setCurrent(String URI) {
+        if (URI == null) {
+            _current = null;
+            return;
+        }
+
+        Entry e = _entries.get(URI);
+        if (e == null) {
+            throw new IllegalArgumentException("No vocabulary is registered for " + URI);
+        }
+        _current = e;
+    }
+
+    /**
+     * Get the vocabulary that serializers use.
+     *
+     * @return the current vocabulary, or null if there is none.
+     */
+    public ExternalVocabulary getCurrent() {
+        final Entry e = _current;
+        return (e != null) ? e.external : null;
+    }
+
+    /**
+     * Get a registered vocabulary.
+     *
+     * @return the vocabulary registered with the URI, or null.
+     */
+    public synchronized ExternalVocabulary get(String URI) {
+        final Entry e = _entries.get(URI);
+        return (e != null) ? e.external : null;
+    }
+
+    /**
+     * Get the parser form of all registered vocabularies.
+     *
+     * @return an unmodifiable map of URI to {@link ParserVocabulary}, to be
+     *         passed to
+     *         {@link com.sun.xml.internal.org.jvnet.fastinfoset.FastInfosetParser#setExternalVocabularies},
+     *         or null if nothing is registered.
+     */
+    public Map<String, ParserVocabulary> getParserVocabularies() {
+        final Map<String, ParserVocabulary> m = _parserVocabularies;
+        return m.isEmpty() ? null : m;
+    }
+
+    /**
+     * Create a new serializer vocabulary that refers to the current
+     * vocabulary. The shared tables are only read; indexes added while
+     * serializing go to the new vocabulary.
+     *
+     * @param useLocalNameAsKey true if the serializer looks up qualified
+     *        names by local name, as the StAX serializer does.
+     * @return the new vocabulary, which is empty if there is no current
+     *         vocabulary.
+     */
+    public SerializerVocabulary newSerializerVocabulary(boolean useLocalNameAsKey) {
+        final SerializerVocabulary v = new SerializerVocabulary();
+        final Entry e = _current;
+        if (e != null) {
+            v.setExternalVocabulary(e.external.URI,
+                    useLocalNameAsKey ? e.localNameKeyedSerializerVocabulary : e.serializerVocabulary,
+                    false);
+        }
+        return v;
+    }
+
+    /**
+     * Write an external vocabulary so it can be loaded with {@link #read}.
+     */
+    public static void write(ExternalVocabulary v, OutputStream out) throws IOException {
+        final DataOutputStream s = new DataOutputStream(out);
+        s.writeInt(MAGIC);
+        s.writeInt(FORMAT_VERSION);
+        s.writeUTF(v.URI);
+
+        final com.sun.xml.internal.org.jvnet.fastinfoset.Vocabulary t = v.vocabulary;
+        writeStrings(t.restrictedAlphabets, s);
+        writeStrings(t.encodingAlgorithms, s);
+        writeStrings(t.prefixes, s);
+        writeStrings(t.namespaceNames, s);
+        writeStrings(t.localNames, s);
+        writeStrings(t.otherNCNames, s);
+        writeStrings(t.otherURIs, s);
+        writeStrings(t.attributeValues, s);
+        writeStrings(t.otherStrings, s);
+        writeStrings(t.characterContentChunks, s);
+        writeNames(t.elements, s);
+        writeNames(t.attributes, s);
+        s.flush();
+    }
+
+    /**
+     * Read an external vocabulary written by {@link #write}.
+     */
+    public static ExternalVocabulary read(InputStream in) throws IOException {
+        final DataInputStream s = new DataInputStream(in);
+        if (s.readInt() != MAGIC) {
+            throw new IOException("Not a Fast Infoset vocabulary");
+        }
+        final int version = s.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported Fast Infoset vocabulary format " + version);
+        }
+        final String URI = s.readUTF();
+
+        final com.sun.xml.internal.org.jvnet.fastinfoset.Vocabulary t =
+                new com.sun.xml.internal.org.jvnet.fastinfoset.Vocabulary();
+        readStrings(t.restrictedAlphabets, s);
+        readStrings(t.encodingAlgorithms, s);
+        readStrings(t.prefixes, s);
+        readStrings(t.namespaceNames, s);
+        readStrings(t.localNames, s);
+        readStrings(t.otherNCNames, s);
+        readStrings(t.otherURIs, s);
+        readStrings(t.attributeValues, s);
+        readStrings(t.otherStrings, s);
+        readStrings(t.characterContentChunks, s);
+        readNames(t.elements, s);
+        readNames(t.attributes, s);
+        return new ExternalVocabulary(URI, t);
+    }
+
+    private static void writeStrings(Set<?> set, DataOutputStream s) throws IOException {
+        s.writeInt(set.size());
+        for (Object o : set) {
+            s.writeUTF((String)o);
+        }
+    }
+
+    private static void writeNames(Set<?> set, DataOutputStream s) throws IOException {
+        s.writeInt(set.size());
+        for (Object o : set) {
+            final QName n = (QName)o;
+            s.writeUTF(n.getNamespaceURI());
+            s.writeUTF(n.getLocalPart());
+            s.writeUTF(n.getPrefix());
+        }
+    }
+
+    private static void readStrings(Set<?> set, DataInputStream s) throws IOException {
+        final Set<Object> table = table(set);
+        for (int i = s.readInt(); i > 0; i--) {
+            table.add(s.readUTF());
+        }
+    }
+
+    private static void readNames(Set<?> set, DataInputStream s) throws IOException {
+        final Set<Object> table = table(set);
+        for (int i = s.readInt(); i > 0; i--) {
+            table.add(new QName(s.readUTF(), s.readUTF(), s.readUTF()));
+        }
+    }
+
+    // the tables of a Vocabulary are raw sets
+    @SuppressWarnings("unchecked")
+    private static Set<Object> table(Set<?> set) {
+        return (Set<Object>)set;
+    }
+}
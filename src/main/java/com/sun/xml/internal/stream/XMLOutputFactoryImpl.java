@@ -26,6 +26,7 @@
 package com.sun.xml.internal.stream;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -42,6 +43,7 @@ import com.sun.org.apache.xerces.internal.impl.PropertyManager;
 
 import com.sun.xml.internal.stream.writers.XMLDOMWriterImpl;
 import com.sun.xml.internal.stream.writers.XMLEventWriterImpl;
+import com.sun.xml.internal.stream.writers.UTF8XMLStreamWriter;
 import com.sun.xml.internal.stream.writers.XMLStreamWriterImpl;
 
 /**
@@ -184,12 +186,32 @@ public class XMLOutputFactoryImpl extends XMLOutputFactory {
                 if(DEBUG)System.out.println("reusing instance, object id : " + fStreamWriter);
                 return fStreamWriter;
             }
+            if (useByteWriter(sr, encoding)) {
+                OutputStream os = sr.getOutputStream();
+                if (os == null) {
+                    os = new FileOutputStream(sr.getSystemId());
+                }
+                return new UTF8XMLStreamWriter(os, new PropertyManager(fPropertyManager));
+            }
             return fStreamWriter = new XMLStreamWriterImpl(sr, encoding, new PropertyManager(fPropertyManager));
         }catch(java.io.IOException io){
             throw new XMLStreamException(io);
         }
     }//createXMLStreamWriter(StreamResult,String)
 
+    /**
+     * Whether to write <code>sr</code> with a {@link UTF8XMLStreamWriter}:
+     * it must be enabled, namespaces must not be repaired, the encoding must
+     * be UTF-8 or not given, and <code>sr</code> must not hold a Writer.
+     */
+    private boolean useByteWriter(StreamResult sr, String encoding) {
+        return Boolean.TRUE.equals(fPropertyManager.getProperty(Constants.UTF8_BYTE_WRITER))
+            && !Boolean.TRUE.equals(fPropertyManager.getProperty(IS_REPAIRING_NAMESPACES))
+            && (encoding == null || encoding.equalsIgnoreCase("UTF-8"))
+            && (sr.getOutputStream() != null
+                || (sr.getWriter() == null && sr.getSystemId() != null));
+    }
+
     private static final boolean DEBUG = false;
 
     /** This flag indicates the change of property. If true,
@@ -0,0 +1,1020 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.xml.internal.stream.writers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.sun.org.apache.xerces.internal.impl.PropertyManager;
+import com.sun.org.apache.xerces.internal.impl.Constants;
+
+import com.sun.xml.internal.stream.util.BufferAllocator;
+import com.sun.xml.internal.stream.util.ReadOnlyIterator;
+import com.sun.xml.internal.stream.util.ThreadLocalBufferAllocator;
+
+/**
+ * An XMLStreamWriter that encodes its output straight into a byte buffer
+ * as UTF-8, without the <code>Writer</code> chain used by
+ * {@link XMLStreamWriterImpl}. Characters are escaped through a lookup
+ * table, so a run of ASCII characters that need no escaping costs one
+ * table lookup and one store per character. Element names and namespace
+ * bindings are kept in array stacks, so writing an element allocates
+ * nothing once the stacks have grown to the depth of the document.
+ * <p>
+ * The buffer is taken from the thread's {@link BufferAllocator} and given
+ * back on {@link #close}. Only non-repairing namespace mode is supported;
+ * for the same calls the output is the same as that of
+ * <code>XMLStreamWriterImpl</code> writing UTF-8.
+ */
+public final class UTF8XMLStreamWriter implements XMLStreamWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The entity to write for each ASCII character in character data, or
+     * null if the character is written as it is.
+     */
+    private static final byte[][] TEXT_ENTITIES = new byte[128][];
+
+    /**
+     * The entity to write for each ASCII character in attribute values.
+     */
+    private static final byte[][] ATTRIBUTE_ENTITIES = new byte[128][];
+
+    /**
+     * Used when characters are not escaped.
+     */
+    private static final byte[][] NO_ENTITIES = new byte[128][];
+
+    /**
+     * The largest number of bytes written for one char: "&amp;quot;".
+     */
+    private static final int MAX_CHAR_BYTES = 6;
+
+    static {
+        TEXT_ENTITIES['<'] = ATTRIBUTE_ENTITIES['<'] = ascii("&lt;");
+        TEXT_ENTITIES['>'] = ATTRIBUTE_ENTITIES['>'] = ascii("&gt;");
+        TEXT_ENTITIES['&'] = ATTRIBUTE_ENTITIES['&'] = ascii("&amp;");
+        ATTRIBUTE_ENTITIES['"'] = ascii("&quot;");
+    }
+
+    private static final byte[] START_COMMENT = ascii(XMLStreamWriterImpl.START_COMMENT);
+    private static final byte[] END_COMMENT = ascii(XMLStreamWriterImpl.END_COMMENT);
+    private static final byte[] START_CDATA = ascii(XMLStreamWriterImpl.START_CDATA);
+    private static final byte[] END_CDATA = ascii(XMLStreamWriterImpl.END_CDATA);
+    private static final byte[] DEFAULT_XMLDECL = ascii(XMLStreamWriterImpl.DEFAULT_XMLDECL);
+    private static final byte[] START_XMLDECL = ascii("<?xml version=\"");
+    private static final byte[] XMLNS = ascii(" xmlns");
+
+    private final PropertyManager fPropertyManager;
+
+    private final boolean fEscapeCharacters;
+
+    private OutputStream fOutputStream;
+
+    private byte[] fBuffer;
+
+    /**
+     * Number of bytes of <code>fBuffer</code> not yet written out.
+     */
+    private int fPosition;
+
+    /**
+     * Scratch space the chars of a <code>String</code> are copied to.
+     */
+    private final char[] fChars = new char[BUFFER_SIZE / MAX_CHAR_BYTES];
+
+    /**
+     * A high surrogate that ended the last characters written, waiting for
+     * its low surrogate, or 0.
+     */
+    private char fHighSurrogate;
+
+    private boolean fStartTagOpened = false;
+
+    /**
+     * Whether the open start tag is that of an empty element.
+     */
+    private boolean fEmptyElement = false;
+
+    // Open elements, from the root down
+    private String[] fElementPrefixes = new String[16];
+    private String[] fElementNames = new String[16];
+    private int fDepth = 0;
+
+    // Namespace bindings, in declaration order, and the index of the first
+    // binding of each namespace context from the root down
+    private String[] fPrefixes = new String[16];
+    private String[] fURIs = new String[16];
+    private int fBindingCount = 0;
+    private int[] fContexts = new int[16];
+    private int fContextDepth = 0;
+
+    /**
+     * Root namespace context set by the user.
+     */
+    private NamespaceContext fUserContext = null;
+
+    private final NamespaceContext fNamespaceContext = new NamespaceContextImpl();
+
+    /**
+     * Creates a new instance of UTF8XMLStreamWriter.
+     *
+     * @param outputStream Underlying stream to write the bytes to
+     * @param props        Properties used by this writer
+     */
+    public UTF8XMLStreamWriter(OutputStream outputStream,
+        PropertyManager props) {
+        fOutputStream = outputStream;
+        fPropertyManager = props;
+        fEscapeCharacters = ((Boolean) props.getProperty(
+            Constants.ESCAPE_CHARACTERS)).booleanValue();
+
+        fBuffer = ThreadLocalBufferAllocator.getBufferAllocator()
+            .getByteBuffer(BUFFER_SIZE);
+        if (fBuffer == null) {
+            fBuffer = new byte[BUFFER_SIZE];
+        }
+
+        declarePrefix(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI);
+        declarePrefix(XMLConstants.XMLNS_ATTRIBUTE,
+            XMLConstants.XMLNS_ATTRIBUTE_NS_URI);
+    }
+
+    /**
+     * Flushes this writer and gives its buffer back. The underlying
+     * stream is flushed but not closed.
+     */
+    public void close() throws XMLStreamException {
+        if (fBuffer != null) {
+            flush();
+            ThreadLocalBufferAllocator.getBufferAllocator()
+                .returnByteBuffer(fBuffer);
+            fBuffer = null;
+        }
+        fOutputStream = null;
+        fDepth = 0;
+        fBindingCount = 0;
+        fContextDepth = 0;
+        fStartTagOpened = false;
+        fUserContext = null;
+    }
+
+    public void flush() throws XMLStreamException {
+        try {
+            flushBuffer();
+            fOutputStream.flush();
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public NamespaceContext getNamespaceContext() {
+        return fNamespaceContext;
+    }
+
+    public String getPrefix(String uri) throws XMLStreamException {
+        return fNamespaceContext.getPrefix(uri);
+    }
+
+    public Object getProperty(String str) throws IllegalArgumentException {
+        if (str == null) {
+            throw new NullPointerException();
+        }
+
+        if (!fPropertyManager.containsProperty(str)) {
+            throw new IllegalArgumentException("Property '" + str +
+                "' is not supported");
+        }
+
+        return fPropertyManager.getProperty(str);
+    }
+
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        declarePrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+    }
+
+    public void setNamespaceContext(NamespaceContext namespaceContext)
+        throws XMLStreamException {
+        fUserContext = namespaceContext;
+    }
+
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        if (prefix == null) {
+            throw new XMLStreamException("Prefix cannot be null");
+        }
+
+        if (uri == null) {
+            throw new XMLStreamException("URI cannot be null");
+        }
+
+        declarePrefix(prefix, uri);
+    }
+
+    public void writeAttribute(String localName, String value)
+        throws XMLStreamException {
+        writeAttributeWithPrefix(null, localName, value);
+    }
+
+    public void writeAttribute(String namespaceURI, String localName,
+        String value) throws XMLStreamException {
+        if (namespaceURI == null) {
+            throw new XMLStreamException("NamespaceURI cannot be null");
+        }
+
+        String prefix = null;
+        if (!namespaceURI.isEmpty()) {
+            prefix = fNamespaceContext.getPrefix(namespaceURI);
+            if (prefix == null) {
+                throw new XMLStreamException("Prefix cannot be null");
+            }
+        }
+
+        writeAttributeWithPrefix(prefix, localName, value);
+    }
+
+    public void writeAttribute(String prefix, String namespaceURI,
+        String localName, String value) throws XMLStreamException {
+        if (!fStartTagOpened) {
+            throw new XMLStreamException(
+                "Attribute not associated with any element");
+        }
+
+        if (namespaceURI == null) {
+            throw new XMLStreamException("NamespaceURI cannot be null");
+        }
+
+        if (localName == null) {
+            throw new XMLStreamException("Local name cannot be null");
+        }
+
+        if (prefix == null || prefix.isEmpty()) {
+            if (!namespaceURI.isEmpty()) {
+                throw new XMLStreamException("prefix cannot be null or empty");
+            }
+            writeAttributeWithPrefix(null, localName, value);
+            return;
+        }
+
+        if (!prefix.equals(XMLConstants.XML_NS_PREFIX)
+                || !namespaceURI.equals(XMLConstants.XML_NS_URI)) {
+            checkRebinding(prefix, namespaceURI);
+            declarePrefix(prefix, namespaceURI);
+        }
+        writeAttributeWithPrefix(prefix, localName, value);
+    }
+
+    private void writeAttributeWithPrefix(String prefix, String localName,
+        String value) throws XMLStreamException {
+        if (!fStartTagOpened) {
+            throw new XMLStreamException(
+                "Attribute not associated with any element");
+        }
+
+        try {
+            writeByte(' ');
+            writeName(prefix, localName);
+            writeByte('=');
+            writeByte('"');
+            writeString(value, ATTRIBUTE_ENTITIES);
+            writeByte('"');
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeCData(String cdata) throws XMLStreamException {
+        if (cdata == null) {
+            throw new XMLStreamException("cdata cannot be null");
+        }
+
+        try {
+            startNode();
+            writeBytes(START_CDATA);
+            writeString(cdata, NO_ENTITIES);
+            writeBytes(END_CDATA);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeCharacters(String data) throws XMLStreamException {
+        try {
+            if (fStartTagOpened) {
+                closeStartTag();
+            }
+
+            if (data != null) {
+                writeText(data, fEscapeCharacters ? TEXT_ENTITIES : NO_ENTITIES);
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeCharacters(char[] data, int start, int len)
+        throws XMLStreamException {
+        try {
+            if (fStartTagOpened) {
+                closeStartTag();
+            }
+
+            writeChars(data, start, len,
+                fEscapeCharacters ? TEXT_ENTITIES : NO_ENTITIES);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeComment(String comment) throws XMLStreamException {
+        try {
+            startNode();
+            writeBytes(START_COMMENT);
+            if (comment != null) {
+                writeString(comment, NO_ENTITIES);
+            }
+            writeBytes(END_COMMENT);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeDTD(String dtd) throws XMLStreamException {
+        try {
+            startNode();
+            writeString(dtd, NO_ENTITIES);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeDefaultNamespace(String namespaceURI)
+        throws XMLStreamException {
+        if (!fStartTagOpened) {
+            throw new IllegalStateException(
+                "Namespace Attribute not associated with any element");
+        }
+
+        if (namespaceURI == null) {
+            namespaceURI = XMLConstants.NULL_NS_URI;
+        }
+
+        if (isBoundInCurrentContext(XMLConstants.DEFAULT_NS_PREFIX)) {
+            final String tmp = getURI(XMLConstants.DEFAULT_NS_PREFIX);
+            if (tmp != null && !tmp.equals(namespaceURI)) {
+                throw new XMLStreamException(
+                        "xmlns has been already bound to " + tmp +
+                        ". Rebinding it to " + namespaceURI +
+                        " is an error");
+            }
+        }
+        declarePrefix(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+        writeNamespaceDeclaration(null, namespaceURI);
+    }
+
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        writeEmptyElement(null, localName, XMLConstants.NULL_NS_URI);
+    }
+
+    public void writeEmptyElement(String namespaceURI, String localName)
+        throws XMLStreamException {
+        if (namespaceURI == null) {
+            throw new XMLStreamException("NamespaceURI cannot be null");
+        }
+
+        writeEmptyElement(fNamespaceContext.getPrefix(namespaceURI),
+            localName, namespaceURI);
+    }
+
+    public void writeEmptyElement(String prefix, String localName,
+        String namespaceURI) throws XMLStreamException {
+        writeStartTag(prefix, localName, namespaceURI, true);
+    }
+
+    public void writeEndDocument() throws XMLStreamException {
+        try {
+            startNode();
+            while (fDepth > 0) {
+                writeEndTag();
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeEndElement() throws XMLStreamException {
+        try {
+            startNode();
+            if (fDepth == 0) {
+                throw new XMLStreamException("No element was found to write");
+            }
+            writeEndTag();
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeEntityRef(String refName) throws XMLStreamException {
+        try {
+            startNode();
+            writeByte('&');
+            writeString(refName, NO_ENTITIES);
+            writeByte(';');
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeNamespace(String prefix, String namespaceURI)
+        throws XMLStreamException {
+        if (namespaceURI == null) {
+            namespaceURI = XMLConstants.NULL_NS_URI;
+        }
+
+        if (!fStartTagOpened) {
+            throw new IllegalStateException(
+                    "Invalid state: start tag is not opened at writeNamespace("
+                    + prefix + ", " + namespaceURI + ")");
+        }
+
+        if (prefix == null
+                || prefix.equals(XMLConstants.DEFAULT_NS_PREFIX)
+                || prefix.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
+            writeDefaultNamespace(namespaceURI);
+            return;
+        }
+
+        if (prefix.equals(XMLConstants.XML_NS_PREFIX)
+                && namespaceURI.equals(XMLConstants.XML_NS_URI)) {
+            return;
+        }
+
+        checkRebinding(prefix, namespaceURI);
+        declarePrefix(prefix, namespaceURI);
+        writeNamespaceDeclaration(prefix, namespaceURI);
+    }
+
+    public void writeProcessingInstruction(String target)
+        throws XMLStreamException {
+        writeProcessingInstruction(target, null, false);
+    }
+
+    public void writeProcessingInstruction(String target, String data)
+        throws XMLStreamException {
+        writeProcessingInstruction(target, data, true);
+    }
+
+    private void writeProcessingInstruction(String target, String data,
+        boolean hasData) throws XMLStreamException {
+        try {
+            startNode();
+            if (target == null || (hasData && data == null)) {
+                throw new XMLStreamException("PI target cannot be null");
+            }
+
+            writeByte('<');
+            writeByte('?');
+            writeString(target, NO_ENTITIES);
+            if (hasData) {
+                writeByte(' ');
+                writeString(data, NO_ENTITIES);
+            }
+            writeByte('?');
+            writeByte('>');
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeStartDocument() throws XMLStreamException {
+        try {
+            writeBytes(DEFAULT_XMLDECL);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writeStartDocument(null, version);
+    }
+
+    public void writeStartDocument(String encoding, String version)
+        throws XMLStreamException {
+        if (encoding == null && (version == null || version.isEmpty())) {
+            writeStartDocument();
+            return;
+        }
+
+        if (encoding != null && !encoding.isEmpty()
+                && !isUTF8(encoding)) {
+            throw new XMLStreamException("Underlying stream encoding '"
+                    + XMLStreamWriterImpl.UTF_8
+                    + "' and input paramter for writeStartDocument() method '"
+                    + encoding + "' do not match.");
+        }
+
+        try {
+            writeBytes(START_XMLDECL);
+            if (version == null || version.isEmpty()) {
+                writeString(XMLStreamWriterImpl.DEFAULT_XML_VERSION, NO_ENTITIES);
+            } else {
+                writeString(version, NO_ENTITIES);
+            }
+            if (encoding != null && !encoding.isEmpty()) {
+                writeString("\" encoding=\"", NO_ENTITIES);
+                writeString(encoding, NO_ENTITIES);
+            }
+            writeByte('"');
+            writeByte('?');
+            writeByte('>');
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    public void writeStartElement(String localName) throws XMLStreamException {
+        writeStartTag(null, localName, XMLConstants.NULL_NS_URI, false);
+    }
+
+    public void writeStartElement(String namespaceURI, String localName)
+        throws XMLStreamException {
+        if (localName == null) {
+            throw new XMLStreamException("Local Name cannot be null");
+        }
+
+        if (namespaceURI == null) {
+            throw new XMLStreamException("NamespaceURI cannot be null");
+        }
+
+        final String prefix = fNamespaceContext.getPrefix(namespaceURI);
+        if (prefix == null) {
+            throw new XMLStreamException("Prefix cannot be null");
+        }
+        writeStartTag(prefix, localName, namespaceURI, false);
+    }
+
+    public void writeStartElement(String prefix, String localName,
+        String namespaceURI) throws XMLStreamException {
+        if (prefix == null) {
+            throw new XMLStreamException("Prefix cannot be null");
+        }
+        writeStartTag(prefix, localName, namespaceURI, false);
+    }
+
+    /**
+     * Opens the start tag of an element. If <code>prefix</code> is not bound
+     * to <code>namespaceURI</code> it is bound in the new element's
+     * context, but no declaration is written.
+     */
+    private void writeStartTag(String prefix, String localName,
+        String namespaceURI, boolean empty) throws XMLStreamException {
+        if (localName == null) {
+            throw new XMLStreamException("Local Name cannot be null");
+        }
+
+        if (namespaceURI == null) {
+            throw new XMLStreamException("NamespaceURI cannot be null");
+        }
+
+        if (empty && prefix == null && !namespaceURI.isEmpty()) {
+            throw new XMLStreamException("NamespaceURI " +
+                namespaceURI + " has not been bound to any prefix");
+        }
+
+        try {
+            startNode();
+            writeByte('<');
+
+            pushContext();
+            if (prefix != null
+                    && !prefix.equals(fNamespaceContext.getPrefix(namespaceURI))) {
+                declarePrefix(prefix, namespaceURI);
+            }
+
+            if (!empty) {
+                if (fDepth == fElementNames.length) {
+                    fElementNames = Arrays.copyOf(fElementNames, fDepth * 2);
+                    fElementPrefixes = Arrays.copyOf(fElementPrefixes, fDepth * 2);
+                }
+                fElementPrefixes[fDepth] = prefix;
+                fElementNames[fDepth] = localName;
+                fDepth++;
+            }
+
+            writeName(prefix, localName);
+            fStartTagOpened = true;
+            fEmptyElement = empty;
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    /**
+     * Writes the end tag of the innermost open element.
+     */
+    private void writeEndTag() throws IOException, XMLStreamException {
+        fDepth--;
+        writeByte('<');
+        writeByte('/');
+        writeName(fElementPrefixes[fDepth], fElementNames[fDepth]);
+        writeByte('>');
+        fElementPrefixes[fDepth] = null;
+        fElementNames[fDepth] = null;
+        popContext();
+    }
+
+    /**
+     * Starts a node other than character data: closes the open start tag,
+     * if any, and checks that no surrogate pair was left incomplete.
+     */
+    private void startNode() throws IOException, XMLStreamException {
+        if (fHighSurrogate != 0) {
+            fHighSurrogate = 0;
+            throw new XMLStreamException("Unpaired surrogate in character data");
+        }
+        if (fStartTagOpened) {
+            closeStartTag();
+        }
+    }
+
+    private void closeStartTag() throws IOException {
+        fStartTagOpened = false;
+        if (fEmptyElement) {
+            popContext();
+            writeByte('/');
+        }
+        writeByte('>');
+    }
+
+    private void writeNamespaceDeclaration(String prefix, String namespaceURI)
+        throws XMLStreamException {
+        try {
+            writeBytes(XMLNS);
+            if (prefix != null && !prefix.isEmpty()) {
+                writeByte(':');
+                writeString(prefix, NO_ENTITIES);
+            }
+            writeByte('=');
+            writeByte('"');
+            writeString(namespaceURI, ATTRIBUTE_ENTITIES);
+            writeByte('"');
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    private void writeName(String prefix, String localName)
+        throws IOException, XMLStreamException {
+        if (prefix != null && !prefix.isEmpty()) {
+            writeString(prefix, NO_ENTITIES);
+            writeByte(':');
+        }
+        writeString(localName, NO_ENTITIES);
+    }
+
+    //
+    // Namespace stack
+    //
+
+    private void pushContext() {
+        if (++fContextDepth == fContexts.length) {
+            fContexts = Arrays.copyOf(fContexts, fContextDepth * 2);
+        }
+        fContexts[fContextDepth] = fBindingCount;
+    }
+
+    private void popContext() {
+        final int count = fContexts[fContextDepth--];
+        Arrays.fill(fPrefixes, count, fBindingCount, null);
+        Arrays.fill(fURIs, count, fBindingCount, null);
+        fBindingCount = count;
+    }
+
+    /**
+     * Binds <code>prefix</code> to <code>uri</code> in the current
+     * context, replacing any binding of the prefix in that context.
+     */
+    private void declarePrefix(String prefix, String uri) {
+        for (int i = fBindingCount - 1; i >= fContexts[fContextDepth]; i--) {
+            if (fPrefixes[i].equals(prefix)) {
+                fURIs[i] = uri;
+                return;
+            }
+        }
+        if (fBindingCount == fPrefixes.length) {
+            fPrefixes = Arrays.copyOf(fPrefixes, fBindingCount * 2);
+            fURIs = Arrays.copyOf(fURIs, fBindingCount * 2);
+        }
+        fPrefixes[fBindingCount] = prefix;
+        fURIs[fBindingCount] = uri;
+        fBindingCount++;
+    }
+
+    private boolean isBoundInCurrentContext(String prefix) {
+        for (int i = fBindingCount - 1; i >= fContexts[fContextDepth]; i--) {
+            if (fPrefixes[i].equals(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Throws if <code>prefix</code> is bound to another URI than
+     * <code>uri</code> in the current context.
+     */
+    private void checkRebinding(String prefix, String uri)
+        throws XMLStreamException {
+        if (isBoundInCurrentContext(prefix)) {
+            final String tmp = getURI(prefix);
+            if (tmp != null && !tmp.equals(uri)) {
+                throw new XMLStreamException("prefix " + prefix +
+                    " has been already bound to " + tmp +
+                    ". Rebinding it to " + uri + " is an error");
+            }
+        }
+    }
+
+    private String getURI(String prefix) {
+        for (int i = fBindingCount - 1; i >= 0; i--) {
+            if (fPrefixes[i].equals(prefix)) {
+                return fURIs[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the innermost prefix bound to <code>uri</code> that is not
+     * hidden by a later binding of the same prefix.
+     */
+    private String getPrefixOf(String uri) {
+        for (int i = fBindingCount - 1; i >= 0; i--) {
+            if (fURIs[i] != null && fURIs[i].equals(uri)
+                    && isVisible(i)) {
+                return fPrefixes[i];
+            }
+        }
+        return null;
+    }
+
+    private boolean isVisible(int binding) {
+        final String prefix = fPrefixes[binding];
+        for (int i = binding + 1; i < fBindingCount; i++) {
+            if (fPrefixes[i].equals(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //
+    // UTF-8 encoding
+    //
+
+    /**
+     * Writes character data, which may end with the high surrogate of a
+     * pair completed by the next character data written.
+     */
+    private void writeText(String s, byte[][] entities)
+        throws IOException, XMLStreamException {
+        final int length = s.length();
+        int offset = 0;
+
+        // Encode the leading ASCII chars straight from the string if they
+        // surely fit in the buffer
+        if (fHighSurrogate == 0
+                && length <= (fBuffer.length - fPosition) / MAX_CHAR_BYTES) {
+            final byte[] buffer = fBuffer;
+            int pos = fPosition;
+            for (; offset < length; offset++) {
+                final char ch = s.charAt(offset);
+                if (ch >= 0x80) {
+                    break;
+                }
+                final byte[] entity = entities[ch];
+                if (entity == null) {
+                    buffer[pos++] = (byte) ch;
+                } else {
+                    System.arraycopy(entity, 0, buffer, pos, entity.length);
+                    pos += entity.length;
+                }
+            }
+            fPosition = pos;
+        }
+
+        for (; offset < length; offset += fChars.length) {
+            final int count = Math.min(fChars.length, length - offset);
+            s.getChars(offset, offset + count, fChars, 0);
+            writeChars(fChars, 0, count, entities);
+        }
+    }
+
+    /**
+     * Writes a string that must contain whole surrogate pairs.
+     */
+    private void writeString(String s, byte[][] entities)
+        throws IOException, XMLStreamException {
+        writeText(s, entities);
+        if (fHighSurrogate != 0) {
+            fHighSurrogate = 0;
+            throw new XMLStreamException("Unpaired surrogate in '" + s + "'");
+        }
+    }
+
+    /**
+     * Encodes chars into the buffer, replacing the ASCII chars that have
+     * an entity in <code>entities</code>.
+     */
+    private void writeChars(char[] chars, int start, int length,
+        byte[][] entities) throws IOException, XMLStreamException {
+        final int end = start + length;
+        int index = start;
+
+        if (fHighSurrogate != 0 && index < end) {
+            final char high = fHighSurrogate;
+            fHighSurrogate = 0;
+            if (!Character.isLowSurrogate(chars[index])) {
+                throw new XMLStreamException("Unpaired surrogate in character data");
+            }
+            ensureCapacity(4);
+            fPosition = writeCodePoint(
+                Character.toCodePoint(high, chars[index++]), fBuffer, fPosition);
+        }
+
+        while (index < end) {
+            // Encode as many chars as surely fit in the buffer
+            int limit = (fBuffer.length - fPosition) / MAX_CHAR_BYTES;
+            if (limit == 0) {
+                flushBuffer();
+                continue;
+            }
+            limit = Math.min(end, index + limit);
+
+            final byte[] buffer = fBuffer;
+            int pos = fPosition;
+            while (index < limit) {
+                final char ch = chars[index++];
+                if (ch < 0x80) {
+                    final byte[] entity = entities[ch];
+                    if (entity == null) {
+                        buffer[pos++] = (byte) ch;
+                    } else {
+                        System.arraycopy(entity, 0, buffer, pos, entity.length);
+                        pos += entity.length;
+                    }
+                } else if (ch < 0x800) {
+                    buffer[pos++] = (byte) (0xC0 | (ch >> 6));
+                    buffer[pos++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (!Character.isSurrogate(ch)) {
+                    buffer[pos++] = (byte) (0xE0 | (ch >> 12));
+                    buffer[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                    buffer[pos++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (Character.isHighSurrogate(ch)) {
+                    if (index == end) {
+                        fHighSurrogate = ch;
+                        break;
+                    }
+                    final char low = chars[index++];
+                    if (!Character.isLowSurrogate(low)) {
+                        fPosition = pos;
+                        throw new XMLStreamException("Unpaired surrogate in character data");
+                    }
+                    // The pair takes 4 bytes, less than the room kept for ch
+                    pos = writeCodePoint(Character.toCodePoint(ch, low), buffer, pos);
+                } else {
+                    fPosition = pos;
+                    throw new XMLStreamException("Unpaired surrogate in character data");
+                }
+            }
+            fPosition = pos;
+        }
+    }
+
+    private static int writeCodePoint(int cp, byte[] buffer, int pos) {
+        buffer[pos++] = (byte) (0xF0 | (cp >> 18));
+        buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        buffer[pos++] = (byte) (0x80 | (cp & 0x3F));
+        return pos;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (fPosition == fBuffer.length) {
+            flushBuffer();
+        }
+        fBuffer[fPosition++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, fBuffer, fPosition, bytes.length);
+        fPosition += bytes.length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (fBuffer.length - fPosition < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (fPosition > 0) {
+            fOutputStream.write(fBuffer, 0, fPosition);
+            fPosition = 0;
+        }
+    }
+
+    private static boolean isUTF8(String encoding) {
+        if (encoding.equalsIgnoreCase(XMLStreamWriterImpl.UTF_8)) {
+            return true;
+        }
+        for (String alias : Charset.forName(encoding).aliases()) {
+            if (alias.equalsIgnoreCase(XMLStreamWriterImpl.UTF_8)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] ascii(String s) {
+        final byte[] bytes = new byte[s.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * The bindings of this writer, backed by the root context set by the
+     * user.
+     */
+    private final class NamespaceContextImpl implements NamespaceContext {
+
+        public String getNamespaceURI(String prefix) {
+            final String uri = getURI(prefix);
+            if (uri != null || fUserContext == null) {
+                return uri;
+            }
+            return fUserContext.getNamespaceURI(prefix);
+        }
+
+        public String getPrefix(String uri) {
+            final String prefix = getPrefixOf(uri);
+            if (prefix != null || fUserContext == null) {
+                return prefix;
+            }
+            return fUserContext.getPrefix(uri);
+        }
+
+        public Iterator getPrefixes(String uri) {
+            final ArrayList<String> prefixes = new ArrayList<>();
+            for (int i = fBindingCount - 1; i >= 0; i--) {
+                if (fURIs[i] != null && fURIs[i].equals(uri) && isVisible(i)) {
+                    prefixes.add(fPrefixes[i]);
+                }
+            }
+            if (fUserContext != null) {
+                for (Iterator it = fUserContext.getPrefixes(uri); it.hasNext(); ) {
+                    final String prefix = (String) it.next();
+                    if (!prefixes.contains(prefix)) {
+                        prefixes.add(prefix);
+                    }
+                }
+            }
+            return new ReadOnlyIterator(prefixes.iterator());
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.sun.xml.internal.fastinfoset.stax.StAXDocumentSerializer;
 import com.sun.xml.internal.fastinfoset.stax.StAXDocumentParser;
 import com.sun.xml.internal.fastinfoset.vocab.ParserVocabulary;
 import com.sun.xml.internal.fastinfoset.vocab.SerializerVocabulary;
+import com.sun.xml.internal.fastinfoset.vocab.VocabularyRegistry;
 import com.sun.xml.internal.ws.api.SOAPVersion;
 import com.sun.xml.internal.ws.api.message.Message;
 import com.sun.xml.internal.ws.api.message.Messages;
@@ -52,6 +53,13 @@ import com.sun.xml.internal.org.jvnet.fastinfoset.FastInfosetSource;
  * A codec for encoding/decoding XML infosets to/from fast
  * infoset documents.
  *
+ * <p>
+ * Messages are encoded with the current vocabulary of
+ * {@link VocabularyRegistry#getDefault()}, if any, and messages encoded
+ * with any vocabulary registered there can be decoded. Vocabularies
+ * should be registered before the first message is exchanged, since
+ * parsers are pooled.
+ *
  * @author Paul Sandoz
  */
 public class FastInfosetCodec implements Codec {
@@ -177,6 +185,7 @@ public class FastInfosetCodec implements Codec {
     /* package */ static StAXDocumentSerializer createNewStreamWriter(OutputStream out,
             boolean retainState, int indexedStringSizeLimit, int stringsMemoryLimit) {
         StAXDocumentSerializer serializer = new StAXDocumentSerializer(out);
+        final VocabularyRegistry registry = VocabularyRegistry.getDefault();
         if (retainState) {
             /**
              * Create a serializer vocabulary external to the serializer.
@@ -184,7 +193,7 @@ public class FastInfosetCodec implements Codec {
              * for each serialization and will be retained (and will grow)
              * for each serialization
              */
-            SerializerVocabulary vocabulary = new SerializerVocabulary();
+            SerializerVocabulary vocabulary = registry.newSerializerVocabulary(true);
             serializer.setVocabulary(vocabulary);
             serializer.setMinAttributeValueSize(0);
             serializer.setMaxAttributeValueSize(indexedStringSizeLimit);
@@ -192,6 +201,12 @@ public class FastInfosetCodec implements Codec {
             serializer.setMaxCharacterContentChunkSize(indexedStringSizeLimit);
             serializer.setAttributeValueMapMemoryLimit(stringsMemoryLimit);
             serializer.setCharacterContentChunkMapMemoryLimit(stringsMemoryLimit);
+        } else if (registry.getCurrent() != null) {
+            /**
+             * Refer to the shared external vocabulary, so that names
+             * already in it are encoded as indexes in every message
+             */
+            serializer.setExternalVocabulary(registry);
         }
         return serializer;
     }
@@ -207,6 +222,7 @@ public class FastInfosetCodec implements Codec {
     /* package */ static StAXDocumentParser createNewStreamReader(InputStream in, boolean retainState) {
         StAXDocumentParser parser = new StAXDocumentParser(in);
         parser.setStringInterning(true);
+        parser.setExternalVocabularies(VocabularyRegistry.getDefault().getParserVocabularies());
         if (retainState) {
             /**
              * Create a parser vocabulary external to the parser.
@@ -232,6 +248,7 @@ public class FastInfosetCodec implements Codec {
         StAXDocumentParser parser = new FastInfosetStreamReaderRecyclable(in);
         parser.setStringInterning(true);
         parser.setForceStreamClose(true);
+        parser.setExternalVocabularies(VocabularyRegistry.getDefault().getParserVocabularies());
         if (retainState) {
             /**
              * Create a parser vocabulary external to the parser.
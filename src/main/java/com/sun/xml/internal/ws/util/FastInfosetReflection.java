@@ -50,6 +50,21 @@ public class FastInfosetReflection {
      */
     public static final Method fiStAXDocumentParser_setStringInterning;
 
+    /**
+     * FI <code>StAXDocumentParser.setExternalVocabularies()</code> method via reflection.
+     */
+    public static final Method fiStAXDocumentParser_setExternalVocabularies;
+
+    /**
+     * FI <code>VocabularyRegistry.getDefault()</code> method via reflection.
+     */
+    public static final Method fiVocabularyRegistry_getDefault;
+
+    /**
+     * FI <code>VocabularyRegistry.getParserVocabularies()</code> method via reflection.
+     */
+    public static final Method fiVocabularyRegistry_getParserVocabularies;
+
     static {
         Constructor tmp_new = null;
         Method tmp_setInputStream = null;
@@ -70,6 +85,26 @@ public class FastInfosetReflection {
         fiStAXDocumentParser_new = tmp_new;
         fiStAXDocumentParser_setInputStream = tmp_setInputStream;
         fiStAXDocumentParser_setStringInterning = tmp_setStringInterning;
+
+        Method tmp_setExternalVocabularies = null;
+        Method tmp_getDefault = null;
+        Method tmp_getParserVocabularies = null;
+
+        // External vocabularies are optional, older FI jars do not have a registry
+        try {
+            Class clazz = Class.forName("com.sun.xml.internal.fastinfoset.stax.StAXDocumentParser");
+            Class registry = Class.forName("com.sun.xml.internal.fastinfoset.vocab.VocabularyRegistry");
+            tmp_setExternalVocabularies =
+                clazz.getMethod("setExternalVocabularies", java.util.Map.class);
+            tmp_getDefault = registry.getMethod("getDefault");
+            tmp_getParserVocabularies = registry.getMethod("getParserVocabularies");
+        }
+        catch (Exception e) {
+            tmp_setExternalVocabularies = tmp_getDefault = tmp_getParserVocabularies = null;
+        }
+        fiStAXDocumentParser_setExternalVocabularies = tmp_setExternalVocabularies;
+        fiVocabularyRegistry_getDefault = tmp_getDefault;
+        fiVocabularyRegistry_getParserVocabularies = tmp_getParserVocabularies;
     }
 
 }
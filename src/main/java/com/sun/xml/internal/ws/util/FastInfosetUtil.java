@@ -46,6 +46,11 @@ public class FastInfosetUtil {
             // Do not use StAX pluggable layer for FI
             Object sdp = FastInfosetReflection.fiStAXDocumentParser_new.newInstance();
             FastInfosetReflection.fiStAXDocumentParser_setStringInterning.invoke(sdp, Boolean.TRUE);
+            if (FastInfosetReflection.fiVocabularyRegistry_getDefault != null) {
+                Object registry = FastInfosetReflection.fiVocabularyRegistry_getDefault.invoke(null);
+                FastInfosetReflection.fiStAXDocumentParser_setExternalVocabularies.invoke(sdp,
+                        FastInfosetReflection.fiVocabularyRegistry_getParserVocabularies.invoke(registry));
+            }
             FastInfosetReflection.fiStAXDocumentParser_setInputStream.invoke(sdp, in);
             return (XMLStreamReader) sdp;
         } catch (Exception e) {
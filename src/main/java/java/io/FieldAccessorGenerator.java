@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.io;
+
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import sun.misc.Unsafe;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the bytecode of {@link ObjectStreamClass.FieldAccessor}
+ * subclasses.  A generated accessor gets and sets the serializable fields of
+ * one field reflector with straight-line code, in which the unsafe field
+ * offsets and the data offsets within the primitive data buffer are
+ * constants, in place of the loop and type code switch of the field
+ * reflector.
+ *
+ * <p>Generated classes are defined as anonymous classes hosted by {@code
+ * ObjectStreamClass}, so that they may be unloaded along with the field
+ * reflector that references them.
+ *
+ * @see ObjectStreamClass
+ */
+final class FieldAccessorGenerator {
+
+    private static final Unsafe unsafe = Unsafe.getUnsafe();
+
+    private static final String ACCESSOR =
+        "java/io/ObjectStreamClass$FieldAccessor";
+    private static final String GENERATED =
+        "java/io/ObjectStreamClass$FieldAccessor$Generated";
+    private static final String BITS = "java/io/Bits";
+    private static final String UNSAFE = "sun/misc/Unsafe";
+    private static final String UNSAFE_DESC = "Lsun/misc/Unsafe;";
+    private static final String CTOR_DESC =
+        "([Ljava/io/ObjectStreamField;[Ljava/lang/Class;)V";
+
+    private final ObjectStreamField[] fields;
+    private final long[] readKeys;
+    private final long[] writeKeys;
+    private final int[] offsets;
+    private final char[] typeCodes;
+    private final Class<?>[] types;
+    private final int numPrimFields;
+
+    private FieldAccessorGenerator(ObjectStreamField[] fields,
+                                   long[] readKeys, long[] writeKeys,
+                                   int[] offsets, char[] typeCodes,
+                                   Class<?>[] types, int numPrimFields)
+    {
+        this.fields = fields;
+        this.readKeys = readKeys;
+        this.writeKeys = writeKeys;
+        this.offsets = offsets;
+        this.typeCodes = typeCodes;
+        this.types = types;
+        this.numPrimFields = numPrimFields;
+    }
+
+    /**
+     * Generates and instantiates an accessor for the given field reflector
+     * state.  Returns null if the accessor could not be generated, in which
+     * case the caller should continue to use the field reflector.
+     */
+    static ObjectStreamClass.FieldAccessor generate(ObjectStreamField[] fields,
+                                                    long[] readKeys,
+                                                    long[] writeKeys,
+                                                    int[] offsets,
+                                                    char[] typeCodes,
+                                                    Class<?>[] types,
+                                                    int numPrimFields)
+    {
+        try {
+            FieldAccessorGenerator gen = new FieldAccessorGenerator(
+                fields, readKeys, writeKeys, offsets, typeCodes, types,
+                numPrimFields);
+            byte[] bytes = gen.generateClassFile();
+            Class<?> cl = unsafe.defineAnonymousClass(ObjectStreamClass.class,
+                                                      bytes, null);
+            return (ObjectStreamClass.FieldAccessor) cl
+                .getDeclaredConstructor(ObjectStreamField[].class,
+                                        Class[].class)
+                .newInstance(fields, types);
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    private byte[] generateClassFile() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_SUPER | ACC_FINAL | ACC_SYNTHETIC,
+                 GENERATED, null, ACCESSOR, null);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CTOR_DESC,
+                                          null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, ACCESSOR, "<init>", CTOR_DESC,
+                           false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        generateGetPrimFieldValues(cw);
+        generateSetPrimFieldValues(cw);
+        generateGetObjFieldValues(cw);
+        generateSetObjFieldValues(cw);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Begins a method taking (Object obj, array), emitting a null check of
+     * obj so that the unsafe accesses never operate on absolute addresses.
+     */
+    private static MethodVisitor beginMethod(ClassWriter cw, String name,
+                                             String desc)
+    {
+        MethodVisitor mv = cw.visitMethod(0, name, desc, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESTATIC, "java/util/Objects",
+                           "requireNonNull",
+                           "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+        mv.visitInsn(POP);
+        return mv;
+    }
+
+    private static void endMethod(MethodVisitor mv) {
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * Pushes the unsafe instance, the target object and the given field key.
+     */
+    private static void pushUnsafeTarget(MethodVisitor mv, long key) {
+        mv.visitFieldInsn(GETSTATIC, ACCESSOR, "unsafe", UNSAFE_DESC);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitLdcInsn(key);
+    }
+
+    /**
+     * Returns the descriptor of the primitive type with the given type code.
+     */
+    private static String primDesc(char tcode) {
+        switch (tcode) {
+            case 'Z': case 'B': case 'C': case 'S':
+            case 'I': case 'F': case 'J': case 'D':
+                return String.valueOf(tcode);
+            default:
+                throw new InternalError();
+        }
+    }
+
+    /**
+     * Returns the name suffix of the Unsafe and Bits methods that operate on
+     * the primitive type with the given type code.
+     */
+    private static String primName(char tcode) {
+        switch (tcode) {
+            case 'Z': return "Boolean";
+            case 'B': return "Byte";
+            case 'C': return "Char";
+            case 'S': return "Short";
+            case 'I': return "Int";
+            case 'F': return "Float";
+            case 'J': return "Long";
+            case 'D': return "Double";
+            default:
+                throw new InternalError();
+        }
+    }
+
+    private void generateGetPrimFieldValues(ClassWriter cw) {
+        MethodVisitor mv = beginMethod(cw, "getPrimFieldValues",
+                                       "(Ljava/lang/Object;[B)V");
+        for (int i = 0; i < numPrimFields; i++) {
+            long key = readKeys[i];
+            if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                continue;
+            }
+            char tcode = typeCodes[i];
+            String desc = primDesc(tcode);
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, offsets[i]);
+            pushUnsafeTarget(mv, key);
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, "get" + primName(tcode),
+                               "(Ljava/lang/Object;J)" + desc, false);
+            if (tcode == 'B') {
+                mv.visitInsn(BASTORE);
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, BITS, "put" + primName(tcode),
+                                   "([BI" + desc + ")V", false);
+            }
+        }
+        endMethod(mv);
+    }
+
+    private void generateSetPrimFieldValues(ClassWriter cw) {
+        MethodVisitor mv = beginMethod(cw, "setPrimFieldValues",
+                                       "(Ljava/lang/Object;[B)V");
+        for (int i = 0; i < numPrimFields; i++) {
+            long key = writeKeys[i];
+            if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                continue;               // discard value
+            }
+            char tcode = typeCodes[i];
+            String desc = primDesc(tcode);
+            pushUnsafeTarget(mv, key);
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, offsets[i]);
+            if (tcode == 'B') {
+                mv.visitInsn(BALOAD);
+            } else {
+                mv.visitMethodInsn(INVOKESTATIC, BITS, "get" + primName(tcode),
+                                   "([BI)" + desc, false);
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, "put" + primName(tcode),
+                               "(Ljava/lang/Object;J" + desc + ")V", false);
+        }
+        endMethod(mv);
+    }
+
+    private void generateGetObjFieldValues(ClassWriter cw) {
+        MethodVisitor mv = beginMethod(cw, "getObjFieldValues",
+                                       "(Ljava/lang/Object;[Ljava/lang/Object;)V");
+        for (int i = numPrimFields; i < fields.length; i++) {
+            long key = readKeys[i];
+            if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                continue;
+            }
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, offsets[i]);
+            pushUnsafeTarget(mv, key);
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, "getObject",
+                               "(Ljava/lang/Object;J)Ljava/lang/Object;",
+                               false);
+            mv.visitInsn(AASTORE);
+        }
+        endMethod(mv);
+    }
+
+    private void generateSetObjFieldValues(ClassWriter cw) {
+        MethodVisitor mv = beginMethod(cw, "setObjFieldValues",
+                                       "(Ljava/lang/Object;[Ljava/lang/Object;)V");
+        for (int i = numPrimFields; i < fields.length; i++) {
+            long key = writeKeys[i];
+            if (key == Unsafe.INVALID_FIELD_OFFSET) {
+                continue;               // discard value
+            }
+            pushUnsafeTarget(mv, key);
+            // this.checkObjFieldValue(obj, vals[offset], i)
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, offsets[i]);
+            mv.visitInsn(AALOAD);
+            pushInt(mv, i);
+            mv.visitMethodInsn(INVOKEVIRTUAL, ACCESSOR, "checkObjFieldValue",
+                               "(Ljava/lang/Object;Ljava/lang/Object;I)"
+                               + "Ljava/lang/Object;", false);
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE, "putObject",
+                               "(Ljava/lang/Object;JLjava/lang/Object;)V",
+                               false);
+        }
+        endMethod(mv);
+    }
+}
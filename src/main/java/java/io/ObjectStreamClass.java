@@ -98,6 +98,18 @@ public class ObjectStreamClass implements Serializable {
             }
         ).booleanValue();
 
+    /** true if field reflectors should use generated field accessors */
+    private static final boolean generateFieldAccessors =
+        AccessController.doPrivileged(
+            new PrivilegedAction<Boolean>() {
+                public Boolean run() {
+                    String prop = "jdk.serialGenerateFieldAccessors";
+                    return "true".equals(System.getProperty(prop))
+                            ? Boolean.TRUE : Boolean.FALSE;
+                }
+            }
+        ).booleanValue();
+
     /** reflection factory for obtaining serialization constructors */
     private static final ReflectionFactory reflFactory =
         AccessController.doPrivileged(
@@ -2071,6 +2083,8 @@ public class ObjectStreamClass implements Serializable {
         private final char[] typeCodes;
         /** field types */
         private final Class<?>[] types;
+        /** generated field accessor, or null if not generated */
+        private final FieldAccessor accessor;
 
         /**
          * Constructs FieldReflector capable of setting/getting values from the
@@ -2107,6 +2121,12 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+
+            accessor = (generateFieldAccessors && nfields > 0) ?
+                FieldAccessorGenerator.generate(fields, readKeys, writeKeys,
+                                                offsets, typeCodes, types,
+                                                numPrimFields) :
+                null;
         }
 
         /**
@@ -2128,6 +2148,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getPrimFieldValues(obj, buf);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2183,6 +2207,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.setPrimFieldValues(obj, buf);
+                return;
+            }
             for (int i = 0; i < numPrimFields; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2237,6 +2265,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getObjFieldValues(obj, vals);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2265,6 +2297,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.setObjFieldValues(obj, vals);
+                return;
+            }
             for (int i = numPrimFields; i < fields.length; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2296,6 +2332,59 @@ public class ObjectStreamClass implements Serializable {
         }
     }
 
+    /**
+     * Base class of the field accessors generated by FieldAccessorGenerator
+     * when the jdk.serialGenerateFieldAccessors system property is set to
+     * true.  A generated accessor performs the same operations as the
+     * FieldReflector that created it, with the field keys and data offsets
+     * compiled into its bytecode.
+     */
+    abstract static class FieldAccessor {
+
+        /** handle for performing unsafe operations, used by subclasses */
+        static final Unsafe unsafe = Unsafe.getUnsafe();
+
+        /** fields operated on */
+        private final ObjectStreamField[] fields;
+        /** types of the object fields */
+        private final Class<?>[] types;
+        /** number of primitive fields */
+        private final int numPrimFields;
+
+        FieldAccessor(ObjectStreamField[] fields, Class<?>[] types) {
+            this.fields = fields;
+            this.types = types;
+            this.numPrimFields = fields.length - types.length;
+        }
+
+        abstract void getPrimFieldValues(Object obj, byte[] buf);
+
+        abstract void setPrimFieldValues(Object obj, byte[] buf);
+
+        abstract void getObjFieldValues(Object obj, Object[] vals);
+
+        abstract void setObjFieldValues(Object obj, Object[] vals);
+
+        /**
+         * Returns val if it may be assigned to the i'th field, otherwise
+         * throws a ClassCastException as FieldReflector.setObjFieldValues
+         * does.
+         */
+        final Object checkObjFieldValue(Object obj, Object val, int i) {
+            if (val != null && !types[i - numPrimFields].isInstance(val)) {
+                Field f = fields[i].getField();
+                throw new ClassCastException(
+                    "cannot assign instance of " +
+                    val.getClass().getName() + " to field " +
+                    f.getDeclaringClass().getName() + "." +
+                    f.getName() + " of type " +
+                    f.getType().getName() + " in instance of " +
+                    obj.getClass().getName());
+            }
+            return val;
+        }
+    }
+
     /**
      * Matches given set of serializable fields with serializable fields
      * described by the given local class descriptor, and returns a
@@ -123,6 +123,15 @@ public class CookieManager extends CookieHandler
 
     private CookieStore cookieJar = null;
 
+    /*
+     * If the system property sun.net.cookieStore is "indexed", the default
+     * cookie store is one indexed by domain, for clients that hold a
+     * large number of cookies.
+     */
+    private static final boolean indexedStore = "indexed".equals(
+        java.security.AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction("sun.net.cookieStore")));
+
 
     /* ---------------- Ctors -------------- */
 
@@ -143,7 +152,9 @@ public class CookieManager extends CookieHandler
      *
      * @param store     a {@code CookieStore} to be used by cookie manager.
      *                  if {@code null}, cookie manager will use a default one,
-     *                  which is an in-memory CookieStore implementation.
+     *                  which is an in-memory CookieStore implementation
+     *                  (indexed by cookie domain if the system property
+     *                  {@code sun.net.cookieStore} is {@code "indexed"}).
      * @param cookiePolicy      a {@code CookiePolicy} instance
      *                          to be used by cookie manager as policy callback.
      *                          if {@code null}, ACCEPT_ORIGINAL_SERVER will
@@ -158,7 +169,8 @@ public class CookieManager extends CookieHandler
 
         // if not specify CookieStore to use, use default one
         if (store == null) {
-            cookieJar = new InMemoryCookieStore();
+            cookieJar = indexedStore ? new DomainIndexedCookieStore()
+                                     : new InMemoryCookieStore();
         } else {
             cookieJar = store;
         }
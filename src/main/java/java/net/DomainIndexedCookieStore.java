@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.net;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-memory java.net.CookieStore implementation for stores holding a
+ * large number of cookies.
+ *
+ * <p> Cookies are partitioned into stripes by the registrable part of
+ * their domain (approximated by its last two labels), each with its own
+ * lock. Within a stripe, cookies are indexed by domain in a trie of the
+ * reversed domain names, so that the domains matching a host are found
+ * by walking the host name once from its end, rather than by testing
+ * every domain in the store; cookies are also indexed by the host of the
+ * URI they were added with, as in {@link InMemoryCookieStore}.
+ *
+ * <p> Removed cookies are dropped from the indexes lazily. Expired
+ * cookies are removed when a lookup finds them, and by a sweep of the
+ * stripe that runs once the number of cookies added to it since the last
+ * sweep is a quarter of its size.
+ *
+ * <p> Domains are matched as by {@code InMemoryCookieStore}, except that
+ * a version 0 cookie whose domain ends within a label of the requested
+ * host (such as {@code "ample.com"} for {@code "example.com"}) is only
+ * returned when both fall in the same stripe.
+ *
+ * @since 1.8
+ */
+class DomainIndexedCookieStore implements CookieStore {
+
+    /*
+     * A cookie in the store. The entry is shared by the indexes it appears
+     * in, and flagged once the cookie is removed or replaced.
+     */
+    private static final class Entry {
+        final HttpCookie cookie;
+        final String domain;        // the domain it is indexed under
+        final long seq;             // insertion order, for getCookies()
+        volatile boolean removed;
+
+        Entry(HttpCookie cookie, String domain, long seq) {
+            this.cookie = cookie;
+            this.domain = domain;
+            this.seq = seq;
+        }
+
+        boolean isLive() {
+            if (removed)
+                return false;
+            if (cookie.hasExpired()) {
+                removed = true;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /*
+     * A node of a trie keyed by the characters of domain names, from the
+     * last to the first.
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_KIDS = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] kids = NO_KIDS;
+        private int count;
+        List<Entry> entries;        // cookies whose domain ends here
+
+        Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < count; i++) {
+                if (k[i] == c)
+                    return kids[i];
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node n = child(c);
+            if (n == null) {
+                if (count == keys.length) {
+                    int len = Math.max(2, count * 2);
+                    keys = java.util.Arrays.copyOf(keys, len);
+                    kids = java.util.Arrays.copyOf(kids, len);
+                }
+                n = new Node();
+                keys[count] = c;
+                kids[count++] = n;
+            }
+            return n;
+        }
+
+        /* Drops removed entries from this node and its descendants. */
+        void purge() {
+            if (entries != null) {
+                entries.removeIf(e -> !e.isLive());
+                if (entries.isEmpty())
+                    entries = null;
+            }
+            for (int i = 0; i < count; i++)
+                kids[i].purge();
+        }
+    }
+
+    /*
+     * The cookies of one registrable domain.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock(false);
+        final Map<HttpCookie, Entry> cookies = new HashMap<>();
+        Node domains = new Node();
+        final Map<String, List<Entry>> hosts = new HashMap<>();
+        int addedSinceSweep;
+
+        void index(String domain, Entry e) {
+            Node n = domains;
+            for (int i = domain.length() - 1; i >= 0; i--)
+                n = n.addChild(domain.charAt(i));
+            if (n.entries == null)
+                n.entries = new ArrayList<>(2);
+            n.entries.add(e);
+        }
+
+        Node find(String domain) {
+            Node n = domains;
+            for (int i = domain.length() - 1; i >= 0 && n != null; i--)
+                n = n.child(domain.charAt(i));
+            return n;
+        }
+
+        void sweepIfNeeded() {
+            if (++addedSinceSweep < Math.max(64, cookies.size() / 4))
+                return;
+            addedSinceSweep = 0;
+            Iterator<Entry> it = cookies.values().iterator();
+            while (it.hasNext()) {
+                if (!it.next().isLive())
+                    it.remove();
+            }
+            domains.purge();
+            Iterator<List<Entry>> lists = hosts.values().iterator();
+            while (lists.hasNext()) {
+                List<Entry> l = lists.next();
+                l.removeIf(e -> !e.isLive());
+                if (l.isEmpty())
+                    lists.remove();
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, Stripe> stripes =
+        new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The default ctor
+     */
+    public DomainIndexedCookieStore() { }
+
+    /*
+     * Returns the stripe key of a domain or host: its last two labels,
+     * without a leading dot.
+     */
+    private static String stripeKey(String name) {
+        if (name == null)
+            return "";
+        int end = name.length();
+        int dot = name.lastIndexOf('.', end - 1);
+        if (dot > 0)
+            dot = name.lastIndexOf('.', dot - 1);
+        String key = (dot >= 0) ? name.substring(dot + 1) : name;
+        return key.toLowerCase();
+    }
+
+    private Stripe stripe(String key) {
+        Stripe s = stripes.get(key);
+        if (s == null) {
+            Stripe created = new Stripe();
+            s = stripes.putIfAbsent(key, created);
+            if (s == null)
+                s = created;
+        }
+        return s;
+    }
+
+    /*
+     * The key of the URI index: the host of the URI, or the URI itself if
+     * it has no host.
+     */
+    private static String hostKey(URI uri) {
+        String host = uri.getHost();
+        return (host != null) ? host.toLowerCase() : uri.toString();
+    }
+
+    /**
+     * Add one cookie into cookie store.
+     */
+    public void add(URI uri, HttpCookie cookie) {
+        // pre-condition : argument can't be null
+        if (cookie == null) {
+            throw new NullPointerException("cookie is null");
+        }
+
+        String domain = cookie.getDomain();
+        Stripe s = stripe(stripeKey(domain));
+        Entry e = null;
+        s.lock.lock();
+        try {
+            // remove the old cookie if there has had one
+            Entry old = s.cookies.remove(cookie);
+            if (old != null) {
+                old.removed = true;
+            }
+
+            // add new cookie if it has a non-zero max-age
+            if (cookie.getMaxAge() != 0) {
+                e = new Entry(cookie, domain, sequence.incrementAndGet());
+                s.cookies.put(cookie, e);
+                if (domain != null) {
+                    s.index(domain.toLowerCase(), e);
+                }
+            }
+            s.sweepIfNeeded();
+        } finally {
+            s.lock.unlock();
+        }
+
+        if (e != null && uri != null) {
+            // add it to uri index, too
+            String host = hostKey(uri);
+            Stripe hs = stripe(stripeKey(uri.getHost()));
+            hs.lock.lock();
+            try {
+                List<Entry> l = hs.hosts.get(host);
+                if (l == null) {
+                    l = new ArrayList<>(2);
+                    hs.hosts.put(host, l);
+                }
+                l.add(e);
+            } finally {
+                hs.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Get all cookies, which:
+     *  1) given uri domain-matches with, or, associated with
+     *     given uri when added to the cookie store.
+     *  3) not expired.
+     * See RFC 2965 sec. 3.3.4 for more detail.
+     */
+    public List<HttpCookie> get(URI uri) {
+        // argument can't be null
+        if (uri == null) {
+            throw new NullPointerException("uri is null");
+        }
+
+        Set<HttpCookie> cookies = new LinkedHashSet<>();
+        boolean secureLink = "https".equalsIgnoreCase(uri.getScheme());
+        String host = uri.getHost();
+
+        // check domain index first
+        if (host != null) {
+            String h = host.toLowerCase();
+            Stripe s = stripes.get(stripeKey(h));
+            if (s != null) {
+                s.lock.lock();
+                try {
+                    Node n = s.domains;
+                    for (int i = h.length() - 1; i >= 0 && n != null; i--) {
+                        n = n.child(h.charAt(i));
+                        if (n != null && n.entries != null)
+                            matchDomain(cookies, n.entries, host, secureLink);
+                    }
+                    // a domain of ".host"
+                    if (n != null && (n = n.child('.')) != null && n.entries != null)
+                        matchDomain(cookies, n.entries, host, secureLink);
+                } finally {
+                    s.lock.unlock();
+                }
+            }
+            if (h.indexOf('.') == -1) {
+                // ".local" and "host.local" match a host without dots
+                matchExact(cookies, ".local", host, secureLink);
+                matchExact(cookies, h + ".local", host, secureLink);
+            }
+        }
+
+        // check uri index then
+        Stripe hs = stripes.get(stripeKey(host));
+        if (hs != null) {
+            hs.lock.lock();
+            try {
+                List<Entry> l = hs.hosts.get(hostKey(uri));
+                if (l != null) {
+                    Iterator<Entry> it = l.iterator();
+                    while (it.hasNext()) {
+                        Entry e = it.next();
+                        if (!e.isLive()) {
+                            it.remove();
+                        } else if (secureLink || !e.cookie.getSecure()) {
+                            cookies.add(e.cookie);
+                        }
+                    }
+                }
+            } finally {
+                hs.lock.unlock();
+            }
+        }
+
+        return new ArrayList<>(cookies);
+    }
+
+    private void matchExact(Set<HttpCookie> cookies, String domain,
+                            String host, boolean secureLink) {
+        Stripe s = stripes.get(stripeKey(domain));
+        if (s == null)
+            return;
+        s.lock.lock();
+        try {
+            Node n = s.find(domain);
+            if (n != null && n.entries != null)
+                matchDomain(cookies, n.entries, host, secureLink);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    private static void matchDomain(Set<HttpCookie> cookies, List<Entry> entries,
+                                    String host, boolean secureLink) {
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (!e.isLive()) {
+                it.remove();
+                continue;
+            }
+            HttpCookie c = e.cookie;
+            if ((c.getVersion() == 0 && InMemoryCookieStore.netscapeDomainMatches(e.domain, host)) ||
+                    (c.getVersion() == 1 && HttpCookie.domainMatches(e.domain, host))) {
+                // make sure it's the proper security level
+                if (secureLink || !c.getSecure()) {
+                    cookies.add(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get all cookies in cookie store, except those have expired
+     */
+    public List<HttpCookie> getCookies() {
+        List<Entry> live = new ArrayList<>();
+        for (Stripe s : stripes.values()) {
+            s.lock.lock();
+            try {
+                Iterator<Entry> it = s.cookies.values().iterator();
+                while (it.hasNext()) {
+                    Entry e = it.next();
+                    if (e.isLive()) {
+                        live.add(e);
+                    } else {
+                        it.remove();
+                    }
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        live.sort(Comparator.comparingLong(e -> e.seq));
+        List<HttpCookie> rt = new ArrayList<>(live.size());
+        for (Entry e : live)
+            rt.add(e.cookie);
+        return Collections.unmodifiableList(rt);
+    }
+
+    /**
+     * Get all URIs, which are associated with at least one cookie
+     * of this cookie store.
+     */
+    public List<URI> getURIs() {
+        List<URI> uris = new ArrayList<URI>();
+        for (Stripe s : stripes.values()) {
+            s.lock.lock();
+            try {
+                Iterator<Map.Entry<String, List<Entry>>> it =
+                    s.hosts.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, List<Entry>> me = it.next();
+                    List<Entry> l = me.getValue();
+                    l.removeIf(e -> !e.isLive());
+                    if (l.isEmpty()) {
+                        // no cookies associated with this uri entry, delete it
+                        it.remove();
+                        continue;
+                    }
+                    uris.add(effectiveURI(me.getKey()));
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return uris;
+    }
+
+    //
+    // for cookie purpose, the effective uri should only be http://host
+    //
+    private static URI effectiveURI(String key) {
+        try {
+            return new URI("http", key, null, null, null);
+        } catch (URISyntaxException ignored) {
+            return URI.create(key);
+        }
+    }
+
+    /**
+     * Remove a cookie from store
+     */
+    public boolean remove(URI uri, HttpCookie ck) {
+        // argument can't be null
+        if (ck == null) {
+            throw new NullPointerException("cookie is null");
+        }
+
+        Stripe s = stripes.get(stripeKey(ck.getDomain()));
+        if (s != null && remove(s, ck)) {
+            return true;
+        }
+        // the domain of the cookie may have been changed since it was added
+        for (Stripe other : stripes.values()) {
+            if (other != s && remove(other, ck)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean remove(Stripe s, HttpCookie ck) {
+        s.lock.lock();
+        try {
+            Entry e = s.cookies.remove(ck);
+            if (e == null) {
+                return false;
+            }
+            boolean live = !e.removed;
+            e.removed = true;
+            return live;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all cookies in this cookie store.
+     */
+    public boolean removeAll() {
+        boolean modified = false;
+        for (Stripe s : stripes.values()) {
+            s.lock.lock();
+            try {
+                for (Entry e : s.cookies.values()) {
+                    if (!e.removed) {
+                        e.removed = true;
+                        modified = true;
+                    }
+                }
+                s.cookies.clear();
+                s.domains = new Node();
+                s.hosts.clear();
+                s.addedSinceSweep = 0;
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return modified;
+    }
+}
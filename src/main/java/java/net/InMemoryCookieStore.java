@@ -235,7 +235,7 @@ class InMemoryCookieStore implements CookieStore {
      * passed along.
      * And should be used for 'old' style cookies (aka Netscape type of cookies)
      */
-    private boolean netscapeDomainMatches(String domain, String host)
+    static boolean netscapeDomainMatches(String domain, String host)
     {
         if (domain == null || host == null) {
             return false;
@@ -26,13 +26,20 @@
 package java.net;
 
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Random;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.security.AccessController;
 import java.io.ObjectStreamException;
 import java.io.ObjectStreamField;
@@ -734,13 +741,18 @@ class InetAddress implements java.io.Serializable {
 
     private static Cache negativeCache = new Cache(Cache.Type.Negative);
 
-    private static boolean addressCacheInit = false;
+    private static volatile boolean addressCacheInit = false;
 
     static InetAddress[]    unknown_array; // put THIS in cache
 
     static InetAddressImpl  impl;
 
-    private static final HashMap<String, Void> lookupTable = new HashMap<>();
+    /*
+     * Hosts being looked up, each mapped to a latch released when its
+     * lookup completes.
+     */
+    private static final ConcurrentHashMap<String, CountDownLatch> lookupTable =
+        new ConcurrentHashMap<>();
 
     /**
      * Represents a cache entry
@@ -752,30 +764,125 @@ class InetAddress implements java.io.Serializable {
             this.expiration = expiration;
         }
 
-        InetAddress[] addresses;
-        long expiration;
+        final InetAddress[] addresses;
+        final long expiration;
+
+        // set once a background refresh of this entry has been started
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        boolean isExpired(long now) {
+            return expiration >= 0 && expiration < now;
+        }
     }
 
     /**
      * A cache that manages entries based on a policy specified
      * at creation time.
+     *
+     * <p> Entries are kept in a concurrent map so that lookups of
+     * different hosts do not contend. The time to live of an entry is
+     * that of the cache policy unless overridden for its host by the
+     * {@code networkaddress.cache.ttl.hosts} security property (or the
+     * {@code sun.net.inetaddr.ttl.hosts} system property), a comma
+     * separated list of <i>host</i>{@code =}<i>seconds</i> pairs where
+     * the host may start with {@code "*."} to match a domain.
+     *
+     * <p> A positive entry that has expired less than
+     * {@code networkaddress.cache.stale.ttl} seconds ago
+     * ({@code sun.net.inetaddr.stale.ttl}, default 0) is still returned,
+     * and a single background task is started to look the host up again,
+     * so that callers do not wait on the name service when a frequently
+     * used entry expires.
+     *
+     * <p> The cache holds at most {@code sun.net.inetaddr.cache.maxEntries}
+     * entries (default 4096); beyond that, expired entries and then those
+     * closest to expiry are evicted.
+     *
+     * <p> If the {@code sun.net.inetaddr.cache.stats} system property is
+     * {@code true}, the size, hit, stale hit, miss and eviction counts of
+     * both caches are printed to {@code System.err} when the VM exits.
      */
     static final class Cache {
-        private LinkedHashMap<String, CacheEntry> cache;
-        private Type type;
+        private final ConcurrentHashMap<String, CacheEntry> cache =
+            new ConcurrentHashMap<>();
+        private final Type type;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
 
         enum Type {Positive, Negative};
 
+        private static final int MAX_ENTRIES;
+        private static final long STALE_MILLIS;
+        private static final HashMap<String, Integer> HOST_TTLS = new HashMap<>();
+        private static final HashMap<String, Integer> DOMAIN_TTLS = new HashMap<>();
+
+        static {
+            MAX_ENTRIES = Math.max(16, AccessController.doPrivileged(
+                new GetIntegerAction("sun.net.inetaddr.cache.maxEntries", 4096)));
+            String stale = getCacheProperty("networkaddress.cache.stale.ttl",
+                                            "sun.net.inetaddr.stale.ttl");
+            long staleSeconds = 0;
+            if (stale != null) {
+                try {
+                    staleSeconds = Math.max(0, Long.parseLong(stale.trim()));
+                } catch (NumberFormatException ignore) { }
+            }
+            STALE_MILLIS = staleSeconds * 1000;
+            String ttls = getCacheProperty("networkaddress.cache.ttl.hosts",
+                                           "sun.net.inetaddr.ttl.hosts");
+            if (ttls != null) {
+                for (String s : ttls.split(",")) {
+                    int eq = s.indexOf('=');
+                    if (eq <= 0)
+                        continue;
+                    String host = s.substring(0, eq).trim().toLowerCase();
+                    try {
+                        Integer ttl = Integer.valueOf(s.substring(eq + 1).trim());
+                        if (host.startsWith("*.")) {
+                            DOMAIN_TTLS.put(host.substring(1), ttl);
+                        } else {
+                            HOST_TTLS.put(host, ttl);
+                        }
+                    } catch (NumberFormatException ignore) { }
+                }
+            }
+        }
+
+        private static String getCacheProperty(final String securityProp,
+                                                final String systemProp) {
+            return AccessController.doPrivileged(
+                new java.security.PrivilegedAction<String>() {
+                    public String run() {
+                        String val = java.security.Security.getProperty(securityProp);
+                        if (val == null)
+                            val = System.getProperty(systemProp);
+                        return val;
+                    }
+                });
+        }
+
         /**
          * Create cache
          */
         public Cache(Type type) {
             this.type = type;
-            cache = new LinkedHashMap<String, CacheEntry>();
         }
 
-        private int getPolicy() {
+        private int getPolicy(String host) {
             if (type == Type.Positive) {
+                if (!HOST_TTLS.isEmpty() || !DOMAIN_TTLS.isEmpty()) {
+                    Integer ttl = HOST_TTLS.get(host);
+                    for (int dot = host.indexOf('.');
+                         ttl == null && dot >= 0;
+                         dot = host.indexOf('.', dot + 1)) {
+                        ttl = DOMAIN_TTLS.get(host.substring(dot));
+                    }
+                    if (ttl != null)
+                        return ttl;
+                }
                 return InetAddressCachePolicy.get();
             } else {
                 return InetAddressCachePolicy.getNegative();
@@ -788,71 +895,89 @@ class InetAddress implements java.io.Serializable {
          * replaced.
          */
         public Cache put(String host, InetAddress[] addresses) {
-            int policy = getPolicy();
+            int policy = getPolicy(host);
             if (policy == InetAddressCachePolicy.NEVER) {
                 return this;
             }
 
-            // purge any expired entries
-
-            if (policy != InetAddressCachePolicy.FOREVER) {
-
-                // As we iterate in insertion order we can
-                // terminate when a non-expired entry is found.
-                LinkedList<String> expired = new LinkedList<>();
-                long now = System.currentTimeMillis();
-                for (String key : cache.keySet()) {
-                    CacheEntry entry = cache.get(key);
-
-                    if (entry.expiration >= 0 && entry.expiration < now) {
-                        expired.add(key);
-                    } else {
-                        break;
-                    }
-                }
-
-                for (String key : expired) {
-                    cache.remove(key);
-                }
-            }
-
-            // create new entry and add it to the cache
-            // -- as a HashMap replaces existing entries we
-            //    don't need to explicitly check if there is
-            //    already an entry for this host.
             long expiration;
             if (policy == InetAddressCachePolicy.FOREVER) {
                 expiration = -1;
             } else {
-                expiration = System.currentTimeMillis() + (policy * 1000);
+                expiration = System.currentTimeMillis() + (policy * 1000L);
+            }
+            cache.put(host, new CacheEntry(addresses, expiration));
+            if (cache.size() > MAX_ENTRIES) {
+                evict();
             }
-            CacheEntry entry = new CacheEntry(addresses, expiration);
-            cache.put(host, entry);
             return this;
         }
 
         /**
          * Query the cache for the specific host. If found then
-         * return its CacheEntry, or null if not found.
+         * return its CacheEntry, or null if not found. The entry
+         * returned may have expired if it is within the stale period,
+         * in which case it should be refreshed.
          */
         public CacheEntry get(String host) {
-            int policy = getPolicy();
-            if (policy == InetAddressCachePolicy.NEVER) {
+            CacheEntry entry = cache.get(host);
+            if (entry == null) {
+                misses.increment();
                 return null;
             }
-            CacheEntry entry = cache.get(host);
 
             // check if entry has expired
-            if (entry != null && policy != InetAddressCachePolicy.FOREVER) {
-                if (entry.expiration >= 0 &&
-                    entry.expiration < System.currentTimeMillis()) {
-                    cache.remove(host);
-                    entry = null;
+            long now = System.currentTimeMillis();
+            if (entry.isExpired(now)) {
+                if (type == Type.Positive && entry.expiration + STALE_MILLIS >= now) {
+                    staleHits.increment();
+                    return entry;
                 }
+                cache.remove(host, entry);
+                misses.increment();
+                return null;
             }
-
+            hits.increment();
             return entry;
         }
+
+        /*
+         * Removes the entries past their stale period, then, if the
+         * cache is still full, an eighth of its entries, those closest
+         * to expiry first.
+         */
+        private void evict() {
+            long now = System.currentTimeMillis();
+            int before = cache.size();
+            cache.values().removeIf(e -> e.isExpired(now)
+                                         && e.expiration + STALE_MILLIS < now);
+            int excess = cache.size() - MAX_ENTRIES;
+            if (excess > 0) {
+                excess += MAX_ENTRIES / 8;
+                List<Map.Entry<String, CacheEntry>> entries =
+                    new ArrayList<>(cache.entrySet());
+                entries.sort((a, b) -> Long.compareUnsigned(
+                    a.getValue().expiration, b.getValue().expiration));
+                for (int i = 0; i < excess && i < entries.size(); i++) {
+                    Map.Entry<String, CacheEntry> e = entries.get(i);
+                    cache.remove(e.getKey(), e.getValue());
+                }
+            }
+            evictions.add(Math.max(0, before - cache.size()));
+        }
+
+        int size() {
+            return cache.size();
+        }
+
+        @Override
+        public String toString() {
+            return type + " cache: size=" + cache.size()
+                + ", hits=" + hits.sum()
+                + ", staleHits=" + staleHits.sum()
+                + ", misses=" + misses.sum()
+                + ", evictions=" + evictions.sum();
+        }
     }
 
     /*
@@ -860,17 +985,50 @@ class InetAddress implements java.io.Serializable {
      * unknown array with no expiry.
      */
     private static void cacheInitIfNeeded() {
-        assert Thread.holdsLock(addressCache);
         if (addressCacheInit) {
             return;
         }
-        unknown_array = new InetAddress[1];
-        unknown_array[0] = impl.anyLocalAddress();
+        synchronized (addressCache) {
+            if (addressCacheInit) {
+                return;
+            }
+            unknown_array = new InetAddress[1];
+            unknown_array[0] = impl.anyLocalAddress();
 
-        addressCache.put(impl.anyLocalAddress().getHostName(),
-                         unknown_array);
+            addressCache.put(impl.anyLocalAddress().getHostName(),
+                             unknown_array);
 
-        addressCacheInit = true;
+            if (AccessController.doPrivileged(
+                    new GetBooleanAction("sun.net.inetaddr.cache.stats"))) {
+                printCacheStatisticsOnExit();
+            }
+
+            addressCacheInit = true;
+        }
+    }
+
+    /*
+     * Prints the statistics of the positive and negative caches to
+     * System.err when the VM exits.
+     */
+    private static void printCacheStatisticsOnExit() {
+        final Thread hook = new Thread("InetAddress cache statistics") {
+            public void run() {
+                System.err.println("InetAddress: " + addressCache
+                                   + "; " + negativeCache);
+            }
+        };
+        AccessController.doPrivileged(
+            new java.security.PrivilegedAction<Void>() {
+                public Void run() {
+                    try {
+                        Runtime.getRuntime().addShutdownHook(hook);
+                    } catch (IllegalStateException ignore) {
+                        // the VM is already shutting down
+                    }
+                    return null;
+                }
+            });
     }
 
     /*
@@ -880,42 +1038,72 @@ class InetAddress implements java.io.Serializable {
                                        InetAddress[] addresses,
                                        boolean success) {
         hostname = hostname.toLowerCase();
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
-            if (success) {
-                addressCache.put(hostname, addresses);
-            } else {
-                negativeCache.put(hostname, addresses);
-            }
+        cacheInitIfNeeded();
+        if (success) {
+            addressCache.put(hostname, addresses);
+        } else {
+            negativeCache.put(hostname, addresses);
         }
     }
 
     /*
      * Lookup hostname in cache (positive & negative cache). If
-     * found return addresses, null if not found.
+     * found return addresses, null if not found. A stale positive
+     * entry is returned as found, and refreshed in the background.
      */
     private static InetAddress[] getCachedAddresses(String hostname) {
         hostname = hostname.toLowerCase();
+        cacheInitIfNeeded();
 
         // search both positive & negative caches
 
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
-
-            CacheEntry entry = addressCache.get(hostname);
-            if (entry == null) {
-                entry = negativeCache.get(hostname);
-            }
-
-            if (entry != null) {
-                return entry.addresses;
+        CacheEntry entry = addressCache.get(hostname);
+        if (entry != null) {
+            if (entry.isExpired(System.currentTimeMillis())
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refreshInBackground(hostname);
             }
+            return entry.addresses;
+        }
+        entry = negativeCache.get(hostname);
+        if (entry != null) {
+            return entry.addresses;
         }
 
         // not found
         return null;
     }
 
+    /*
+     * Looks up a host on a background thread, replacing its cache entry.
+     * If the lookup fails the stale entry is left to expire.
+     */
+    private static void refreshInBackground(String host) {
+        try {
+            Refresher.EXECUTOR.execute(() -> {
+                try {
+                    getAddressesFromNameService(host, null);
+                } catch (UnknownHostException ignore) { }
+            });
+        } catch (RejectedExecutionException ignore) { }
+    }
+
+    private static final class Refresher {
+        static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            2, 2, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            r -> AccessController.doPrivileged(
+                new java.security.PrivilegedAction<Thread>() {
+                    public Thread run() {
+                        Thread t = new Thread(r, "InetAddress-Refresh");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                }));
+        static {
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+    }
+
     private static NameService createNSProvider(String provider) {
         if (provider == null)
             return null;
@@ -1377,45 +1565,50 @@ class InetAddress implements java.io.Serializable {
 
 
     private static InetAddress[] checkLookupTable(String host) {
-        synchronized (lookupTable) {
-            // If the host isn't in the lookupTable, add it in the
-            // lookuptable and return null. The caller should do
-            // the lookup.
-            if (lookupTable.containsKey(host) == false) {
-                lookupTable.put(host, null);
-                return null;
-            }
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                // If the host isn't in the lookupTable, add it in the
+                // lookuptable and return null. The caller should do
+                // the lookup.
+                CountDownLatch latch = lookupTable.putIfAbsent(host,
+                                                               new CountDownLatch(1));
+                if (latch == null) {
+                    return null;
+                }
 
-            // If the host is in the lookupTable, it means that another
-            // thread is trying to look up the addresses of this host.
-            // This thread should wait.
-            while (lookupTable.containsKey(host)) {
-                try {
-                    lookupTable.wait();
-                } catch (InterruptedException e) {
+                // If the host is in the lookupTable, it means that another
+                // thread is trying to look up the addresses of this host.
+                // This thread should wait.
+                for (;;) {
+                    try {
+                        latch.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
                 }
-            }
-        }
 
-        // The other thread has finished looking up the addresses of
-        // the host. This thread should retry to get the addresses
-        // from the addressCache. If it doesn't get the addresses from
-        // the cache, it will try to look up the addresses itself.
-        InetAddress[] addresses = getCachedAddresses(host);
-        if (addresses == null) {
-            synchronized (lookupTable) {
-                lookupTable.put(host, null);
-                return null;
+                // The other thread has finished looking up the addresses of
+                // the host. This thread should retry to get the addresses
+                // from the addressCache. If it doesn't get the addresses from
+                // the cache, it will try to look up the addresses itself.
+                InetAddress[] addresses = getCachedAddresses(host);
+                if (addresses != null) {
+                    return addresses;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
-
-        return addresses;
     }
 
     private static void updateLookupTable(String host) {
-        synchronized (lookupTable) {
-            lookupTable.remove(host);
-            lookupTable.notifyAll();
+        CountDownLatch latch = lookupTable.remove(host);
+        if (latch != null) {
+            latch.countDown();
         }
     }
 
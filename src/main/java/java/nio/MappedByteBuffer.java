@@ -210,6 +210,26 @@ public abstract class MappedByteBuffer
         return this;
     }
 
+    /**
+     * Forces any changes made to the given region of this buffer's content to
+     * be written to the storage device containing the mapped file.  Used by
+     * {@link MappedRegion} to flush part of a large mapping.
+     */
+    final MappedByteBuffer force(int index, int length) { // package-private
+        checkMapped();
+        if ((index < 0) || (length < 0) || (index > capacity() - length))
+            throw new IndexOutOfBoundsException();
+        if ((address != 0) && (length != 0)) {
+            int ps = Bits.pageSize();
+            long a = address + index;
+            long offset = a % ps;
+            if (offset < 0)
+                offset += ps;
+            force0(fd, a - offset, length + offset);
+        }
+        return this;
+    }
+
     private native boolean isLoaded0(long address, long length, int pageCount);
     private native void load0(long address, long length);
     private native void force0(FileDescriptor fd, long address, long length);
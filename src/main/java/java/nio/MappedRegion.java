@@ -0,0 +1,1118 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+
+/**
+ * A memory-mapped region of a file that is indexed by {@code long} offsets.
+ *
+ * <p> A {@link MappedByteBuffer} is indexed by {@code int} and so cannot map
+ * more than two gigabytes of a file.  A mapped region is instead composed of
+ * a sequence of mapped byte buffers, called <i>segments</i>, each of which is
+ * created via the {@link FileChannel#map FileChannel.map} method.  The
+ * segments overlap by seven bytes so that a primitive value at any offset is
+ * always read or written through a single segment.  Since every segment is
+ * a mapping of its own, a region cannot be mapped in {@link MapMode#PRIVATE
+ * PRIVATE} mode.  </p>
+ *
+ * <p> A mapped region is created in one of two modes:
+ *
+ * <ul>
+ *
+ *   <li><p> A region created by the {@link #map map} method maps all of its
+ *   segments when it is created.  It is intended for random access.  </p></li>
+ *
+ *   <li><p> A region created by the {@link #window window} method maps at
+ *   most one segment, the <i>window</i>, at a time.  The window is mapped
+ *   lazily and slides to the segment that contains the offset being
+ *   accessed, unmapping the previous window.  It is intended for sequential
+ *   scans of files that are too large to map in their entirety.  </p></li>
+ *
+ * </ul>
+ *
+ * <p> Unlike a mapped byte buffer, whose mapping remains valid until the
+ * buffer is garbage-collected, the segments of a mapped region are unmapped
+ * deterministically when the region is {@link #close closed}.  Once closed,
+ * further attempts to access the region will cause an {@link
+ * IllegalStateException} to be thrown.  Closing a region while another
+ * thread is accessing it may crash the virtual machine, it is therefore the
+ * responsibility of the application to ensure that a region is not closed
+ * while in use.  </p>
+ *
+ * <p> The get and put methods of a region created by the {@code map} method
+ * are safe for use by multiple concurrent threads in the same way as the
+ * absolute get and put methods of a byte buffer.  A region created by the
+ * {@code window} method is not safe for use by multiple concurrent threads.
+ * </p>
+ *
+ * <p> The remarks in {@link MappedByteBuffer} regarding the content of the
+ * mapped file changing, or becoming inaccessible, apply equally to a mapped
+ * region.  </p>
+ *
+ * @since 1.8
+ */
+
+public final class MappedRegion
+    implements Closeable
+{
+
+    // Maximum number of bytes spanned by a primitive value, less one. Each
+    // segment is mapped with this many additional bytes of its successor.
+    private static final int OVERLAP = 7;
+
+    // Default segment size used by the map method
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    // Maximum segment size, a power of two such that a segment and its
+    // overlap can be mapped by FileChannel.map
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final MapMode mode;
+    private final long position;
+    private final long size;
+    private final int shift;
+    private final long mask;
+    private final boolean windowed;
+
+    // The mapped segments; in window mode at most one element is non-null.
+    // Set to null when the region is closed.
+    private MappedByteBuffer[] segments;
+
+    // The index of the currently mapped window, or -1
+    private int window = -1;
+
+    private ByteOrder order = ByteOrder.BIG_ENDIAN;
+
+    private MappedRegion(FileChannel channel, MapMode mode,
+                         long position, long size,
+                         int segmentSize, boolean windowed)
+    {
+        if (channel == null)
+            throw new NullPointerException("channel");
+        if (mode == null)
+            throw new NullPointerException("mode");
+        // Each segment is a mapping of its own, so private copies of the
+        // overlapping bytes would diverge, and would be lost on sliding
+        if (mode == MapMode.PRIVATE)
+            throw new IllegalArgumentException("Private mode not supported");
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size < 0L)
+            throw new IllegalArgumentException("Negative size");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE
+            || Integer.bitCount(segmentSize) != 1)
+            throw new IllegalArgumentException("Segment size must be a power"
+                + " of two not greater than " + MAX_SEGMENT_SIZE);
+
+        long count = (size + segmentSize - 1) / segmentSize;
+        if (count > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many segments");
+
+        this.channel = channel;
+        this.mode = mode;
+        this.position = position;
+        this.size = size;
+        this.shift = Integer.numberOfTrailingZeros(segmentSize);
+        this.mask = segmentSize - 1;
+        this.windowed = windowed;
+        this.segments = new MappedByteBuffer[(int)count];
+    }
+
+    /**
+     * Maps a region of the given channel's file directly into memory.
+     *
+     * <p> An invocation of this method behaves in exactly the same way as the
+     * invocation
+     *
+     * <blockquote><pre>
+     * MappedRegion.map(channel, mode, position, size, 1 << 30)</pre></blockquote>
+     *
+     * @param  channel
+     *         The file channel
+     *
+     * @param  mode
+     *         One of the constants {@link MapMode#READ_ONLY READ_ONLY} or
+     *         {@link MapMode#READ_WRITE READ_WRITE} defined in the {@link
+     *         MapMode} class
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped region
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold, or if
+     *         {@code mode} is {@link MapMode#PRIVATE PRIVATE}
+     *
+     * @throws IOException
+     *         If some I/O error occurs, see {@link FileChannel#map
+     *         FileChannel.map}
+     */
+    public static MappedRegion map(FileChannel channel, MapMode mode,
+                                   long position, long size)
+        throws IOException
+    {
+        return map(channel, mode, position, size, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Maps a region of the given channel's file directly into memory, using
+     * segments of the given size.
+     *
+     * <p> All of the region's segments are mapped before this method
+     * returns.  If mapping a segment fails then the segments that were
+     * already mapped are unmapped before the exception is thrown.  </p>
+     *
+     * @param  channel
+     *         The file channel
+     *
+     * @param  mode
+     *         One of the constants {@link MapMode#READ_ONLY READ_ONLY} or
+     *         {@link MapMode#READ_WRITE READ_WRITE} defined in the {@link
+     *         MapMode} class
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @param  segmentSize
+     *         The size of each segment; must be a power of two not greater
+     *         than {@code 1 << 30}
+     *
+     * @return  The mapped region
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold, or if
+     *         {@code mode} is {@link MapMode#PRIVATE PRIVATE}
+     *
+     * @throws IOException
+     *         If some I/O error occurs, see {@link FileChannel#map
+     *         FileChannel.map}
+     */
+    public static MappedRegion map(FileChannel channel, MapMode mode,
+                                   long position, long size, int segmentSize)
+        throws IOException
+    {
+        MappedRegion region = new MappedRegion(channel, mode, position, size,
+                                               segmentSize, false);
+        boolean done = false;
+        try {
+            for (int i = 0; i < region.segments.length; i++)
+                region.segments[i] = region.mapSegment(i);
+            done = true;
+        } finally {
+            if (!done)
+                region.close();
+        }
+        return region;
+    }
+
+    /**
+     * Creates a region of the given channel's file that is mapped into memory
+     * through a sliding window of the given size.
+     *
+     * <p> No part of the file is mapped by this method.  A window is mapped
+     * when the region is first accessed, and is replaced whenever an offset
+     * outside of the current window is accessed.  Scanning the region
+     * sequentially therefore keeps at most {@code windowSize} bytes of the
+     * file mapped at any time.  </p>
+     *
+     * @param  channel
+     *         The file channel
+     *
+     * @param  mode
+     *         One of the constants {@link MapMode#READ_ONLY READ_ONLY} or
+     *         {@link MapMode#READ_WRITE READ_WRITE} defined in the {@link
+     *         MapMode} class
+     *
+     * @param  position
+     *         The position within the file at which the region is to start;
+     *         must be non-negative
+     *
+     * @param  size
+     *         The size of the region; must be non-negative
+     *
+     * @param  windowSize
+     *         The size of the window; must be a power of two not greater
+     *         than {@code 1 << 30}
+     *
+     * @return  The region
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold, or if
+     *         {@code mode} is {@link MapMode#PRIVATE PRIVATE}
+     */
+    public static MappedRegion window(FileChannel channel, MapMode mode,
+                                      long position, long size, int windowSize)
+    {
+        return new MappedRegion(channel, mode, position, size,
+                                windowSize, true);
+    }
+
+    // -- Segments --
+
+    private MappedByteBuffer mapSegment(int i) throws IOException {
+        long offset = (long)i << shift;
+        long len = Math.min(size - offset, mask + 1 + OVERLAP);
+        MappedByteBuffer bb = channel.map(mode, position + offset, len);
+        bb.order(order);
+        return bb;
+    }
+
+    private static void unmap(MappedByteBuffer bb) {
+        Cleaner cl = ((DirectBuffer)bb).cleaner();
+        if (cl != null)
+            cl.clean();
+    }
+
+    private MappedByteBuffer[] segments() {
+        MappedByteBuffer[] segs = segments;
+        if (segs == null)
+            throw new IllegalStateException("Region is closed");
+        return segs;
+    }
+
+    // Slides the window to segment i, unmapping the previous window
+    private MappedByteBuffer slide(MappedByteBuffer[] segs, int i) {
+        if (window >= 0) {
+            MappedByteBuffer old = segs[window];
+            segs[window] = null;
+            window = -1;
+            unmap(old);
+        }
+        MappedByteBuffer bb;
+        try {
+            bb = mapSegment(i);
+        } catch (ClosedChannelException x) {
+            throw new IllegalStateException("Channel is closed", x);
+        } catch (IOException x) {
+            throw new UncheckedMappingException(x);
+        }
+        segs[i] = bb;
+        window = i;
+        return bb;
+    }
+
+    /**
+     * Returns the segment that contains the given number of bytes at the
+     * given offset, mapping it if necessary.
+     */
+    private MappedByteBuffer segment(long offset, int count) {
+        if ((offset < 0L) || (offset > size - count))
+            throw new IndexOutOfBoundsException("offset " + offset
+                + ", count " + count + ", size " + size);
+        MappedByteBuffer[] segs = segments();
+        int i = (int)(offset >>> shift);
+        MappedByteBuffer bb = segs[i];
+        if (bb == null)
+            bb = slide(segs, i);
+        return bb;
+    }
+
+    private int index(long offset) {
+        return (int)(offset & mask);
+    }
+
+    private void checkWritable() {
+        if (mode == MapMode.READ_ONLY)
+            throw new ReadOnlyBufferException();
+    }
+
+    /**
+     * Thrown by the get and put methods of a windowed region when an I/O
+     * error occurs mapping a new window.
+     */
+    public static final class UncheckedMappingException
+        extends RuntimeException
+    {
+        private static final long serialVersionUID = -4176209313024893736L;
+
+        UncheckedMappingException(IOException cause) {
+            super(cause);
+        }
+
+        /**
+         * Returns the cause of this exception.
+         *
+         * @return  The {@code IOException} which is the cause of this
+         *          exception
+         */
+        @Override
+        public IOException getCause() {
+            return (IOException)super.getCause();
+        }
+    }
+
+    // -- Attributes --
+
+    /**
+     * Returns the size of this region.
+     *
+     * @return  The size of this region, in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the position within the file at which this region starts.
+     *
+     * @return  The position of this region within the file
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Tells whether or not this region is read-only.
+     *
+     * @return  <tt>true</tt> if, and only if, this region was mapped in
+     *          {@link MapMode#READ_ONLY READ_ONLY} mode
+     */
+    public boolean isReadOnly() {
+        return mode == MapMode.READ_ONLY;
+    }
+
+    /**
+     * Tells whether or not this region maps its content through a sliding
+     * window.
+     *
+     * @return  <tt>true</tt> if, and only if, this region was created by the
+     *          {@link #window window} method
+     */
+    public boolean isWindowed() {
+        return windowed;
+    }
+
+    /**
+     * Tells whether or not this region is open.
+     *
+     * @return  <tt>true</tt> if, and only if, this region has not been closed
+     */
+    public boolean isOpen() {
+        return segments != null;
+    }
+
+    /**
+     * Retrieves this region's byte order.
+     *
+     * <p> The byte order is used when reading or writing multibyte values.
+     * The order of a newly-created region is always {@link
+     * ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  </p>
+     *
+     * @return  This region's byte order
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Modifies this region's byte order.
+     *
+     * @param  bo
+     *         The new byte order, either {@link ByteOrder#BIG_ENDIAN
+     *         BIG_ENDIAN} or {@link ByteOrder#LITTLE_ENDIAN LITTLE_ENDIAN}
+     *
+     * @return  This region
+     */
+    public MappedRegion order(ByteOrder bo) {
+        if (bo == null)
+            throw new NullPointerException("bo");
+        order = bo;
+        for (MappedByteBuffer bb : segments()) {
+            if (bb != null)
+                bb.order(bo);
+        }
+        return this;
+    }
+
+    // -- Primitive get/put methods --
+
+    /**
+     * Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset from which the byte will be read
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  IllegalStateException
+     *          If this region is closed
+     */
+    public byte get(long offset) {
+        return segment(offset, 1).get(index(offset));
+    }
+
+    /**
+     * Writes the given byte at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the byte will be written
+     *
+     * @param  b
+     *         The byte value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If this region is closed
+     */
+    public MappedRegion put(long offset, byte b) {
+        checkWritable();
+        segment(offset, 1).put(index(offset), b);
+        return this;
+    }
+
+    /**
+     * Reads the char value at the given offset, composing two bytes according
+     * to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The char value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     */
+    public char getChar(long offset) {
+        return segment(offset, 2).getChar(index(offset));
+    }
+
+    /**
+     * Writes two bytes containing the given char value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The char value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putChar(long offset, char value) {
+        checkWritable();
+        segment(offset, 2).putChar(index(offset), value);
+        return this;
+    }
+
+    /**
+     * Reads the short value at the given offset, composing two bytes
+     * according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     */
+    public short getShort(long offset) {
+        return segment(offset, 2).getShort(index(offset));
+    }
+
+    /**
+     * Writes two bytes containing the given short value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The short value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putShort(long offset, short value) {
+        checkWritable();
+        segment(offset, 2).putShort(index(offset), value);
+        return this;
+    }
+
+    /**
+     * Reads the int value at the given offset, composing four bytes
+     * according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     */
+    public int getInt(long offset) {
+        return segment(offset, 4).getInt(index(offset));
+    }
+
+    /**
+     * Writes four bytes containing the given int value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The int value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putInt(long offset, int value) {
+        checkWritable();
+        segment(offset, 4).putInt(index(offset), value);
+        return this;
+    }
+
+    /**
+     * Reads the long value at the given offset, composing eight bytes
+     * according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     */
+    public long getLong(long offset) {
+        return segment(offset, 8).getLong(index(offset));
+    }
+
+    /**
+     * Writes eight bytes containing the given long value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The long value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putLong(long offset, long value) {
+        checkWritable();
+        segment(offset, 8).putLong(index(offset), value);
+        return this;
+    }
+
+    /**
+     * Reads the float value at the given offset, composing four bytes
+     * according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     */
+    public float getFloat(long offset) {
+        return segment(offset, 4).getFloat(index(offset));
+    }
+
+    /**
+     * Writes four bytes containing the given float value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The float value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putFloat(long offset, float value) {
+        checkWritable();
+        segment(offset, 4).putFloat(index(offset), value);
+        return this;
+    }
+
+    /**
+     * Reads the double value at the given offset, composing eight bytes
+     * according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     */
+    public double getDouble(long offset) {
+        return segment(offset, 8).getDouble(index(offset));
+    }
+
+    /**
+     * Writes eight bytes containing the given double value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The double value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion putDouble(long offset, double value) {
+        checkWritable();
+        segment(offset, 8).putDouble(index(offset), value);
+        return this;
+    }
+
+    // -- Bulk get/put methods --
+
+    /**
+     * Returns a view of up to <tt>len</tt> bytes of a single segment starting
+     * at the given offset.
+     */
+    private ByteBuffer view(long offset, int len) {
+        MappedByteBuffer bb = segment(offset, 1);
+        int i = index(offset);
+        int n = Math.min(len, bb.capacity() - i);
+        ByteBuffer dup = bb.duplicate();
+        dup.limit(i + n).position(i);
+        return dup;
+    }
+
+    private void checkRange(long offset, long len) {
+        if ((offset < 0L) || (len < 0L) || (offset > size - len))
+            throw new IndexOutOfBoundsException("offset " + offset
+                + ", length " + len + ", size " + size);
+    }
+
+    /**
+     * Transfers bytes from this region, starting at the given offset, into
+     * the given array.
+     *
+     * @param  offset
+     *         The offset of the first byte to be read
+     *
+     * @param  dst
+     *         The array into which bytes are to be written
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be written
+     *
+     * @param  len
+     *         The number of bytes to be transferred
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt>, <tt>off</tt> and
+     *          <tt>len</tt> parameters do not hold
+     */
+    public MappedRegion get(long offset, byte[] dst, int off, int len) {
+        checkRange(offset, len);
+        Buffer.checkBounds(off, len, dst.length);
+        while (len > 0) {
+            ByteBuffer bb = view(offset, len);
+            int n = bb.remaining();
+            bb.get(dst, off, n);
+            offset += n;
+            off += n;
+            len -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Transfers bytes from the given array into this region, starting at the
+     * given offset.
+     *
+     * @param  offset
+     *         The offset at which the first byte is to be written
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be read
+     *
+     * @param  len
+     *         The number of bytes to be transferred
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt>, <tt>off</tt> and
+     *          <tt>len</tt> parameters do not hold
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion put(long offset, byte[] src, int off, int len) {
+        checkWritable();
+        checkRange(offset, len);
+        Buffer.checkBounds(off, len, src.length);
+        while (len > 0) {
+            ByteBuffer bb = view(offset, len);
+            int n = bb.remaining();
+            bb.put(src, off, n);
+            offset += n;
+            off += n;
+            len -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Transfers the bytes of this region, starting at the given offset, into
+     * the given buffer.  The number of bytes transferred is the number of
+     * bytes remaining in the buffer, whose position is advanced accordingly.
+     *
+     * @param  offset
+     *         The offset of the first byte to be read
+     *
+     * @param  dst
+     *         The buffer into which bytes are to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there are fewer than <tt>dst.remaining()</tt> bytes in this
+     *          region starting at the given offset
+     */
+    public MappedRegion get(long offset, ByteBuffer dst) {
+        int len = dst.remaining();
+        checkRange(offset, len);
+        while (len > 0) {
+            ByteBuffer bb = view(offset, len);
+            int n = bb.remaining();
+            dst.put(bb);
+            offset += n;
+            len -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Transfers the bytes remaining in the given buffer into this region,
+     * starting at the given offset.  The position of the buffer is advanced
+     * by the number of bytes transferred.
+     *
+     * @param  offset
+     *         The offset at which the first byte is to be written
+     *
+     * @param  src
+     *         The buffer from which bytes are to be read
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there are fewer than <tt>src.remaining()</tt> bytes in this
+     *          region starting at the given offset
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     */
+    public MappedRegion put(long offset, ByteBuffer src) {
+        checkWritable();
+        int len = src.remaining();
+        checkRange(offset, len);
+        int lim = src.limit();
+        try {
+            while (len > 0) {
+                ByteBuffer bb = view(offset, len);
+                int n = bb.remaining();
+                src.limit(src.position() + n);
+                bb.put(src);
+                offset += n;
+                len -= n;
+            }
+        } finally {
+            src.limit(lim);
+        }
+        return this;
+    }
+
+    /**
+     * Copies bytes from this region to another region.
+     *
+     * <p> The bytes are copied through the segments of the two regions
+     * without an intermediate copy in the Java heap.  If both regions are
+     * windowed then they must not be the same region.  </p>
+     *
+     * @param  offset
+     *         The offset in this region of the first byte to be copied
+     *
+     * @param  target
+     *         The region to which bytes are to be copied
+     *
+     * @param  targetOffset
+     *         The offset in the target region at which the first byte is to
+     *         be written
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This region
+     *
+     * @throws  IllegalArgumentException
+     *          If the target is this region and the source and target ranges
+     *          overlap, or if the target is this region and it is windowed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If either range is not within its region
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the target region is read-only
+     */
+    public MappedRegion copyTo(long offset, MappedRegion target,
+                               long targetOffset, long length)
+    {
+        target.checkWritable();
+        checkRange(offset, length);
+        target.checkRange(targetOffset, length);
+        if (target == this) {
+            if (windowed)
+                throw new IllegalArgumentException("Windowed region");
+            if (offset < targetOffset + length && targetOffset < offset + length)
+                throw new IllegalArgumentException("Overlapping ranges");
+        }
+        while (length > 0L) {
+            int max = (int)Math.min(length, Integer.MAX_VALUE);
+            ByteBuffer src = view(offset, max);
+            ByteBuffer dst = target.view(targetOffset, src.remaining());
+            int n = dst.remaining();
+            src.limit(src.position() + n);
+            dst.put(src);
+            offset += n;
+            targetOffset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    // -- Mapping operations --
+
+    /**
+     * Forces any changes made to this region's content to be written to the
+     * storage device containing the mapped file.
+     *
+     * <p> In window mode only the content of the current window, if any, is
+     * written, as changes to a window are written when the window is
+     * unmapped.  </p>
+     *
+     * @return  This region
+     *
+     * @throws  IllegalStateException
+     *          If this region is closed
+     *
+     * @see MappedByteBuffer#force()
+     */
+    public MappedRegion force() {
+        for (MappedByteBuffer bb : segments()) {
+            if (bb != null)
+                bb.force();
+        }
+        return this;
+    }
+
+    /**
+     * Forces any changes made to the given range of this region's content to
+     * be written to the storage device containing the mapped file.
+     *
+     * <p> Only the pages that contain the range are written.  In window mode
+     * only the part of the range that lies within the current window is
+     * written.  </p>
+     *
+     * @param  offset
+     *         The offset of the first byte in the range
+     *
+     * @param  length
+     *         The length of the range
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this region
+     *
+     * @throws  IllegalStateException
+     *          If this region is closed
+     */
+    public MappedRegion force(long offset, long length) {
+        checkRange(offset, length);
+        MappedByteBuffer[] segs = segments();
+        if (mode != MapMode.READ_WRITE)
+            return this;
+        long end = offset + length;
+        while (offset < end) {
+            int i = (int)(offset >>> shift);
+            int start = index(offset);
+            long segEnd = Math.min(end, ((long)i << shift) + mask + 1);
+            MappedByteBuffer bb = segs[i];
+            if (bb != null)
+                bb.force(start, (int)(segEnd - offset));
+            offset = segEnd;
+        }
+        return this;
+    }
+
+    /**
+     * Loads the content of this region into physical memory.  In window mode
+     * only the current window, if any, is loaded.
+     *
+     * @return  This region
+     *
+     * @throws  IllegalStateException
+     *          If this region is closed
+     *
+     * @see MappedByteBuffer#load()
+     */
+    public MappedRegion load() {
+        for (MappedByteBuffer bb : segments()) {
+            if (bb != null)
+                bb.load();
+        }
+        return this;
+    }
+
+    /**
+     * Closes this region, unmapping all of its segments.
+     *
+     * <p> Closing a region does not force changes to be written to the
+     * storage device, and does not close the file channel.  If the region
+     * is already closed then invoking this method has no effect.  </p>
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer[] segs = segments;
+        if (segs == null)
+            return;
+        segments = null;
+        window = -1;
+        for (int i = 0; i < segs.length; i++) {
+            MappedByteBuffer bb = segs[i];
+            if (bb != null) {
+                segs[i] = null;
+                unmap(bb);
+            }
+        }
+    }
+
+    /**
+     * Returns a string summarizing the state of this region.
+     *
+     * @return  A summary string
+     */
+    @Override
+    public String toString() {
+        return getClass().getName()
+            + "[pos=" + position
+            + " size=" + size
+            + " segment=" + (mask + 1)
+            + (windowed ? " windowed" : "")
+            + (isOpen() ? "" : " closed")
+            + "]";
+    }
+
+}
@@ -40,6 +40,7 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.nio.channels.spi.AbstractInterruptibleChannel;
 import java.util.concurrent.ExecutionException;
 import sun.nio.ch.ChannelInputStream;
+import sun.nio.ch.Util;
 import sun.nio.cs.StreamDecoder;
 import sun.nio.cs.StreamEncoder;
 
@@ -472,6 +473,146 @@ public final class Channels {
     }
 
 
+    // -- Bulk transfer between channels --
+
+    // maximum number of bytes to transfer with one invocation of
+    // FileChannel.transferTo or FileChannel.transferFrom
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024L * 1024L;
+
+    // size of the temporary direct buffer used when neither channel is a
+    // file channel
+    private static final int TRANSFER_BUFFER_SIZE = 128 * 1024;
+
+    /**
+     * Transfers all remaining bytes from the given source channel to the given
+     * target channel.
+     *
+     * <p> If the source channel is a {@link FileChannel} then the bytes from
+     * its current position up to its size are transferred with the {@link
+     * FileChannel#transferTo transferTo} method, and its position is updated
+     * on return.  Otherwise, if the target channel is a {@code FileChannel}
+     * then the bytes are transferred with the {@link FileChannel#transferFrom
+     * transferFrom} method, starting at the target's current position, and
+     * the target's position is updated on return.  Many operating systems
+     * can transfer bytes between a file and a socket, or between two files,
+     * without copying them through the Java heap.  In all other cases the
+     * bytes are copied through a temporary direct buffer.  </p>
+     *
+     * <p> This method reads from the source channel until end-of-stream is
+     * reached.  If either channel is {@link SelectableChannel selectable} then
+     * it must be configured blocking.  </p>
+     *
+     * <p> If an I/O error occurs then it may do so after some bytes have been
+     * read or written, and the position of file channels may not have been
+     * updated.  </p>
+     *
+     * @param  src
+     *         The channel from which bytes are to be read
+     *
+     * @param  dst
+     *         The channel to which bytes are to be written
+     *
+     * @return  The number of bytes transferred
+     *
+     * @throws  IllegalBlockingModeException
+     *          If either channel is selectable and configured non-blocking
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @since 9
+     */
+    public static long transfer(ReadableByteChannel src, WritableByteChannel dst)
+        throws IOException
+    {
+        checkNotNull(src, "src");
+        checkNotNull(dst, "dst");
+        checkBlocking(src);
+        checkBlocking(dst);
+
+        long n = -1L;
+        if (src instanceof FileChannel)
+            n = transferTo((FileChannel)src, dst);
+        if (n < 0L && dst instanceof FileChannel)
+            n = transferFrom(src, (FileChannel)dst);
+
+        // copy whatever remains (the source may have grown, or may not be a
+        // file) through a temporary direct buffer
+        return Math.max(n, 0L) + transferBuffered(src, dst);
+    }
+
+    private static void checkBlocking(Channel ch) {
+        if (ch instanceof SelectableChannel) {
+            if (!((SelectableChannel)ch).isBlocking())
+                throw new IllegalBlockingModeException();
+        }
+    }
+
+    private static long transferTo(FileChannel src, WritableByteChannel dst)
+        throws IOException
+    {
+        long start, size;
+        try {
+            start = src.position();
+            size = src.size();
+        } catch (IOException x) {
+            return -1L;     // not seekable, a pipe for example
+        }
+        long pos = start;
+        while (pos < size) {
+            long count = Math.min(size - pos, TRANSFER_CHUNK_SIZE);
+            long n = src.transferTo(pos, count, dst);
+            if (n <= 0)
+                break;
+            pos += n;
+        }
+        src.position(pos);
+        return pos - start;
+    }
+
+    private static long transferFrom(ReadableByteChannel src, FileChannel dst)
+        throws IOException
+    {
+        long start;
+        try {
+            start = dst.position();
+        } catch (IOException x) {
+            return -1L;     // not seekable, a pipe for example
+        }
+        long pos = start;
+        for (;;) {
+            long n = dst.transferFrom(src, pos, TRANSFER_CHUNK_SIZE);
+            if (n <= 0)
+                break;
+            pos += n;
+        }
+        dst.position(pos);
+        return pos - start;
+    }
+
+    private static long transferBuffered(ReadableByteChannel src,
+                                         WritableByteChannel dst)
+        throws IOException
+    {
+        ByteBuffer bb = Util.getTemporaryDirectBuffer(TRANSFER_BUFFER_SIZE);
+        try {
+            long total = 0L;
+            int n;
+            while ((n = src.read(bb)) >= 0) {
+                if (n > 0) {
+                    bb.flip();
+                    writeFullyImpl(dst, bb);
+                    bb.clear();
+                    total += n;
+                }
+            }
+            return total;
+        } finally {
+            Util.releaseTemporaryDirectBuffer(bb);
+        }
+    }
+
+
     // -- Character streams from channels --
 
     /**
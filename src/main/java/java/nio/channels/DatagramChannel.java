@@ -463,6 +463,258 @@ public abstract class DatagramChannel
     public abstract int send(ByteBuffer src, SocketAddress target)
         throws IOException;
 
+    /**
+     * Receives a sequence of datagrams via this channel into a subsequence of
+     * the given buffers.
+     *
+     * <p> An invocation of this method attempts to receive up to
+     * <i>length</i> datagrams.  The <i>i</i>th datagram is transferred into
+     * <tt>dsts[offset+i]</tt>, as if by the {@link #receive(ByteBuffer)
+     * receive} method, and its source address is stored in
+     * <tt>sources[offset+i]</tt>.  Datagrams are received in the order in
+     * which they are delivered to the channel's socket.
+     *
+     * <p> If this channel is in blocking mode then this method blocks until
+     * at least one datagram has been received.  It then receives only those
+     * further datagrams that are immediately available.  If this channel is
+     * in non-blocking mode then this method receives the datagrams that are
+     * immediately available and returns zero if there are none.
+     *
+     * <p> The default implementation of this method invokes the {@link
+     * #receive(ByteBuffer) receive} method once per datagram; in blocking
+     * mode it returns after the first datagram.  Implementations that can
+     * move several datagrams with a single operating-system call, such as
+     * <tt>recvmmsg</tt>, are encouraged to override it.  Passing direct
+     * buffers, ideally drawn from a pool that is reused across invocations,
+     * avoids copying each datagram through a temporary buffer.
+     *
+     * <p> The security checks and concurrency behavior are those of the
+     * {@link #receive(ByteBuffer) receive} method, applied to each datagram.
+     * If an exception is thrown after one or more datagrams have been
+     * received then those datagrams remain in their buffers and their source
+     * addresses remain in the <tt>sources</tt> array. </p>
+     *
+     * @param  dsts
+     *         The buffers into which datagrams are to be transferred
+     *
+     * @param  sources
+     *         The array into which the source addresses are to be stored;
+     *         element <tt>offset+i</tt> holds the source of the datagram
+     *         transferred into <tt>dsts[offset+i]</tt>
+     *
+     * @param  offset
+     *         The offset within the arrays of the first element to be used;
+     *         must be non-negative and no larger than <tt>dsts.length</tt>
+     *
+     * @param  length
+     *         The maximum number of datagrams to be received; must be
+     *         non-negative and no larger than <tt>dsts.length&nbsp;-&nbsp;offset</tt>
+     *
+     * @return  The number of datagrams received, possibly zero if this
+     *          channel is in non-blocking mode
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold, or if <tt>sources</tt> is shorter
+     *          than <tt>dsts</tt>
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the read operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the read operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  SecurityException
+     *          If a security manager has been installed
+     *          and it does not permit datagrams to be accepted
+     *          from a datagram's sender
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public int receive(ByteBuffer[] dsts, SocketAddress[] sources,
+                       int offset, int length)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length)
+            || (sources.length < dsts.length))
+            throw new IndexOutOfBoundsException();
+        boolean blocking = isBlocking();
+        int n = 0;
+        while (n < length) {
+            SocketAddress sa = receive(dsts[offset + n]);
+            if (sa == null)
+                break;
+            sources[offset + n] = sa;
+            n++;
+            if (blocking)
+                break;
+        }
+        return n;
+    }
+
+    /**
+     * Receives a sequence of datagrams via this channel into the given
+     * buffers.
+     *
+     * <p> An invocation of this method of the form <tt>c.receive(dsts,
+     * sources)</tt> behaves in exactly the same manner as the invocation
+     *
+     * <blockquote><pre>
+     * c.receive(dsts, sources, 0, dsts.length);</pre></blockquote>
+     *
+     * @param  dsts
+     *         The buffers into which datagrams are to be transferred
+     *
+     * @param  sources
+     *         The array into which the source addresses are to be stored
+     *
+     * @return  The number of datagrams received, possibly zero if this
+     *          channel is in non-blocking mode
+     *
+     * @throws  IOException
+     *          If an I/O error occurs, as specified by
+     *          {@link #receive(ByteBuffer[],SocketAddress[],int,int)}
+     *
+     * @since 1.8
+     */
+    public final int receive(ByteBuffer[] dsts, SocketAddress[] sources)
+        throws IOException
+    {
+        return receive(dsts, sources, 0, dsts.length);
+    }
+
+    /**
+     * Sends a sequence of datagrams via this channel from a subsequence of
+     * the given buffers.
+     *
+     * <p> An invocation of this method attempts to send up to <i>length</i>
+     * datagrams, in order.  The remaining bytes of <tt>srcs[offset+i]</tt>
+     * are transmitted as a single datagram to <tt>targets[offset+i]</tt>, as
+     * if by the {@link #send(ByteBuffer,SocketAddress) send} method.
+     *
+     * <p> If this channel is in blocking mode then all of the datagrams are
+     * sent before this method returns.  If this channel is in non-blocking
+     * mode then this method stops at the first datagram for which there is
+     * insufficient room in the underlying output buffer; that datagram and
+     * those after it are not sent and their buffers are left unchanged.
+     *
+     * <p> The default implementation of this method invokes the {@link
+     * #send(ByteBuffer,SocketAddress) send} method once per datagram.
+     * Implementations that can move several datagrams with a single
+     * operating-system call, such as <tt>sendmmsg</tt>, are encouraged to
+     * override it.  As with {@link #receive(ByteBuffer[],SocketAddress[],int,int)
+     * receive}, direct buffers avoid a copy per datagram.
+     *
+     * <p> The security checks and concurrency behavior are those of the
+     * {@link #send(ByteBuffer,SocketAddress) send} method, applied to each
+     * datagram.  If an exception is thrown after one or more datagrams have
+     * been sent then the buffers of those datagrams have been consumed. </p>
+     *
+     * @param  srcs
+     *         The buffers containing the datagrams to be sent
+     *
+     * @param  targets
+     *         The addresses to which the datagrams are to be sent;
+     *         element <tt>offset+i</tt> is the target of the datagram held
+     *         in <tt>srcs[offset+i]</tt>
+     *
+     * @param  offset
+     *         The offset within the arrays of the first element to be used;
+     *         must be non-negative and no larger than <tt>srcs.length</tt>
+     *
+     * @param  length
+     *         The maximum number of datagrams to be sent; must be
+     *         non-negative and no larger than <tt>srcs.length&nbsp;-&nbsp;offset</tt>
+     *
+     * @return  The number of datagrams sent, possibly zero if this channel
+     *          is in non-blocking mode
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold, or if <tt>targets</tt> is shorter
+     *          than <tt>srcs</tt>
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the write operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the write operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  SecurityException
+     *          If a security manager has been installed
+     *          and it does not permit datagrams to be sent
+     *          to one of the given addresses
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public int send(ByteBuffer[] srcs, SocketAddress[] targets,
+                    int offset, int length)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > srcs.length - length)
+            || (targets.length < srcs.length))
+            throw new IndexOutOfBoundsException();
+        int n = 0;
+        while (n < length) {
+            ByteBuffer src = srcs[offset + n];
+            // A zero-length datagram is sent even though send returns zero
+            if (send(src, targets[offset + n]) == 0 && src.hasRemaining())
+                break;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Sends a sequence of datagrams via this channel from the given buffers.
+     *
+     * <p> An invocation of this method of the form <tt>c.send(srcs,
+     * targets)</tt> behaves in exactly the same manner as the invocation
+     *
+     * <blockquote><pre>
+     * c.send(srcs, targets, 0, srcs.length);</pre></blockquote>
+     *
+     * @param  srcs
+     *         The buffers containing the datagrams to be sent
+     *
+     * @param  targets
+     *         The addresses to which the datagrams are to be sent
+     *
+     * @return  The number of datagrams sent, possibly zero if this channel
+     *          is in non-blocking mode
+     *
+     * @throws  IOException
+     *          If an I/O error occurs, as specified by
+     *          {@link #send(ByteBuffer[],SocketAddress[],int,int)}
+     *
+     * @since 1.8
+     */
+    public final int send(ByteBuffer[] srcs, SocketAddress[] targets)
+        throws IOException
+    {
+        return send(srcs, targets, 0, srcs.length);
+    }
+
 
     // -- ByteChannel operations --
 
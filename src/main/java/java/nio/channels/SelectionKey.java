@@ -361,6 +361,60 @@ public abstract class SelectionKey {
     }
 
 
+    // -- One-shot selection --
+
+    private volatile boolean oneShot;
+
+    /**
+     * Sets whether this key is one-shot.
+     *
+     * <p> By default a channel is selected by every selection operation for
+     * as long as it is ready for an operation in its key's interest set.
+     * When a selector selects a one-shot key for the action of its {@link
+     * Selector#select(java.util.function.Consumer,long) select(Consumer)}
+     * methods, it removes the operations in the key's ready set from its
+     * interest set before the action is invoked.  The channel is then not
+     * selected again for those operations, however long it stays ready for
+     * them, until they are added back to the interest set.
+     *
+     * <p> An application that uses one-shot keys must therefore re-arm a
+     * key, by invoking its {@link #interestOps(int) interestOps} method with
+     * the operations it is interested in, each time it has finished handling
+     * the channel; a key that is not re-armed is never selected again for
+     * the operations that were removed.  This allows the channel to be
+     * handled by another thread without the selector repeatedly selecting it
+     * in the meantime.
+     *
+     * <p> Selection operations that return their keys through the
+     * {@linkplain Selector#selectedKeys selected-key set} are not affected by
+     * this setting. </p>
+     *
+     * @param  on
+     *         {@code true} to make this key one-shot,
+     *         {@code false} otherwise
+     *
+     * @return  This selection key
+     *
+     * @since 1.8
+     */
+    public final SelectionKey oneShot(boolean on) {
+        oneShot = on;
+        return this;
+    }
+
+    /**
+     * Tells whether this key is one-shot.
+     *
+     * @return  {@code true} if, and only if, this key is one-shot
+     *
+     * @see #oneShot(boolean)
+     * @since 1.8
+     */
+    public final boolean isOneShot() {
+        return oneShot;
+    }
+
+
     // -- Attachments --
 
     private volatile Object attachment = null;
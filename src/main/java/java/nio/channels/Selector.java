@@ -4,7 +4,9 @@ package java.nio.channels;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.channels.spi.SelectorProvider;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -328,6 +330,201 @@ public abstract class Selector implements Closeable {
      */
     public abstract int select() throws IOException;
 
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>.  It wakes up from querying the operating system only when
+     * at least one channel is selected, this selector's {@link #wakeup wakeup}
+     * method is invoked, the current thread is interrupted, or the given
+     * timeout period expires, whichever comes first.
+     *
+     * <p> The specified <i>action</i>'s {@link Consumer#accept(Object) accept}
+     * method is invoked with the key for each channel that is ready to perform
+     * an operation identified by its key's interest set.  The {@code accept}
+     * method may be invoked more than once for the same key but with the
+     * ready-operation set containing a subset of the operations for which the
+     * channel is ready.  The {@code accept} method is invoked once the keys
+     * have been selected, and not while synchronized on the selector or its
+     * selected-key set, so the <i>action</i> may register channels with the
+     * selector, iterate over its key set, or close it, and other threads may
+     * do so while the action runs.  If the <i>action</i> closes the selector
+     * then {@code ClosedSelectorException} is thrown when the action
+     * completes.
+     *
+     * <p> Unlike the {@link #select(long)} method, the selected-key set is not
+     * used to return the selected keys to the caller: it is empty when this
+     * method returns, and so it need not be iterated or cleared.  The keys
+     * are handed to the action from an array that this selector reuses from
+     * one selection operation to the next, so that a selection loop written
+     * in this style need not allocate an iterator or set entry per key.
+     *
+     * <p> If a selected key is {@linkplain SelectionKey#isOneShot one-shot}
+     * then, before the action is invoked, the operations in its ready set are
+     * removed from its interest set.  The channel is therefore not selected
+     * again for those operations until the action, or some other thread,
+     * re-arms the key by adding them back with {@link
+     * SelectionKey#interestOps(int) interestOps}.
+     *
+     * <p> This method does not offer real-time guarantees: It schedules the
+     * timeout as if by invoking the {@link Object#wait(long)} method. </p>
+     *
+     * @implSpec The default implementation performs the selection operation
+     * with {@link #select(long)}, copies the selected-key set into the
+     * reusable array and clears it, and then, having released the selector
+     * and its selected-key set, invokes the action for each key.
+     * A selector implementation may override this method to hand the ready
+     * keys to the action directly as they are collected from the operating
+     * system, without adding them to the selected-key set.
+     *
+     * @param  action   The action to perform
+     *
+     * @param  timeout  If positive, block for up to {@code timeout}
+     *                  milliseconds, more or less, while waiting for a
+     *                  channel to become ready; if zero, block indefinitely;
+     *                  must not be negative
+     *
+     * @return  The number of unique keys consumed, possibly zero
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @throws  IllegalArgumentException
+     *          If the value of the timeout argument is negative
+     *
+     * @since 1.8
+     */
+    public int select(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        if (timeout < 0)
+            throw new IllegalArgumentException("Negative timeout");
+        return doSelect(Objects.requireNonNull(action), timeout);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>.  It wakes up from querying the operating system only when
+     * at least one channel is selected, this selector's {@link #wakeup wakeup}
+     * method is invoked, or the current thread is interrupted, whichever comes
+     * first.
+     *
+     * <p> This method is equivalent to invoking the 2-arg
+     * {@link #select(Consumer, long) select} method with a timeout of
+     * {@code 0} to block indefinitely.  </p>
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of unique keys consumed, possibly zero
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @since 1.8
+     */
+    public int select(Consumer<SelectionKey> action) throws IOException {
+        return select(action, 0);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a non-blocking <a href="#selop">selection
+     * operation</a>.  It otherwise behaves as the
+     * {@link #select(Consumer, long) select} method does.
+     *
+     * <p> Invoking this method clears the effect of any previous invocations
+     * of the {@link #wakeup wakeup} method.  </p>
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of unique keys consumed, possibly zero
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @since 1.8
+     */
+    public int selectNow(Consumer<SelectionKey> action) throws IOException {
+        return doSelect(Objects.requireNonNull(action), -1);
+    }
+
+    // Array reused for the ready keys of action-based selection operations,
+    // so that a steady-state selection loop does not allocate. It is taken,
+    // while holding the selector's monitor, by the operation that uses it
+    // and put back when its actions have run; an operation that finds it
+    // taken uses an array of its own.
+    private volatile SelectionKey[] readyKeys = new SelectionKey[16];
+
+    /**
+     * Default implementation of select(Consumer) and selectNow(Consumer).
+     * A negative timeout performs a non-blocking selection.
+     */
+    private int doSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        SelectionKey[] keys;
+        int n;
+        synchronized (this) {
+            Set<SelectionKey> selectedKeys = selectedKeys();
+            synchronized (selectedKeys) {
+                selectedKeys.clear();
+                if (timeout < 0) {
+                    selectNow();
+                } else {
+                    select(timeout);
+                }
+
+                // move the selected keys out of the selected-key set so that
+                // the actions can run without holding either lock, disarming
+                // one-shot keys before another selection can select them
+                n = selectedKeys.size();
+                keys = readyKeys;
+                readyKeys = null;
+                if (keys == null || keys.length < n)
+                    keys = new SelectionKey[Math.max(n, 16)];
+                int i = 0;
+                for (SelectionKey k : selectedKeys) {
+                    if (k.isOneShot() && k.isValid())
+                        k.interestOps(k.interestOps() & ~k.readyOps());
+                    keys[i++] = k;
+                }
+                selectedKeys.clear();
+            }
+        }
+
+        int i = 0;
+        try {
+            for (; i < n; i++) {
+                SelectionKey k = keys[i];
+                keys[i] = null;
+                action.accept(k);
+                if (!isOpen())
+                    throw new ClosedSelectorException();
+            }
+        } finally {
+            // drop references left behind by a failed action
+            for (; i < n; i++)
+                keys[i] = null;
+            readyKeys = keys;
+        }
+        return n;
+    }
+
     /**
      * Causes the first selection operation that has not yet returned to return
      * immediately.
@@ -27,9 +27,11 @@ package java.nio.channels.spi;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.Selector;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 import sun.nio.ch.Interruptible;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -58,7 +60,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * cancelled-key set and for removing a key from its channel's key set, and
  * declares the abstract {@link #register register} method that is invoked by a
  * selectable channel's {@link AbstractSelectableChannel#register register}
- * method in order to perform the actual work of registering a channel.  </p>
+ * method in order to perform the actual work of registering a channel.
+ * The {@link #processReadyKey processReadyKey} method supports selectors that
+ * implement the action-based selection operations without populating their
+ * selected-key set.  </p>
  *
  *
  * @author Mark Reinhold
@@ -188,6 +193,42 @@ public abstract class AbstractSelector
         ((AbstractSelectableChannel)key.channel()).removeKey(key);
     }
 
+    /**
+     * Hands a ready key to the action of a {@link
+     * Selector#select(java.util.function.Consumer,long) select(Consumer)}
+     * operation.
+     *
+     * <p> A selector that overrides the action-based selection methods, so as
+     * to pass keys to the action as it collects them from the operating system
+     * rather than through its selected-key set, should invoke this method once
+     * for each ready key after updating the key's ready-operation set, and
+     * without holding the monitor of this selector or of its selected-key
+     * set, since the action may register channels with this selector or close
+     * it.  If the key is {@linkplain SelectionKey#isOneShot one-shot} then the
+     * operations in its ready set are first removed from its interest set.
+     * </p>
+     *
+     * @param  key
+     *         The ready key
+     *
+     * @param  action
+     *         The action to perform
+     *
+     * @throws  ClosedSelectorException
+     *          If the action closes this selector
+     *
+     * @since 1.8
+     */
+    protected final void processReadyKey(SelectionKey key,
+                                         Consumer<SelectionKey> action)
+    {
+        if (key.isOneShot() && key.isValid())
+            key.interestOps(key.interestOps() & ~key.readyOps());
+        action.accept(key);
+        if (!isOpen())
+            throw new ClosedSelectorException();
+    }
+
 
     // -- Interruption machinery --
 
@@ -29,6 +29,8 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -2896,12 +2898,40 @@ public final class Files {
         return newBufferedWriter(path, StandardCharsets.UTF_8, options);
     }
 
+    /**
+     * Returns the file channel of the given stream if it is a {@code
+     * FileInputStream}, or {@code null}. Sub-classes are not unwrapped as they
+     * may override the read methods.
+     */
+    private static FileChannel fileChannel(InputStream in) {
+        if (in.getClass() == FileInputStream.class)
+            return ((FileInputStream)in).getChannel();
+        return null;
+    }
+
+    /**
+     * Returns the file channel of the given stream if it is a {@code
+     * FileOutputStream}, or {@code null}.
+     */
+    private static FileChannel fileChannel(OutputStream out) {
+        if (out.getClass() == FileOutputStream.class)
+            return ((FileOutputStream)out).getChannel();
+        return null;
+    }
+
     /**
      * Reads all bytes from an input stream and writes them to an output stream.
+     * If both streams are file streams then the bytes are transferred between
+     * the underlying channels without copying them through the Java heap.
      */
     private static long copy(InputStream source, OutputStream sink)
         throws IOException
     {
+        FileChannel src = fileChannel(source);
+        FileChannel dst = fileChannel(sink);
+        if (src != null && dst != null)
+            return Channels.transfer(src, dst);
+
         long nread = 0L;
         byte[] buf = new byte[BUFFER_SIZE];
         int n;
@@ -3011,10 +3041,18 @@ public final class Files {
         // FileAlreadyExistsException then it may be because the security
         // manager prevented us from deleting the file, in which case we just
         // throw the SecurityException.
-        OutputStream ostream;
+        // If the input stream is a file stream then the target is opened as
+        // a channel so that the bytes can be transferred directly.
+        FileChannel src = fileChannel(in);
+        Closeable sink;
         try {
-            ostream = newOutputStream(target, StandardOpenOption.CREATE_NEW,
+            if (src != null) {
+                sink = newByteChannel(target, StandardOpenOption.CREATE_NEW,
                                               StandardOpenOption.WRITE);
+            } else {
+                sink = newOutputStream(target, StandardOpenOption.CREATE_NEW,
+                                               StandardOpenOption.WRITE);
+            }
         } catch (FileAlreadyExistsException x) {
             if (se != null)
                 throw se;
@@ -3023,8 +3061,10 @@ public final class Files {
         }
 
         // do the copy
-        try (OutputStream out = ostream) {
-            return copy(in, out);
+        try (Closeable c = sink) {
+            if (src != null)
+                return Channels.transfer(src, (SeekableByteChannel)c);
+            return copy(in, (OutputStream)c);
         }
     }
 
@@ -3065,6 +3105,14 @@ public final class Files {
         // ensure not null before opening file
         Objects.requireNonNull(out);
 
+        // transfer directly from the file when writing to a file stream
+        FileChannel dst = fileChannel(out);
+        if (dst != null) {
+            try (SeekableByteChannel src = newByteChannel(source)) {
+                return Channels.transfer(src, dst);
+            }
+        }
+
         try (InputStream in = newInputStream(source)) {
             return copy(in, out);
         }
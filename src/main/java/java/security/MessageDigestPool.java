@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.security;
+
+import sun.security.util.IdlePool;
+
+/**
+ * A thread-safe pool of {@link MessageDigest} objects for one algorithm.
+ *
+ * <p> Obtaining a {@code MessageDigest} searches the installed providers
+ * and creates a new implementation object each time.  Applications that
+ * hash many small messages from many threads can instead {@link #borrow
+ * borrow} a digest from a pool, use it, and {@link #release release} it
+ * back:
+ *
+ * <pre>
+ *     MessageDigest md = pool.borrow();
+ *     try {
+ *         byte[] hash = md.digest(record);
+ *         ...
+ *     } finally {
+ *         pool.release(md);
+ *     }
+ * </pre>
+ *
+ * <p> A borrowed digest is used by one thread at a time, like any other
+ * {@code MessageDigest}.  Digests are reset when they are released, and the
+ * pool keeps at most {@code maxIdle} of them; further digests are left to
+ * the garbage collector.
+ *
+ * @see MessageDigest
+ * @see javax.crypto.MacPool
+ * @see javax.crypto.CipherPool
+ *
+ * @since 1.8
+ */
+public final class MessageDigestPool {
+
+    private final String algorithm;
+    private final Provider provider;
+    private final IdlePool<MessageDigest> idle;
+
+    /**
+     * Creates a pool of digests implementing the given algorithm, obtained
+     * from the most preferred provider that supports it.
+     *
+     * @param algorithm the name of the algorithm
+     * @param maxIdle the maximum number of idle digests kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if no provider supports
+     * the specified algorithm
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public MessageDigestPool(String algorithm, int maxIdle)
+            throws NoSuchAlgorithmException {
+        this(algorithm, null, maxIdle);
+    }
+
+    /**
+     * Creates a pool of digests implementing the given algorithm, obtained
+     * from the given provider, or from the most preferred provider that
+     * supports the algorithm if {@code provider} is null.
+     *
+     * @param algorithm the name of the algorithm
+     * @param provider the provider, or null
+     * @param maxIdle the maximum number of idle digests kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if the algorithm is not
+     * available
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public MessageDigestPool(String algorithm, Provider provider, int maxIdle)
+            throws NoSuchAlgorithmException {
+        this.idle = new IdlePool<>(maxIdle);
+        this.algorithm = algorithm;
+        this.provider = provider;
+        // fail now rather than on the first borrow
+        release(newDigest());
+    }
+
+    private MessageDigest newDigest() throws NoSuchAlgorithmException {
+        return (provider == null) ? MessageDigest.getInstance(algorithm)
+                                  : MessageDigest.getInstance(algorithm,
+                                                              provider);
+    }
+
+    /**
+     * Returns the name of the algorithm of this pool's digests.
+     *
+     * @return the name of the algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Takes an idle digest from this pool, or creates a new one if none is
+     * idle.  The digest is in its initial state.
+     *
+     * @return a digest for the exclusive use of the caller
+     *
+     * @exception ProviderException if a new digest cannot be created
+     */
+    public MessageDigest borrow() {
+        MessageDigest md = idle.poll();
+        if (md != null) {
+            return md;
+        }
+        try {
+            return newDigest();
+        } catch (NoSuchAlgorithmException e) {
+            // was available when this pool was created
+            throw new ProviderException(e);
+        }
+    }
+
+    /**
+     * Resets the given digest and returns it to this pool.  The caller must
+     * not use the digest afterwards.
+     *
+     * @param md a digest obtained from {@link #borrow}
+     *
+     * @exception IllegalArgumentException if {@code md} does not implement
+     * this pool's algorithm
+     */
+    public void release(MessageDigest md) {
+        if (!algorithm.equals(md.getAlgorithm())) {
+            throw new IllegalArgumentException("Digest algorithm "
+                + md.getAlgorithm() + " does not match " + algorithm);
+        }
+        md.reset();
+        idle.offer(md);
+    }
+}
@@ -198,7 +198,10 @@ public abstract class MessageDigestSpi {
      */
     public Object clone() throws CloneNotSupportedException {
         if (this instanceof Cloneable) {
-            return super.clone();
+            MessageDigestSpi copy = (MessageDigestSpi) super.clone();
+            // the clone must not share the temporary array
+            copy.tempArray = null;
+            return copy;
         } else {
             throw new CloneNotSupportedException();
         }
@@ -33,6 +33,7 @@ import java.lang.reflect.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents a "provider" for the
@@ -679,6 +680,12 @@ public abstract class Provider extends Properties {
     // Unmodifiable set of all services. Initialized on demand.
     private transient Set<Service> serviceSet;
 
+    // Map<LookupKey,Object>
+    // results of getService(), or NO_SERVICE, keyed by the exact strings
+    // passed in so that repeated lookups need neither the lock nor the
+    // upper-casing of a ServiceKey. Cleared whenever the services change.
+    private transient volatile Map<LookupKey,Object> lookupCache;
+
     // register the id attributes for this provider
     // this is to ensure that equals() and hashCode() do not incorrectly
     // report to different provider objects as the same
@@ -710,6 +717,7 @@ public abstract class Provider extends Properties {
         }
 
         legacyChanged = true;
+        lookupCache = null;
         if (legacyStrings == null) {
             legacyStrings = new LinkedHashMap<String,String>();
         }
@@ -771,6 +779,7 @@ public abstract class Provider extends Properties {
 
     private void implReplaceAll(BiFunction<? super Object, ? super Object, ? extends Object> function) {
         legacyChanged = true;
+        lookupCache = null;
         if (legacyStrings == null) {
             legacyStrings = new LinkedHashMap<String,String>();
         } else {
@@ -857,6 +866,7 @@ public abstract class Provider extends Properties {
         legacyChanged = false;
         servicesChanged = false;
         serviceSet = null;
+        lookupCache = null;
         super.clear();
         putId();
     }
@@ -1031,22 +1041,79 @@ public abstract class Provider extends Properties {
      *
      * @since 1.5
      */
-    public synchronized Service getService(String type, String algorithm) {
+    public Service getService(String type, String algorithm) {
         checkInitialized();
+        Map<LookupKey,Object> cache = lookupCache;
+        if (cache != null) {
+            Object cached = cache.get(new LookupKey(type, algorithm));
+            if (cached != null) {
+                return (cached == NO_SERVICE) ? null : (Service)cached;
+            }
+        }
+        return lookupService(type, algorithm);
+    }
+
+    private synchronized Service lookupService(String type, String algorithm) {
         // avoid allocating a new key object if possible
         ServiceKey key = previousKey;
         if (key.matches(type, algorithm) == false) {
             key = new ServiceKey(type, algorithm, false);
             previousKey = key;
         }
+        Service service = null;
         if (serviceMap != null) {
-            Service service = serviceMap.get(key);
-            if (service != null) {
-                return service;
+            service = serviceMap.get(key);
+        }
+        if (service == null) {
+            ensureLegacyParsed();
+            service = (legacyMap != null) ? legacyMap.get(key) : null;
+        }
+        // cache under the lock, so that a concurrent change to the
+        // services, which also holds it, cannot be overwritten
+        Map<LookupKey,Object> cache = lookupCache;
+        if (cache == null) {
+            lookupCache = cache = new ConcurrentHashMap<>();
+        }
+        // bounded, as callers may pass arbitrary algorithm names
+        if (cache.size() < MAX_CACHED_LOOKUPS) {
+            cache.put(new LookupKey(type, algorithm),
+                      (service == null) ? NO_SERVICE : service);
+        }
+        ServiceSnapshot.record(type, algorithm);
+        return service;
+    }
+
+    // marks a cached lookup that found no service
+    private static final Object NO_SERVICE = new Object();
+
+    private static final int MAX_CACHED_LOOKUPS = 1024;
+
+    // key of lookupCache: the type and algorithm exactly as requested
+    private static final class LookupKey {
+        private final String type;
+        private final String algorithm;
+        private final int hash;
+
+        LookupKey(String type, String algorithm) {
+            this.type = type;
+            this.algorithm = algorithm;
+            this.hash = type.hashCode() * 31 + algorithm.hashCode();
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LookupKey)) {
+                return false;
             }
+            LookupKey other = (LookupKey)obj;
+            return type.equals(other.type) && algorithm.equals(other.algorithm);
         }
-        ensureLegacyParsed();
-        return (legacyMap != null) ? legacyMap.get(key) : null;
     }
 
     // ServiceKey from previous getService() call
@@ -1132,6 +1199,7 @@ public abstract class Provider extends Properties {
             serviceMap = new LinkedHashMap<ServiceKey,Service>();
         }
         servicesChanged = true;
+        lookupCache = null;
         String type = s.getType();
         String algorithm = s.getAlgorithm();
         ServiceKey key = new ServiceKey(type, algorithm, true);
@@ -1231,6 +1299,7 @@ public abstract class Provider extends Properties {
             return;
         }
         servicesChanged = true;
+        lookupCache = null;
         serviceMap.remove(key);
         for (String alias : s.getAliases()) {
             serviceMap.remove(new ServiceKey(type, alias, false));
@@ -72,6 +72,7 @@ public final class Security {
                 return null;
             }
         });
+        ServiceSnapshot.start();
     }
 
     private static void initialize() {
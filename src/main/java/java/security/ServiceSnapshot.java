@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.security;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sun.security.util.Debug;
+
+/**
+ * Carries the provider service lookups made by one run of an application
+ * over to the next, so that the first cryptographic operations after
+ * startup do not pay for parsing the providers' service tables.
+ *
+ * <p> When the {@code jdk.security.serviceSnapshot} security or system
+ * property names a file, the (type, algorithm) pairs listed in it are
+ * looked up in every installed provider on a background thread as soon as
+ * this class is initialized.  That fills each provider's lookup cache
+ * while the application is still starting.  The pairs that are looked up
+ * during the run are recorded, and at exit the file is rewritten with
+ * them.  Only names are stored: each provider still resolves them itself,
+ * so the file cannot change which implementation is selected.
+ */
+final class ServiceSnapshot {
+
+    private static final Debug debug = Debug.getInstance("jca", "Provider");
+
+    // upper bound on the number of recorded pairs
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Path FILE;
+
+    // "type:algorithm" strings of the lookups to save; null if disabled
+    private static final Set<String> recorded;
+
+    static {
+        String name = AccessController.doPrivileged(
+            (PrivilegedAction<String>) () -> {
+                String p = System.getProperty("jdk.security.serviceSnapshot");
+                return (p != null) ? p
+                    : Security.getProperty("jdk.security.serviceSnapshot");
+            });
+        Path file = null;
+        if (name != null && !name.isEmpty()) {
+            try {
+                file = Paths.get(name);
+            } catch (RuntimeException e) {
+                if (debug != null) {
+                    debug.println("invalid service snapshot file: " + name);
+                }
+            }
+        }
+        FILE = file;
+        recorded = (file != null) ? ConcurrentHashMap.newKeySet() : null;
+    }
+
+    private ServiceSnapshot() {}
+
+    /**
+     * Starts pre-resolving the saved lookups and arranges for the lookups
+     * of this run to be saved at exit.  Does nothing unless a snapshot file
+     * is configured.
+     */
+    static void start() {
+        if (FILE == null) {
+            return;
+        }
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            Thread loader = new Thread(ServiceSnapshot::preload,
+                                       "Provider Service Preloader");
+            loader.setDaemon(true);
+            loader.start();
+            Runtime.getRuntime().addShutdownHook(
+                new Thread(ServiceSnapshot::save,
+                           "Provider Service Snapshot"));
+            return null;
+        });
+    }
+
+    /**
+     * Notes a lookup that had to consult a provider's service tables.
+     */
+    static void record(String type, String algorithm) {
+        Set<String> r = recorded;
+        if (r != null && r.size() < MAX_ENTRIES
+                && type.indexOf(':') < 0 && type.indexOf('\n') < 0
+                && algorithm.indexOf('\n') < 0) {
+            r.add(type + ':' + algorithm);
+        }
+    }
+
+    private static void preload() {
+        if (!Files.isReadable(FILE)) {
+            return;
+        }
+        try (BufferedReader in =
+                Files.newBufferedReader(FILE, StandardCharsets.UTF_8)) {
+            Provider[] providers = Security.getProviders();
+            String line;
+            int count = 0;
+            while ((line = in.readLine()) != null && count++ < MAX_ENTRIES) {
+                int colon = line.indexOf(':');
+                if (colon <= 0 || colon == line.length() - 1) {
+                    continue;
+                }
+                String type = line.substring(0, colon);
+                String algorithm = line.substring(colon + 1);
+                for (Provider p : providers) {
+                    p.getService(type, algorithm);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (debug != null) {
+                debug.println("unable to preload provider services: " + e);
+            }
+        }
+    }
+
+    private static void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try {
+            Path dir = FILE.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(dir, "services", ".tmp");
+            try (BufferedWriter out =
+                    Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (String entry : recorded) {
+                    out.write(entry);
+                    out.newLine();
+                }
+            }
+            Files.move(tmp, FILE, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (debug != null) {
+                debug.println("unable to save provider services: " + e);
+            }
+        }
+    }
+}
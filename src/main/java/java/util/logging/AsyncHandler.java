@@ -0,0 +1,675 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <tt>Handler</tt> that hands <tt>LogRecords</tt> to a background thread
+ * which publishes them to a target <tt>Handler</tt>.
+ * <p>
+ * The <tt>publish</tt> method of an <tt>AsyncHandler</tt> does not format
+ * or write the record; it only checks the level and <tt>Filter</tt> and
+ * places the record in a bounded, lock-free queue.  A background thread
+ * drains the queue and publishes the records to the target <tt>Handler</tt>
+ * in batches.  When the target is a <tt>StreamHandler</tt>,
+ * <tt>ConsoleHandler</tt> or <tt>FileHandler</tt>, each batch is written
+ * while holding the target's lock once and is followed by a single flush,
+ * rather than a flush per record.
+ * <p>
+ * Because records are formatted on the background thread, the parameters
+ * of a record should not be modified after it has been logged.  The source
+ * class and method of each record are inferred on the logging thread, before
+ * the record is queued.
+ * <p>
+ * When the queue is full the <em>overflow policy</em> determines what
+ * happens to a new record:
+ * <ul>
+ * <li> {@link OverflowPolicy#BLOCK BLOCK}: the logging thread waits until
+ *      there is space in the queue. </li>
+ * <li> {@link OverflowPolicy#DROP DROP}: the record is dropped. </li>
+ * <li> {@link OverflowPolicy#DISCARD_BELOW_LEVEL DISCARD_BELOW_LEVEL}: the
+ *      record is dropped if its level is below the <em>discard level</em>,
+ *      otherwise the logging thread waits until there is space in the
+ *      queue. </li>
+ * </ul>
+ * The number of dropped records, and the number of records currently
+ * queued, may be obtained with {@link #getDroppedCount} and
+ * {@link #getQueuedCount}.
+ * <p>
+ * If the background thread terminates with an error, the error is reported
+ * to the <tt>ErrorManager</tt> and the handler falls back to publishing
+ * records to the target <tt>Handler</tt> on the logging threads, beginning
+ * with the records left in the queue.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.size
+ *        defines the queue capacity, rounded up to a power of two
+ *        (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.batch
+ *        defines the maximum number of records published per batch
+ *        (defaults to 256). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the overflow policy, one of <tt>BLOCK</tt>,
+ *        <tt>DROP</tt> or <tt>DISCARD_BELOW_LEVEL</tt>
+ *        (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.discardLevel
+ *        defines the discard level (defaults to <tt>Level.WARNING</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler </tt> class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DISCARD_BELOW_LEVEL </li>
+ * </ul>
+ * <p>
+ * @since 1.8
+ */
+
+public class AsyncHandler extends Handler {
+    private final static int DEFAULT_SIZE = 8192;
+    private final static int MAX_SIZE = 1 << 30;
+    private final static int DEFAULT_BATCH = 256;
+    // upper bound of the time a waiting thread parks before re-checking
+    private final static long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final static AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * The policy applied when a record is published to an
+     * <tt>AsyncHandler</tt> whose queue is full.
+     *
+     * @since 1.8
+     */
+    public static enum OverflowPolicy {
+        /**
+         * The logging thread waits until there is space in the queue.
+         */
+        BLOCK,
+        /**
+         * The record is dropped.
+         */
+        DROP,
+        /**
+         * The record is dropped if its level is below the discard level,
+         * otherwise the logging thread waits until there is space in the
+         * queue.
+         */
+        DISCARD_BELOW_LEVEL
+    }
+
+    private Handler target;
+    private RingBuffer queue;
+    private int batchSize;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile Level discardLevel;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private volatile boolean closed;
+    // set once the background thread has terminated with an error
+    private volatile boolean failed;
+    // set, while holding the queue's lock, once close has drained the queue
+    private boolean finished;
+    private Thread worker;
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        batchSize = manager.getIntProperty(cname + ".batch", DEFAULT_BATCH);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH;
+        }
+        overflowPolicy = OverflowPolicy.BLOCK;
+        String policy = manager.getStringProperty(cname + ".overflow", null);
+        if (policy != null) {
+            try {
+                overflowPolicy = OverflowPolicy.valueOf(policy.trim());
+            } catch (IllegalArgumentException ex) {
+                // use the default
+            }
+        }
+        discardLevel = manager.getLevelProperty(cname + ".discardLevel",
+                                                Level.WARNING);
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        int size = manager.getIntProperty(handlerName + ".size", DEFAULT_SIZE);
+        if (size <= 0 || size > MAX_SIZE) {
+            size = DEFAULT_SIZE;
+        }
+        queue = new RingBuffer(size);
+        String targetName = manager.getProperty(handlerName + ".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        start();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given queue
+     * capacity and overflow policy are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the queue capacity, rounded up to a power of two
+     *                (must be greater than zero)
+     * @param overflowPolicy  the policy applied when the queue is full
+     *
+     * @throws IllegalArgumentException if {@code size <= 0} or
+     *         {@code size > 1 << 30}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflowPolicy) {
+        if (target == null || overflowPolicy == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.queue = new RingBuffer(size);
+        this.overflowPolicy = overflowPolicy;
+        start();
+    }
+
+    // Start the background thread that drains the queue.
+    private void start() {
+        final Runnable drainer = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+        worker = AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+            @Override
+            public Thread run() {
+                Thread t = new Thread(drainer,
+                        "AsyncHandler-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                t.setContextClassLoader(null);
+                return t;
+            }
+        });
+        worker.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> for publication by the background thread.
+     * <p>
+     * If there is a <tt>Filter</tt>, its <tt>isLoggable</tt>
+     * method is called to check if the given log record is loggable.
+     * If not we return.  Otherwise the record is placed in the queue, or
+     * the overflow policy is applied if the queue is full.  Records
+     * published after this handler has been closed are dropped.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        // the caller can only be inferred on the logging thread
+        record.getSourceClassName();
+
+        if (failed) {
+            publishDirect(record);
+            return;
+        }
+        if (!queue.offer(record)) {
+            OverflowPolicy policy = overflowPolicy;
+            if (policy == OverflowPolicy.DROP
+                    || (policy == OverflowPolicy.DISCARD_BELOW_LEVEL
+                        && record.getLevel().intValue()
+                            < discardLevel.intValue())
+                    || !awaitOffer(record)) {
+                if (failed && !closed) {
+                    publishDirect(record);
+                } else {
+                    dropped.incrementAndGet();
+                }
+                return;
+            }
+        }
+        if (closed) {
+            dropLate();
+        } else if (failed) {
+            // the background thread died after the record was queued
+            publishDirect(null);
+        } else {
+            queue.signal(worker);
+        }
+    }
+
+    // Called once the background thread has failed: publish the records
+    // left in the queue, then the given record if any, on the calling
+    // thread.  Records published after close has drained the queue for the
+    // last time are dropped.
+    private void publishDirect(LogRecord record) {
+        synchronized (queue) {
+            if (finished) {
+                if (record != null) {
+                    dropped.incrementAndGet();
+                }
+                return;
+            }
+            LogRecord[] batch = new LogRecord[batchSize];
+            int n;
+            while ((n = queue.drainTo(batch)) > 0) {
+                publishToTarget(batch, n);
+            }
+            if (record != null) {
+                batch[0] = record;
+                publishToTarget(batch, 1);
+            }
+        }
+    }
+
+    // Called when this handler was closed while a record was being queued.
+    // If close has already drained the queue for the last time, the record
+    // would never be published: take it, and any other late record, out of
+    // the queue and count them as dropped.
+    private void dropLate() {
+        synchronized (queue) {
+            if (finished) {
+                LogRecord[] batch = new LogRecord[batchSize];
+                int n;
+                while ((n = queue.drainTo(batch)) > 0) {
+                    dropped.addAndGet(n);
+                }
+            }
+        }
+    }
+
+    // Wait for space in the queue. Returns false if this handler is closed
+    // or the background thread has failed.
+    private boolean awaitOffer(LogRecord record) {
+        do {
+            if (closed || failed) {
+                return false;
+            }
+            queue.signal(worker);
+            LockSupport.parkNanos(this, PARK_NANOS);
+        } while (!queue.offer(record));
+        return true;
+    }
+
+    // Body of the background thread.
+    private void drain() {
+        try {
+            LogRecord[] batch = new LogRecord[batchSize];
+            for (;;) {
+                int n = queue.drainTo(batch);
+                if (n > 0) {
+                    publishToTarget(batch, n);
+                    Arrays.fill(batch, 0, n, null);
+                } else if (closed) {
+                    if (queue.isEmpty()) {
+                        return;
+                    }
+                } else {
+                    queue.await(this);
+                }
+            }
+        } catch (Throwable t) {
+            // hand the queue over to the logging threads
+            failed = true;
+            reportError("AsyncHandler background thread failed: " + t, null,
+                        ErrorManager.GENERIC_FAILURE);
+            throw t;
+        }
+    }
+
+    private void publishToTarget(LogRecord[] batch, int count) {
+        Handler h = target;
+        int n = 0;
+        try {
+            Class<?> c = h.getClass();
+            if (c == StreamHandler.class || c == ConsoleHandler.class
+                    || c == FileHandler.class) {
+                ((StreamHandler) h).publishBatch(batch, count);
+                n = count;
+            } else {
+                while (n < count) {
+                    h.publish(batch[n]);
+                    n++;
+                }
+                h.flush();
+            }
+        } catch (RuntimeException ex) {
+            // We don't want to throw an exception here, but we
+            // report the exception to any registered ErrorManager.
+            reportError(null, ex, ErrorManager.WRITE_FAILURE);
+        } finally {
+            published.addAndGet(n);
+        }
+    }
+
+    /**
+     * Wait until the records queued before this method was invoked have been
+     * published to the target <tt>Handler</tt>, then flush the target.
+     */
+    @Override
+    public void flush() {
+        if (failed) {
+            publishDirect(null);
+            target.flush();
+            return;
+        }
+        long end = queue.tail();
+        boolean interrupted = false;
+        while (queue.head() < end && worker.isAlive()) {
+            queue.signal(worker);
+            LockSupport.parkNanos(this, PARK_NANOS);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        target.flush();
+    }
+
+    /**
+     * Close the <tt>Handler</tt> and free all associated resources.
+     * The records in the queue are published before the target
+     * <tt>Handler</tt> is closed.  Records published concurrently with
+     * this method are either published or dropped, records published after
+     * it has returned are dropped.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        closed = true;
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // publish the records queued after the background thread exited
+        synchronized (queue) {
+            LogRecord[] batch = new LogRecord[batchSize];
+            int n;
+            while ((n = queue.drainTo(batch)) > 0) {
+                publishToTarget(batch, n);
+            }
+            finished = true;
+        }
+        target.close();
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Set the overflow policy.
+     *
+     * @param policy the policy applied when the queue is full
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) throws SecurityException {
+        if (policy == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflowPolicy = policy;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return the policy applied when the queue is full
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the discard level.  When the overflow policy is
+     * {@link OverflowPolicy#DISCARD_BELOW_LEVEL DISCARD_BELOW_LEVEL} and the
+     * queue is full, records whose level is below the discard level are
+     * dropped.
+     *
+     * @param newLevel the new discard level
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setDiscardLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        discardLevel = newLevel;
+    }
+
+    /**
+     * Get the discard level.
+     *
+     * @return the discard level
+     */
+    public Level getDiscardLevel() {
+        return discardLevel;
+    }
+
+    /**
+     * Return the capacity of the queue.
+     *
+     * @return the maximum number of records that may be queued
+     */
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * Return the number of records that are currently queued and have not yet
+     * been published to the target <tt>Handler</tt>.
+     *
+     * @return an estimate of the number of queued records
+     */
+    public int getQueuedCount() {
+        return (int) Math.max(0L, queue.tail() - queue.head());
+    }
+
+    /**
+     * Return the number of records that have been dropped because the queue
+     * was full or this handler was closed.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Return the number of records that have been published to the target
+     * <tt>Handler</tt>.  Records whose publication failed with an exception
+     * reported to the <tt>ErrorManager</tt> are not counted.
+     *
+     * @return the number of published records
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer queue of records.  Each slot
+     * has a sequence number that tells producers whether it is free and the
+     * consumer whether it is full, so that producers only contend on the
+     * CAS of the tail.
+     */
+    private static final class RingBuffer {
+        private final int mask;
+        private final AtomicReferenceArray<LogRecord> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        // written only by the consumer
+        private volatile long head;
+        // true while the consumer is parked, or about to park
+        private volatile boolean waiting;
+
+        RingBuffer(int size) {
+            int capacity = (size == 1) ? 1 : Integer.highestOneBit(size - 1) << 1;
+            mask = capacity - 1;
+            slots = new AtomicReferenceArray<>(capacity);
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        long head() {
+            return head;
+        }
+
+        long tail() {
+            return tail.get();
+        }
+
+        boolean isEmpty() {
+            long h = head;
+            return sequences.get((int) h & mask) != h + 1;
+        }
+
+        // Called by producers. Returns false if the queue is full.
+        boolean offer(LogRecord record) {
+            for (;;) {
+                long t = tail.get();
+                int ix = (int) t & mask;
+                long seq = sequences.get(ix);
+                if (seq == t) {
+                    if (tail.compareAndSet(t, t + 1)) {
+                        slots.lazySet(ix, record);
+                        sequences.set(ix, t + 1);
+                        return true;
+                    }
+                } else if (seq < t) {
+                    return false;       // slot not yet consumed
+                }
+                // else another producer claimed the slot, retry
+            }
+        }
+
+        // Called by the consumer. Returns the number of records moved.
+        int drainTo(LogRecord[] batch) {
+            long h = head;
+            int n = 0;
+            while (n < batch.length) {
+                int ix = (int) h & mask;
+                if (sequences.get(ix) != h + 1) {
+                    break;
+                }
+                batch[n++] = slots.get(ix);
+                slots.lazySet(ix, null);
+                sequences.set(ix, h + mask + 1);
+                h++;
+            }
+            head = h;
+            return n;
+        }
+
+        // Called by producers after a successful offer.
+        void signal(Thread consumer) {
+            if (waiting) {
+                LockSupport.unpark(consumer);
+            }
+        }
+
+        // Called by the consumer when the queue was found empty.
+        void await(Object blocker) {
+            waiting = true;
+            if (isEmpty()) {
+                LockSupport.parkNanos(blocker, PARK_NANOS * 100);
+            }
+            waiting = false;
+        }
+    }
+}
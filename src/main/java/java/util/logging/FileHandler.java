@@ -700,6 +700,26 @@ public class FileHandler extends StreamHandler {
         }
         super.publish(record);
         flush();
+        rotateIfFull();
+    }
+
+    // Flush once per batch rather than once per record.  The limit is only
+    // checked against the bytes that have reached the file, so a batch may
+    // overrun it by the size of the writer's buffer.
+    @Override
+    synchronized void publishBatch(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            LogRecord record = records[i];
+            if (!isLoggable(record)) {
+                continue;
+            }
+            super.publish(record);
+            rotateIfFull();
+        }
+        flush();
+    }
+
+    private void rotateIfFull() {
         if (limit > 0 && meter.written >= limit) {
             // We performed access checks in the "init" method to make sure
             // we are only initialized from trusted code.  So we assume
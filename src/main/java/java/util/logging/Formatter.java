@@ -26,6 +26,11 @@
 
 package java.util.logging;
 
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * A Formatter provides support for formatting LogRecords.
  * <p>
@@ -42,6 +47,14 @@ package java.util.logging;
 
 public abstract class Formatter {
 
+    // number of compiled MessageFormats kept by formatMessage
+    private static final int MESSAGE_FORMAT_CACHE_SIZE = 32;
+
+    // compiled MessageFormats by pattern, guarded by this formatter's lock
+    private Map<String, MessageFormat> messageFormats;
+    // the locale of the cached MessageFormats
+    private Locale messageFormatLocale;
+
     /**
      * Construct a new formatter.
      */
@@ -111,6 +124,24 @@ public abstract class Formatter {
      * @return   a localized and formatted message
      */
     public synchronized String formatMessage(LogRecord record) {
+        // A record published to several handlers is formatted only once.
+        // Subclasses of LogRecord may compute their message, so are not
+        // cached.
+        boolean cacheable = record.getClass() == LogRecord.class;
+        if (cacheable) {
+            String message = record.getFormattedMessage();
+            if (message != null) {
+                return message;
+            }
+        }
+        String message = formatMessage0(record);
+        if (cacheable) {
+            record.setFormattedMessage(message);
+        }
+        return message;
+    }
+
+    private String formatMessage0(LogRecord record) {
         String format = record.getMessage();
         java.util.ResourceBundle catalog = record.getResourceBundle();
         if (catalog != null) {
@@ -135,7 +166,7 @@ public abstract class Formatter {
             // 1 of the first 4 parameters
             if (format.indexOf("{0") >= 0 || format.indexOf("{1") >=0 ||
                         format.indexOf("{2") >=0|| format.indexOf("{3") >=0) {
-                return java.text.MessageFormat.format(format, parameters);
+                return messageFormat(format).format(parameters);
             }
             return format;
 
@@ -144,4 +175,28 @@ public abstract class Formatter {
             return format;
         }
     }
+
+    // Returns a MessageFormat for the given pattern, equivalent to the one
+    // created by MessageFormat.format, reusing a recently compiled one.
+    private MessageFormat messageFormat(String pattern) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (messageFormats == null || !locale.equals(messageFormatLocale)) {
+            messageFormats = new LinkedHashMap<String, MessageFormat>(
+                    MESSAGE_FORMAT_CACHE_SIZE, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, MessageFormat> eldest) {
+                    return size() > MESSAGE_FORMAT_CACHE_SIZE;
+                }
+            };
+            messageFormatLocale = locale;
+        }
+        MessageFormat mf = messageFormats.get(pattern);
+        if (mf == null) {
+            mf = new MessageFormat(pattern, locale);
+            messageFormats.put(pattern, mf);
+        }
+        return mf;
+    }
 }
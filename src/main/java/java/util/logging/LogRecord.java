@@ -140,6 +140,10 @@ public class LogRecord implements java.io.Serializable {
     private transient boolean needToInferCaller;
     private transient Object parameters[];
     private transient ResourceBundle resourceBundle;
+    // The message as localized and formatted by Formatter.formatMessage,
+    // so that a record published to several handlers is formatted once.
+    // Reset whenever the message, parameters or resource bundle change.
+    private transient volatile String formattedMessage;
 
     /**
      * Returns the default value for a new LogRecord's threadID.
@@ -224,6 +228,7 @@ public class LogRecord implements java.io.Serializable {
      */
     public void setResourceBundle(ResourceBundle bundle) {
         resourceBundle = bundle;
+        formattedMessage = null;
     }
 
     /**
@@ -376,6 +381,7 @@ public class LogRecord implements java.io.Serializable {
      */
     public void setMessage(String message) {
         this.message = message;
+        formattedMessage = null;
     }
 
     /**
@@ -395,6 +401,7 @@ public class LogRecord implements java.io.Serializable {
      */
     public void setParameters(Object parameters[]) {
         this.parameters = parameters;
+        formattedMessage = null;
     }
 
     /**
@@ -456,6 +463,20 @@ public class LogRecord implements java.io.Serializable {
         this.thrown = thrown;
     }
 
+    /**
+     * Returns the message cached by Formatter.formatMessage, or null.
+     */
+    String getFormattedMessage() {
+        return formattedMessage;
+    }
+
+    /**
+     * Caches the message formatted by Formatter.formatMessage.
+     */
+    void setFormattedMessage(String formattedMessage) {
+        this.formattedMessage = formattedMessage;
+    }
+
     private static final long serialVersionUID = 5372048053134512534L;
 
     /**
@@ -28,7 +28,11 @@ package java.util.logging;
 
 import java.io.*;
 import java.text.*;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import sun.util.logging.LoggingSupport;
 
 /**
@@ -60,8 +64,125 @@ public class SimpleFormatter extends Formatter {
 
     // format string for printing the log record
     private static final String format = LoggingSupport.getSimpleFormat();
+    // the format string compiled by compile(), or null if it must be passed
+    // to String.format for every record
+    private static final Object[] segments = compile(format);
     private final Date dat = new Date();
 
+    // The text last produced by each date-only run of the compiled format,
+    // and the event time it was produced for.  Many records are typically
+    // logged within the same millisecond.
+    private final String[] runText = new String[runCount(segments)];
+    private final long[] runMillis = new long[runText.length];
+
+    /**
+     * A part of the format string that is formatted by String.format.
+     */
+    private static final class Run {
+        final String format;
+        final int index;            // index into runText
+        final boolean dateOnly;     // only refers to the date argument
+
+        Run(String format, int index, boolean dateOnly) {
+            this.format = format;
+            this.index = index;
+            this.dateOnly = dateOnly;
+        }
+    }
+
+    // Same as the format specifier syntax in java.util.Formatter
+    private static final String SPECIFIER =
+        "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])";
+
+    /**
+     * Compiles the given format string into a sequence of segments: a String
+     * is literal text, an Integer is the index of an argument that is
+     * formatted with the plain %s conversion, and a Run is a part of the
+     * format string that uses other conversions and so is formatted with
+     * String.format.  Returns null if the format string uses implicit or
+     * relative argument indexing, as the arguments of a Run could then not
+     * be determined.
+     */
+    private static Object[] compile(String format) {
+        List<Object> list = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int runStart = -1;
+        int runs = 0;
+        boolean dateOnly = true;
+        int last = 0;
+        Matcher m = Pattern.compile(SPECIFIER).matcher(format);
+        while (m.find()) {
+            String index = m.group(1);
+            String flags = m.group(2);
+            boolean plain = (flags == null || flags.isEmpty())
+                && m.group(3) == null && m.group(4) == null
+                && m.group(5) == null;
+            char conv = m.group(6).charAt(0);
+            if (plain && (conv == 'n' || conv == '%' ||
+                          (conv == 's' && index != null))) {
+                if (runStart >= 0) {
+                    list.add(new Run(format.substring(runStart, m.start()),
+                                     runs++, dateOnly));
+                    runStart = -1;
+                    dateOnly = true;
+                } else {
+                    text.append(format, last, m.start());
+                }
+                if (conv == 'n') {
+                    text.append(System.lineSeparator());
+                } else if (conv == '%') {
+                    text.append('%');
+                } else {
+                    if (text.length() > 0) {
+                        list.add(text.toString());
+                        text.setLength(0);
+                    }
+                    int arg = Integer.parseInt(
+                        index.substring(0, index.length() - 1));
+                    list.add(Integer.valueOf(arg - 1));
+                }
+            } else {
+                if (index == null
+                        || (flags != null && flags.indexOf('<') >= 0)) {
+                    return null;
+                }
+                if (runStart < 0) {
+                    text.append(format, last, m.start());
+                    if (text.length() > 0) {
+                        list.add(text.toString());
+                        text.setLength(0);
+                    }
+                    runStart = m.start();
+                }
+                if (conv != '%' && conv != 'n' && !index.equals("1$")) {
+                    dateOnly = false;
+                }
+            }
+            last = m.end();
+        }
+        if (runStart >= 0) {
+            list.add(new Run(format.substring(runStart), runs, dateOnly));
+        } else {
+            text.append(format, last, format.length());
+            if (text.length() > 0) {
+                list.add(text.toString());
+            }
+        }
+        return list.toArray();
+    }
+
+    private static int runCount(Object[] segments) {
+        int n = 0;
+        if (segments != null) {
+            for (Object seg : segments) {
+                if (seg instanceof Run) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
     /**
      * Format the given LogRecord.
      * <p>
@@ -158,12 +279,41 @@ public class SimpleFormatter extends Formatter {
             pw.close();
             throwable = sw.toString();
         }
-        return String.format(format,
-                             dat,
-                             source,
-                             record.getLoggerName(),
-                             record.getLevel().getLocalizedLevelName(),
-                             message,
-                             throwable);
+        Object[] args = {
+            dat,
+            source,
+            record.getLoggerName(),
+            record.getLevel().getLocalizedLevelName(),
+            message,
+            throwable
+        };
+        if (segments == null) {
+            return String.format(format, args);
+        }
+
+        StringBuilder sb = new StringBuilder(128);
+        for (Object seg : segments) {
+            if (seg instanceof String) {
+                sb.append((String) seg);
+            } else if (seg instanceof Integer) {
+                sb.append(args[(Integer) seg]);
+            } else {
+                Run run = (Run) seg;
+                String text;
+                if (run.dateOnly) {
+                    long millis = record.getMillis();
+                    text = runText[run.index];
+                    if (text == null || runMillis[run.index] != millis) {
+                        text = String.format(run.format, args);
+                        runText[run.index] = text;
+                        runMillis[run.index] = millis;
+                    }
+                } else {
+                    text = String.format(run.format, args);
+                }
+                sb.append(text);
+            }
+        }
+        return sb.toString();
     }
 }
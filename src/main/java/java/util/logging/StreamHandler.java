@@ -229,6 +229,19 @@ public class StreamHandler extends Handler {
         }
     }
 
+    /**
+     * Publish the first <tt>count</tt> records of the given array while
+     * holding this handler's lock once, then flush.  This is invoked by
+     * <tt>AsyncHandler</tt> to write the records it has queued in one batch.
+     * Subclasses that flush after each record override this method to flush
+     * only once per batch.
+     */
+    synchronized void publishBatch(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            publish(records[i]);
+        }
+        flush();
+    }
 
     /**
      * Check if this <tt>Handler</tt> would actually log a given <tt>LogRecord</tt>.
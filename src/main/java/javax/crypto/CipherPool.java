@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javax.crypto;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.ProviderException;
+import sun.security.util.IdlePool;
+
+/**
+ * A thread-safe pool of {@link Cipher} objects for one transformation.
+ *
+ * <p> {@link Cipher#getInstance(String) Cipher.getInstance} parses the
+ * transformation, searches the installed providers and creates a new
+ * implementation object on every call.  An application that encrypts many
+ * small records can instead {@link #borrow borrow} a cipher, initialize it
+ * for the record, and {@link #release release} it:
+ *
+ * <pre>
+ *     Cipher c = pool.borrow();
+ *     try {
+ *         c.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+ *         byte[] sealed = c.doFinal(record);
+ *         ...
+ *     } finally {
+ *         pool.release(c);
+ *     }
+ * </pre>
+ *
+ * <p> Because most modes require a fresh IV for each operation, a borrowed
+ * cipher must always be initialized before use; it may still hold the
+ * state of its previous borrower.  Providers that cache the expanded key,
+ * such as the SunJCE AES implementation, make re-initializing with the
+ * same key inexpensive.  A borrowed cipher is used by one thread at a
+ * time, and should be released only after its operation has completed.
+ * The pool keeps at most {@code maxIdle} idle ciphers; further ciphers are
+ * left to the garbage collector.
+ *
+ * @see Cipher
+ * @see MacPool
+ * @see java.security.MessageDigestPool
+ *
+ * @since 1.8
+ */
+public final class CipherPool {
+
+    private final String transformation;
+    private final Provider provider;
+    private final IdlePool<Cipher> idle;
+
+    /**
+     * Creates a pool of ciphers implementing the given transformation,
+     * obtained from the most preferred provider that supports it.
+     *
+     * @param transformation the name of the transformation, e.g.,
+     * <i>AES/GCM/NoPadding</i>
+     * @param maxIdle the maximum number of idle ciphers kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if the transformation is invalid
+     * or no provider supports it
+     * @exception NoSuchPaddingException if the transformation contains a
+     * padding scheme that is not available
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public CipherPool(String transformation, int maxIdle)
+            throws NoSuchAlgorithmException, NoSuchPaddingException {
+        this(transformation, null, maxIdle);
+    }
+
+    /**
+     * Creates a pool of ciphers implementing the given transformation.
+     * They are obtained from the given provider, or from the most preferred
+     * provider that supports the transformation if {@code provider} is null.
+     *
+     * @param transformation the name of the transformation, e.g.,
+     * <i>AES/GCM/NoPadding</i>
+     * @param provider the provider, or null
+     * @param maxIdle the maximum number of idle ciphers kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if the transformation is invalid
+     * or not available
+     * @exception NoSuchPaddingException if the transformation contains a
+     * padding scheme that is not available
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public CipherPool(String transformation, Provider provider, int maxIdle)
+            throws NoSuchAlgorithmException, NoSuchPaddingException {
+        this.idle = new IdlePool<>(maxIdle);
+        this.transformation = transformation;
+        this.provider = provider;
+        // fail now rather than on the first borrow
+        release(newCipher());
+    }
+
+    private Cipher newCipher()
+            throws NoSuchAlgorithmException, NoSuchPaddingException {
+        return (provider == null) ? Cipher.getInstance(transformation)
+                                  : Cipher.getInstance(transformation,
+                                                       provider);
+    }
+
+    /**
+     * Returns the transformation of this pool's ciphers.
+     *
+     * @return the name of the transformation
+     */
+    public String getTransformation() {
+        return transformation;
+    }
+
+    /**
+     * Takes an idle cipher from this pool, or creates a new one if none is
+     * idle.  The cipher must be initialized before it is used.
+     *
+     * @return a cipher for the exclusive use of the caller
+     *
+     * @exception ProviderException if a new cipher cannot be created
+     */
+    public Cipher borrow() {
+        Cipher c = idle.poll();
+        if (c != null) {
+            return c;
+        }
+        try {
+            return newCipher();
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            // was available when this pool was created
+            throw new ProviderException(e);
+        }
+    }
+
+    /**
+     * Returns the given cipher to this pool.  The caller must not use the
+     * cipher afterwards.
+     *
+     * @param c a cipher obtained from {@link #borrow}
+     *
+     * @exception IllegalArgumentException if {@code c} does not implement
+     * this pool's transformation
+     */
+    public void release(Cipher c) {
+        if (!transformation.equals(c.getAlgorithm())) {
+            throw new IllegalArgumentException("Cipher transformation "
+                + c.getAlgorithm() + " does not match " + transformation);
+        }
+        idle.offer(c);
+    }
+}
@@ -26,6 +26,7 @@
 package javax.crypto;
 
 import java.util.StringTokenizer;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.security.AlgorithmParameters;
 import java.security.Provider;
@@ -737,6 +738,17 @@ public abstract class CipherSpi {
         return Math.min(4096, totalSize);
     }
 
+    // temporary arrays for bufferCrypt, kept so that repeated operations on
+    // buffers without accessible arrays do not allocate; they are zeroed
+    // after each use since they may hold plaintext
+    private byte[] tempIn;
+    private byte[] tempOut;
+
+    private static byte[] tempArray(byte[] cached, int size) {
+        return (cached != null && cached.length >= size) ? cached
+                                                         : new byte[size];
+    }
+
     /**
      * Implementation for encryption using ByteBuffers. Used for both
      * engineUpdate() and engineDoFinal().
@@ -782,23 +794,27 @@ public abstract class CipherSpi {
             int outPos = output.position();
             byte[] outArray = output.array();
             int outOfs = output.arrayOffset() + outPos;
-            byte[] inArray = new byte[getTempArraySize(inLen)];
+            byte[] inArray = tempIn = tempArray(tempIn, getTempArraySize(inLen));
             int total = 0;
-            do {
-                int chunk = Math.min(inLen, inArray.length);
-                if (chunk > 0) {
-                    input.get(inArray, 0, chunk);
-                }
-                int n;
-                if (isUpdate || (inLen != chunk)) {
-                    n = engineUpdate(inArray, 0, chunk, outArray, outOfs);
-                } else {
-                    n = engineDoFinal(inArray, 0, chunk, outArray, outOfs);
-                }
-                total += n;
-                outOfs += n;
-                inLen -= chunk;
-            } while (inLen > 0);
+            try {
+                do {
+                    int chunk = Math.min(inLen, inArray.length);
+                    if (chunk > 0) {
+                        input.get(inArray, 0, chunk);
+                    }
+                    int n;
+                    if (isUpdate || (inLen != chunk)) {
+                        n = engineUpdate(inArray, 0, chunk, outArray, outOfs);
+                    } else {
+                        n = engineDoFinal(inArray, 0, chunk, outArray, outOfs);
+                    }
+                    total += n;
+                    outOfs += n;
+                    inLen -= chunk;
+                } while (inLen > 0);
+            } finally {
+                Arrays.fill(inArray, (byte)0);
+            }
             output.position(outPos + total);
             return total;
         } else { // output is not backed by an accessible byte[]
@@ -808,47 +824,63 @@ public abstract class CipherSpi {
                 inArray = input.array();
                 inOfs = input.arrayOffset() + inPos;
             } else {
-                inArray = new byte[getTempArraySize(inLen)];
+                inArray = tempIn = tempArray(tempIn, getTempArraySize(inLen));
                 inOfs = 0;
             }
-            byte[] outArray = new byte[getTempArraySize(outLenNeeded)];
+            byte[] outArray = tempOut =
+                tempArray(tempOut, getTempArraySize(outLenNeeded));
             int outSize = outArray.length;
             int total = 0;
             boolean resized = false;
-            do {
-                int chunk =
-                    Math.min(inLen, (outSize == 0? inArray.length : outSize));
-                if (!a1 && !resized && chunk > 0) {
-                    input.get(inArray, 0, chunk);
-                    inOfs = 0;
-                }
-                try {
-                    int n;
-                    if (isUpdate || (inLen != chunk)) {
-                        n = engineUpdate(inArray, inOfs, chunk, outArray, 0);
-                    } else {
-                        n = engineDoFinal(inArray, inOfs, chunk, outArray, 0);
-                    }
-                    resized = false;
-                    inOfs += chunk;
-                    inLen -= chunk;
-                    if (n > 0) {
-                        output.put(outArray, 0, n);
-                        total += n;
+            int chunk = 0;
+            try {
+                do {
+                    // after a resize, retry the chunk already taken
+                    if (!resized) {
+                        chunk = Math.min(inLen,
+                            (outSize == 0? inArray.length : outSize));
+                        if (!a1) {
+                            chunk = Math.min(chunk, inArray.length);
+                            if (chunk > 0) {
+                                input.get(inArray, 0, chunk);
+                            }
+                            inOfs = 0;
+                        }
                     }
-                } catch (ShortBufferException e) {
-                    if (resized) {
-                        // we just resized the output buffer, but it still
-                        // did not work. Bug in the provider, abort
-                        throw (ProviderException)new ProviderException
-                            ("Could not determine buffer size").initCause(e);
+                    try {
+                        int n;
+                        if (isUpdate || (inLen != chunk)) {
+                            n = engineUpdate(inArray, inOfs, chunk, outArray, 0);
+                        } else {
+                            n = engineDoFinal(inArray, inOfs, chunk, outArray, 0);
+                        }
+                        resized = false;
+                        inOfs += chunk;
+                        inLen -= chunk;
+                        if (n > 0) {
+                            output.put(outArray, 0, n);
+                            total += n;
+                        }
+                    } catch (ShortBufferException e) {
+                        if (resized) {
+                            // we just resized the output buffer, but it still
+                            // did not work. Bug in the provider, abort
+                            throw (ProviderException)new ProviderException
+                                ("Could not determine buffer size").initCause(e);
+                        }
+                        // output buffer is too small, realloc and try again
+                        resized = true;
+                        outSize = engineGetOutputSize(chunk);
+                        Arrays.fill(outArray, (byte)0);
+                        outArray = tempOut = new byte[outSize];
                     }
-                    // output buffer is too small, realloc and try again
-                    resized = true;
-                    outSize = engineGetOutputSize(chunk);
-                    outArray = new byte[outSize];
+                } while (inLen > 0);
+            } finally {
+                if (!a1) {
+                    Arrays.fill(inArray, (byte)0);
                 }
-            } while (inLen > 0);
+                Arrays.fill(outArray, (byte)0);
+            }
             if (a1) {
                 input.position(inLimit);
             }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javax.crypto;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.ProviderException;
+import sun.security.util.IdlePool;
+
+/**
+ * A thread-safe pool of {@link Mac} objects for one algorithm and key.
+ *
+ * <p> Every {@code Mac} handed out by {@link #borrow borrow} has already
+ * been initialized with the pool's key, so the provider search and the
+ * key setup (for HMAC, the inner and outer pads) are paid once per pooled
+ * object rather than once per message:
+ *
+ * <pre>
+ *     Mac mac = pool.borrow();
+ *     try {
+ *         byte[] tag = mac.doFinal(record);
+ *         ...
+ *     } finally {
+ *         pool.release(mac);
+ *     }
+ * </pre>
+ *
+ * <p> A borrowed {@code Mac} is used by one thread at a time.  It is reset
+ * when it is released, and the pool keeps at most {@code maxIdle} idle
+ * objects; further objects are left to the garbage collector.
+ *
+ * @see Mac
+ * @see CipherPool
+ * @see java.security.MessageDigestPool
+ *
+ * @since 1.8
+ */
+public final class MacPool {
+
+    private final String algorithm;
+    private final Key key;
+    private final Provider provider;
+    private final IdlePool<Mac> idle;
+
+    /**
+     * Creates a pool of {@code Mac} objects implementing the given
+     * algorithm, initialized with the given key and obtained from the most
+     * preferred provider that supports the algorithm.
+     *
+     * @param algorithm the standard name of the requested MAC algorithm
+     * @param key the key with which each {@code Mac} is initialized
+     * @param maxIdle the maximum number of idle objects kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if no provider supports
+     * the specified algorithm
+     * @exception InvalidKeyException if the key is inappropriate for
+     * initializing the MAC
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public MacPool(String algorithm, Key key, int maxIdle)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        this(algorithm, key, null, maxIdle);
+    }
+
+    /**
+     * Creates a pool of {@code Mac} objects implementing the given
+     * algorithm, initialized with the given key.  They are obtained from
+     * the given provider, or from the most preferred provider that supports
+     * the algorithm if {@code provider} is null.
+     *
+     * @param algorithm the standard name of the requested MAC algorithm
+     * @param key the key with which each {@code Mac} is initialized
+     * @param provider the provider, or null
+     * @param maxIdle the maximum number of idle objects kept by the pool
+     *
+     * @exception NoSuchAlgorithmException if the algorithm is not available
+     * @exception InvalidKeyException if the key is inappropriate for
+     * initializing the MAC
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public MacPool(String algorithm, Key key, Provider provider, int maxIdle)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        this.idle = new IdlePool<>(maxIdle);
+        this.algorithm = algorithm;
+        this.key = key;
+        this.provider = provider;
+        // fail now rather than on the first borrow
+        release(newMac());
+    }
+
+    private Mac newMac() throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac mac = (provider == null) ? Mac.getInstance(algorithm)
+                                     : Mac.getInstance(algorithm, provider);
+        mac.init(key);
+        return mac;
+    }
+
+    /**
+     * Returns the name of the algorithm of this pool's objects.
+     *
+     * @return the name of the algorithm
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Takes an idle {@code Mac} from this pool, or creates a new one if none
+     * is idle.  The {@code Mac} is initialized with the pool's key and holds
+     * no data.
+     *
+     * @return a {@code Mac} for the exclusive use of the caller
+     *
+     * @exception ProviderException if a new {@code Mac} cannot be created
+     */
+    public Mac borrow() {
+        Mac mac = idle.poll();
+        if (mac != null) {
+            return mac;
+        }
+        try {
+            return newMac();
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            // worked when this pool was created
+            throw new ProviderException(e);
+        }
+    }
+
+    /**
+     * Resets the given {@code Mac} and returns it to this pool.  The caller
+     * must not use it afterwards, and must not have initialized it with a
+     * different key.
+     *
+     * @param mac a {@code Mac} obtained from {@link #borrow}
+     *
+     * @exception IllegalArgumentException if {@code mac} does not implement
+     * this pool's algorithm
+     */
+    public void release(Mac mac) {
+        if (!algorithm.equals(mac.getAlgorithm())) {
+            throw new IllegalArgumentException("MAC algorithm "
+                + mac.getAlgorithm() + " does not match " + algorithm);
+        }
+        mac.reset();
+        idle.offer(mac);
+    }
+}
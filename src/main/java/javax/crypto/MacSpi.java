@@ -29,6 +29,7 @@ import java.security.*;
 import java.security.spec.*;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * This class defines the <i>Service Provider Interface</i> (<b>SPI</b>)
@@ -46,6 +47,9 @@ import java.nio.ByteBuffer;
 
 public abstract class MacSpi {
 
+    // for re-use in engineUpdate(ByteBuffer input)
+    private byte[] tempArray;
+
     /**
      * Returns the length of the MAC in bytes.
      *
@@ -111,12 +115,20 @@ public abstract class MacSpi {
             input.position(lim);
         } else {
             int len = input.remaining();
-            byte[] b = new byte[CipherSpi.getTempArraySize(len)];
-            while (len > 0) {
-                int chunk = Math.min(len, b.length);
-                input.get(b, 0, chunk);
-                engineUpdate(b, 0, chunk);
-                len -= chunk;
+            int n = CipherSpi.getTempArraySize(len);
+            if ((tempArray == null) || (n > tempArray.length)) {
+                tempArray = new byte[n];
+            }
+            int used = Math.min(len, tempArray.length);
+            try {
+                while (len > 0) {
+                    int chunk = Math.min(len, tempArray.length);
+                    input.get(tempArray, 0, chunk);
+                    engineUpdate(tempArray, 0, chunk);
+                    len -= chunk;
+                }
+            } finally {
+                Arrays.fill(tempArray, 0, used, (byte)0);
             }
         }
     }
@@ -145,7 +157,10 @@ public abstract class MacSpi {
      */
     public Object clone() throws CloneNotSupportedException {
         if (this instanceof Cloneable) {
-            return super.clone();
+            MacSpi copy = (MacSpi) super.clone();
+            // the clone must not share the temporary array
+            copy.tempArray = null;
+            return copy;
         } else {
             throw new CloneNotSupportedException();
         }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javax.xml.parsers;
+
+/**
+ * <p>A thread-safe pool of {@link DocumentBuilder}s created by one
+ * {@link DocumentBuilderFactory}.</p>
+ *
+ * <p>Every call to {@link DocumentBuilderFactory#newDocumentBuilder()}
+ * builds a new parser, together with its scanners, symbol table, entity
+ * manager and validators.  Applications that parse many small documents
+ * from many threads can instead {@link #borrow borrow} a builder from a
+ * pool, use it, and {@link #release release} it back:</p>
+ *
+ * <pre>
+ *     DocumentBuilder builder = pool.borrow();
+ *     try {
+ *         Document doc = builder.parse(in);
+ *         ...
+ *     } finally {
+ *         pool.release(builder);
+ *     }
+ * </pre>
+ *
+ * <p>A borrowed builder is used by one thread at a time, like any other
+ * <code>DocumentBuilder</code>.  Builders are
+ * {@link DocumentBuilder#reset() reset} when they are released, and the
+ * pool keeps at most <code>maxIdle</code> of them; further builders are
+ * left to the garbage collector.</p>
+ *
+ * <p>New builders are created from the factory while holding its lock.
+ * The factory should not be reconfigured once the pool is in use, or the
+ * pool will hold builders with different configurations.  To share the
+ * XML Schema grammars loaded by the pooled builders, set a
+ * {@link javax.xml.validation.Schema} on the factory, or enable the
+ * implementation's grammar caching feature if it has one.</p>
+ *
+ * @see DocumentBuilderFactory#newDocumentBuilder()
+ * @see DocumentBuilder#reset()
+ *
+ * @since 1.8
+ */
+public final class DocumentBuilderPool {
+
+    private final DocumentBuilderFactory factory;
+    private final IdlePool<DocumentBuilder> idle;
+
+    /**
+     * Creates a pool of builders configured by the given factory.
+     *
+     * @param factory the factory that creates the builders
+     * @param maxIdle the maximum number of idle builders kept by the pool
+     *
+     * @throws ParserConfigurationException if the factory cannot create a
+     *   builder with its current configuration
+     * @throws UnsupportedOperationException if the factory's builders do not
+     *   support {@link DocumentBuilder#reset()}
+     * @throws IllegalArgumentException if <code>maxIdle</code> is negative
+     * @throws NullPointerException if <code>factory</code> is null
+     */
+    public DocumentBuilderPool(DocumentBuilderFactory factory, int maxIdle)
+            throws ParserConfigurationException {
+        if (factory == null) {
+            throw new NullPointerException("factory is null");
+        }
+        this.idle = new IdlePool<>(maxIdle);
+        this.factory = factory;
+        // fail now rather than on the first borrow
+        release(create());
+    }
+
+    private DocumentBuilder create() throws ParserConfigurationException {
+        // factories are not thread-safe
+        synchronized (factory) {
+            return factory.newDocumentBuilder();
+        }
+    }
+
+    /**
+     * Takes an idle builder from this pool, or creates a new one if none is
+     * idle.  The builder is in the state in which the factory created it.
+     *
+     * @return a builder for the exclusive use of the caller
+     *
+     * @throws IllegalStateException if a new builder cannot be created,
+     *   because the factory was reconfigured since this pool was created
+     */
+    public DocumentBuilder borrow() {
+        DocumentBuilder builder = idle.poll();
+        if (builder != null) {
+            return builder;
+        }
+        try {
+            return create();
+        } catch (ParserConfigurationException e) {
+            // the factory was changed after this pool was created
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resets the given builder and returns it to this pool.  The caller must
+     * not use the builder afterwards.
+     *
+     * @param builder a builder obtained from {@link #borrow}
+     */
+    public void release(DocumentBuilder builder) {
+        builder.reset();
+        idle.offer(builder);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javax.xml.parsers;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A bounded, thread-safe stack of idle parsers, shared by
+ * {@link DocumentBuilderPool} and {@link SAXParserPool}.  Parsers are taken
+ * most recently released first, so that a lightly used pool keeps handing
+ * out the same parsers.</p>
+ *
+ * <p>It is package private and therefore is not exposed as part of the
+ * JAXP API.</p>
+ */
+final class IdlePool<T> {
+
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param maxIdle the maximum number of idle parsers kept by the pool
+     *
+     * @throws IllegalArgumentException if <code>maxIdle</code> is negative
+     */
+    IdlePool(int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("maxIdle must not be negative");
+        }
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes the most recently released idle parser, or returns null if none
+     * is idle.
+     */
+    T poll() {
+        T parser = idle.pollFirst();
+        if (parser != null) {
+            idleCount.decrementAndGet();
+        }
+        return parser;
+    }
+
+    /**
+     * Adds an idle parser, unless the pool already holds <code>maxIdle</code>
+     * of them, in which case it is left to the garbage collector.
+     */
+    void offer(T parser) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(parser);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javax.xml.parsers;
+
+import org.xml.sax.SAXException;
+
+/**
+ * <p>A thread-safe pool of {@link SAXParser}s created by one
+ * {@link SAXParserFactory}.</p>
+ *
+ * <p>Every call to {@link SAXParserFactory#newSAXParser()} builds a new
+ * parser, together with its scanners, symbol table, entity manager and
+ * validators.  Applications that parse many small documents from many
+ * threads can instead {@link #borrow borrow} a parser from a pool, use it,
+ * and {@link #release release} it back:</p>
+ *
+ * <pre>
+ *     SAXParser parser = pool.borrow();
+ *     try {
+ *         parser.parse(in, handler);
+ *     } finally {
+ *         pool.release(parser);
+ *     }
+ * </pre>
+ *
+ * <p>A borrowed parser is used by one thread at a time, like any other
+ * <code>SAXParser</code>.  Parsers are {@link SAXParser#reset() reset}
+ * when they are released, and the pool keeps at most <code>maxIdle</code>
+ * of them; further parsers are left to the garbage collector.</p>
+ *
+ * <p>New parsers are created from the factory while holding its lock.
+ * The factory should not be reconfigured once the pool is in use, or the
+ * pool will hold parsers with different configurations.  To share the
+ * XML Schema grammars loaded by the pooled parsers, set a
+ * {@link javax.xml.validation.Schema} on the factory, or enable the
+ * implementation's grammar caching feature if it has one.</p>
+ *
+ * @see SAXParserFactory#newSAXParser()
+ * @see SAXParser#reset()
+ *
+ * @since 1.8
+ */
+public final class SAXParserPool {
+
+    private final SAXParserFactory factory;
+    private final IdlePool<SAXParser> idle;
+
+    /**
+     * Creates a pool of parsers configured by the given factory.
+     *
+     * @param factory the factory that creates the parsers
+     * @param maxIdle the maximum number of idle parsers kept by the pool
+     *
+     * @throws ParserConfigurationException if the factory cannot create a
+     *   parser with its current configuration
+     * @throws UnsupportedOperationException if the factory's parsers do not
+     *   support {@link SAXParser#reset()}
+     * @throws IllegalArgumentException if <code>maxIdle</code> is negative
+     * @throws NullPointerException if <code>factory</code> is null
+     */
+    public SAXParserPool(SAXParserFactory factory, int maxIdle)
+            throws ParserConfigurationException {
+        if (factory == null) {
+            throw new NullPointerException("factory is null");
+        }
+        this.idle = new IdlePool<>(maxIdle);
+        this.factory = factory;
+        // fail now rather than on the first borrow
+        release(create());
+    }
+
+    private SAXParser create() throws ParserConfigurationException {
+        // factories are not thread-safe
+        synchronized (factory) {
+            try {
+                return factory.newSAXParser();
+            } catch (SAXException e) {
+                ParserConfigurationException pce =
+                    new ParserConfigurationException(e.getMessage());
+                pce.initCause(e);
+                throw pce;
+            }
+        }
+    }
+
+    /**
+     * Takes an idle parser from this pool, or creates a new one if none is
+     * idle.  The parser is in the state in which the factory created it.
+     *
+     * @return a parser for the exclusive use of the caller
+     *
+     * @throws IllegalStateException if a new parser cannot be created,
+     *   because the factory was reconfigured since this pool was created
+     */
+    public SAXParser borrow() {
+        SAXParser parser = idle.poll();
+        if (parser != null) {
+            return parser;
+        }
+        try {
+            return create();
+        } catch (ParserConfigurationException e) {
+            // the factory was changed after this pool was created
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resets the given parser and returns it to this pool.  The caller must
+     * not use the parser afterwards.
+     *
+     * @param parser a parser obtained from {@link #borrow}
+     */
+    public void release(SAXParser parser) {
+        parser.reset();
+        idle.offer(parser);
+    }
+}
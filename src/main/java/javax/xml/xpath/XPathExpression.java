@@ -25,8 +25,11 @@
 
 package javax.xml.xpath;
 
+import java.util.function.Consumer;
+import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * <p><code>XPathExpression</code> provides access to compiled XPath expressions.</p>
@@ -197,4 +200,36 @@ public interface XPathExpression {
      */
     public String evaluate(InputSource source)
         throws XPathExpressionException;
+
+    /**
+     * <p>Evaluate the compiled XPath expression over the document read by the
+     * specified <code>XMLStreamReader</code> and pass each selected node to
+     * <code>action</code>, in document order, as soon as it is complete.</p>
+     *
+     * <p>Unlike {@link #evaluate(InputSource source, QName returnType)}, no data
+     * model is built for the whole document. An implementation may therefore
+     * accept only expressions that can be answered in a single forward pass,
+     * such as <code>/feed/entry[@type='a']/id</code>, and reports any other
+     * expression with an <code>XPathExpressionException</code>. A selected
+     * element is passed as a node that holds its complete subtree.</p>
+     *
+     * <p>The default implementation throws
+     * <code>UnsupportedOperationException</code>.</p>
+     *
+     * @param reader The reader, positioned at START_DOCUMENT.
+     * @param action The callback that receives each selected node.
+     *
+     * @throws XPathExpressionException If the expression cannot be evaluated
+     * over a stream, or the document cannot be read.
+     * @throws IllegalStateException If <code>reader</code> is not positioned at
+     * START_DOCUMENT.
+     * @throws NullPointerException If <code>reader</code> or <code>action</code>
+     * is <code>null</code>.
+     * @throws UnsupportedOperationException If the implementation does not
+     * support streaming evaluation.
+     */
+    default void evaluate(XMLStreamReader reader, Consumer<? super Node> action)
+        throws XPathExpressionException {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking I/O on the non-blocking channels of a {@link ReactorHttpServer}.
+ * Exchanges read request bodies and write responses from their own thread
+ * while the channel stays in non-blocking mode; when an operation cannot
+ * make progress the thread waits on a selector of its own, so that the
+ * channel never has to leave its event loop.
+ */
+final class ChannelIO {
+
+    private ChannelIO() { }
+
+    private static final ThreadLocal<Selector> selectors =
+        new ThreadLocal<Selector>();
+
+    private static Selector selector() throws IOException {
+        Selector sel = selectors.get();
+        if (sel == null || !sel.isOpen()) {
+            sel = Selector.open();
+            selectors.set(sel);
+        }
+        return sel;
+    }
+
+    /**
+     * Reads at least one byte into the buffer, waiting for up to
+     * {@code timeout} milliseconds (or forever if not positive) for input.
+     * Returns the number of bytes read, or -1 at end of stream.
+     */
+    static int read(SocketChannel ch, ByteBuffer dst, long timeout)
+        throws IOException
+    {
+        int n;
+        while ((n = ch.read(dst)) == 0)
+            await(ch, SelectionKey.OP_READ, timeout);
+        return n;
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer.
+     */
+    static void write(SocketChannel ch, ByteBuffer src, long timeout)
+        throws IOException
+    {
+        while (src.hasRemaining()) {
+            if (ch.write(src) == 0)
+                await(ch, SelectionKey.OP_WRITE, timeout);
+        }
+    }
+
+    /**
+     * Transfers {@code count} bytes of a file, starting at {@code position},
+     * to the channel.
+     */
+    static void transfer(FileChannel fc, long position, long count,
+                         SocketChannel ch, long timeout)
+        throws IOException
+    {
+        while (count > 0) {
+            long n = fc.transferTo(position, count, ch);
+            if (n > 0) {
+                position += n;
+                count -= n;
+            } else if (position >= fc.size()) {
+                throw new EOFException("file truncated");
+            } else {
+                await(ch, SelectionKey.OP_WRITE, timeout);
+            }
+        }
+    }
+
+    private static void await(SocketChannel ch, int ops, long timeout)
+        throws IOException
+    {
+        Selector sel = selector();
+        SelectionKey key = ch.register(sel, ops);
+        try {
+            if (timeout <= 0) {
+                sel.select();
+            } else if (sel.select(timeout) == 0) {
+                throw new SocketTimeoutException("exchange timed out");
+            }
+        } finally {
+            key.cancel();
+            sel.selectNow();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * A connection accepted by a {@link ReactorHttpServer}.
+ *
+ * <p> Between exchanges the connection is owned by its {@link EventLoop},
+ * which reads into the input buffer without blocking until a complete
+ * request head is available. The connection is then taken out of the
+ * loop's interest set and owned by the exchange, which reads any request
+ * body that follows from the same buffer, until the exchange hands it
+ * back. The input buffer is kept in read mode (its position is the next
+ * unread byte) and is only held while there is unread input or an
+ * exchange in progress.
+ */
+final class Connection {
+
+    private final ReactorHttpServer server;
+    private final EventLoop loop;
+    private final SocketChannel ch;
+    private final BufferPool pool;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private SelectionKey key;
+    private ByteBuffer in;
+    private volatile boolean inExchange;
+    private volatile long lastActive;
+
+    Connection(ReactorHttpServer server, EventLoop loop, SocketChannel ch) {
+        this.server = server;
+        this.loop = loop;
+        this.ch = ch;
+        this.pool = server.bufferPool();
+        this.lastActive = System.currentTimeMillis();
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    SocketChannel channel() {
+        return ch;
+    }
+
+    BufferPool bufferPool() {
+        return pool;
+    }
+
+    boolean isIdle() {
+        return !inExchange;
+    }
+
+    long lastActive() {
+        return lastActive;
+    }
+
+    /**
+     * Records that the exchange in progress has read or written the
+     * connection.
+     */
+    void touch() {
+        lastActive = System.currentTimeMillis();
+    }
+
+    // -- event loop side --
+
+    /**
+     * Invoked by the event loop when the channel is readable.
+     */
+    void onReadable() {
+        if (in == null) {
+            in = pool.acquire();
+            in.flip();
+        }
+        int n;
+        try {
+            in.compact();
+            n = ch.read(in);
+        } catch (IOException x) {
+            n = -1;
+        } finally {
+            in.flip();
+        }
+        if (n < 0) {
+            close();
+            return;
+        }
+        lastActive = System.currentTimeMillis();
+        processInput();
+    }
+
+    /**
+     * Invoked on the event loop when an exchange has handed the connection
+     * back. Requests pipelined behind the completed one are already in the
+     * input buffer and are processed straight away.
+     */
+    void resume() {
+        if (closed.get())
+            return;
+        inExchange = false;
+        lastActive = System.currentTimeMillis();
+        if (server.isTerminating()) {
+            close();
+        } else if (in != null && in.hasRemaining()) {
+            processInput();
+        } else {
+            releaseInput();
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void processInput() {
+        int end = Request.headEnd(in);
+        if (end < 0) {
+            if (in.remaining() == in.capacity()) {
+                reject(431, "Request Header Fields Too Large");
+                return;
+            }
+            if (!in.hasRemaining())
+                releaseInput();
+            key.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+
+        Request request;
+        try {
+            request = Request.parse(in, end);
+        } catch (ProtocolException x) {
+            reject(400, "Bad Request");
+            return;
+        }
+        ContextImpl context = server.findContext(request.uri.getPath() == null
+                                                 ? "/" : request.uri.getPath());
+        if (context == null) {
+            reject(404, "No context found for request");
+            return;
+        }
+        if (server.isTerminating()) {
+            close();
+            return;
+        }
+        key.interestOps(0);
+        inExchange = true;
+        server.dispatch(new ExchangeImpl(server, this, context, request));
+    }
+
+    /**
+     * Sends a minimal error response, without blocking, and closes the
+     * connection.
+     */
+    private void reject(int code, String msg) {
+        String rsp = "HTTP/1.1 " + code + " " + ExchangeImpl.reason(code) + "\r\n"
+            + "Content-length: " + (msg.length() + 1) + "\r\n"
+            + "Connection: close\r\n\r\n"
+            + msg + "\n";
+        try {
+            ch.write(ByteBuffer.wrap(rsp.getBytes(StandardCharsets.ISO_8859_1)));
+        } catch (IOException ignore) { }
+        close();
+    }
+
+    // -- exchange side --
+
+    /**
+     * Returns the input buffer, acquiring an empty one if none is held.
+     */
+    ByteBuffer input() {
+        if (in == null) {
+            in = pool.acquire();
+            in.flip();
+        }
+        return in;
+    }
+
+    /**
+     * Reads more input into the input buffer, blocking if none is
+     * available. Returns the number of bytes read, or -1 at end of stream.
+     */
+    int fill() throws IOException {
+        ByteBuffer buf = input();
+        buf.compact();
+        try {
+            return ChannelIO.read(ch, buf, server.maxRequestTime());
+        } finally {
+            buf.flip();
+            touch();
+        }
+    }
+
+    /**
+     * Invoked by an exchange when it has completed. If {@code reuse} is
+     * true the connection is handed back to its event loop, otherwise it
+     * is closed.
+     */
+    void exchangeDone(boolean reuse) {
+        if (reuse && !closed.get()) {
+            loop.resume(this);
+        } else {
+            inExchange = false;
+            close();
+        }
+    }
+
+    /**
+     * Closes the connection. If an exchange is in progress its input
+     * buffer is left to it, and released when the exchange completes.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            if (key != null)
+                key.cancel();
+            ReactorHttpServer.closeQuietly(ch);
+            if (loop.inLoop()) {
+                loop.removed(this);
+            } else {
+                loop.execute(() -> loop.removed(this));
+            }
+            ReactorHttpServer.logger.log(Level.FINEST, "connection closed");
+        }
+        if (!inExchange)
+            releaseInput();
+    }
+
+    private synchronized void releaseInput() {
+        if (in != null) {
+            pool.release(in);
+            in = null;
+        }
+    }
+}
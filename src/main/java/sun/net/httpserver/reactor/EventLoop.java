@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * A selector thread of a {@link ReactorHttpServer}. Each loop owns the
+ * connections registered with it; their state is only touched by the loop
+ * thread, except while an exchange is in progress, in which case the
+ * connection belongs to the exchange until it is {@linkplain #resume
+ * handed back}.
+ */
+final class EventLoop implements Runnable {
+
+    private static final long SELECT_TIMEOUT = 1000L;
+
+    private final ReactorHttpServer server;
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Runnable> tasks =
+        new ConcurrentLinkedQueue<>();
+    private final Set<Connection> connections = new HashSet<>();
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    EventLoop(ReactorHttpServer server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    void start(Thread t) {
+        thread = t;
+        t.start();
+    }
+
+    void join() throws InterruptedException {
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread())
+            t.join();
+    }
+
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Runs a task on the loop thread, after the keys selected in the
+     * current iteration have been processed.
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (!inLoop())
+            selector.wakeup();
+    }
+
+    /**
+     * Adds a newly accepted channel to this loop.
+     */
+    void register(SocketChannel ch) {
+        execute(() -> {
+            if (closed) {
+                ReactorHttpServer.closeQuietly(ch);
+                return;
+            }
+            try {
+                Connection conn = new Connection(server, this, ch);
+                conn.setKey(ch.register(selector, SelectionKey.OP_READ, conn));
+                connections.add(conn);
+            } catch (ClosedChannelException x) {
+                ReactorHttpServer.closeQuietly(ch);
+            }
+        });
+    }
+
+    /**
+     * Hands a connection back to this loop once its exchange has completed.
+     */
+    void resume(Connection conn) {
+        execute(conn::resume);
+    }
+
+    void removed(Connection conn) {
+        connections.remove(conn);
+    }
+
+    /**
+     * Closes the loop and all of its connections. The loop thread exits
+     * at its next iteration.
+     */
+    void close() {
+        closed = true;
+        if (thread == null) {
+            ReactorHttpServer.closeQuietly(selector);
+        } else {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        long lastSweep = System.currentTimeMillis();
+        try {
+            while (!closed) {
+                selector.select(SELECT_TIMEOUT);
+                Set<SelectionKey> selected = selector.selectedKeys();
+                Iterator<SelectionKey> it = selected.iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Connection conn = (Connection)key.attachment();
+                    if (key.isValid() && key.isReadable())
+                        conn.onReadable();
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException x) {
+                        ReactorHttpServer.logger.log(Level.WARNING,
+                            "unexpected exception in event loop", x);
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastSweep >= SELECT_TIMEOUT) {
+                    lastSweep = now;
+                    closeIdle(now);
+                }
+            }
+        } catch (IOException x) {
+            ReactorHttpServer.logger.log(Level.WARNING, "event loop failed", x);
+        } finally {
+            List<Connection> all = new ArrayList<>(connections);
+            for (Connection conn : all)
+                conn.close();
+            connections.clear();
+            ReactorHttpServer.closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Closes the connections that have been idle for longer than the idle
+     * interval, and those whose exchange has not read or written them for
+     * longer than the maximum exchange idle time. The latter are usually
+     * exchanges that a handler never closed; a handler that is still
+     * running finds its connection closed at its next read or write.
+     */
+    private void closeIdle(long now) {
+        long interval = server.idleInterval();
+        long exchangeIdle = server.maxExchangeIdle();
+        List<Connection> expired = null;
+        for (Connection conn : connections) {
+            long idle = now - conn.lastActive();
+            if (conn.isIdle() ? idle > interval
+                              : exchangeIdle > 0 && idle > exchangeIdle) {
+                if (expired == null)
+                    expired = new ArrayList<>();
+                expired.add(conn);
+            }
+        }
+        if (expired != null) {
+            for (Connection conn : expired)
+                conn.close();
+        }
+    }
+}
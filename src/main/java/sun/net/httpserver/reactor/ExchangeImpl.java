@@ -0,0 +1,922 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * An exchange of a {@link ReactorHttpServer}. The exchange owns its
+ * connection from the time it is dispatched until its response has been
+ * sent and its request body consumed, at which point the connection is
+ * handed back to its event loop, or closed.
+ *
+ * <p> The response is written through a direct buffer taken from the
+ * server's pool; the status line and headers are written to it by
+ * {@link #sendResponseHeaders sendResponseHeaders} and go out with the
+ * first part of the body, or when the exchange completes.
+ */
+final class ExchangeImpl extends HttpExchange implements Runnable {
+
+    /*
+     * The maximum number of unread request body bytes that are discarded
+     * to keep a connection open once the response has been sent. Larger
+     * bodies cause the connection to be closed instead.
+     */
+    private static final long MAX_DRAIN = 1024 * 1024;
+
+    /*
+     * The number of bytes of a file transferred between updates of the
+     * connection's last activity time.
+     */
+    private static final long TRANSFER_STEP = 1024 * 1024;
+
+    private final ReactorHttpServer server;
+    private final Connection conn;
+    private final ContextImpl context;
+    private final Request request;
+    private final Headers rspHeaders = new Headers();
+    private final RequestBody reqBody;
+    private final ResponseBody rspBody = new ResponseBody();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final long timeout;
+
+    private InputStream userIn;
+    private OutputStream userOut;
+    private Map<String,Object> attributes;
+    private HttpPrincipal principal;
+    private ByteBuffer out;
+    private OutputStream body;
+    private boolean sentHeaders;
+    private boolean closeAfter;
+    private int rCode = -1;
+
+    ExchangeImpl(ReactorHttpServer server, Connection conn,
+                 ContextImpl context, Request request)
+    {
+        this.server = server;
+        this.conn = conn;
+        this.context = context;
+        this.request = request;
+        this.timeout = server.maxRequestTime();
+        this.closeAfter = request.wantsClose();
+
+        Headers h = request.headers;
+        String te = h.getFirst("Transfer-encoding");
+        String cl = h.getFirst("Content-length");
+        if (te != null && te.equalsIgnoreCase("chunked")) {
+            reqBody = new ChunkedInputStream();
+        } else if (te != null) {
+            closeAfter = true;
+            reqBody = new FixedLengthInputStream(0);
+        } else if (cl != null) {
+            long len;
+            try {
+                len = Long.parseLong(cl.trim());
+            } catch (NumberFormatException x) {
+                len = -1;
+            }
+            if (len < 0) {
+                closeAfter = true;
+                len = 0;
+            }
+            reqBody = new FixedLengthInputStream(len);
+        } else {
+            reqBody = new FixedLengthInputStream(0);
+        }
+    }
+
+    /**
+     * Runs the filters and handler of the exchange's context.
+     */
+    @Override
+    public void run() {
+        try {
+            if (request.expectsContinue()) {
+                ByteBuffer cont = ByteBuffer.wrap(
+                    "HTTP/1.1 100 Continue\r\n\r\n".getBytes("ISO-8859-1"));
+                ChannelIO.write(conn.channel(), cont, timeout);
+                conn.touch();
+            }
+            HttpHandler handler = context.getHandler();
+            if (handler == null) {
+                closeAfter = true;
+                sendResponseHeaders(500, -1);
+                close();
+                return;
+            }
+            Filter.Chain chain = new Filter.Chain(context.getFilters(), handler);
+            Authenticator auth = context.getAuthenticator();
+            if (auth != null) {
+                List<Filter> system =
+                    Collections.<Filter>singletonList(new AuthFilter(auth));
+                new Filter.Chain(system, chain::doFilter).doFilter(this);
+            } else {
+                chain.doFilter(this);
+            }
+        } catch (IOException | RuntimeException x) {
+            ReactorHttpServer.logger.log(Level.FINE, "exchange failed", x);
+            abort();
+        }
+    }
+
+    // -- HttpExchange --
+
+    @Override
+    public Headers getRequestHeaders() {
+        return request.headers;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return rspHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return request.uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return request.method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+
+    @Override
+    public void close() {
+        if (finished.get())
+            return;
+        if (!sentHeaders) {
+            abort();
+            return;
+        }
+        try {
+            OutputStream o = (userOut != null) ? userOut : rspBody;
+            o.close();
+            if (!finished.get())
+                rspBody.close();
+        } catch (IOException x) {
+            abort();
+        }
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return (userIn != null) ? userIn : reqBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return (userOut != null) ? userOut : rspBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength)
+        throws IOException
+    {
+        if (sentHeaders)
+            throw new IOException("headers already sent");
+        if (responseLength < -1)
+            throw new IllegalArgumentException(
+                "invalid response length: " + responseLength);
+        this.rCode = rCode;
+
+        boolean head = request.method.equals("HEAD");
+        boolean noContent = rCode == 204 || rCode == 304
+            || (rCode >= 100 && rCode < 200);
+        if (head || noContent) {
+            if (responseLength >= 0 && !head)
+                ReactorHttpServer.logger.log(Level.WARNING,
+                    "sendResponseHeaders: rCode = " + rCode
+                    + ": forcing contentLen = -1");
+            body = new EmptyOutputStream();
+        } else if (responseLength == -1) {
+            rspHeaders.set("Content-length", "0");
+            body = new EmptyOutputStream();
+        } else if (responseLength == 0) {
+            if (request.isHttp10()) {
+                closeAfter = true;
+                body = new UntilCloseOutputStream();
+            } else {
+                rspHeaders.set("Transfer-encoding", "chunked");
+                body = new ChunkedOutputStream();
+            }
+        } else {
+            rspHeaders.set("Content-length", Long.toString(responseLength));
+            body = new FixedLengthOutputStream(responseLength);
+        }
+
+        String connHeader = rspHeaders.getFirst("Connection");
+        if (connHeader != null && Request.hasToken(connHeader, "close"))
+            closeAfter = true;
+        if (closeAfter || server.isTerminating()) {
+            closeAfter = true;
+            rspHeaders.set("Connection", "close");
+        } else if (request.isHttp10()) {
+            rspHeaders.set("Connection", "keep-alive");
+        }
+        if (!rspHeaders.containsKey("Date"))
+            rspHeaders.set("Date", date());
+
+        out = conn.bufferPool().acquire();
+        writeAscii("HTTP/1.1 ");
+        writeAscii(Integer.toString(rCode));
+        writeByte(' ');
+        writeAscii(reason(rCode));
+        writeAscii("\r\n");
+        for (Map.Entry<String,List<String>> e : rspHeaders.entrySet()) {
+            String name = e.getKey();
+            for (String value : e.getValue()) {
+                writeAscii(name);
+                writeAscii(": ");
+                writeAscii(value == null ? "" : value);
+                writeAscii("\r\n");
+            }
+        }
+        writeAscii("\r\n");
+        sentHeaders = true;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return (InetSocketAddress)conn.channel().socket().getRemoteSocketAddress();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return rCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return (InetSocketAddress)conn.channel().socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public String getProtocol() {
+        return request.version;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        if (name == null)
+            throw new NullPointerException("null name parameter");
+        if (attributes == null)
+            attributes = context.getAttributes();
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (name == null)
+            throw new NullPointerException("null name parameter");
+        if (attributes == null)
+            attributes = context.getAttributes();
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null)
+            userIn = i;
+        if (o != null)
+            userOut = o;
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return principal;
+    }
+
+    void setPrincipal(HttpPrincipal principal) {
+        this.principal = principal;
+    }
+
+    // -- used by ReactorHttpServer --
+
+    boolean hasReplacedStreams() {
+        return userIn != null || userOut != null;
+    }
+
+    /**
+     * Sends the first {@code size} bytes of a file as the response body.
+     */
+    void sendFile(int rCode, FileChannel fc, long size) throws IOException {
+        sendResponseHeaders(rCode, size == 0 ? -1 : size);
+        if (body instanceof FixedLengthOutputStream)
+            ((FixedLengthOutputStream)body).transferFrom(fc, size);
+        rspBody.close();
+    }
+
+    /**
+     * Abandons the exchange and closes its connection.
+     */
+    void abort() {
+        if (finished.compareAndSet(false, true)) {
+            releaseOutput();
+            server.exchangeFinished();
+            conn.exchangeDone(false);
+        }
+    }
+
+    /**
+     * Completes the exchange once the response body has been written:
+     * flushes the response, discards any unread request body, and hands
+     * the connection back to its event loop.
+     */
+    private void finish() throws IOException {
+        if (!finished.compareAndSet(false, true))
+            return;
+        boolean reuse = !closeAfter && !server.isTerminating();
+        try {
+            flushOutput();
+            if (reuse)
+                reuse = reqBody.drain();
+        } catch (IOException x) {
+            reuse = false;
+            throw x;
+        } finally {
+            releaseOutput();
+            server.exchangeFinished();
+            conn.exchangeDone(reuse);
+        }
+    }
+
+    // -- output buffer --
+
+    private void writeByte(int b) throws IOException {
+        if (!out.hasRemaining())
+            flushOutput();
+        out.put((byte)b);
+    }
+
+    private void writeAscii(String s) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++)
+            writeByte(s.charAt(i));
+    }
+
+    private void writeBytes(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!out.hasRemaining())
+                flushOutput();
+            int n = Math.min(len, out.remaining());
+            out.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void flushOutput() throws IOException {
+        if (out != null && out.position() > 0) {
+            out.flip();
+            try {
+                ChannelIO.write(conn.channel(), out, timeout);
+            } finally {
+                out.clear();
+                conn.touch();
+            }
+        }
+    }
+
+    private void releaseOutput() {
+        if (out != null) {
+            conn.bufferPool().release(out);
+            out = null;
+        }
+    }
+
+    // -- request body --
+
+    /**
+     * Reads up to {@code len} bytes of the request from the connection,
+     * returning -1 at end of stream.
+     */
+    private int readRaw(byte[] b, int off, int len) throws IOException {
+        ByteBuffer in = conn.input();
+        if (!in.hasRemaining()) {
+            if (conn.fill() < 0)
+                return -1;
+            in = conn.input();
+        }
+        int n = Math.min(len, in.remaining());
+        in.get(b, off, n);
+        return n;
+    }
+
+    private int readRawByte() throws IOException {
+        ByteBuffer in = conn.input();
+        if (!in.hasRemaining()) {
+            if (conn.fill() < 0)
+                return -1;
+            in = conn.input();
+        }
+        return in.get() & 0xff;
+    }
+
+    private int rawAvailable() {
+        return conn.input().remaining();
+    }
+
+    private abstract class RequestBody extends InputStream {
+        boolean closed;
+
+        /**
+         * Discards the rest of the body. Returns false if the body could
+         * not be discarded, in which case the connection cannot be reused.
+         */
+        abstract boolean drain() throws IOException;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return (n < 0) ? -1 : b[0] & 0xff;
+        }
+
+        void ensureOpen() throws IOException {
+            if (closed)
+                throw new IOException("stream is closed");
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private final class FixedLengthInputStream extends RequestBody {
+        private long remaining;
+
+        FixedLengthInputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len == 0)
+                return 0;
+            if (remaining == 0)
+                return -1;
+            int n = readRaw(b, off, (int)Math.min(len, remaining));
+            if (n < 0)
+                throw new EOFException("connection closed before all data received");
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return (int)Math.min(remaining, rawAvailable());
+        }
+
+        @Override
+        boolean drain() throws IOException {
+            if (remaining > MAX_DRAIN)
+                return false;
+            byte[] skip = new byte[(int)Math.min(remaining, 8192)];
+            while (remaining > 0) {
+                int n = readRaw(skip, 0, (int)Math.min(skip.length, remaining));
+                if (n < 0)
+                    return false;
+                remaining -= n;
+            }
+            return true;
+        }
+    }
+
+    private final class ChunkedInputStream extends RequestBody {
+        private long remaining;   // in the current chunk
+        private boolean eof;
+        private boolean needCRLF;
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len == 0)
+                return 0;
+            if (remaining == 0 && !nextChunk())
+                return -1;
+            int n = readRaw(b, off, (int)Math.min(len, remaining));
+            if (n < 0)
+                throw new EOFException("connection closed before all data received");
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return eof ? 0 : (int)Math.min(remaining, rawAvailable());
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (eof)
+                return false;
+            if (needCRLF && !readLine().isEmpty())
+                throw new IOException("invalid chunk trailer");
+            String line = readLine();
+            int semi = line.indexOf(';');
+            if (semi >= 0)
+                line = line.substring(0, semi);
+            long size;
+            try {
+                size = Long.parseLong(line.trim(), 16);
+            } catch (NumberFormatException x) {
+                throw new IOException("invalid chunk header");
+            }
+            if (size < 0)
+                throw new IOException("invalid chunk header");
+            if (size == 0) {
+                // trailer fields, ignored
+                while (!readLine().isEmpty())
+                    ;
+                eof = true;
+                return false;
+            }
+            remaining = size;
+            needCRLF = true;
+            return true;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            for (;;) {
+                int c = readRawByte();
+                if (c < 0)
+                    throw new EOFException("connection closed in chunk header");
+                if (c == '\n')
+                    return sb.toString();
+                if (c != '\r') {
+                    if (sb.length() >= 4096)
+                        throw new IOException("chunk header too long");
+                    sb.append((char)c);
+                }
+            }
+        }
+
+        @Override
+        boolean drain() throws IOException {
+            long drained = 0;
+            byte[] skip = new byte[8192];
+            while (remaining > 0 || nextChunk()) {
+                int n = readRaw(skip, 0, (int)Math.min(skip.length, remaining));
+                if (n < 0)
+                    return false;
+                remaining -= n;
+                if ((drained += n) > MAX_DRAIN)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    // -- response body --
+
+    /**
+     * The stream returned by {@link #getResponseBody}, which forwards to
+     * the body stream chosen when the response headers are sent.
+     */
+    private final class ResponseBody extends OutputStream {
+        private OutputStream body() throws IOException {
+            if (!sentHeaders)
+                throw new IOException("response headers not sent yet");
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            body().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (finished.get())
+                return;
+            if (!sentHeaders) {
+                abort();
+                return;
+            }
+            body.close();
+        }
+    }
+
+    private abstract class BodyStream extends OutputStream {
+        boolean closed;
+
+        void ensureOpen() throws IOException {
+            if (closed)
+                throw new IOException("stream is closed");
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte)b }, 0, 1);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            flushOutput();
+        }
+    }
+
+    private final class FixedLengthOutputStream extends BodyStream {
+        private long remaining;
+
+        FixedLengthOutputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len > remaining)
+                throw new IOException("too many bytes to write to stream");
+            writeBytes(b, off, len);
+            remaining -= len;
+        }
+
+        void transferFrom(FileChannel fc, long count) throws IOException {
+            ensureOpen();
+            if (count > remaining)
+                throw new IOException("too many bytes to write to stream");
+            flushOutput();
+            // in steps, so that a long transfer keeps the connection active
+            for (long position = 0; position < count; ) {
+                long n = Math.min(count - position, TRANSFER_STEP);
+                ChannelIO.transfer(fc, position, n, conn.channel(), timeout);
+                conn.touch();
+                position += n;
+            }
+            remaining -= count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            if (remaining > 0) {
+                abort();
+                throw new IOException("insufficient bytes written to stream");
+            }
+            finish();
+        }
+    }
+
+    private final class ChunkedOutputStream extends BodyStream {
+        private final byte[] chunk = new byte[8192];
+        private int count;
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            while (len > 0) {
+                int n = Math.min(len, chunk.length - count);
+                System.arraycopy(b, off, chunk, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == chunk.length)
+                    writeChunk();
+            }
+        }
+
+        private void writeChunk() throws IOException {
+            if (count > 0) {
+                writeAscii(Integer.toHexString(count));
+                writeAscii("\r\n");
+                writeBytes(chunk, 0, count);
+                writeAscii("\r\n");
+                count = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            writeChunk();
+            flushOutput();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            try {
+                writeChunk();
+                writeAscii("0\r\n\r\n");
+            } catch (IOException x) {
+                abort();
+                throw x;
+            }
+            finish();
+        }
+    }
+
+    private final class UntilCloseOutputStream extends BodyStream {
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            writeBytes(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            finish();
+        }
+    }
+
+    private final class EmptyOutputStream extends BodyStream {
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len > 0)
+                throw new IOException("response has no body");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            finish();
+        }
+    }
+
+    // -- authentication --
+
+    private static final class AuthFilter extends Filter {
+        private final Authenticator authenticator;
+
+        AuthFilter(Authenticator authenticator) {
+            this.authenticator = authenticator;
+        }
+
+        @Override
+        public String description() {
+            return "Authentication filter";
+        }
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain)
+            throws IOException
+        {
+            Authenticator.Result r = authenticator.authenticate(exchange);
+            if (r instanceof Authenticator.Success) {
+                ((ExchangeImpl)exchange).setPrincipal(
+                    ((Authenticator.Success)r).getPrincipal());
+                chain.doFilter(exchange);
+            } else {
+                int code = (r instanceof Authenticator.Retry)
+                    ? ((Authenticator.Retry)r).getResponseCode()
+                    : ((Authenticator.Failure)r).getResponseCode();
+                exchange.sendResponseHeaders(code, -1);
+                exchange.close();
+            }
+        }
+    }
+
+    // -- status line and Date header --
+
+    static String reason(int code) {
+        switch (code) {
+            case 100: return "Continue";
+            case 101: return "Switching Protocols";
+            case 200: return "OK";
+            case 201: return "Created";
+            case 202: return "Accepted";
+            case 203: return "Non-Authoritative Information";
+            case 204: return "No Content";
+            case 205: return "Reset Content";
+            case 206: return "Partial Content";
+            case 300: return "Multiple Choices";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 303: return "See Other";
+            case 304: return "Not Modified";
+            case 305: return "Use Proxy";
+            case 307: return "Temporary Redirect";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 402: return "Payment Required";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 406: return "Not Acceptable";
+            case 407: return "Proxy Authentication Required";
+            case 408: return "Request Time-out";
+            case 409: return "Conflict";
+            case 410: return "Gone";
+            case 411: return "Length Required";
+            case 412: return "Precondition Failed";
+            case 413: return "Request Entity Too Large";
+            case 414: return "Request-URI Too Large";
+            case 415: return "Unsupported Media Type";
+            case 431: return "Request Header Fields Too Large";
+            case 500: return "Internal Server Error";
+            case 501: return "Not Implemented";
+            case 502: return "Bad Gateway";
+            case 503: return "Service Unavailable";
+            case 504: return "Gateway Time-out";
+            case 505: return "HTTP Version Not Supported";
+            default:  return "";
+        }
+    }
+
+    /*
+     * The Date header value, formatted at most once per second.
+     */
+    private static final class CachedDate {
+        final long second;
+        final String value;
+
+        CachedDate(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+
+    private static volatile CachedDate cachedDate = new CachedDate(-1, null);
+
+    private static String date() {
+        long now = System.currentTimeMillis();
+        CachedDate cd = cachedDate;
+        if (cd.second == now / 1000)
+            return cd.value;
+        DateFormat df = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz",
+                                             Locale.US);
+        df.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String value = df.format(new Date(now));
+        cachedDate = new CachedDate(now / 1000, value);
+        return value;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import sun.security.action.GetIntegerAction;
+
+/**
+ * An {@link HttpServer} built on a multi-reactor design. A single acceptor
+ * thread accepts connections and hands them, round-robin, to one of a
+ * fixed number of {@linkplain EventLoop event loops}. Each loop owns a
+ * {@link java.nio.channels.Selector} and parses request heads without
+ * blocking, into direct buffers taken from a shared pool. Once a request
+ * head is complete the exchange is dispatched to the server's executor,
+ * or run on the loop thread itself when no executor has been set; while
+ * the exchange is in progress the connection is removed from its loop's
+ * interest set, and is handed back when the response has been sent.
+ * Requests that have been pipelined by the client are kept in the
+ * connection's buffer and processed in turn.
+ *
+ * <p> Without an executor, handlers run on the event loop threads, and a
+ * handler that blocks holds up every other connection of its loop for as
+ * long as it blocks. Servers whose handlers block, on the request body or
+ * on anything else, should {@linkplain #setExecutor set an executor}.
+ *
+ * <p> The following system properties are read when a server is created:
+ * <ul>
+ * <li>{@code sun.net.httpserver.reactor.eventLoops} - the number of event
+ *     loops, by default the number of available processors</li>
+ * <li>{@code sun.net.httpserver.reactor.bufferSize} - the size in bytes of
+ *     the pooled connection buffers, and the upper bound on the size of a
+ *     request head (default 16384)</li>
+ * <li>{@code sun.net.httpserver.idleInterval} - the number of seconds an
+ *     idle persistent connection is kept open (default 30)</li>
+ * <li>{@code sun.net.httpserver.maxReqTime} - the number of seconds an
+ *     exchange may block reading the request body or writing the response
+ *     before the connection is closed, or -1 for no limit (the default)</li>
+ * <li>{@code sun.net.httpserver.reactor.maxExchangeIdle} - the number of
+ *     seconds an exchange may go without reading or writing its connection
+ *     before the connection is closed, or -1 for no limit (default 300).
+ *     This reclaims the connections of exchanges that are never
+ *     closed.</li>
+ * </ul>
+ *
+ * <p> Responses read from files can be sent with {@link #sendFile
+ * sendFile}, which transfers the file directly to the connection's socket
+ * where the exchange allows it.
+ */
+public final class ReactorHttpServer extends HttpServer {
+
+    static final Logger logger = Logger.getLogger("com.sun.net.httpserver");
+
+    private static final int EVENT_LOOPS = getInteger(
+        "sun.net.httpserver.reactor.eventLoops",
+        Runtime.getRuntime().availableProcessors());
+    private static final int BUFFER_SIZE = Math.max(1024, getInteger(
+        "sun.net.httpserver.reactor.bufferSize", 16384));
+    private static final long IDLE_INTERVAL = getInteger(
+        "sun.net.httpserver.idleInterval", 30) * 1000L;
+    private static final long MAX_REQ_TIME = getInteger(
+        "sun.net.httpserver.maxReqTime", -1) * 1000L;
+    private static final long MAX_EXCHANGE_IDLE = getInteger(
+        "sun.net.httpserver.reactor.maxExchangeIdle", 300) * 1000L;
+
+    private static int getInteger(String name, int def) {
+        return AccessController.doPrivileged(
+            new GetIntegerAction(name, def)).intValue();
+    }
+
+    private static final AtomicInteger serverNumber = new AtomicInteger();
+
+    private final ServerSocketChannel listener;
+    private final ContextList contexts = new ContextList();
+    private final BufferPool bufferPool;
+    private final EventLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private final AtomicInteger activeExchanges = new AtomicInteger();
+    private final Object lock = new Object();
+
+    private volatile Executor executor;
+    private volatile boolean bound;
+    private volatile boolean started;
+    private volatile boolean terminating;
+    private Thread acceptor;
+
+    ReactorHttpServer(InetSocketAddress addr, int backlog) throws IOException {
+        listener = ServerSocketChannel.open();
+        if (addr != null) {
+            bind0(addr, backlog);
+        }
+        int n = Math.max(1, EVENT_LOOPS);
+        bufferPool = new BufferPool(BUFFER_SIZE, n * 64);
+        loops = new EventLoop[n];
+        try {
+            for (int i = 0; i < n; i++)
+                loops[i] = new EventLoop(this);
+        } catch (IOException x) {
+            for (EventLoop loop : loops) {
+                if (loop != null)
+                    loop.close();
+            }
+            listener.close();
+            throw x;
+        }
+    }
+
+    private void bind0(InetSocketAddress addr, int backlog) throws IOException {
+        listener.socket().setReuseAddress(true);
+        listener.bind(addr, backlog);
+        bound = true;
+    }
+
+    // -- HttpServer --
+
+    @Override
+    public void bind(InetSocketAddress addr, int backlog) throws IOException {
+        if (bound)
+            throw new BindException("HttpServer already bound");
+        if (addr == null)
+            throw new NullPointerException("null address");
+        bind0(addr, backlog);
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (!bound || started || terminating)
+                throw new IllegalStateException("server in wrong state");
+            started = true;
+        }
+        int id = serverNumber.incrementAndGet();
+        for (int i = 0; i < loops.length; i++) {
+            Thread t = new Thread(loops[i],
+                                  "HTTP-Reactor-" + id + "-" + i);
+            t.setDaemon(true);
+            loops[i].start(t);
+        }
+        acceptor = new Thread(this::acceptLoop, "HTTP-Acceptor-" + id);
+        acceptor.start();
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        if (started)
+            throw new IllegalStateException("server already started");
+        this.executor = executor;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void stop(int delay) {
+        if (delay < 0)
+            throw new IllegalArgumentException("negative delay parameter");
+        terminating = true;
+        try {
+            listener.close();
+        } catch (IOException ignore) { }
+
+        long deadline = System.currentTimeMillis() + delay * 1000L;
+        while (activeExchanges.get() > 0
+               && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        for (EventLoop loop : loops)
+            loop.close();
+        try {
+            if (acceptor != null && acceptor != Thread.currentThread())
+                acceptor.join();
+            for (EventLoop loop : loops)
+                loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        bufferPool.clear();
+    }
+
+    @Override
+    public HttpContext createContext(String path, HttpHandler handler) {
+        if (handler == null || path == null)
+            throw new NullPointerException("null handler, or path parameter");
+        ContextImpl context = new ContextImpl(path, handler, this);
+        contexts.add(context);
+        return context;
+    }
+
+    @Override
+    public HttpContext createContext(String path) {
+        if (path == null)
+            throw new NullPointerException("null path parameter");
+        ContextImpl context = new ContextImpl(path, null, this);
+        contexts.add(context);
+        return context;
+    }
+
+    @Override
+    public void removeContext(String path) {
+        if (path == null)
+            throw new NullPointerException("null path parameter");
+        contexts.remove(path);
+    }
+
+    @Override
+    public void removeContext(HttpContext context) {
+        if (!(context instanceof ContextImpl))
+            throw new IllegalArgumentException("wrong HttpContext type");
+        contexts.remove((ContextImpl)context);
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress)listener.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // -- package-private, used by event loops and exchanges --
+
+    BufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    long idleInterval() {
+        return IDLE_INTERVAL;
+    }
+
+    long maxRequestTime() {
+        return MAX_REQ_TIME;
+    }
+
+    long maxExchangeIdle() {
+        return MAX_EXCHANGE_IDLE;
+    }
+
+    boolean isTerminating() {
+        return terminating;
+    }
+
+    ContextImpl findContext(String path) {
+        return contexts.findContext(path);
+    }
+
+    /**
+     * Runs an exchange whose request head has been read, on the executor
+     * if there is one, or else on the calling event loop thread.
+     */
+    void dispatch(ExchangeImpl exchange) {
+        activeExchanges.incrementAndGet();
+        Executor e = executor;
+        if (e == null) {
+            exchange.run();
+            return;
+        }
+        try {
+            e.execute(exchange);
+        } catch (RejectedExecutionException x) {
+            logger.log(Level.FINE, "exchange rejected by executor", x);
+            exchange.abort();
+        }
+    }
+
+    /**
+     * Invoked once by each exchange when it has completed.
+     */
+    void exchangeFinished() {
+        activeExchanges.decrementAndGet();
+    }
+
+    private void acceptLoop() {
+        for (;;) {
+            SocketChannel ch;
+            try {
+                ch = listener.accept();
+            } catch (ClosedChannelException x) {
+                return;
+            } catch (IOException x) {
+                if (!listener.isOpen())
+                    return;
+                logger.log(Level.FINE, "accept failed", x);
+                continue;
+            }
+            if (terminating) {
+                closeQuietly(ch);
+                return;
+            }
+            try {
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+            } catch (IOException x) {
+                closeQuietly(ch);
+                continue;
+            }
+            int i = (nextLoop.getAndIncrement() & Integer.MAX_VALUE)
+                    % loops.length;
+            loops[i].register(ch);
+        }
+    }
+
+    static void closeQuietly(java.io.Closeable c) {
+        try {
+            c.close();
+        } catch (IOException ignore) { }
+    }
+
+    /**
+     * Sends the contents of a file as the response to an exchange and
+     * closes the exchange. The response headers are sent with the given
+     * status code and a content length equal to the size of the file; the
+     * response headers of the exchange must not have been sent already.
+     *
+     * <p> When the exchange belongs to a {@code ReactorHttpServer} and its
+     * streams have not been replaced by a filter, the file is transferred
+     * to the connection's socket with {@link FileChannel#transferTo
+     * transferTo}, so that the operating system can copy it without
+     * passing through user space. Otherwise the file is copied through
+     * the exchange's response body stream.
+     *
+     * @param exchange the exchange
+     * @param rCode    the response code to send
+     * @param file     the file to send
+     *
+     * @throws IOException if an I/O error occurs reading the file or
+     *         writing the response
+     */
+    public static void sendFile(HttpExchange exchange, int rCode, Path file)
+        throws IOException
+    {
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = fc.size();
+            if (exchange instanceof ExchangeImpl) {
+                ExchangeImpl ex = (ExchangeImpl)exchange;
+                if (!ex.hasReplacedStreams()) {
+                    ex.sendFile(rCode, fc, size);
+                    return;
+                }
+            }
+            exchange.sendResponseHeaders(rCode, size == 0 ? -1 : size);
+            if (size > 0 && !exchange.getRequestMethod().equals("HEAD")) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(file, out);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * The contexts of a server, matched by longest path prefix.
+     */
+    private static final class ContextList {
+        private volatile List<ContextImpl> list = new ArrayList<>();
+
+        synchronized void add(ContextImpl context) {
+            for (ContextImpl c : list) {
+                if (c.getPath().equals(context.getPath()))
+                    throw new IllegalArgumentException(
+                        "cannot add context to list");
+            }
+            List<ContextImpl> copy = new ArrayList<>(list);
+            copy.add(context);
+            list = copy;
+        }
+
+        synchronized void remove(String path) {
+            ContextImpl found = null;
+            for (ContextImpl c : list) {
+                if (c.getPath().equals(path)) {
+                    found = c;
+                    break;
+                }
+            }
+            if (found == null)
+                throw new IllegalArgumentException("cannot remove element from list");
+            remove(found);
+        }
+
+        synchronized void remove(ContextImpl context) {
+            List<ContextImpl> copy = new ArrayList<>(list);
+            if (!copy.remove(context))
+                throw new IllegalArgumentException("cannot remove element from list");
+            list = copy;
+        }
+
+        ContextImpl findContext(String path) {
+            ContextImpl best = null;
+            int bestLength = -1;
+            for (ContextImpl c : list) {
+                String cpath = c.getPath();
+                if (cpath.length() > bestLength && path.startsWith(cpath)) {
+                    best = c;
+                    bestLength = cpath.length();
+                }
+            }
+            return best;
+        }
+    }
+}
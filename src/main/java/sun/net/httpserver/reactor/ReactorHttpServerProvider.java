@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsServer;
+import com.sun.net.httpserver.spi.HttpServerProvider;
+
+/**
+ * An {@link HttpServerProvider} whose servers multiplex connections over
+ * a small set of selector threads ("event loops") instead of a single
+ * dispatcher. It is selected by setting the system property
+ * {@code com.sun.net.httpserver.HttpServerProvider} to the name of this
+ * class.
+ *
+ * <p> HTTPS servers are not multiplexed; requests for them are delegated
+ * to the default provider.
+ *
+ * @see ReactorHttpServer
+ */
+public class ReactorHttpServerProvider extends HttpServerProvider {
+
+    public ReactorHttpServerProvider() { }
+
+    @Override
+    public HttpServer createHttpServer(InetSocketAddress addr, int backlog)
+        throws IOException
+    {
+        return new ReactorHttpServer(addr, backlog);
+    }
+
+    @Override
+    public HttpsServer createHttpsServer(InetSocketAddress addr, int backlog)
+        throws IOException
+    {
+        return new sun.net.httpserver.DefaultHttpServerProvider()
+            .createHttpsServer(addr, backlog);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.reactor;
+
+import java.net.ProtocolException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * The head of an HTTP request: the request line and the header fields.
+ * The head is parsed directly from a connection's input buffer once it
+ * has been received in full.
+ */
+final class Request {
+
+    final String method;
+    final URI uri;
+    final String version;
+    final Headers headers;
+
+    private Request(String method, URI uri, String version, Headers headers) {
+        this.method = method;
+        this.uri = uri;
+        this.version = version;
+        this.headers = headers;
+    }
+
+    /**
+     * Returns the index just past the blank line ending the request head
+     * in the remaining bytes of the buffer, or -1 if the head has not
+     * been received in full. Empty lines preceding the request line are
+     * part of the head.
+     */
+    static int headEnd(ByteBuffer buf) {
+        int i = buf.position();
+        int limit = buf.limit();
+        while (i < limit) {
+            byte b = buf.get(i);
+            if (b != '\r' && b != '\n')
+                break;
+            i++;
+        }
+        int newlines = 0;
+        for (; i < limit; i++) {
+            byte b = buf.get(i);
+            if (b == '\n') {
+                if (++newlines == 2)
+                    return i + 1;
+            } else if (b != '\r') {
+                newlines = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the request head occupying the bytes of the buffer from its
+     * position up to {@code end}, and advances the position to {@code end}.
+     */
+    static Request parse(ByteBuffer buf, int end) throws ProtocolException {
+        int start = buf.position();
+        buf.position(end);
+
+        // skip empty lines before the request line
+        while (start < end && (buf.get(start) == '\r' || buf.get(start) == '\n'))
+            start++;
+
+        String method = null, target = null, version = null;
+        Headers headers = new Headers();
+        String name = null;
+        StringBuilder value = null;
+        StringBuilder sb = new StringBuilder(128);
+        int i = start;
+        while (i < end) {
+            sb.setLength(0);
+            while (i < end) {
+                byte b = buf.get(i++);
+                if (b == '\n')
+                    break;
+                if (b != '\r')
+                    sb.append((char)(b & 0xff));
+            }
+            if (method == null) {
+                String line = sb.toString();
+                int sp1 = line.indexOf(' ');
+                int sp2 = line.lastIndexOf(' ');
+                if (sp1 <= 0 || sp2 <= sp1 + 1 || sp2 == line.length() - 1)
+                    throw new ProtocolException("Bad request line");
+                method = line.substring(0, sp1);
+                target = line.substring(sp1 + 1, sp2);
+                version = line.substring(sp2 + 1);
+                if (!version.startsWith("HTTP/"))
+                    throw new ProtocolException("Bad request line");
+                continue;
+            }
+            if (sb.length() == 0)
+                break;
+            char c = sb.charAt(0);
+            if (c == ' ' || c == '\t') {
+                // obsolete line folding
+                if (value == null)
+                    throw new ProtocolException("Bad header line");
+                value.append(' ').append(sb.toString().trim());
+                continue;
+            }
+            if (name != null)
+                headers.add(name, value.toString());
+            int colon = sb.indexOf(":");
+            if (colon <= 0)
+                throw new ProtocolException("Bad header line");
+            name = sb.substring(0, colon);
+            if (name.indexOf(' ') >= 0 || name.indexOf('\t') >= 0)
+                throw new ProtocolException("Bad header name");
+            value = new StringBuilder(sb.substring(colon + 1).trim());
+        }
+        if (name != null)
+            headers.add(name, value.toString());
+        if (method == null)
+            throw new ProtocolException("Bad request line");
+
+        URI uri;
+        try {
+            uri = new URI(target);
+        } catch (URISyntaxException x) {
+            throw new ProtocolException("Bad request URI");
+        }
+        return new Request(method, uri, version, headers);
+    }
+
+    boolean isHttp10() {
+        return version.equals("HTTP/1.0");
+    }
+
+    /**
+     * Returns true if the client asked for the connection to be closed
+     * after this exchange.
+     */
+    boolean wantsClose() {
+        String conn = headers.getFirst("Connection");
+        if (isHttp10())
+            return conn == null || !hasToken(conn, "keep-alive");
+        return conn != null && hasToken(conn, "close");
+    }
+
+    boolean expectsContinue() {
+        String expect = headers.getFirst("Expect");
+        return expect != null && expect.equalsIgnoreCase("100-continue")
+            && !isHttp10();
+    }
+
+    static boolean hasToken(String value, String token) {
+        for (String s : value.split(",")) {
+            if (s.trim().equalsIgnoreCase(token))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.http;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of persistent HTTP/1.1 connections, and the {@link
+ * HttpURLConnection}s that use it.
+ *
+ * <p> Connections are opened with {@link #openConnection openConnection},
+ * or through URLs created with the pool's {@linkplain #handler stream
+ * handler}:
+ * <pre>
+ *     HttpConnectionPool pool = HttpConnectionPool.newBuilder()
+ *         .maxConnectionsPerRoute(8)
+ *         .idleTimeout(30_000)
+ *         .build();
+ *     URL url = new URL(null, "http://service.local/items", pool.handler());
+ *     HttpURLConnection c = (HttpURLConnection)url.openConnection();
+ * </pre>
+ * Only {@code http} URLs are supported; proxies, authentication and the
+ * {@link java.net.ResponseCache} are not, while the default {@link
+ * java.net.CookieHandler} is honoured.
+ *
+ * <p> A <em>route</em> is a host and port. The pool keeps at most
+ * {@linkplain Builder#maxConnectionsPerRoute maxConnectionsPerRoute}
+ * connections open to a route; further requests wait for one to be
+ * returned. Connections are returned when the response body has been read
+ * to the end or closed, and are closed after being idle for {@linkplain
+ * Builder#idleTimeout idleTimeout} milliseconds, or when more than
+ * {@linkplain Builder#maxIdleConnections maxIdleConnections} are idle.
+ *
+ * <h3>Pipelining</h3>
+ * When {@linkplain Builder#pipelining pipelining} is enabled, a request
+ * with an idempotent method ({@code GET}, {@code HEAD}, {@code OPTIONS},
+ * {@code TRACE}) and no request body may be sent on a connection that is
+ * still waiting for earlier responses, once that connection has shown
+ * that the server keeps it open. Such a request is written by {@link
+ * URLConnection#connect connect()}, so a caller pipelines requests by
+ * connecting several {@code HttpURLConnection}s before reading their
+ * responses; responses are then read in the order the requests were sent.
+ * If a connection fails with requests outstanding, those requests are
+ * retried once on a new connection. A request waiting behind a response
+ * that is never read to the end or closed gives up once nothing has been
+ * read or written on the connection for its {@linkplain
+ * URLConnection#setReadTimeout read timeout}, or for the idle timeout if
+ * it has none; the connection is then discarded and the waiting requests
+ * are retried.
+ *
+ * <p> The counters reported by the pool (connections created, reused,
+ * evicted, requests pipelined) are cumulative; the leased and idle counts
+ * are current values.
+ */
+public final class HttpConnectionPool {
+
+    /**
+     * A builder of {@link HttpConnectionPool}s.
+     */
+    public static final class Builder {
+        private int maxPerRoute = 5;
+        private int maxIdle = 64;
+        private long idleTimeout = 5000;
+        private boolean pipelining;
+        private int pipelineDepth = 8;
+
+        Builder() { }
+
+        /**
+         * Sets the maximum number of connections open to a route, leased
+         * or idle. The default is 5.
+         */
+        public Builder maxConnectionsPerRoute(int max) {
+            if (max < 1)
+                throw new IllegalArgumentException("max < 1");
+            maxPerRoute = max;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle connections kept, over all
+         * routes. The default is 64.
+         */
+        public Builder maxIdleConnections(int max) {
+            if (max < 0)
+                throw new IllegalArgumentException("max < 0");
+            maxIdle = max;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds after which an idle connection is
+         * closed. The default is 5000.
+         */
+        public Builder idleTimeout(long millis) {
+            if (millis <= 0)
+                throw new IllegalArgumentException("timeout <= 0");
+            idleTimeout = millis;
+            return this;
+        }
+
+        /**
+         * Enables or disables pipelining of idempotent requests. It is
+         * disabled by default.
+         */
+        public Builder pipelining(boolean enable) {
+            pipelining = enable;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests outstanding on a pipelined
+         * connection. The default is 8.
+         */
+        public Builder pipelineDepth(int depth) {
+            if (depth < 1)
+                throw new IllegalArgumentException("depth < 1");
+            pipelineDepth = depth;
+            return this;
+        }
+
+        public HttpConnectionPool build() {
+            return new HttpConnectionPool(this);
+        }
+    }
+
+    /**
+     * Returns a new builder, initially set to the default settings.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /*
+     * The connections of a route. Guarded by the pool's lock.
+     */
+    private static final class Route {
+        final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+        final List<PooledConnection> leased = new ArrayList<>();
+        int total;       // including connections being opened
+    }
+
+    private final int maxPerRoute;
+    private final int maxIdle;
+    private final long idleTimeout;
+    private final boolean pipelining;
+    private final int pipelineDepth;
+    private final URLStreamHandler handler = new Handler();
+
+    private final Object lock = new Object();
+    private final Map<String, Route> routes = new HashMap<>();
+    private int idleCount;
+    private int leasedCount;
+    private boolean closed;
+    private Thread evictor;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong pipelined = new AtomicLong();
+
+    private HttpConnectionPool(Builder b) {
+        this.maxPerRoute = b.maxPerRoute;
+        this.maxIdle = b.maxIdle;
+        this.idleTimeout = b.idleTimeout;
+        this.pipelining = b.pipelining;
+        this.pipelineDepth = b.pipelineDepth;
+    }
+
+    /**
+     * Returns a stream handler that opens connections through this pool,
+     * for use with {@link URL#URL(URL,String,URLStreamHandler)}.
+     */
+    public URLStreamHandler handler() {
+        return handler;
+    }
+
+    /**
+     * Returns a connection to the resource of an {@code http} URL that
+     * sends its request through this pool.
+     *
+     * @throws IllegalArgumentException if the URL's protocol is not
+     *         {@code http}
+     */
+    public HttpURLConnection openConnection(URL url) {
+        if (!url.getProtocol().equalsIgnoreCase("http"))
+            throw new IllegalArgumentException("not an http URL: " + url);
+        return new PooledHttpURLConnection(url, this);
+    }
+
+    boolean isPipelining() {
+        return pipelining;
+    }
+
+    /**
+     * Closes the idle connections of the pool. Leased connections are
+     * closed when they are returned, and no connections can be opened
+     * afterwards.
+     */
+    public void close() {
+        List<PooledConnection> toClose = new ArrayList<>();
+        synchronized (lock) {
+            closed = true;
+            for (Route r : routes.values()) {
+                toClose.addAll(r.idle);
+                r.total -= r.idle.size();
+                r.idle.clear();
+            }
+            idleCount = 0;
+            lock.notifyAll();
+        }
+        for (PooledConnection c : toClose)
+            c.close();
+    }
+
+    // -- metrics --
+
+    /** Returns the number of connections currently leased. */
+    public int getLeasedCount() {
+        synchronized (lock) {
+            return leasedCount;
+        }
+    }
+
+    /** Returns the number of connections currently idle. */
+    public int getIdleCount() {
+        synchronized (lock) {
+            return idleCount;
+        }
+    }
+
+    /** Returns the number of connections opened by this pool. */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /** Returns the number of requests sent on an idle pooled connection. */
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * Returns the number of idle connections closed because they timed
+     * out or exceeded the maximum number of idle connections.
+     */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /**
+     * Returns the number of requests sent on a connection that was
+     * waiting for earlier responses.
+     */
+    public long getPipelinedCount() {
+        return pipelined.get();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return "HttpConnectionPool[routes=" + routes.size()
+                + ", leased=" + leasedCount
+                + ", idle=" + idleCount
+                + ", created=" + created.get()
+                + ", reused=" + reused.get()
+                + ", evicted=" + evicted.get()
+                + ", pipelined=" + pipelined.get() + "]";
+        }
+    }
+
+    // -- leasing --
+
+    /**
+     * Leases a connection to a route for one request, and returns the
+     * ticket of the request on it. A pipelinable request may share a
+     * connection with outstanding requests; {@code fresh} asks for a newly
+     * opened connection.
+     */
+    PooledConnection.Ticket acquire(String host, int port, boolean pipelinable,
+                             boolean fresh, int connectTimeout, int readTimeout)
+        throws IOException
+    {
+        String key = host.toLowerCase() + ":" + port;
+        long deadline = connectTimeout > 0
+            ? System.currentTimeMillis() + connectTimeout : 0;
+        Route route;
+        synchronized (lock) {
+            for (;;) {
+                if (closed)
+                    throw new IOException("connection pool closed");
+                route = routes.get(key);
+                if (route == null) {
+                    route = new Route();
+                    routes.put(key, route);
+                }
+                if (!fresh) {
+                    long now = System.currentTimeMillis();
+                    PooledConnection c;
+                    while ((c = route.idle.pollFirst()) != null) {
+                        idleCount--;
+                        if (now - c.idleSince() > idleTimeout || c.isClosed()) {
+                            route.total--;
+                            evicted.incrementAndGet();
+                            c.close();
+                            continue;
+                        }
+                        reused.incrementAndGet();
+                        return lease(route, c, pipelinable, readTimeout, true);
+                    }
+                }
+                if (route.total < maxPerRoute) {
+                    route.total++;
+                    break;
+                }
+                if (pipelinable && pipelining && !fresh) {
+                    PooledConnection best = null;
+                    for (PooledConnection c : route.leased) {
+                        if (c.canPipeline(pipelineDepth)
+                            && (best == null || c.outstanding() < best.outstanding()))
+                            best = c;
+                    }
+                    if (best != null) {
+                        pipelined.incrementAndGet();
+                        return best.take(false, true, turnTimeout(readTimeout));
+                    }
+                }
+                long wait = 0;
+                if (deadline != 0) {
+                    wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0)
+                        throw new SocketTimeoutException(
+                            "timed out waiting for a pooled connection");
+                }
+                try {
+                    lock.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted waiting for a pooled connection");
+                }
+            }
+        }
+
+        // open a new connection outside the lock
+        PooledConnection c;
+        try {
+            c = new PooledConnection(key, host, port, connectTimeout);
+        } catch (IOException | RuntimeException x) {
+            synchronized (lock) {
+                route.total--;
+                lock.notifyAll();
+            }
+            throw x;
+        }
+        created.incrementAndGet();
+        synchronized (lock) {
+            if (closed) {
+                route.total--;
+                c.close();
+                throw new IOException("connection pool closed");
+            }
+            return lease(route, c, pipelinable, readTimeout, false);
+        }
+    }
+
+    private PooledConnection.Ticket lease(Route route, PooledConnection c,
+                                          boolean pipelinable, int readTimeout,
+                                          boolean reused)
+    {
+        assert Thread.holdsLock(lock);
+        route.leased.add(c);
+        leasedCount++;
+        c.setReadTimeout(readTimeout);
+        return c.take(!pipelinable, reused, turnTimeout(readTimeout));
+    }
+
+    /*
+     * Returns how long a request may wait for its turn on a connection
+     * on which nothing happens: its read timeout, or the idle timeout.
+     */
+    private long turnTimeout(int readTimeout) {
+        return readTimeout > 0 ? readTimeout : idleTimeout;
+    }
+
+    /**
+     * Invoked when the response to a request has been consumed, or the
+     * request has failed. The connection is returned to the idle list
+     * when it has no outstanding requests, and closed if it cannot be
+     * reused. An abandoned connection is discarded as soon as one of its
+     * requests ends, and closed once the last one does.
+     */
+    void release(PooledConnection c, boolean reusable) {
+        PooledConnection toClose = null;
+        synchronized (lock) {
+            boolean last = c.finish(reusable);
+            if (!last && !c.isAbandoned())
+                return;
+            Route route = routes.get(c.route());
+            if (!route.leased.remove(c)) {
+                // discarded when it was abandoned
+                if (last)
+                    toClose = c;
+            } else {
+                leasedCount--;
+                if (c.isBroken() || closed) {
+                    route.total--;
+                    if (last)
+                        toClose = c;
+                } else if (idleCount >= maxIdle) {
+                    route.total--;
+                    evicted.incrementAndGet();
+                    toClose = c;
+                } else {
+                    c.setIdle(System.currentTimeMillis());
+                    route.idle.addFirst(c);
+                    idleCount++;
+                    startEvictor();
+                }
+                lock.notifyAll();
+            }
+        }
+        if (toClose != null)
+            toClose.close();
+    }
+
+    // -- idle eviction --
+
+    private void startEvictor() {
+        assert Thread.holdsLock(lock);
+        if (evictor != null)
+            return;
+        evictor = AccessController.doPrivileged(
+            new PrivilegedAction<Thread>() {
+                public Thread run() {
+                    Thread t = new Thread(HttpConnectionPool.this::evictIdle,
+                                          "HttpConnectionPool-Evictor");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        evictor.start();
+    }
+
+    /*
+     * Runs on the evictor thread until there are no idle connections left.
+     */
+    private void evictIdle() {
+        long interval = Math.max(100, idleTimeout / 2);
+        for (;;) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException ignore) { }
+            List<PooledConnection> expired = new ArrayList<>();
+            boolean done;
+            synchronized (lock) {
+                long now = System.currentTimeMillis();
+                for (Route route : routes.values()) {
+                    Iterator<PooledConnection> it = route.idle.descendingIterator();
+                    while (it.hasNext()) {
+                        PooledConnection c = it.next();
+                        if (now - c.idleSince() <= idleTimeout)
+                            break;
+                        it.remove();
+                        idleCount--;
+                        route.total--;
+                        expired.add(c);
+                    }
+                }
+                routes.values().removeIf(r -> r.total == 0);
+                evicted.addAndGet(expired.size());
+                done = (idleCount == 0);
+                if (done)
+                    evictor = null;
+            }
+            for (PooledConnection c : expired)
+                c.close();
+            if (done)
+                return;
+        }
+    }
+
+    private final class Handler extends URLStreamHandler {
+        @Override
+        protected URLConnection openConnection(URL u) {
+            return HttpConnectionPool.this.openConnection(u);
+        }
+
+        @Override
+        protected URLConnection openConnection(URL u, Proxy p) {
+            if (p != null && p.type() != Proxy.Type.DIRECT)
+                throw new UnsupportedOperationException(
+                    "proxies are not supported by pooled connections");
+            return openConnection(u);
+        }
+
+        @Override
+        protected int getDefaultPort() {
+            return 80;
+        }
+    }
+}
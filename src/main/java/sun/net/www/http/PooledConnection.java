@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * A connection of an {@link HttpConnectionPool}.
+ *
+ * <p> Each request sent on the connection holds a {@link Ticket}, taken
+ * in the order the requests are leased. Requests are written, and their
+ * responses read, in ticket order, which is what allows several requests
+ * to be outstanding on a pipelined connection. Once the connection is
+ * broken, by an I/O error or a response that closes it, every request
+ * still waiting for its turn fails.
+ *
+ * <p> A request waits for its turn for at most its ticket's timeout
+ * without any bytes being read or written on the connection. A request
+ * ahead of it that stops reading its response, or is never read at all,
+ * then leaves the connection <em>abandoned</em>: it is broken, and the
+ * pool stops counting it against its route.
+ *
+ * <p> The lease state ({@code outstanding}, {@code exclusive},
+ * {@code idleSince}) is guarded by the pool's lock; the turn counters are
+ * guarded by the connection itself.
+ */
+final class PooledConnection {
+
+    /**
+     * The place of one request on a connection.
+     */
+    static final class Ticket {
+        final PooledConnection connection;
+        final long seq;
+        final boolean reused;   // sent on a connection used before
+        final long timeout;     // to wait for a turn, 0 for no limit
+
+        Ticket(PooledConnection connection, long seq, boolean reused,
+               long timeout) {
+            this.connection = connection;
+            this.seq = seq;
+            this.reused = reused;
+            this.timeout = timeout;
+        }
+    }
+
+    private final String route;
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    // guarded by the pool's lock
+    private int outstanding;
+    private boolean exclusive;
+    private long idleSince;
+
+    // guarded by this
+    private long nextTicket;
+    private long writeTurn;
+    private long readTurn;
+    private volatile boolean broken;
+    private volatile boolean abandoned;
+
+    // the last time bytes were read or written, or a turn ended
+    private volatile long lastActivity;
+
+    // set once a response has shown that the server keeps the connection
+    private volatile boolean persistent;
+
+    PooledConnection(String route, String host, int port, int connectTimeout)
+        throws IOException
+    {
+        this.route = route;
+        Socket s = new Socket();
+        try {
+            s.setTcpNoDelay(true);
+            s.connect(new InetSocketAddress(host, port), connectTimeout);
+            this.in = new BufferedInputStream(
+                new ActivityInputStream(s.getInputStream()), 8192);
+            this.out = new BufferedOutputStream(
+                new ActivityOutputStream(s.getOutputStream()), 8192);
+        } catch (IOException x) {
+            s.close();
+            throw x;
+        }
+        this.socket = s;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    String route() {
+        return route;
+    }
+
+    InputStream in() {
+        return in;
+    }
+
+    OutputStream out() {
+        return out;
+    }
+
+    void setReadTimeout(int timeout) {
+        try {
+            socket.setSoTimeout(timeout);
+        } catch (SocketException x) {
+            markBroken();
+        }
+    }
+
+    void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    boolean isAbandoned() {
+        return abandoned;
+    }
+
+    boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    // -- lease state, called with the pool's lock held --
+
+    Ticket take(boolean exclusive, boolean reused, long timeout) {
+        outstanding++;
+        this.exclusive = exclusive;
+        synchronized (this) {
+            return new Ticket(this, nextTicket++, reused, timeout);
+        }
+    }
+
+    int outstanding() {
+        return outstanding;
+    }
+
+    boolean canPipeline(int depth) {
+        return persistent && !exclusive && !broken
+            && outstanding > 0 && outstanding < depth;
+    }
+
+    /**
+     * Ends a request's lease, returning true if no request is left
+     * outstanding on the connection.
+     */
+    boolean finish(boolean reusable) {
+        if (!reusable)
+            markBroken();
+        exclusive = false;
+        return --outstanding == 0;
+    }
+
+    long idleSince() {
+        return idleSince;
+    }
+
+    void setIdle(long now) {
+        idleSince = now;
+    }
+
+    // -- turns --
+
+    synchronized void awaitWriteTurn(Ticket t) throws IOException {
+        while (writeTurn != t.seq && !broken)
+            waitForTurn(t);
+        if (broken)
+            throw closedException();
+    }
+
+    synchronized void writeDone() {
+        writeTurn++;
+        lastActivity = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    synchronized void awaitReadTurn(Ticket t) throws IOException {
+        while (readTurn != t.seq && !broken)
+            waitForTurn(t);
+        if (broken)
+            throw closedException();
+    }
+
+    /**
+     * Ends the current response. If the connection cannot be reused the
+     * requests waiting behind it fail.
+     */
+    synchronized void readDone(boolean reusable) {
+        if (!reusable)
+            broken = true;
+        readTurn++;
+        lastActivity = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    /*
+     * Waits until the turn may have moved on, or abandons the connection
+     * if nothing has happened on it for the ticket's timeout.
+     */
+    private void waitForTurn(Ticket t) {
+        try {
+            if (t.timeout <= 0) {
+                wait();
+                return;
+            }
+            long idle = System.currentTimeMillis() - lastActivity;
+            if (idle < t.timeout) {
+                wait(t.timeout - idle);
+                return;
+            }
+            abandoned = true;
+            broken = true;
+            notifyAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            broken = true;
+        }
+    }
+
+    private IOException closedException() {
+        return new IOException(abandoned
+            ? "timed out waiting for an earlier request on a pooled connection"
+            : "pooled connection closed");
+    }
+
+    void markBroken() {
+        synchronized (this) {
+            broken = true;
+            notifyAll();
+        }
+    }
+
+    void close() {
+        markBroken();
+        try {
+            socket.close();
+        } catch (IOException ignore) { }
+    }
+
+    // -- socket streams --
+
+    private final class ActivityInputStream extends FilterInputStream {
+        ActivityInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            lastActivity = System.currentTimeMillis();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            lastActivity = System.currentTimeMillis();
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            lastActivity = System.currentTimeMillis();
+            return skipped;
+        }
+    }
+
+    private final class ActivityOutputStream extends FilterOutputStream {
+        ActivityOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            lastActivity = System.currentTimeMillis();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,1004 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.CookieHandler;
+import java.net.HttpRetryException;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import sun.security.action.GetIntegerAction;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * An {@link HttpURLConnection} that sends its request on a connection
+ * leased from an {@link HttpConnectionPool}. Requests without a body are
+ * sent by {@link #connect}; requests with one are sent when the body
+ * stream is closed in a streaming mode, or otherwise by {@link
+ * #getInputStream}. The leased connection is returned to the pool when
+ * the response body has been read to the end or closed.
+ */
+final class PooledHttpURLConnection extends HttpURLConnection {
+
+    private static final int MAX_REDIRECTS = AccessController.doPrivileged(
+        new GetIntegerAction("http.maxRedirects", 20));
+
+    private static final String USER_AGENT = "Java/" +
+        AccessController.doPrivileged(new GetPropertyAction("java.version"));
+
+    private static final String ACCEPT =
+        "text/html, image/gif, image/jpeg, *; q=.2, */*; q=.2";
+
+    /*
+     * Unread response bytes that are discarded, when a response body is
+     * closed early, to keep the connection in the pool.
+     */
+    private static final int MAX_DRAIN = 8192;
+
+    private final HttpConnectionPool pool;
+
+    private Map<String,List<String>> requestProperties;
+    private PooledConnection.Ticket ticket;
+    private boolean requestSent;
+    private boolean retried;
+    // true if the last failure of the leased connection happened before the
+    // server can have read the whole request: a write of the request failed,
+    // or the connection was closed before any byte of the response arrived
+    private boolean unsent;
+    private int redirects;
+
+    private ByteArrayOutputStream poster;
+    private RequestBody streamingOut;
+
+    private final List<String> headerKeys = new ArrayList<>();
+    private final List<String> headerValues = new ArrayList<>();
+    private boolean keepAlive;
+    private InputStream inputStream;
+    private InputStream errorStream;
+    private IOException rememberedException;
+
+    PooledHttpURLConnection(URL u, HttpConnectionPool pool) {
+        super(u);
+        this.pool = pool;
+    }
+
+    private static boolean isIdempotent(String method) {
+        return method.equals("GET") || method.equals("HEAD")
+            || method.equals("OPTIONS") || method.equals("TRACE");
+    }
+
+    private String host() {
+        String host = url.getHost();
+        if (host.startsWith("[") && host.endsWith("]"))
+            host = host.substring(1, host.length() - 1);
+        return host;
+    }
+
+    private int port() {
+        int port = url.getPort();
+        return (port == -1) ? 80 : port;
+    }
+
+    private boolean streaming() {
+        return fixedContentLengthLong != -1 || fixedContentLength != -1
+            || chunkLength > 0;
+    }
+
+    private void lease(boolean fresh) throws IOException {
+        boolean pipelinable = !doOutput && isIdempotent(method);
+        ticket = pool.acquire(host(), port(), pipelinable, fresh,
+                              getConnectTimeout(), getReadTimeout());
+    }
+
+    /*
+     * Ends this connection's use of its pooled connection.
+     */
+    private void release(boolean reusable) {
+        if (ticket != null) {
+            PooledConnection c = ticket.connection;
+            ticket = null;
+            if (!reusable)
+                c.markBroken();
+            pool.release(c, reusable);
+        }
+    }
+
+    /*
+     * Tells whether a request that failed with the given exception on a
+     * reused connection may be sent again on a new one. A request with a
+     * method that is not idempotent is only sent again if the server cannot
+     * have received it, and no request is sent again after a timeout, as
+     * the server may still be processing it.
+     */
+    private boolean canRetry(IOException x) {
+        if (retried || ticket == null || !ticket.reused || streamingOut != null
+                || x instanceof SocketTimeoutException)
+            return false;
+        if (isIdempotent(method) && !doOutput)
+            return true;
+        return unsent && (!doOutput || poster != null);
+    }
+
+    // -- URLConnection --
+
+    @Override
+    public void connect() throws IOException {
+        if (connected)
+            return;
+        requestProperties = getRequestProperties();
+        lease(false);
+        connected = true;
+        if (!doOutput) {
+            try {
+                sendRequest(-1, null);
+            } catch (IOException x) {
+                if (!canRetry(x)) {
+                    release(false);
+                    throw x;
+                }
+                // retried by getInputStream
+            }
+        }
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (!doOutput)
+            throw new ProtocolException("cannot write to a URLConnection"
+                + " if doOutput=false - call setDoOutput(true)");
+        if (method.equals("GET"))
+            method = "POST";
+        if (inputStream != null || rememberedException != null)
+            throw new ProtocolException("Cannot write output after reading input.");
+        if (streamingOut != null)
+            return streamingOut;
+        if (poster != null)
+            return poster;
+        connect();
+        if (streaming()) {
+            long len = (fixedContentLengthLong != -1)
+                ? fixedContentLengthLong : fixedContentLength;
+            sendHead(len != -1 ? len : -2);
+            streamingOut = (len != -1) ? new FixedLengthOutput(len)
+                                       : new ChunkedOutput(chunkLength);
+            return streamingOut;
+        }
+        poster = new ByteArrayOutputStream();
+        return poster;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (!doInput)
+            throw new ProtocolException("Cannot read from URLConnection"
+                + " if doInput=false (call setDoInput(true))");
+        if (rememberedException != null)
+            throw rememberedException;
+        if (inputStream != null)
+            return inputStream;
+        try {
+            connect();
+            for (;;) {
+                if (streamingOut != null && !streamingOut.closed)
+                    streamingOut.close();
+                exchange();
+                if (!redirect())
+                    break;
+            }
+            if (responseCode >= 400) {
+                errorStream = inputStream;
+                inputStream = null;
+                if (responseCode == 404 || responseCode == 410)
+                    throw new FileNotFoundException(url.toString());
+                throw new IOException("Server returned HTTP response code: "
+                                      + responseCode + " for URL: " + url);
+            }
+            return inputStream;
+        } catch (IOException x) {
+            rememberedException = x;
+            throw x;
+        }
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return errorStream;
+    }
+
+    @Override
+    public void disconnect() {
+        release(false);
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    // -- response headers --
+
+    private void ensureResponse() {
+        if (headerKeys.isEmpty()) {
+            try {
+                getInputStream();
+            } catch (IOException ignore) { }
+        }
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        ensureResponse();
+        for (int i = headerKeys.size(); --i > 0; ) {
+            if (headerKeys.get(i).equalsIgnoreCase(name))
+                return headerValues.get(i);
+        }
+        return null;
+    }
+
+    @Override
+    public String getHeaderField(int n) {
+        ensureResponse();
+        return (n >= 0 && n < headerValues.size()) ? headerValues.get(n) : null;
+    }
+
+    @Override
+    public String getHeaderFieldKey(int n) {
+        ensureResponse();
+        return (n > 0 && n < headerKeys.size()) ? headerKeys.get(n) : null;
+    }
+
+    @Override
+    public Map<String,List<String>> getHeaderFields() {
+        ensureResponse();
+        Map<String,List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < headerKeys.size(); i++) {
+            String key = (i == 0) ? null : headerKeys.get(i);
+            List<String> values = map.get(key);
+            if (values == null) {
+                values = new ArrayList<>(1);
+                map.put(key, values);
+            }
+            values.add(headerValues.get(i));
+        }
+        for (Map.Entry<String,List<String>> e : map.entrySet())
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        return Collections.unmodifiableMap(map);
+    }
+
+    private String responseHeader(String name) {
+        for (int i = headerKeys.size(); --i > 0; ) {
+            if (headerKeys.get(i).equalsIgnoreCase(name))
+                return headerValues.get(i);
+        }
+        return null;
+    }
+
+    // -- request --
+
+    /*
+     * Writes the request head, and the body if it is given. contentLength
+     * is -1 for no body and -2 for a chunked body.
+     */
+    private void sendRequest(long contentLength, byte[] body) throws IOException {
+        sendHead(contentLength);
+        PooledConnection c = ticket.connection;
+        try {
+            if (body != null)
+                c.out().write(body);
+            c.out().flush();
+        } catch (IOException x) {
+            unsent = true;
+            c.markBroken();
+            throw x;
+        }
+        requestSent();
+    }
+
+    private void sendHead(long contentLength) throws IOException {
+        PooledConnection c = ticket.connection;
+        c.awaitWriteTurn(ticket);
+        byte[] head = requestHead(contentLength).getBytes(StandardCharsets.ISO_8859_1);
+        try {
+            c.out().write(head);
+        } catch (IOException x) {
+            unsent = true;
+            c.markBroken();
+            throw x;
+        }
+    }
+
+    private void requestSent() {
+        requestSent = true;
+        ticket.connection.writeDone();
+    }
+
+    private String requestHead(long contentLength) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        String file = url.getFile();
+        sb.append(method).append(' ').append(file.isEmpty() ? "/" : file)
+          .append(" HTTP/1.1\r\n");
+
+        Map<String,List<String>> props = requestProperties;
+        if (!hasProperty(props, "Host")) {
+            int port = url.getPort();
+            sb.append("Host: ").append(url.getHost());
+            if (port != -1 && port != 80)
+                sb.append(':').append(port);
+            sb.append("\r\n");
+        }
+        if (!hasProperty(props, "User-Agent"))
+            sb.append("User-Agent: ").append(USER_AGENT).append("\r\n");
+        if (!hasProperty(props, "Accept"))
+            sb.append("Accept: ").append(ACCEPT).append("\r\n");
+        sb.append("Connection: keep-alive\r\n");
+        if (contentLength >= 0) {
+            sb.append("Content-Length: ").append(contentLength).append("\r\n");
+        } else if (contentLength == -2) {
+            sb.append("Transfer-Encoding: chunked\r\n");
+        }
+        if (doOutput && method.equals("POST")
+                && !hasProperty(props, "Content-Type"))
+            sb.append("Content-Type: application/x-www-form-urlencoded\r\n");
+        if (ifModifiedSince != 0 && !hasProperty(props, "If-Modified-Since")) {
+            java.text.SimpleDateFormat df = new java.text.SimpleDateFormat(
+                "EEE, dd MMM yyyy HH:mm:ss 'GMT'", java.util.Locale.US);
+            df.setTimeZone(java.util.TimeZone.getTimeZone("GMT"));
+            sb.append("If-Modified-Since: ")
+              .append(df.format(new java.util.Date(ifModifiedSince)))
+              .append("\r\n");
+        }
+
+        for (Map.Entry<String,List<String>> e : props.entrySet()) {
+            String key = e.getKey();
+            if (key == null || key.equalsIgnoreCase("Connection")
+                    || key.equalsIgnoreCase("Content-Length")
+                    || key.equalsIgnoreCase("Transfer-Encoding"))
+                continue;
+            for (String v : e.getValue())
+                sb.append(key).append(": ").append(v).append("\r\n");
+        }
+
+        CookieHandler cookieHandler = CookieHandler.getDefault();
+        if (cookieHandler != null) {
+            Map<String,List<String>> cookies = cookieHandler.get(uri(), props);
+            for (Map.Entry<String,List<String>> e : cookies.entrySet()) {
+                String key = e.getKey();
+                if (!"Cookie".equalsIgnoreCase(key)
+                        && !"Cookie2".equalsIgnoreCase(key))
+                    continue;
+                List<String> values = e.getValue();
+                if (values != null && !values.isEmpty())
+                    sb.append(key).append(": ")
+                      .append(String.join("; ", values)).append("\r\n");
+            }
+        }
+        return sb.append("\r\n").toString();
+    }
+
+    private static boolean hasProperty(Map<String,List<String>> props,
+                                       String name) {
+        for (String key : props.keySet()) {
+            if (name.equalsIgnoreCase(key))
+                return true;
+        }
+        return false;
+    }
+
+    private URI uri() throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException x) {
+            throw new IOException(x);
+        }
+    }
+
+    // -- response --
+
+    /*
+     * Completes the request if needed and reads the response head,
+     * retrying once on a new connection if a reused connection fails.
+     */
+    private void exchange() throws IOException {
+        for (;;) {
+            try {
+                if (ticket == null)
+                    lease(true);
+                if (!requestSent) {
+                    byte[] body = (poster != null) ? poster.toByteArray() : null;
+                    sendRequest(body != null ? body.length : -1, body);
+                }
+                readResponseHead();
+                break;
+            } catch (IOException x) {
+                boolean retry = canRetry(x);
+                release(false);
+                if (!retry)
+                    throw x;
+                retried = true;
+                unsent = false;
+                requestSent = false;
+            }
+        }
+        setupResponseBody();
+    }
+
+    private void readResponseHead() throws IOException {
+        PooledConnection c = ticket.connection;
+        c.awaitReadTurn(ticket);
+        InputStream in = c.in();
+        boolean received = false;
+        try {
+            for (;;) {
+                headerKeys.clear();
+                headerValues.clear();
+                String status;
+                do {
+                    status = readLine(in);
+                    if (status == null) {
+                        // a stale connection the server had already closed
+                        unsent = !received;
+                        throw new EOFException("Unexpected end of file from server");
+                    }
+                    received = true;
+                } while (status.isEmpty());
+                headerKeys.add(null);
+                headerValues.add(status);
+                String line;
+                while ((line = readLine(in)) != null && !line.isEmpty()) {
+                    int colon = line.indexOf(':');
+                    if (colon <= 0)
+                        continue;
+                    headerKeys.add(line.substring(0, colon).trim());
+                    headerValues.add(line.substring(colon + 1).trim());
+                }
+                parseStatus(status);
+                if (responseCode < 100 || responseCode >= 200
+                        || responseCode == 101)
+                    break;
+                // skip interim responses
+            }
+        } catch (IOException x) {
+            headerKeys.clear();
+            headerValues.clear();
+            c.markBroken();
+            throw x;
+        }
+        if (responseCode == -1) {
+            c.markBroken();
+            throw new ProtocolException("Invalid Http response");
+        }
+    }
+
+    private void parseStatus(String status) {
+        responseCode = -1;
+        responseMessage = null;
+        if (!status.startsWith("HTTP/1."))
+            return;
+        int codePos = status.indexOf(' ');
+        if (codePos < 0)
+            return;
+        int phrasePos = status.indexOf(' ', codePos + 1);
+        if (phrasePos > 0)
+            responseMessage = status.substring(phrasePos + 1);
+        else
+            phrasePos = status.length();
+        try {
+            responseCode = Integer.parseInt(status.substring(codePos + 1, phrasePos));
+        } catch (NumberFormatException ignore) { }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n')
+                return sb.toString();
+            if (c != '\r')
+                sb.append((char)c);
+        }
+        return (sb.length() == 0) ? null : sb.toString();
+    }
+
+    private void setupResponseBody() throws IOException {
+        String status = headerValues.get(0);
+        String conn = responseHeader("Connection");
+        if (status.startsWith("HTTP/1.1")) {
+            keepAlive = conn == null || !hasToken(conn, "close");
+        } else {
+            keepAlive = conn != null && hasToken(conn, "keep-alive");
+        }
+        ticket.connection.setPersistent(keepAlive && status.startsWith("HTTP/1.1"));
+
+        CookieHandler cookieHandler = CookieHandler.getDefault();
+        if (cookieHandler != null)
+            cookieHandler.put(uri(), getHeaderFields());
+
+        String te = responseHeader("Transfer-Encoding");
+        String cl = responseHeader("Content-Length");
+        ResponseBody body;
+        if (method.equals("HEAD") || responseCode == 204 || responseCode == 304
+                || responseCode < 200) {
+            body = new FixedLengthBody(0);
+        } else if (te != null && hasToken(te, "chunked")) {
+            body = new ChunkedBody();
+        } else if (cl != null) {
+            long len;
+            try {
+                len = Long.parseLong(cl.trim());
+            } catch (NumberFormatException x) {
+                len = -1;
+            }
+            body = (len >= 0) ? new FixedLengthBody(len) : new UntilCloseBody();
+        } else {
+            body = new UntilCloseBody();
+        }
+        inputStream = body;
+        body.checkEnd();
+    }
+
+    private static boolean hasToken(String value, String token) {
+        for (String s : value.split(",")) {
+            if (s.trim().equalsIgnoreCase(token))
+                return true;
+        }
+        return false;
+    }
+
+    /*
+     * Prepares the request to the location of a redirect response, and
+     * returns true, if the response is one that is followed.
+     */
+    private boolean redirect() throws IOException {
+        int code = responseCode;
+        if (!instanceFollowRedirects
+                || (code != 301 && code != 302 && code != 303
+                    && code != 307 && code != 308))
+            return false;
+        String loc = responseHeader("Location");
+        if (loc == null)
+            return false;
+        URL target = new URL(url, loc);
+        if (!target.getProtocol().equalsIgnoreCase("http"))
+            return false;
+        if (++redirects > MAX_REDIRECTS)
+            throw new ProtocolException("Server redirected too many  times ("
+                                        + redirects + ")");
+        if (streamingOut != null)
+            throw new HttpRetryException(
+                "cannot retry due to redirection, in streaming mode",
+                code, loc);
+
+        inputStream.close();
+        inputStream = null;
+        if (code == 303 || ((code == 301 || code == 302)
+                            && method.equals("POST"))) {
+            method = "GET";
+            poster = null;
+            doOutput = false;
+        }
+        url = target;
+        responseCode = -1;
+        responseMessage = null;
+        headerKeys.clear();
+        headerValues.clear();
+        requestSent = false;
+        retried = false;
+        unsent = false;
+        lease(false);
+        return true;
+    }
+
+    // -- request body streams --
+
+    private abstract class RequestBody extends OutputStream {
+        final PooledConnection c = ticket.connection;
+        boolean closed;
+
+        void ensureOpen() throws IOException {
+            if (closed)
+                throw new IOException("Stream is closed");
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte)b }, 0, 1);
+        }
+
+        void fail() {
+            closed = true;
+            release(false);
+        }
+    }
+
+    private final class FixedLengthOutput extends RequestBody {
+        private long remaining;
+
+        FixedLengthOutput(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len > remaining) {
+                fail();
+                throw new IOException("too many bytes written");
+            }
+            try {
+                c.out().write(b, off, len);
+            } catch (IOException x) {
+                fail();
+                throw x;
+            }
+            remaining -= len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            c.out().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            if (remaining > 0) {
+                fail();
+                throw new IOException("insufficient data written");
+            }
+            closed = true;
+            try {
+                c.out().flush();
+            } catch (IOException x) {
+                fail();
+                throw x;
+            }
+            requestSent();
+        }
+    }
+
+    private final class ChunkedOutput extends RequestBody {
+        private final byte[] buf;
+        private int count;
+
+        ChunkedOutput(int chunkLength) {
+            buf = new byte[chunkLength];
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            while (len > 0) {
+                int n = Math.min(len, buf.length - count);
+                System.arraycopy(b, off, buf, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == buf.length)
+                    writeChunk();
+            }
+        }
+
+        private void writeChunk() throws IOException {
+            if (count == 0)
+                return;
+            try {
+                OutputStream out = c.out();
+                out.write((Integer.toHexString(count) + "\r\n")
+                          .getBytes(StandardCharsets.ISO_8859_1));
+                out.write(buf, 0, count);
+                out.write('\r');
+                out.write('\n');
+            } catch (IOException x) {
+                fail();
+                throw x;
+            }
+            count = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            writeChunk();
+            c.out().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            writeChunk();
+            closed = true;
+            try {
+                c.out().write("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                c.out().flush();
+            } catch (IOException x) {
+                fail();
+                throw x;
+            }
+            requestSent();
+        }
+    }
+
+    // -- response body streams --
+
+    private abstract class ResponseBody extends InputStream {
+        final PooledConnection.Ticket t = ticket;
+        final InputStream in = t.connection.in();
+        boolean done;
+        boolean closed;
+
+        /*
+         * Returns the connection to the pool once the body has been
+         * consumed, or closes it if the body was not consumed.
+         */
+        void done(boolean consumed) {
+            if (done)
+                return;
+            done = true;
+            boolean reusable = consumed && keepAlive;
+            t.connection.readDone(reusable);
+            if (ticket == t) {
+                release(reusable);
+            } else {
+                pool.release(t.connection, reusable);
+            }
+        }
+
+        /* Called once the body is set up, to end an empty body. */
+        abstract void checkEnd() throws IOException;
+
+        void ensureOpen() throws IOException {
+            if (closed)
+                throw new IOException("stream is closed");
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return (n < 0) ? -1 : b[0] & 0xff;
+        }
+
+        /* Reads from the connection, giving it up on any error. */
+        int readRaw(byte[] b, int off, int len) throws IOException {
+            try {
+                return in.read(b, off, len);
+            } catch (IOException x) {
+                done(false);
+                throw x;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+            if (!done) {
+                try {
+                    drain();
+                } catch (IOException x) {
+                    done(false);
+                }
+            }
+        }
+
+        /* Discards a short remainder of the body, else gives up the connection. */
+        abstract void drain() throws IOException;
+    }
+
+    private final class FixedLengthBody extends ResponseBody {
+        private long remaining;
+
+        FixedLengthBody(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        void checkEnd() {
+            if (remaining == 0)
+                done(true);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len == 0)
+                return 0;
+            if (remaining == 0)
+                return -1;
+            int n = readRaw(b, off, (int)Math.min(len, remaining));
+            if (n < 0) {
+                done(false);
+                throw new EOFException("Premature EOF");
+            }
+            remaining -= n;
+            if (remaining == 0)
+                done(true);
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return (int)Math.min(remaining, in.available());
+        }
+
+        @Override
+        void drain() throws IOException {
+            if (remaining > MAX_DRAIN) {
+                done(false);
+                return;
+            }
+            byte[] skip = new byte[(int)remaining];
+            while (remaining > 0) {
+                int n = in.read(skip, 0, (int)remaining);
+                if (n < 0) {
+                    done(false);
+                    return;
+                }
+                remaining -= n;
+            }
+            done(true);
+        }
+    }
+
+    private final class ChunkedBody extends ResponseBody {
+        private long remaining;   // in the current chunk
+        private boolean needCRLF;
+        private boolean eof;
+
+        @Override
+        void checkEnd() { }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (len == 0)
+                return 0;
+            if (remaining == 0 && !nextChunk())
+                return -1;
+            int n = readRaw(b, off, (int)Math.min(len, remaining));
+            if (n < 0) {
+                done(false);
+                throw new EOFException("Premature EOF");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return eof ? 0 : (int)Math.min(remaining, in.available());
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (eof)
+                return false;
+            try {
+                if (needCRLF && !chunkLine().isEmpty())
+                    throw new IOException("Invalid chunk trailer");
+                String line = chunkLine();
+                int semi = line.indexOf(';');
+                if (semi >= 0)
+                    line = line.substring(0, semi);
+                long size = Long.parseLong(line.trim(), 16);
+                if (size < 0)
+                    throw new IOException("Invalid chunk header");
+                if (size == 0) {
+                    while (!chunkLine().isEmpty())
+                        ;
+                    eof = true;
+                    done(true);
+                    return false;
+                }
+                remaining = size;
+                needCRLF = true;
+                return true;
+            } catch (NumberFormatException x) {
+                done(false);
+                throw new IOException("Invalid chunk header");
+            } catch (IOException x) {
+                done(false);
+                throw x;
+            }
+        }
+
+        private String chunkLine() throws IOException {
+            String line = readLine(in);
+            if (line == null)
+                throw new EOFException("Premature EOF");
+            return line;
+        }
+
+        @Override
+        void drain() throws IOException {
+            byte[] skip = new byte[MAX_DRAIN];
+            int drained = 0;
+            while (remaining > 0 || nextChunk()) {
+                if (drained > MAX_DRAIN) {
+                    done(false);
+                    return;
+                }
+                int n = in.read(skip, 0, (int)Math.min(skip.length, remaining));
+                if (n < 0) {
+                    done(false);
+                    return;
+                }
+                remaining -= n;
+                drained += n;
+            }
+        }
+    }
+
+    private final class UntilCloseBody extends ResponseBody {
+        @Override
+        void checkEnd() {
+            keepAlive = false;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            if (done)
+                return -1;
+            int n = readRaw(b, off, len);
+            if (n < 0)
+                done(false);
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return done ? 0 : in.available();
+        }
+
+        @Override
+        void drain() {
+            done(false);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.security.util;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded, thread-safe stack of idle objects, used by the pools of
+ * engine objects in {@code java.security} and {@code javax.crypto}.
+ * Objects are taken most recently released first, so that a lightly used
+ * pool keeps handing out the same, cache-warm objects.
+ */
+public final class IdlePool<T> {
+
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param maxIdle the maximum number of idle objects kept by the pool
+     *
+     * @exception IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public IdlePool(int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("maxIdle must not be negative");
+        }
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes an idle object from this pool.
+     *
+     * @return the most recently released idle object, or null if none is
+     * idle
+     */
+    public T poll() {
+        T obj = idle.pollFirst();
+        if (obj != null) {
+            idleCount.decrementAndGet();
+        }
+        return obj;
+    }
+
+    /**
+     * Adds an idle object to this pool, unless the pool already holds
+     * {@code maxIdle} idle objects.
+     *
+     * @param obj the idle object
+     *
+     * @return true if the object was added, false if it is left to the
+     * garbage collector
+     */
+    public boolean offer(T obj) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(obj);
+            return true;
+        }
+        idleCount.decrementAndGet();
+        return false;
+    }
+}